@@ -0,0 +1,116 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the endpoint metrics add to a request: the metrics filter and in-flight interceptor around a handler that
+ * writes a 2KB body, against the handler alone. The meters are configured with the same percentiles and SLO buckets
+ * as application.properties, which make up most of the cost of recording.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ApiMetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private ApiMetricsFilter apiMetricsFilter;
+
+    private ApiInFlightInterceptor apiInFlightInterceptor;
+
+    private HandlerMethod handlerMethod;
+
+    private FilterChain handler;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchMethodException {
+
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(final Meter.Id id, final DistributionStatisticConfig config) {
+                if (ApiEndpointMetrics.LATENCY.equals(id.getName())) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.95, 0.99)
+                            .serviceLevelObjectives(Duration.ofMillis(10).toNanos(), Duration.ofMillis(25).toNanos(),
+                                    Duration.ofMillis(50).toNanos(), Duration.ofMillis(100).toNanos(),
+                                    Duration.ofMillis(250).toNanos(), Duration.ofMillis(500).toNanos(),
+                                    Duration.ofSeconds(1).toNanos())
+                            .build()
+                            .merge(config);
+                }
+                if (id.getName().endsWith(".size")) {
+                    return DistributionStatisticConfig.builder()
+                            .serviceLevelObjectives(1024, 16384, 131072, 1048576, 16777216)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        });
+        final ApiEndpointMetrics apiEndpointMetrics = new ApiEndpointMetrics(meterRegistry);
+        apiMetricsFilter = new ApiMetricsFilter(apiEndpointMetrics);
+        apiInFlightInterceptor = new ApiInFlightInterceptor(apiEndpointMetrics);
+        handlerMethod = new HandlerMethod(this, ApiMetricsOverheadBenchmark.class.getMethod("retrieveAllRecipes"));
+
+        final byte[] responseBody = new byte[2048];
+        handler = (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+            response.getOutputStream().write(responseBody);
+        };
+    }
+
+    /**
+     * Endpoint the benchmark requests are dispatched to.
+     */
+    public void retrieveAllRecipes() {
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws ServletException, IOException {
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/retrieveAllRecipes");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        if (instrumented) {
+            apiMetricsFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+                apiInFlightInterceptor.preHandle(request, response, handlerMethod);
+                handler.doFilter(filteredRequest, filteredResponse);
+                apiInFlightInterceptor.afterCompletion(request, response, handlerMethod, null);
+            });
+        } else {
+            handler.doFilter(request, response);
+        }
+        return response;
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to encode and decode generated recipe catalogs as JSON, CBOR and Smile, as the recipe API does.
+ * JMH has no measure of payload size, so the size of each encoding is printed with its results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RecipeEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String encoding;
+
+    @Param({"100", "10000"})
+    private int recipeCount;
+
+    private List<RecipeModel> recipes;
+
+    private ObjectWriter recipeListWriter;
+
+    private ObjectReader recipeListReader;
+
+    private byte[] encodedRecipes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        //The object mappers are configured with the same recipe fields filter and recipe serialization as the API's converters.
+        final Jackson2ObjectMapperBuilder objectMapperBuilder;
+        if ("cbor".equals(encoding)) {
+            objectMapperBuilder = Jackson2ObjectMapperBuilder.cbor();
+        } else if ("smile".equals(encoding)) {
+            objectMapperBuilder = Jackson2ObjectMapperBuilder.smile();
+        } else {
+            objectMapperBuilder = Jackson2ObjectMapperBuilder.json();
+        }
+        final ObjectMapper objectMapper = objectMapperBuilder
+                .filters(RecipeFieldsConfiguration.filtersFor(RecipeField.ALL))
+                .modulesToInstall(new RecipeModelModule())
+                .build();
+        final TypeReference<List<RecipeModel>> recipeListType = new TypeReference<List<RecipeModel>>() {
+        };
+        recipeListWriter = objectMapper.writerFor(recipeListType);
+        recipeListReader = objectMapper.readerFor(recipeListType);
+
+        recipes = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            final RecipeModel recipeModel = RecipeModelDataFactory.generateRandomRecipeModel(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+            recipeModel.setKey(UUID.randomUUID().toString());
+            recipes.add(recipeModel);
+        }
+        encodedRecipes = recipeListWriter.writeValueAsBytes(recipes);
+        System.out.printf("%n%s payload of %d recipes: %d bytes%n", encoding, recipeCount, encodedRecipes.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return recipeListWriter.writeValueAsBytes(recipes);
+    }
+
+    @Benchmark
+    public List<RecipeModel> decode() throws IOException {
+        return recipeListReader.readValue(encodedRecipes);
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write and read generated recipe catalogs as JSON with Jackson's bean serializer and deserializer for
+ * RecipeModel, against the hand-written ones in RecipeModelModule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RecipeModelSerializationBenchmark {
+
+    @Param({"bean", "handWritten"})
+    private String serialization;
+
+    @Param({"100", "10000"})
+    private int recipeCount;
+
+    //Selected fields of the recipes, as the fields parameter of the recipe list.
+    @Param({"", "key,name"})
+    private String fields;
+
+    private List<RecipeModel> recipes;
+
+    private ObjectWriter recipeListWriter;
+
+    private ObjectReader recipeListReader;
+
+    private byte[] encodedRecipes;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+
+        final Jackson2ObjectMapperBuilder objectMapperBuilder = Jackson2ObjectMapperBuilder.json()
+                .filters(RecipeFieldsConfiguration.filtersFor(RecipeField.ALL));
+        if ("handWritten".equals(serialization)) {
+            objectMapperBuilder.modulesToInstall(new RecipeModelModule());
+        }
+        final ObjectMapper objectMapper = objectMapperBuilder.build();
+        final TypeReference<List<RecipeModel>> recipeListType = new TypeReference<List<RecipeModel>>() {
+        };
+        recipeListWriter = objectMapper.writer(RecipeFieldsConfiguration.filtersFor(RecipeField.parse(fields)))
+                .forType(recipeListType);
+        recipeListReader = objectMapper.readerFor(recipeListType);
+
+        recipes = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            final RecipeModel recipeModel = RecipeModelDataFactory.generateRandomRecipeModel(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+            recipeModel.setKey(UUID.randomUUID().toString());
+            recipes.add(recipeModel);
+        }
+        encodedRecipes = recipeListWriter.writeValueAsBytes(recipes);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return recipeListWriter.writeValueAsBytes(recipes);
+    }
+
+    @Benchmark
+    public List<RecipeModel> deserialize() throws IOException {
+        return recipeListReader.readValue(encodedRecipes);
+    }
+
+}
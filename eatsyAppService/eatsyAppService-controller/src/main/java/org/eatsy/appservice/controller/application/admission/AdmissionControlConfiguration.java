@@ -0,0 +1,91 @@
+package org.eatsy.appservice.controller.application.admission;
+
+import org.eatsy.appservice.controller.application.constants.EatsyRecipeEndpoints;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admission control configuration for the recipe API.
+ * Creates the read, write, import and change feed concurrency budgets, the filter that enforces them and the actuator endpoint that reports them.
+ */
+@Configuration
+public class AdmissionControlConfiguration {
+
+    @Bean
+    public GradientConcurrencyLimiter readConcurrencyLimiter(
+            @Value("${eatsy.admission.read.initial-limit:64}") final int initialLimit,
+            @Value("${eatsy.admission.read.min-limit:8}") final int minLimit,
+            @Value("${eatsy.admission.read.max-limit:512}") final int maxLimit) {
+        return new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    }
+
+    @Bean
+    public GradientConcurrencyLimiter writeConcurrencyLimiter(
+            @Value("${eatsy.admission.write.initial-limit:16}") final int initialLimit,
+            @Value("${eatsy.admission.write.min-limit:2}") final int minLimit,
+            @Value("${eatsy.admission.write.max-limit:128}") final int maxLimit) {
+        return new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Imports hold their permit for as long as their stream is open and keep the database busy throughout,
+     * so their budget is a small fixed cap rather than adapted from latency.
+     */
+    @Bean
+    public GradientConcurrencyLimiter importConcurrencyLimiter(
+            @Value("${eatsy.admission.import.limit:16}") final int limit) {
+        return new GradientConcurrencyLimiter(limit, limit, limit);
+    }
+
+    /**
+     * Change feed clients hold their permit for as long as they are connected, mostly idle and without a request thread,
+     * so their budget is a large fixed cap on open connections.
+     */
+    @Bean
+    public GradientConcurrencyLimiter changeFeedConcurrencyLimiter(
+            @Value("${eatsy.admission.change-feed.limit:10000}") final int limit) {
+        return new GradientConcurrencyLimiter(limit, limit, limit);
+    }
+
+    /**
+     * Registers the admission control filter for the recipe API paths only, ahead of the other filters apart from tracing
+     * so that shed requests cost as little as possible.
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Qualifier("readConcurrencyLimiter") final GradientConcurrencyLimiter readConcurrencyLimiter,
+            @Qualifier("writeConcurrencyLimiter") final GradientConcurrencyLimiter writeConcurrencyLimiter,
+            @Qualifier("importConcurrencyLimiter") final GradientConcurrencyLimiter importConcurrencyLimiter,
+            @Qualifier("changeFeedConcurrencyLimiter") final GradientConcurrencyLimiter changeFeedConcurrencyLimiter,
+            @Value("${eatsy.admission.retry-after-seconds:1}") final int retryAfterSeconds,
+            @Value("${eatsy.admission.enabled:true}") final boolean admissionControlEnabled) {
+
+        final Map<String, GradientConcurrencyLimiter> streamingLimiters = new HashMap<>();
+        streamingLimiters.put(EatsyRecipeEndpoints.API + EatsyRecipeEndpoints.IMPORT_RECIPES, importConcurrencyLimiter);
+        streamingLimiters.put(EatsyRecipeEndpoints.API + EatsyRecipeEndpoints.RECIPE_CHANGES, changeFeedConcurrencyLimiter);
+        final FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(readConcurrencyLimiter, writeConcurrencyLimiter, streamingLimiters, retryAfterSeconds));
+        registration.addUrlPatterns(EatsyRecipeEndpoints.API + "/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setEnabled(admissionControlEnabled);
+        return registration;
+    }
+
+    @Bean
+    public AdmissionControlEndpoint admissionControlEndpoint(
+            @Qualifier("readConcurrencyLimiter") final GradientConcurrencyLimiter readConcurrencyLimiter,
+            @Qualifier("writeConcurrencyLimiter") final GradientConcurrencyLimiter writeConcurrencyLimiter,
+            @Qualifier("importConcurrencyLimiter") final GradientConcurrencyLimiter importConcurrencyLimiter,
+            @Qualifier("changeFeedConcurrencyLimiter") final GradientConcurrencyLimiter changeFeedConcurrencyLimiter) {
+        return new AdmissionControlEndpoint(readConcurrencyLimiter, writeConcurrencyLimiter,
+                importConcurrencyLimiter, changeFeedConcurrencyLimiter);
+    }
+
+}
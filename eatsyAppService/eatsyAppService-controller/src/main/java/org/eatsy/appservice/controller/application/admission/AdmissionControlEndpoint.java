@@ -0,0 +1,41 @@
+package org.eatsy.appservice.controller.application.admission;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/admission) exposing the state of the read, write, import and change feed concurrency limiters.
+ */
+@Endpoint(id = "admission")
+public class AdmissionControlEndpoint {
+
+    private final GradientConcurrencyLimiter readLimiter;
+    private final GradientConcurrencyLimiter writeLimiter;
+    private final GradientConcurrencyLimiter importLimiter;
+    private final GradientConcurrencyLimiter changeFeedLimiter;
+
+    public AdmissionControlEndpoint(final GradientConcurrencyLimiter readLimiter, final GradientConcurrencyLimiter writeLimiter,
+                                    final GradientConcurrencyLimiter importLimiter, final GradientConcurrencyLimiter changeFeedLimiter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.importLimiter = importLimiter;
+        this.changeFeedLimiter = changeFeedLimiter;
+    }
+
+    /**
+     * @return the current limit, requests in flight, latency estimates and accepted/rejected counts of each budget.
+     */
+    @ReadOperation
+    public Map<String, Object> admission() {
+        final Map<String, Object> admissionState = new LinkedHashMap<>();
+        admissionState.put("read", readLimiter.getState());
+        admissionState.put("write", writeLimiter.getState());
+        admissionState.put("import", importLimiter.getState());
+        admissionState.put("change-feed", changeFeedLimiter.getState());
+        return admissionState;
+    }
+
+}
@@ -0,0 +1,162 @@
+package org.eatsy.appservice.controller.application.admission;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of the recipe API.
+ * Reads and writes have separate adaptive concurrency budgets, so a burst of one cannot starve the other.
+ * Streaming requests, such as a bulk import or a stream of recipe changes, last as long as their stream rather than
+ * as long as the work takes, so each has a fixed budget of its own and their durations are not latency samples.
+ * A few long imports then cannot lock out change feed clients, which hold a connection each while they are idle.
+ * Requests over budget are shed immediately with a 503 and a Retry-After header,
+ * rather than queueing inside the servlet container until the client times out.
+ * A request that carries on asynchronously holds its permit until its response completes.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(AdmissionControlFilter.class);
+
+    //Concurrency budget for requests that only read recipes.
+    private final GradientConcurrencyLimiter readLimiter;
+
+    //Concurrency budget for requests that create, edit or delete recipes.
+    private final GradientConcurrencyLimiter writeLimiter;
+
+    //Concurrency budget of each streaming request, by its path within the application. Never adapted by latency.
+    private final Map<String, GradientConcurrencyLimiter> streamingLimiters;
+
+    //Value of the Retry-After header sent with shed requests.
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(final GradientConcurrencyLimiter readLimiter, final GradientConcurrencyLimiter writeLimiter,
+                                  final Map<String, GradientConcurrencyLimiter> streamingLimiters, final int retryAfterSeconds) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.streamingLimiters = streamingLimiters;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+
+        final GradientConcurrencyLimiter streamingLimiter = streamingLimiters.get(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        final boolean streaming = null != streamingLimiter;
+        final GradientConcurrencyLimiter limiter = streaming ? streamingLimiter : isReadRequest(request) ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire()) {
+            logger.debug("Shedding request {} {}, concurrency limit reached", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+
+        final long requestStartTime = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                //The response is still being written, e.g. a stream of server-sent events, so the permit is held until it completes.
+                request.getAsyncContext().addListener(new PermitReleasingListener(limiter, !streaming, requestStartTime, response));
+            } else {
+                releasePermit(limiter, completed && !streaming, requestStartTime, response);
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of a request.
+     *
+     * @param limiter          the limiter the permit was acquired from.
+     * @param latencySample    whether the duration of the request may be a latency sample.
+     * @param requestStartTime when the request was admitted, from System.nanoTime().
+     * @param response         the response to the request.
+     */
+    private static void releasePermit(final GradientConcurrencyLimiter limiter, final boolean latencySample,
+                                      final long requestStartTime, final HttpServletResponse response) {
+
+        //Only successful requests are a true latency sample; failures may have returned early or late for other reasons.
+        if (latencySample && response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            limiter.release(System.nanoTime() - requestStartTime);
+        } else {
+            limiter.releaseWithoutSample();
+        }
+    }
+
+    /**
+     * @param request the incoming request.
+     * @return true if the request only reads recipes.
+     */
+    private static boolean isReadRequest(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    /**
+     * Releases the permit of an asynchronous request once, when its response completes, times out or fails.
+     */
+    private static final class PermitReleasingListener implements AsyncListener {
+
+        private final GradientConcurrencyLimiter limiter;
+        private final boolean latencySample;
+        private final long requestStartTime;
+        private final HttpServletResponse response;
+
+        //Set once the permit has been released, as a timed out or failed request also completes.
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingListener(final GradientConcurrencyLimiter limiter, final boolean latencySample,
+                                        final long requestStartTime, final HttpServletResponse response) {
+            this.limiter = limiter;
+            this.latencySample = latencySample;
+            this.requestStartTime = requestStartTime;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            release(latencySample);
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            //The permit is held across any further asynchronous cycle, this listener is not carried over to it.
+        }
+
+        private void release(final boolean sample) {
+            if (released.compareAndSet(false, true)) {
+                releasePermit(limiter, sample, requestStartTime, response);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+package org.eatsy.appservice.controller.application.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive concurrency limiter based on the gradient between the minimum observed latency and the latest latency.
+ * <p>
+ * While latency stays close to the minimum (no queueing), the limit grows by roughly its square root per update.
+ * Once latency rises beyond the tolerated multiple of the minimum, requests are queueing somewhere downstream,
+ * so the limit is scaled down in proportion. The minimum latency is re-measured periodically by briefly dropping the
+ * limit so queues can drain, which stops the baseline drifting upwards under sustained overload.
+ * <p>
+ * Acquiring a permit is lock free. Limit updates are cheap and synchronised.
+ */
+public class GradientConcurrencyLimiter {
+
+    //How far latency may rise above the minimum before the limit is reduced.
+    private static final double RTT_TOLERANCE = 2.0;
+
+    //Weight given to each new limit estimate, smoothing out noisy latency samples.
+    private static final double SMOOTHING = 0.2;
+
+    //Number of latency samples between re-measurements of the minimum latency.
+    private static final int PROBE_INTERVAL_SAMPLES = 1000;
+
+    //Bounds of the concurrency limit.
+    private final int minLimit;
+    private final int maxLimit;
+
+    //Current limit on the number of requests in flight, read without locking on every acquire.
+    private volatile int limit;
+
+    //Number of requests currently holding a permit.
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    //Counters of admitted and rejected requests.
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    //Limit estimation state, guarded by this.
+    private double estimatedLimit;
+    private long minRttNanos;
+    private long lastRttNanos;
+    private int samplesUntilProbe = PROBE_INTERVAL_SAMPLES;
+
+    /**
+     * @param initialLimit the concurrency limit before any latency has been measured.
+     * @param minLimit     the lowest the limit is allowed to go.
+     * @param maxLimit     the highest the limit is allowed to go.
+     */
+    public GradientConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Attempts to admit a request. Never blocks.
+     *
+     * @return true if the request was admitted and must later be released, false if it should be shed.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int currentInFlight = inFlight.get();
+            if (currentInFlight >= limit) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(currentInFlight, currentInFlight + 1)) {
+                acceptedCount.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of a completed request and feeds its latency into the limit estimate.
+     *
+     * @param rttNanos the time the request took to process, in nanoseconds.
+     */
+    public void release(final long rttNanos) {
+        final int inFlightAtCompletion = inFlight.getAndDecrement();
+        updateLimit(rttNanos, inFlightAtCompletion);
+    }
+
+    /**
+     * Releases the permit of a request whose latency is not representative (e.g. it failed),
+     * without affecting the limit estimate.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return the current concurrency limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of requests currently admitted and not yet released.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Snapshot of the limiter state for monitoring.
+     *
+     * @return the limit, requests in flight, latency estimates and accepted/rejected counts.
+     */
+    public synchronized Map<String, Object> getState() {
+        final Map<String, Object> state = new LinkedHashMap<>();
+        state.put("limit", limit);
+        state.put("minLimit", minLimit);
+        state.put("maxLimit", maxLimit);
+        state.put("inFlight", inFlight.get());
+        state.put("minRttMillis", nanosToMillis(minRttNanos));
+        state.put("lastRttMillis", nanosToMillis(lastRttNanos));
+        state.put("accepted", acceptedCount.sum());
+        state.put("rejected", rejectedCount.sum());
+        return state;
+    }
+
+    /**
+     * Updates the limit estimate from a latency sample.
+     *
+     * @param rttNanos             the latency of the completed request.
+     * @param inFlightAtCompletion the number of requests in flight when the request completed (including itself).
+     */
+    private synchronized void updateLimit(final long rttNanos, final int inFlightAtCompletion) {
+
+        if (rttNanos <= 0) {
+            return;
+        }
+        lastRttNanos = rttNanos;
+
+        //Periodically drop the limit so queues drain and the true minimum latency can be re-measured.
+        if (--samplesUntilProbe <= 0) {
+            samplesUntilProbe = PROBE_INTERVAL_SAMPLES;
+            minRttNanos = 0;
+            setEstimatedLimit(Math.max(minLimit, Math.sqrt(estimatedLimit)));
+            return;
+        }
+
+        if (minRttNanos == 0 || rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        //When the service is only lightly used there is no evidence the limit could be higher, so it is left alone.
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * minRttNanos / rttNanos));
+        final double queueSize = Math.sqrt(estimatedLimit);
+        final double newLimit = estimatedLimit * gradient + queueSize;
+        setEstimatedLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private void setEstimatedLimit(final double newEstimatedLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newEstimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    private static double nanosToMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
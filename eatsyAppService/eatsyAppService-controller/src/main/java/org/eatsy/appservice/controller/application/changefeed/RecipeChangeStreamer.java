@@ -0,0 +1,94 @@
+package org.eatsy.appservice.controller.application.changefeed;
+
+import org.eatsy.appservice.service.changefeed.RecipeChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the recipe change feed to clients as server-sent events (SSE).
+ * <p>
+ * Each stream is an asynchronous servlet response, so an idle client holds a connection but no request thread. Events
+ * are queued per client and written by a small shared pool of threads, as are the heartbeats that keep idle
+ * connections open through proxies, so thousands of clients cost a handful of threads between them.
+ * <p>
+ * A client that falls too far behind is disconnected rather than buffered without limit. The browser's EventSource
+ * reconnects with the Last-Event-ID header and resumes from the feed's recent events, or is sent a reset event telling
+ * it to reload the recipes if the events it missed are no longer held.
+ */
+@Component
+public class RecipeChangeStreamer {
+
+    //Interface for subscribing to recipe changes
+    private final RecipeChangeFeed recipeChangeFeedHandler;
+
+    //Writes the queued events and heartbeats of every stream.
+    private final ScheduledExecutorService dispatchExecutor;
+
+    //Stream configuration
+    private final long streamTimeoutMillis;
+    private final long heartbeatSeconds;
+    private final int maxQueuedEvents;
+
+    //Inject the recipeChangeFeed implementation and the stream configuration during instantiation.
+    public RecipeChangeStreamer(final RecipeChangeFeed recipeChangeFeedHandler,
+                                @Value("${eatsy.change-feed.dispatch-threads:4}") final int dispatchThreads,
+                                @Value("${eatsy.change-feed.timeout-ms:1800000}") final long streamTimeoutMillis,
+                                @Value("${eatsy.change-feed.heartbeat-seconds:15}") final long heartbeatSeconds,
+                                @Value("${eatsy.change-feed.max-queued-events:1000}") final int maxQueuedEvents) {
+        if (dispatchThreads < 1 || heartbeatSeconds < 1 || maxQueuedEvents < 1) {
+            throw new IllegalArgumentException("The change feed dispatch threads, heartbeat and queued events must be at least 1");
+        }
+        this.recipeChangeFeedHandler = recipeChangeFeedHandler;
+        this.dispatchExecutor = new ScheduledThreadPoolExecutor(dispatchThreads, new DispatchThreadFactory());
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
+    /**
+     * Opens a stream of recipe changes.
+     *
+     * @param lastEventId the id of the last event the client received, or null to stream the changes from now on.
+     * @return the stream, to be returned from the request handler.
+     */
+    public SseEmitter openStream(final String lastEventId) {
+
+        final SseEmitter sseEmitter = new SseEmitter(streamTimeoutMillis);
+        final SseRecipeChangeSubscriber subscriber = new SseRecipeChangeSubscriber(
+                sseEmitter, recipeChangeFeedHandler, dispatchExecutor, maxQueuedEvents);
+        subscriber.startHeartbeat(heartbeatSeconds, TimeUnit.SECONDS);
+        recipeChangeFeedHandler.subscribe(lastEventId, subscriber);
+        return sseEmitter;
+    }
+
+    /**
+     * Stops writing to the open streams when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    /**
+     * Creates named daemon threads for writing the streams, so they can be identified and never hold up shutdown.
+     */
+    private static class DispatchThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "recipe-change-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
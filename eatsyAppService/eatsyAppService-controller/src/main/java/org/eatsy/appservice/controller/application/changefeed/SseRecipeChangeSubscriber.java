@@ -0,0 +1,181 @@
+package org.eatsy.appservice.controller.application.changefeed;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.model.RecipeChangeEventModel;
+import org.eatsy.appservice.service.changefeed.RecipeChangeFeed;
+import org.eatsy.appservice.service.changefeed.RecipeChangeSubscriber;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the recipe changes of one client's stream as server-sent events.
+ * <p>
+ * Events arrive on the thread that changed the recipe, so they are only queued there and are written by the shared
+ * dispatch pool, at most one thread per stream at a time. The queue is bounded: once a client has fallen that far
+ * behind, the stream is closed so it reconnects and resumes from the feed's recent events instead. A client that has
+ * missed more events than the queue holds is not replayed them on resuming, as it would only fall behind again; it is
+ * told to reload the recipes instead.
+ */
+class SseRecipeChangeSubscriber implements RecipeChangeSubscriber {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(SseRecipeChangeSubscriber.class);
+
+    //Names of the events sent.
+    static final String RECIPE_CHANGE_EVENT = "recipe-change";
+    static final String RESET_EVENT = "reset";
+
+    //The client's stream.
+    private final SseEmitter sseEmitter;
+
+    //The feed this subscribes to.
+    private final RecipeChangeFeed recipeChangeFeed;
+
+    //Writes the queued events.
+    private final ScheduledExecutorService dispatchExecutor;
+
+    //Events waiting to be written, and how many there are. The count is kept separately as a queue's size is not constant time.
+    private final Queue<SseEmitter.SseEventBuilder> queuedEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEventCount = new AtomicInteger();
+    private final int maxQueuedEvents;
+
+    //Whether a write of the queued events is scheduled, so only one dispatch thread writes to the stream at a time.
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    //Whether the stream has been closed, after which nothing more is queued.
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    //Periodic heartbeat, cancelled when the stream is closed.
+    private volatile ScheduledFuture<?> heartbeat;
+
+    SseRecipeChangeSubscriber(final SseEmitter sseEmitter, final RecipeChangeFeed recipeChangeFeed,
+                              final ScheduledExecutorService dispatchExecutor, final int maxQueuedEvents) {
+        this.sseEmitter = sseEmitter;
+        this.recipeChangeFeed = recipeChangeFeed;
+        this.dispatchExecutor = dispatchExecutor;
+        this.maxQueuedEvents = maxQueuedEvents;
+
+        //Stop sending to the stream once the client has gone or the stream has timed out.
+        sseEmitter.onCompletion(this::close);
+        sseEmitter.onTimeout(this::close);
+        sseEmitter.onError(error -> close());
+    }
+
+    /**
+     * Sends a comment to the client periodically, so idle connections are not closed by proxies
+     * and a client that has gone away is noticed.
+     *
+     * @param period the time between heartbeats.
+     * @param unit   the unit of the period.
+     */
+    void startHeartbeat(final long period, final TimeUnit unit) {
+        heartbeat = dispatchExecutor.scheduleAtFixedRate(
+                () -> queue(SseEmitter.event().comment("heartbeat")), period, period, unit);
+    }
+
+    @Override
+    public void changePublished(final RecipeChangeEventModel recipeChangeEvent) {
+        queue(SseEmitter.event()
+                .id(recipeChangeEvent.getId())
+                .name(RECIPE_CHANGE_EVENT)
+                .data(recipeChangeEvent, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public int maxReplayedChanges() {
+        return maxQueuedEvents;
+    }
+
+    @Override
+    public void changesMissed(final String latestEventId) {
+        //Carries the latest event id, so the client resumes from there once it has reloaded the recipes.
+        queue(SseEmitter.event()
+                .id(latestEventId)
+                .name(RESET_EVENT)
+                .data("Changes have been missed, reload the recipes"));
+    }
+
+    /**
+     * Queues an event to be written to the stream, or closes the stream if the client has fallen too far behind.
+     * Never blocks.
+     */
+    private void queue(final SseEmitter.SseEventBuilder event) {
+
+        if (closed.get()) {
+            return;
+        }
+        if (queuedEventCount.incrementAndGet() > maxQueuedEvents) {
+            logger.debug("Closing recipe change stream that has fallen {} events behind", maxQueuedEvents);
+            close();
+            //Complete the response on a dispatch thread rather than the thread that changed the recipe.
+            dispatch(sseEmitter::complete);
+            return;
+        }
+        queuedEvents.add(event);
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatch(this::writeQueuedEvents);
+        }
+    }
+
+    /**
+     * Writes the queued events to the stream, on a dispatch thread.
+     */
+    private void writeQueuedEvents() {
+
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (null != (event = queuedEvents.poll())) {
+                queuedEventCount.decrementAndGet();
+                if (closed.get()) {
+                    continue;
+                }
+                try {
+                    sseEmitter.send(event);
+                } catch (final IOException | IllegalStateException e) {
+                    //The client has gone away or the response has already been completed.
+                    logger.debug("Recipe change stream closed while sending", e);
+                    close();
+                }
+            }
+            dispatchScheduled.set(false);
+            //An event queued after the queue was found empty, but before the flag was cleared, is written now.
+        } while (!queuedEvents.isEmpty() && dispatchScheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Runs a task on the dispatch pool. If the pool has shut down the stream is closed.
+     */
+    private void dispatch(final Runnable task) {
+        try {
+            dispatchExecutor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            close();
+        }
+    }
+
+    /**
+     * Stops sending to the stream: unsubscribes from the feed, stops the heartbeat and discards the queued events.
+     */
+    private void close() {
+        if (closed.compareAndSet(false, true)) {
+            recipeChangeFeed.unsubscribe(this);
+            final ScheduledFuture<?> currentHeartbeat = heartbeat;
+            if (null != currentHeartbeat) {
+                currentHeartbeat.cancel(false);
+            }
+            queuedEvents.clear();
+        }
+    }
+
+}
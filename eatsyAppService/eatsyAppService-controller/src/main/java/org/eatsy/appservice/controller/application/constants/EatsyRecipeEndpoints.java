@@ -8,8 +8,20 @@ public class EatsyRecipeEndpoints {
     public static final String API = "/api";
     public static final String ADD_RECIPE = "/add";
     public static final String RETRIEVE_ALL_RECIPES = "/retrieveAllRecipes";
+    public static final String RETRIEVE_RECIPE = "/recipe/{recipeKey}";
     public static final String DELETE_RECIPE = "/deleteRecipe";
     public static final String EDIT_RECIPE = "/edit/{recipeKey}";
+    public static final String PANTRY_MATCH = "/pantry/match";
+    public static final String SIMILAR_RECIPES = "/recipe/{recipeKey}/similar";
+    public static final String AUTOCOMPLETE = "/autocomplete";
+    public static final String SEARCH = "/search";
+    public static final String SHOPPING_LIST = "/shoppingList";
+    public static final String IMPORT_RECIPES = "/import";
+    public static final String RECIPE_CHANGES = "/changes";
+
+    //Request headers
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
 
 
 }
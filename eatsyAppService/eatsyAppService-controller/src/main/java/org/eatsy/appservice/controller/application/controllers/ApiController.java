@@ -2,23 +2,49 @@ package org.eatsy.appservice.controller.application.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eatsy.appservice.controller.application.constants.EatsyRecipeEndpoints;
+import org.eatsy.appservice.controller.application.importing.NdjsonRecipeImporter;
+import org.eatsy.appservice.controller.application.serialization.BinaryEncodingConfiguration;
+import org.eatsy.appservice.controller.application.serialization.RecipeFieldsConfiguration;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeImportResultModel;
 import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.RecipeSearchPageModel;
+import org.eatsy.appservice.model.ShoppingListModel;
 import org.eatsy.appservice.service.RecipeFactory;
+import org.eatsy.appservice.service.idempotency.IdempotencyKeyReuseException;
+import org.eatsy.appservice.service.search.RecipeSearch;
+import org.eatsy.appservice.service.versioning.RecipeCatalogVersion;
+import org.eatsy.appservice.service.versioning.RecipeVersionMismatchException;
+import org.eatsy.appservice.service.versioning.Versioned;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 
 /**
- * API Controller for creating, editing, deleting and retrieving recipes.
+ * API Controller for creating, editing, deleting, retrieving and searching recipes.
  * All handling methods on this controller are relative to the /api path.
  */
 @RestController //Inform the DispatcherServlet that this class contains request mapping methods.
@@ -32,27 +58,43 @@ public class ApiController {
     //Interface for recipe operations
     private final RecipeFactory recipeFactoryHandler;
 
-    //Inject the dependency of the recipeFactory implementation into the api controller during instantiation.
-    public ApiController(final RecipeFactory recipeFactoryHandler) {
+    //Interface for searching recipes
+    private final RecipeSearch recipeSearchHandler;
+
+    //Streaming bulk import of recipes
+    private final NdjsonRecipeImporter ndjsonRecipeImporter;
+
+    //Inject the dependencies of the recipeFactory and recipeSearch implementations and the recipe importer into the api
+    //controller during instantiation.
+    public ApiController(final RecipeFactory recipeFactoryHandler, final RecipeSearch recipeSearchHandler,
+                         final NdjsonRecipeImporter ndjsonRecipeImporter) {
         this.recipeFactoryHandler = recipeFactoryHandler;
+        this.recipeSearchHandler = recipeSearchHandler;
+        this.ndjsonRecipeImporter = ndjsonRecipeImporter;
     }
 
 
     /**
      * "Returns a new recipe with the information provided in the request"
      *
-     * @param recipeModel The recipe the user is adding.
+     * @param recipeModel    The recipe the user is adding.
+     * @param idempotencyKey Optional key identifying the request. Retries with the same key return the original recipe.
      * @return the recipe model object that has been created.
      */
     @Operation(description = "Returns a new recipe with the information provided in the request")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully created new recipe.")})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully created new recipe."),
+            @ApiResponse(responseCode = "422", description = "Idempotency key already used for a different recipe.")})
     @RequestMapping(value = EatsyRecipeEndpoints.ADD_RECIPE, method = {RequestMethod.POST})
     @ResponseBody
     public ResponseEntity<RecipeModel> addRecipe(
-            @Parameter(description = "The recipe to be created.") @RequestBody final RecipeModel recipeModel) {
+            @Parameter(description = "The recipe to be created.") @RequestBody final RecipeModel recipeModel,
+            @Parameter(description = "Unique key for the request, so a retried request does not create the recipe again.")
+            @RequestHeader(value = EatsyRecipeEndpoints.IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey) {
 
-        logger.debug("A new request has been made to create a recipe called " + recipeModel.getName());
-        final RecipeModel newRecipeModel = recipeFactoryHandler.createRecipe(recipeModel);
+        logger.debug("A new request has been made to create a recipe called {}", recipeModel.getName());
+        final RecipeModel newRecipeModel = null == idempotencyKey
+                ? recipeFactoryHandler.createRecipe(recipeModel)
+                : recipeFactoryHandler.createRecipe(idempotencyKey, recipeModel);
 
         final ResponseEntity<RecipeModel> response = new ResponseEntity<RecipeModel>(newRecipeModel, HttpStatus.OK);
         return response;
@@ -60,17 +102,99 @@ public class ApiController {
 
     /**
      * Retrieves all recipe model objects.
+     * The response carries a weak ETag and a Last-Modified date for the whole list, and a request whose If-None-Match
+     * (or If-Modified-Since) header matches them is answered with 304 Not Modified and no body.
+     * Once the recipe cache holds every recipe the check is made against the catalog version before any recipe is
+     * loaded, so an unchanged poll costs no more than its headers. The ETag is weak so the list can be gzip compressed.
+     * With the fields parameter only the listed fields of each recipe are returned, and where recipes are read
+     * straight from the database the other fields are not loaded.
+     * The recipes are returned as JSON, CBOR or Smile, as negotiated by the Accept header.
      *
+     * @param fields     Optional comma separated recipe fields to return, e.g. "key,name". All fields if not given.
+     * @param webRequest the request, for checking the If-None-Match and If-Modified-Since headers.
      * @return The model object that has been created detailing all recipes.
      */
     @Operation(description = "Returns all recipes and their associated unique ids that have been created.")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully returned all recipes.")})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully returned all recipes.",
+            content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = RecipeModel.class))),
+                    @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = RecipeModel.class))),
+                    @Content(mediaType = BinaryEncodingConfiguration.APPLICATION_SMILE_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = RecipeModel.class)))}),
+            @ApiResponse(responseCode = "304", description = "The recipes have not changed since the ETag in If-None-Match "
+                    + "or the date in If-Modified-Since."),
+            @ApiResponse(responseCode = "400", description = "The fields parameter names a field recipes do not have.")})
     @RequestMapping(value = EatsyRecipeEndpoints.RETRIEVE_ALL_RECIPES, method = {RequestMethod.GET})
     @ResponseBody
-    public List<RecipeModel> retrieveAllRecipes() {
+    public ResponseEntity<MappingJacksonValue> retrieveAllRecipes(
+            @Parameter(description = "Comma separated recipe fields to return, e.g. key,name. All fields if not given.")
+            @RequestParam(value = "fields", required = false) final String fields,
+            final WebRequest webRequest) {
 
         logger.debug("A new request has been made to retrieve all recipes");
-        return recipeFactoryHandler.retrieveAllRecipes();
+        final Set<RecipeField> selectedFields = RecipeField.parse(fields);
+
+        //The catalog version is read before the recipes, so if the catalog changes in between the response is only
+        //labelled with the older version, and the next poll fetches the recipes again rather than missing the change.
+        final RecipeCatalogVersion catalogVersion = recipeFactoryHandler.retrieveRecipeCatalogVersion();
+        if (null != catalogVersion) {
+            final String eTag = toWeakETag(catalogVersion.getVersion(), selectedFields);
+            if (webRequest.checkNotModified(eTag, catalogVersion.getLastModified())) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).lastModified(catalogVersion.getLastModified())
+                    .body(withFields(retrieveAllRecipesVersioned(selectedFields).getValue(), selectedFields));
+        }
+
+        //Until the catalog version is known, the list is loaded and versioned by its own content.
+        final Versioned<List<RecipeModel>> allRecipes = retrieveAllRecipesVersioned(selectedFields);
+        final String eTag = toWeakETag(allRecipes.getVersion(), selectedFields);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(withFields(allRecipes.getValue(), selectedFields));
+    }
+
+    /**
+     * Retrieves a single recipe.
+     * The response carries a strong ETag for the recipe's content, and a request whose If-None-Match header matches it
+     * is answered with 304 Not Modified and no body.
+     *
+     * @param recipeKey  the unique ID of the recipe.
+     * @param fields     Optional comma separated recipe fields to return, e.g. "key,name". All fields if not given.
+     * @param webRequest the request, for checking the If-None-Match header.
+     * @return the recipe model object.
+     */
+    @Operation(description = "Returns the recipe with the unique id.")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully returned the recipe.",
+            content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = RecipeModel.class)),
+                    @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE, schema = @Schema(implementation = RecipeModel.class)),
+                    @Content(mediaType = BinaryEncodingConfiguration.APPLICATION_SMILE_VALUE,
+                            schema = @Schema(implementation = RecipeModel.class))}),
+            @ApiResponse(responseCode = "304", description = "The recipe has not changed since the ETag in If-None-Match."),
+            @ApiResponse(responseCode = "400", description = "The fields parameter names a field recipes do not have."),
+            @ApiResponse(responseCode = "404", description = "There is no recipe with the unique id.")})
+    @RequestMapping(value = EatsyRecipeEndpoints.RETRIEVE_RECIPE, method = {RequestMethod.GET})
+    @ResponseBody
+    public ResponseEntity<MappingJacksonValue> retrieveRecipe(
+            @PathVariable final String recipeKey,
+            @Parameter(description = "Comma separated recipe fields to return, e.g. key,name. All fields if not given.")
+            @RequestParam(value = "fields", required = false) final String fields,
+            final WebRequest webRequest) {
+
+        logger.debug("A new request has been made to retrieve recipe: {}", recipeKey);
+        final Set<RecipeField> selectedFields = RecipeField.parse(fields);
+        final Versioned<RecipeModel> recipe = recipeFactoryHandler.retrieveRecipe(recipeKey);
+        if (null == recipe) {
+            return ResponseEntity.notFound().build();
+        }
+
+        final String eTag = toETag(recipe.getVersion(), selectedFields);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(withFields(recipe.getValue(), selectedFields));
     }
 
     /**
@@ -85,7 +209,7 @@ public class ApiController {
     @ResponseBody
     public List<RecipeModel> deleteRecipe(final String recipeKey) {
 
-        logger.debug("A new request has been made to delete recipe: " + recipeKey);
+        logger.debug("A new request has been made to delete recipe: {}", recipeKey);
         final List<RecipeModel> updatedRecipeList = recipeFactoryHandler.deleteRecipe(recipeKey);
         return updatedRecipeList;
 
@@ -93,24 +217,207 @@ public class ApiController {
 
     /**
      * Replaces the existing recipe with the updated version supplied in the PUT request.
+     * With an If-Match header the recipe is only replaced if it is still at one of the listed ETags,
+     * and the response carries the ETag of the updated recipe.
      *
      * @param recipeModelWithUpdates the recipe model with the updated changes to be persisted.
      * @param recipeKey              the unique ID of the recipe. This will allow the recipe that needs to be
      *                               updated to be identified.
+     * @param ifMatch                Optional ETags the existing recipe must match for the update to be made.
      * @return the updated recipeModel with the new updates/changes applied.
      */
     @Operation(description = "Replaces the existing recipe with the updated version supplied in the PUT request")
-    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully updated chosen recipe.")})
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully updated chosen recipe."),
+            @ApiResponse(responseCode = "412", description = "The recipe does not match the ETag in If-Match.")})
     @RequestMapping(value = EatsyRecipeEndpoints.EDIT_RECIPE, method = {RequestMethod.PUT})
     @ResponseBody
-    public RecipeModel editRecipe(
+    public ResponseEntity<RecipeModel> editRecipe(
             @Parameter(description = "The recipe with the new information to update the existing recipe")
-            @RequestBody final RecipeModel recipeModelWithUpdates, @PathVariable final String recipeKey) {
+            @RequestBody final RecipeModel recipeModelWithUpdates, @PathVariable final String recipeKey,
+            @Parameter(description = "Only update the recipe if it is still at one of these ETags.")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+
+        logger.debug("A new request has been made to update recipe: {}", recipeKey);
+
+        //Without a precondition the update is unconditional. If-Match: * still requires the recipe to exist.
+        final List<String> expectedVersions = parseIfMatch(ifMatch);
+        if (null == expectedVersions) {
+            final RecipeModel updatedRecipeModel = recipeFactoryHandler.updateRecipe(recipeKey, recipeModelWithUpdates);
+            return ResponseEntity.ok(updatedRecipeModel);
+        }
+
+        final Versioned<RecipeModel> updatedRecipe = recipeFactoryHandler.updateRecipe(recipeKey, recipeModelWithUpdates, expectedVersions);
+        return ResponseEntity.ok().eTag(toETag(updatedRecipe.getVersion())).body(updatedRecipe.getValue());
+    }
+
+    /**
+     * Merges the ingredients of a number of recipes into one shopping list, so a meal plan can be shopped for
+     * with a single request.
+     *
+     * @param recipeKeys the unique IDs of the recipes.
+     * @return each ingredient of the recipes once, with the number of recipes needing it, and any unknown keys.
+     */
+    @Operation(description = "Returns the ingredients of the requested recipes, each listed once.")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully created the shopping list."),
+            @ApiResponse(responseCode = "400", description = "Too many recipes were requested.")})
+    @RequestMapping(value = EatsyRecipeEndpoints.SHOPPING_LIST, method = {RequestMethod.POST})
+    @ResponseBody
+    public ShoppingListModel createShoppingList(
+            @Parameter(description = "The unique ids of the recipes to shop for.") @RequestBody final List<String> recipeKeys) {
+
+        logger.debug("A new request has been made to create a shopping list for {} recipes", recipeKeys.size());
+        return recipeFactoryHandler.createShoppingList(recipeKeys);
+    }
+
+    /**
+     * Searches the recipes' names, ingredients and method steps, tolerating small typos.
+     *
+     * @param query    the search text. Text in double quotes must appear word for word in a method step.
+     * @param page     the page of results to return, starting from 0.
+     * @param pageSize the most results on a page.
+     * @return the page of matching recipes, most relevant first.
+     */
+    @Operation(description = "Returns a page of the recipes matching the search text, most relevant first.")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully searched the recipes."),
+            @ApiResponse(responseCode = "400", description = "The page or page size is out of range.")})
+    @RequestMapping(value = EatsyRecipeEndpoints.SEARCH, method = {RequestMethod.GET})
+    @ResponseBody
+    public RecipeSearchPageModel searchRecipes(
+            @Parameter(description = "The search text. Text in double quotes must appear word for word in a method step.")
+            @RequestParam(value = "q") final String query,
+            @Parameter(description = "The page of results to return, starting from 0.")
+            @RequestParam(value = "page", defaultValue = "0") final int page,
+            @Parameter(description = "The most results on a page.")
+            @RequestParam(value = "pageSize", defaultValue = "20") final int pageSize) {
+
+        logger.debug("A new request has been made to search recipes for {}", query);
+        return recipeSearchHandler.search(query, page, pageSize);
+    }
+
+    /**
+     * Imports recipes from newline delimited JSON, one recipe per line, streaming back the result of each line.
+     * The request body is read and saved in bounded batches rather than buffered, so inputs of any size can be imported,
+     * and the import is held back to the pace the database can save recipes.
+     *
+     * @param request  the request, whose body is the recipes to import.
+     * @param response the response, whose body is the result of each recipe line as newline delimited JSON.
+     * @throws IOException if the request cannot be read or the response cannot be written.
+     */
+    @Operation(description = "Imports recipes from newline delimited JSON (one recipe per line), streaming back the result of each line.")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "The recipes were imported. Each line of the response is "
+            + "the result of one recipe line, in line order.",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = RecipeImportResultModel.class)))})
+    @RequestMapping(value = EatsyRecipeEndpoints.IMPORT_RECIPES, method = {RequestMethod.POST},
+            consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importRecipes(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+
+        logger.debug("A new request has been made to import recipes");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ndjsonRecipeImporter.importRecipes(request.getInputStream(), response.getOutputStream());
+    }
 
-        logger.debug("A new request has been made to update recipe: " + recipeKey);
-        final RecipeModel updatedRecipeModel = recipeFactoryHandler.updateRecipe(recipeKey, recipeModelWithUpdates);
-        return updatedRecipeModel;
+    /**
+     * Rejects a recipe creation request that reuses an idempotency key for a different recipe.
+     *
+     * @param exception the reused idempotency key exception.
+     * @return an unprocessable entity response describing the problem.
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReuse(final IdempotencyKeyReuseException exception) {
+
+        logger.debug(exception.getMessage());
+        return new ResponseEntity<String>(exception.getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Rejects a conditional update of a recipe that has changed since the client's ETag.
+     *
+     * @param exception the version mismatch exception.
+     * @return a precondition failed response describing the problem.
+     */
+    @ExceptionHandler(RecipeVersionMismatchException.class)
+    public ResponseEntity<String> handleRecipeVersionMismatch(final RecipeVersionMismatchException exception) {
+
+        logger.debug(exception.getMessage());
+        return new ResponseEntity<String>(exception.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * @param version the version of a recipe or list of recipes.
+     * @return the version as a strong ETag.
+     */
+    private static String toETag(final String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @param version the version of a recipe or list of recipes.
+     * @param fields  the recipe fields in the response.
+     * @return the version of the response with only the fields as a strong ETag, so each selection has its own ETag.
+     */
+    private static String toETag(final String version, final Set<RecipeField> fields) {
+        return fields.containsAll(RecipeField.ALL)
+                ? toETag(version) : toETag(version + "-" + String.join(".", RecipeField.fieldNamesOf(fields)));
     }
 
+    /**
+     * A weak ETag, for responses that may be compressed. Tomcat only compresses responses without a strong ETag, as a
+     * strong ETag promises the same bytes whether or not the response is compressed.
+     *
+     * @param version the version of a list of recipes.
+     * @param fields  the recipe fields in the response.
+     * @return the version of the response with only the fields as a weak ETag.
+     */
+    private static String toWeakETag(final String version, final Set<RecipeField> fields) {
+        return "W/" + toETag(version, fields);
+    }
+
+    /**
+     * @param fields the recipe fields that are needed.
+     * @return all recipes, with at least the fields, and the version of the list.
+     */
+    private Versioned<List<RecipeModel>> retrieveAllRecipesVersioned(final Set<RecipeField> fields) {
+        return fields.containsAll(RecipeField.ALL)
+                ? recipeFactoryHandler.retrieveAllRecipesVersioned()
+                : recipeFactoryHandler.retrieveAllRecipesVersioned(fields);
+    }
+
+    /**
+     * @param body   the response body, holding recipe models.
+     * @param fields the recipe fields to serialize.
+     * @return the body, set to only serialize the fields of its recipes.
+     */
+    private static MappingJacksonValue withFields(final Object body, final Set<RecipeField> fields) {
+        final MappingJacksonValue bodyWithFields = new MappingJacksonValue(body);
+        bodyWithFields.setFilters(RecipeFieldsConfiguration.filtersFor(fields));
+        return bodyWithFields;
+    }
+
+    /**
+     * Parses the versions out of an If-Match header. Weak ETags never match for If-Match, so they are left out.
+     *
+     * @param ifMatch the If-Match header, which may be null.
+     * @return the versions in the header, {@link RecipeFactory#ANY_VERSION} if the header is "*", or null if it is absent.
+     */
+    private static List<String> parseIfMatch(final String ifMatch) {
+
+        if (null == ifMatch) {
+            return null;
+        }
+        if ("*".equals(ifMatch.trim())) {
+            return Collections.singletonList(RecipeFactory.ANY_VERSION);
+        }
+        final List<String> versions = new ArrayList<>();
+        for (final String eTag : ifMatch.split(",")) {
+            final String trimmedETag = eTag.trim();
+            //A quoted "*" is an ordinary ETag, which no recipe is at, not the wildcard.
+            if (trimmedETag.length() >= 2 && trimmedETag.startsWith("\"") && trimmedETag.endsWith("\"")
+                    && !"\"*\"".equals(trimmedETag)) {
+                versions.add(trimmedETag.substring(1, trimmedETag.length() - 1));
+            }
+        }
+        return versions;
+    }
 
 }
@@ -0,0 +1,35 @@
+package org.eatsy.appservice.controller.application.controllers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Rejects requests with invalid parameters for every controller.
+ * Only invalid request parameters are answered with 400 Bad Request and their message. Any other illegal argument is
+ * a fault of the application, so is left to the default error handling rather than shown to the client.
+ */
+@ControllerAdvice
+public class InvalidRequestParameterAdvice {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(InvalidRequestParameterAdvice.class);
+
+    /**
+     * Rejects a request with invalid parameters.
+     *
+     * @param exception the invalid request parameter exception.
+     * @return a bad request response describing the problem.
+     */
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<String> handleInvalidRequestParameter(final InvalidRequestParameterException exception) {
+
+        logger.debug(exception.getMessage());
+        return new ResponseEntity<String>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+}
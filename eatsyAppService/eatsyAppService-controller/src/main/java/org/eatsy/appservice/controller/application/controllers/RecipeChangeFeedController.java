@@ -0,0 +1,61 @@
+package org.eatsy.appservice.controller.application.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.controller.application.changefeed.RecipeChangeStreamer;
+import org.eatsy.appservice.controller.application.constants.EatsyRecipeEndpoints;
+import org.eatsy.appservice.model.RecipeChangeEventModel;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+/**
+ * API Controller for following the changes made to recipes.
+ * All handling methods on this controller are relative to the /api path.
+ */
+@RestController //Inform the DispatcherServlet that this class contains request mapping methods.
+@RequestMapping(EatsyRecipeEndpoints.API)
+public class RecipeChangeFeedController {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(RecipeChangeFeedController.class);
+
+    //Streams the recipe change feed as server-sent events
+    private final RecipeChangeStreamer recipeChangeStreamer;
+
+    //Inject the recipe change streamer into the controller during instantiation.
+    public RecipeChangeFeedController(final RecipeChangeStreamer recipeChangeStreamer) {
+        this.recipeChangeStreamer = recipeChangeStreamer;
+    }
+
+    /**
+     * Streams the recipes created, updated and deleted from now on as server-sent events.
+     * Each "recipe-change" event carries an id. A client that reconnects with the id of the last event it received in
+     * the Last-Event-ID header (as EventSource does) is first sent the changes it missed. If those changes are no
+     * longer held it is sent a "reset" event instead, and should reload the recipes.
+     *
+     * @param lastEventId the id of the last event the client received, if it is resuming the stream.
+     * @return the stream of recipe changes.
+     */
+    @Operation(description = "Streams the recipes created, updated and deleted as server-sent events")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Streaming recipe changes.",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = RecipeChangeEventModel.class)))})
+    @RequestMapping(value = EatsyRecipeEndpoints.RECIPE_CHANGES, method = {RequestMethod.GET},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRecipeChanges(
+            @Parameter(description = "The id of the last event received, to resume the stream after it.")
+            @RequestHeader(value = EatsyRecipeEndpoints.LAST_EVENT_ID_HEADER, required = false) final String lastEventId) {
+
+        logger.debug("A new request has been made to stream recipe changes after event {}", lastEventId);
+        return recipeChangeStreamer.openStream(lastEventId);
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.eatsy.appservice.controller.application.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.controller.application.constants.EatsyRecipeEndpoints;
+import org.eatsy.appservice.model.AutocompleteSuggestionModel;
+import org.eatsy.appservice.model.PantryMatchModel;
+import org.eatsy.appservice.model.SimilarRecipeModel;
+import org.eatsy.appservice.service.autocomplete.RecipeAutocomplete;
+import org.eatsy.appservice.service.autocomplete.SuggestionType;
+import org.eatsy.appservice.service.pantry.PantryMatcher;
+import org.eatsy.appservice.service.similarity.SimilarRecipeFinder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.List;
+
+
+/**
+ * API Controller for discovering recipes, e.g. the recipes that can be made from the ingredients in a pantry,
+ * the recipes similar to a recipe, or suggestions for a search box.
+ * All handling methods on this controller are relative to the /api path.
+ */
+@RestController //Inform the DispatcherServlet that this class contains request mapping methods.
+@RequestMapping(EatsyRecipeEndpoints.API)
+public class RecipeDiscoveryController {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(RecipeDiscoveryController.class);
+
+    //Interface for pantry matching
+    private final PantryMatcher pantryMatcherHandler;
+
+    //Interface for finding similar recipes
+    private final SimilarRecipeFinder similarRecipeFinderHandler;
+
+    //Interface for search box suggestions
+    private final RecipeAutocomplete recipeAutocompleteHandler;
+
+    //Inject the dependency of the pantryMatcher, similarRecipeFinder and recipeAutocomplete implementations into the controller during instantiation.
+    public RecipeDiscoveryController(final PantryMatcher pantryMatcherHandler, final SimilarRecipeFinder similarRecipeFinderHandler,
+                                     final RecipeAutocomplete recipeAutocompleteHandler) {
+        this.pantryMatcherHandler = pantryMatcherHandler;
+        this.similarRecipeFinderHandler = similarRecipeFinderHandler;
+        this.recipeAutocompleteHandler = recipeAutocompleteHandler;
+    }
+
+    /**
+     * Finds the recipes that can be made from the ingredients in a pantry, or that need only a few more ingredients.
+     *
+     * @param ingredients           the ingredients in the pantry.
+     * @param maxMissingIngredients the maximum number of ingredients a recipe may need that are not in the pantry.
+     * @param limit                 the maximum number of recipes to return.
+     * @return the matching recipes with their missing ingredients, those missing the fewest ingredients first.
+     */
+    @Operation(description = "Returns the recipes that can be made from the pantry ingredients, or that need at most maxMissing more ingredients")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully returned the matching recipes."),
+            @ApiResponse(responseCode = "400", description = "maxMissing is negative or limit is out of range.")})
+    @RequestMapping(value = EatsyRecipeEndpoints.PANTRY_MATCH, method = {RequestMethod.GET})
+    @ResponseBody
+    public List<PantryMatchModel> matchPantry(
+            @Parameter(description = "The ingredients in the pantry.")
+            @RequestParam(value = "ingredients") final List<String> ingredients,
+            @Parameter(description = "The maximum number of ingredients a recipe may need that are not in the pantry.")
+            @RequestParam(value = "maxMissing", defaultValue = "0") final int maxMissingIngredients,
+            @Parameter(description = "The maximum number of recipes to return, at most 200.")
+            @RequestParam(value = "limit", defaultValue = "50") final int limit) {
+
+        logger.debug("A new request has been made to match a pantry of {} ingredients", ingredients.size());
+        return pantryMatcherHandler.findRecipesMissingAtMost(new HashSet<>(ingredients), maxMissingIngredients, limit);
+    }
+
+    /**
+     * Finds the recipes whose ingredients are most similar to those of a recipe.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @param limit     the maximum number of similar recipes to return.
+     * @return the similar recipes with their estimated similarity, most similar first.
+     */
+    @Operation(description = "Returns the recipes whose ingredients are most similar to those of the recipe with the unique id")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully returned the similar recipes."),
+            @ApiResponse(responseCode = "400", description = "limit is out of range."),
+            @ApiResponse(responseCode = "404", description = "There is no recipe with the unique id.")})
+    @RequestMapping(value = EatsyRecipeEndpoints.SIMILAR_RECIPES, method = {RequestMethod.GET})
+    @ResponseBody
+    public ResponseEntity<List<SimilarRecipeModel>> findSimilarRecipes(
+            @PathVariable final String recipeKey,
+            @Parameter(description = "The maximum number of similar recipes to return, at most 100.")
+            @RequestParam(value = "limit", defaultValue = "10") final int limit) {
+
+        logger.debug("A new request has been made to find recipes similar to recipe: {}", recipeKey);
+        final List<SimilarRecipeModel> similarRecipes = similarRecipeFinderHandler.findSimilarRecipes(recipeKey, limit);
+        if (null == similarRecipes) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(similarRecipes);
+    }
+
+    /**
+     * Suggests recipe names and ingredients for what has been typed into a search box so far.
+     *
+     * @param prefix the text typed so far.
+     * @param type   the kind of suggestions wanted, RECIPE or INGREDIENT, or both if not given.
+     * @param limit  the maximum number of suggestions to return.
+     * @return the suggestions used by the most recipes first.
+     */
+    @Operation(description = "Returns the recipe names and ingredients with a word starting with the prefix, most used first")
+    @ApiResponses({@ApiResponse(responseCode = "200", description = "Successfully returned the suggestions."),
+            @ApiResponse(responseCode = "400", description = "limit is out of range.")})
+    @RequestMapping(value = EatsyRecipeEndpoints.AUTOCOMPLETE, method = {RequestMethod.GET})
+    @ResponseBody
+    public List<AutocompleteSuggestionModel> autocomplete(
+            @Parameter(description = "The text typed so far.")
+            @RequestParam(value = "prefix") final String prefix,
+            @Parameter(description = "The kind of suggestions wanted, RECIPE or INGREDIENT. Both if not given.")
+            @RequestParam(value = "type", required = false) final SuggestionType type,
+            @Parameter(description = "The maximum number of suggestions to return.")
+            @RequestParam(value = "limit", defaultValue = "10") final int limit) {
+
+        logger.debug("A new request has been made for suggestions starting with {}", prefix);
+        return recipeAutocompleteHandler.suggest(prefix, type, limit);
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.eatsy.appservice.controller.application.importing;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the lines of newline delimited JSON from a stream into a reusable buffer, so reading a line does not allocate.
+ * A line longer than the maximum is skipped rather than buffered, so memory use is bounded whatever the input.
+ * Lines may end with "\n" or "\r\n", and the last line need not end with a line break.
+ */
+final class NdjsonLineReader {
+
+    //Returned by readLine once every line has been read.
+    static final int END_OF_INPUT = -1;
+
+    //Returned by readLine for a line longer than the maximum line length.
+    static final int LINE_TOO_LONG = -2;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_LINE_BUFFER_SIZE = 8 * 1024;
+
+    private final InputStream input;
+    private final int maxLineBytes;
+
+    //Bytes read from the input and not yet consumed are readBuffer[readPosition, readLimit).
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private int readPosition;
+    private int readLimit;
+
+    //The current line, grown as needed up to the maximum line length.
+    private byte[] lineBuffer;
+
+    //The number of the current line, counting from 1.
+    private long lineNumber;
+
+    /**
+     * @param input        newline delimited JSON.
+     * @param maxLineBytes the longest line, in bytes, that will be read.
+     */
+    NdjsonLineReader(final InputStream input, final int maxLineBytes) {
+        this.input = input;
+        this.maxLineBytes = maxLineBytes;
+        this.lineBuffer = new byte[Math.min(INITIAL_LINE_BUFFER_SIZE, Math.max(1, maxLineBytes))];
+    }
+
+    /**
+     * Reads the next line into the line buffer, without its line break.
+     *
+     * @return the length of the line in bytes, or LINE_TOO_LONG if the line was skipped, or END_OF_INPUT.
+     * @throws IOException if the input cannot be read.
+     */
+    int readLine() throws IOException {
+
+        int lineLength = 0;
+        boolean lineTooLong = false;
+        boolean lineStarted = false;
+        while (true) {
+            if (readPosition == readLimit) {
+                readPosition = 0;
+                readLimit = Math.max(0, input.read(readBuffer));
+                if (readLimit == 0) {
+                    if (!lineStarted) {
+                        return END_OF_INPUT;
+                    }
+                    break;
+                }
+            }
+            lineStarted = true;
+
+            int lineEnd = readPosition;
+            while (lineEnd < readLimit && readBuffer[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            final int chunkLength = lineEnd - readPosition;
+            if (!lineTooLong && lineLength + chunkLength > maxLineBytes) {
+                lineTooLong = true;
+            }
+            if (!lineTooLong) {
+                ensureLineCapacity(lineLength + chunkLength);
+                System.arraycopy(readBuffer, readPosition, lineBuffer, lineLength, chunkLength);
+                lineLength += chunkLength;
+            }
+            if (lineEnd < readLimit) {
+                readPosition = lineEnd + 1;
+                break;
+            }
+            readPosition = readLimit;
+        }
+
+        lineNumber++;
+        if (lineTooLong) {
+            return LINE_TOO_LONG;
+        }
+        if (lineLength > 0 && lineBuffer[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        return lineLength;
+    }
+
+    /**
+     * @return the buffer holding the line last read. Only valid until the next line is read.
+     */
+    byte[] getLine() {
+        return lineBuffer;
+    }
+
+    /**
+     * @return the number of the line last read, counting from 1.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    private void ensureLineCapacity(final int capacity) {
+        if (capacity > lineBuffer.length) {
+            final byte[] grownLineBuffer = new byte[(int) Math.min(maxLineBytes, Math.max(capacity, 2L * lineBuffer.length))];
+            System.arraycopy(lineBuffer, 0, grownLineBuffer, 0, lineBuffer.length);
+            lineBuffer = grownLineBuffer;
+        }
+    }
+
+}
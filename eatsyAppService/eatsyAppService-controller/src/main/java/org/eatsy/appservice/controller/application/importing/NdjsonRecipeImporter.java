@@ -0,0 +1,175 @@
+package org.eatsy.appservice.controller.application.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.model.RecipeImportResultModel;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.service.RecipeFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming bulk import of recipes from newline delimited JSON (NDJSON), one recipe per line.
+ * <p>
+ * Lines are parsed one at a time and imported in bounded batches, and the result of each line is written back as a
+ * line of NDJSON once its batch has been saved. Only one batch is held at a time, so memory use stays flat however
+ * large the input is.
+ * <p>
+ * The next batch is only read once the previous one has been saved, so when the database falls behind the request
+ * body is left unread in the connection's buffers, and TCP flow control slows the client down to the database's pace.
+ * Likewise a client that does not read its results holds up the import rather than having them buffered.
+ */
+@Component
+public class NdjsonRecipeImporter {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(NdjsonRecipeImporter.class);
+
+    //Separates the results written back.
+    private static final int LINE_SEPARATOR = '\n';
+
+    //Interface for recipe operations
+    private final RecipeFactory recipeFactoryHandler;
+
+    //Parses a line into a recipe, and writes the result of a line, with the application's Jackson configuration.
+    private final ObjectReader recipeModelReader;
+    private final ObjectWriter importResultWriter;
+
+    //Import configuration
+    private final int batchSize;
+    private final int maxLineBytes;
+
+    //Inject the recipeFactory implementation, the application's object mapper and the import configuration during instantiation.
+    public NdjsonRecipeImporter(final RecipeFactory recipeFactoryHandler, final ObjectMapper objectMapper,
+                                @Value("${eatsy.import.batch-size:500}") final int batchSize,
+                                @Value("${eatsy.import.max-line-bytes:1048576}") final int maxLineBytes) {
+        if (batchSize < 1 || maxLineBytes < 1) {
+            throw new IllegalArgumentException("The import batch size and maximum line length must be at least 1");
+        }
+        this.recipeFactoryHandler = recipeFactoryHandler;
+        this.recipeModelReader = objectMapper.readerFor(RecipeModel.class);
+        this.importResultWriter = objectMapper.writerFor(RecipeImportResultModel.class);
+        this.batchSize = batchSize;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * Imports every recipe line of the input, writing the result of each line to the output in line order.
+     * Blank lines are skipped. A line that is too long, is not a recipe or is not a valid recipe is rejected, and the
+     * import carries on. If a batch cannot be saved its lines are rejected and the import stops.
+     *
+     * @param ndjsonRecipes the recipes to import, one JSON recipe per line.
+     * @param importResults where the result of each line is written, one JSON result per line.
+     * @return the number of recipes imported.
+     * @throws IOException if the input cannot be read or the output cannot be written.
+     */
+    public long importRecipes(final InputStream ndjsonRecipes, final OutputStream importResults) throws IOException {
+
+        final NdjsonLineReader lineReader = new NdjsonLineReader(ndjsonRecipes, maxLineBytes);
+
+        //The results of the lines in the current batch, and the recipes parsed from those lines with their results.
+        final List<RecipeImportResultModel> batchResults = new ArrayList<>(batchSize);
+        final List<RecipeModel> batchRecipes = new ArrayList<>(batchSize);
+        final List<RecipeImportResultModel> batchRecipeResults = new ArrayList<>(batchSize);
+
+        long importedRecipeCount = 0;
+        boolean importing = true;
+        int lineLength;
+        while (importing && (lineLength = lineReader.readLine()) != NdjsonLineReader.END_OF_INPUT) {
+
+            if (lineLength == 0) {
+                continue;
+            }
+            final RecipeImportResultModel lineResult = new RecipeImportResultModel();
+            lineResult.setLine(lineReader.getLineNumber());
+            batchResults.add(lineResult);
+
+            if (lineLength == NdjsonLineReader.LINE_TOO_LONG) {
+                lineResult.setError("The line is longer than " + maxLineBytes + " bytes");
+            } else {
+                try {
+                    batchRecipes.add(recipeModelReader.readValue(lineReader.getLine(), 0, lineLength));
+                    batchRecipeResults.add(lineResult);
+                } catch (final JsonProcessingException e) {
+                    lineResult.setError("The line is not a JSON recipe: " + e.getOriginalMessage());
+                }
+            }
+
+            if (batchResults.size() >= batchSize) {
+                importing = importBatch(batchRecipes, batchRecipeResults);
+                importedRecipeCount += writeResults(batchResults, importResults);
+            }
+        }
+        if (!batchResults.isEmpty()) {
+            importBatch(batchRecipes, batchRecipeResults);
+            importedRecipeCount += writeResults(batchResults, importResults);
+        }
+
+        logger.info("Imported {} recipes from {} lines", importedRecipeCount, lineReader.getLineNumber());
+        return importedRecipeCount;
+    }
+
+    /**
+     * Saves the recipes of a batch and records the result of each in the result of its line.
+     *
+     * @param batchRecipes       the recipes parsed from the lines of the batch. Cleared once saved.
+     * @param batchRecipeResults the results of the lines the recipes were parsed from. Cleared once saved.
+     * @return false if the batch could not be saved, and the import should stop.
+     */
+    private boolean importBatch(final List<RecipeModel> batchRecipes, final List<RecipeImportResultModel> batchRecipeResults) {
+
+        boolean batchSaved = true;
+        if (!batchRecipes.isEmpty()) {
+            try {
+                final List<RecipeImportResultModel> recipeResults = recipeFactoryHandler.importRecipes(batchRecipes);
+                for (int i = 0; i < recipeResults.size(); i++) {
+                    batchRecipeResults.get(i).setKey(recipeResults.get(i).getKey());
+                    batchRecipeResults.get(i).setError(recipeResults.get(i).getError());
+                }
+            } catch (final RuntimeException e) {
+                logger.error("A batch of imported recipes could not be saved, stopping the import", e);
+                for (final RecipeImportResultModel recipeResult : batchRecipeResults) {
+                    recipeResult.setError("The recipe could not be saved, and the import has stopped");
+                }
+                batchSaved = false;
+            }
+        }
+        batchRecipes.clear();
+        batchRecipeResults.clear();
+        return batchSaved;
+    }
+
+    /**
+     * Writes the results of a batch's lines and flushes them to the client.
+     *
+     * @param batchResults  the results of the lines in the batch, in line order. Cleared once written.
+     * @param importResults where the results are written.
+     * @return the number of recipes in the batch that were imported.
+     * @throws IOException if the output cannot be written.
+     */
+    private int writeResults(final List<RecipeImportResultModel> batchResults, final OutputStream importResults) throws IOException {
+
+        int importedRecipeCount = 0;
+        for (final RecipeImportResultModel lineResult : batchResults) {
+            if (null == lineResult.getError()) {
+                importedRecipeCount++;
+            }
+            importResults.write(importResultWriter.writeValueAsBytes(lineResult));
+            importResults.write(LINE_SEPARATOR);
+        }
+        importResults.flush();
+        batchResults.clear();
+        return importedRecipeCount;
+    }
+
+}
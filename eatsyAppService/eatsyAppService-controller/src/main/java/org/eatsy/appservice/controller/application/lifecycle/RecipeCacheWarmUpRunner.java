@@ -0,0 +1,98 @@
+package org.eatsy.appservice.controller.application.lifecycle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.service.RecipeFactory;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms up the in-memory recipe cache as part of the ServerRunner start-up lifecycle.
+ * Spring Boot only moves the application's readiness state to ACCEPTING_TRAFFIC once all application runners have
+ * completed, so the actuator readiness probe (/actuator/health/readiness) does not report ready until warm-up is done.
+ * Progress and duration are published as metrics so the warm-up can be sized against catalog growth.
+ */
+@Component
+public class RecipeCacheWarmUpRunner implements ApplicationRunner, RecipeCacheWarmUpListener {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(RecipeCacheWarmUpRunner.class);
+
+    //Interface for recipe operations
+    private final RecipeFactory recipeFactoryHandler;
+
+    //Warm-up configuration
+    private final boolean warmUpEnabled;
+    private final int chunkSize;
+    private final int parallelism;
+
+    //Warm-up progress, published as gauges.
+    private final AtomicInteger totalRecipes = new AtomicInteger();
+    private final AtomicInteger loadedRecipes = new AtomicInteger();
+
+    //Time taken for the whole warm-up.
+    private final Timer warmUpTimer;
+
+    //Inject the recipeFactory implementation, metrics registry and warm-up configuration during instantiation.
+    public RecipeCacheWarmUpRunner(final RecipeFactory recipeFactoryHandler, final MeterRegistry meterRegistry,
+                                   @Value("${eatsy.recipe-cache.warm-up.enabled:true}") final boolean warmUpEnabled,
+                                   @Value("${eatsy.recipe-cache.warm-up.chunk-size:500}") final int chunkSize,
+                                   @Value("${eatsy.recipe-cache.warm-up.parallelism:4}") final int parallelism) {
+        this.recipeFactoryHandler = recipeFactoryHandler;
+        this.warmUpEnabled = warmUpEnabled;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+
+        meterRegistry.gauge("eatsy.recipe.cache.warmup.recipes.total", totalRecipes);
+        meterRegistry.gauge("eatsy.recipe.cache.warmup.recipes.loaded", loadedRecipes);
+        warmUpTimer = Timer.builder("eatsy.recipe.cache.warmup.duration")
+                .description("Time taken to load all persisted recipes into the in-memory recipe cache at start-up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads all persisted recipes into the recipe cache before the application reports itself as ready.
+     * A failed warm-up is logged rather than stopping the application, as the cache still fills on demand.
+     *
+     * @param args the application arguments (unused).
+     */
+    @Override
+    public void run(final ApplicationArguments args) {
+
+        if (!warmUpEnabled) {
+            logger.info("Recipe cache warm-up is disabled");
+            return;
+        }
+
+        final long warmUpStartTime = System.nanoTime();
+        try {
+            final int cachedRecipes = recipeFactoryHandler.warmUpRecipeCache(chunkSize, parallelism, this);
+            logger.info("Recipe cache warm-up completed with {} recipes in {}ms",
+                    cachedRecipes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - warmUpStartTime));
+        } catch (final RuntimeException e) {
+            logger.error("Recipe cache warm-up failed, recipes will be cached on demand instead", e);
+        } finally {
+            warmUpTimer.record(System.nanoTime() - warmUpStartTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void warmUpStarted(final int totalRecipes) {
+        this.totalRecipes.set(totalRecipes);
+        loadedRecipes.set(0);
+    }
+
+    @Override
+    public void chunkLoaded(final int recipesInChunk) {
+        loadedRecipes.addAndGet(recipesInChunk);
+    }
+
+}
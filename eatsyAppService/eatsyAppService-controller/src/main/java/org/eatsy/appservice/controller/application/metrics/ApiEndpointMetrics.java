@@ -0,0 +1,133 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-endpoint metrics of the recipe API, tagged with the name of the handler method, e.g. endpoint=retrieveAllRecipes.
+ * <ul>
+ *     <li>eatsy.api.latency - time taken to handle each request.</li>
+ *     <li>eatsy.api.inflight - number of requests being handled.</li>
+ *     <li>eatsy.api.request.size and eatsy.api.response.size - body sizes, in bytes.</li>
+ *     <li>eatsy.api.errors - number of requests answered with an error, also tagged with the status code.</li>
+ * </ul>
+ * Percentiles, histograms and SLO buckets are configured with the actuator's management.metrics.distribution
+ * properties. The meters of an endpoint are created on its first request and then found with a single map lookup.
+ */
+@Component
+public class ApiEndpointMetrics {
+
+    //Meter names
+    public static final String LATENCY = "eatsy.api.latency";
+    public static final String IN_FLIGHT = "eatsy.api.inflight";
+    public static final String REQUEST_SIZE = "eatsy.api.request.size";
+    public static final String RESPONSE_SIZE = "eatsy.api.response.size";
+    public static final String ERRORS = "eatsy.api.errors";
+
+    //Tag names
+    public static final String ENDPOINT_TAG = "endpoint";
+    public static final String STATUS_TAG = "status";
+
+    //Registry the meters are published to.
+    private final MeterRegistry meterRegistry;
+
+    //Meters of each endpoint, keyed by handler method.
+    private final ConcurrentMap<Method, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    //Inject the metrics registry during instantiation.
+    public ApiEndpointMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param handlerMethod the method handling the request.
+     * @return the meters of the endpoint.
+     */
+    EndpointMeters forHandler(final HandlerMethod handlerMethod) {
+        final Method method = handlerMethod.getMethod();
+        final EndpointMeters meters = endpointMeters.get(method);
+        return null != meters ? meters : endpointMeters.computeIfAbsent(method, key -> new EndpointMeters(key.getName()));
+    }
+
+    /**
+     * The meters of one endpoint.
+     */
+    final class EndpointMeters {
+
+        private final String endpoint;
+        private final Timer latency;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+
+        //Error counters, by status code. Created as each error status is first seen.
+        private final ConcurrentMap<Integer, Counter> errors = new ConcurrentHashMap<>();
+
+        private EndpointMeters(final String endpoint) {
+            this.endpoint = endpoint;
+            latency = Timer.builder(LATENCY)
+                    .description("Time taken to handle requests to the endpoint")
+                    .tag(ENDPOINT_TAG, endpoint)
+                    .register(meterRegistry);
+            meterRegistry.gauge(IN_FLIGHT, Tags.of(ENDPOINT_TAG, endpoint), inFlight);
+            requestSize = DistributionSummary.builder(REQUEST_SIZE)
+                    .description("Size of the request bodies sent to the endpoint, where the client gave their length")
+                    .baseUnit("bytes")
+                    .tag(ENDPOINT_TAG, endpoint)
+                    .register(meterRegistry);
+            responseSize = DistributionSummary.builder(RESPONSE_SIZE)
+                    .description("Size of the response bodies written by the endpoint, before compression")
+                    .baseUnit("bytes")
+                    .tag(ENDPOINT_TAG, endpoint)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Called as a request to the endpoint starts being handled.
+         */
+        void requestStarted() {
+            inFlight.incrementAndGet();
+        }
+
+        /**
+         * Called once a request to the endpoint is no longer being handled on this thread.
+         */
+        void requestEnded() {
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * Records a completed request.
+         *
+         * @param durationNanos the time taken to handle the request.
+         * @param requestBytes  the length of the request body, or -1 if not known.
+         * @param responseBytes the number of bytes of response body written.
+         * @param status        the response status code.
+         */
+        void requestCompleted(final long durationNanos, final long requestBytes, final long responseBytes, final int status) {
+            latency.record(durationNanos, TimeUnit.NANOSECONDS);
+            if (requestBytes >= 0) {
+                requestSize.record(requestBytes);
+            }
+            responseSize.record(responseBytes);
+            if (status >= 400) {
+                errors.computeIfAbsent(status, key -> Counter.builder(ERRORS)
+                        .description("Number of requests to the endpoint answered with an error status")
+                        .tags(ENDPOINT_TAG, endpoint, STATUS_TAG, String.valueOf(key))
+                        .register(meterRegistry)).increment();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the in-flight gauge of each recipe API endpoint, counting a request from when it is dispatched to the
+ * endpoint until its handler has returned. Unlike the metrics filter this runs once the endpoint is known,
+ * so a request is counted while it is being handled rather than only once it has finished.
+ */
+public class ApiInFlightInterceptor implements AsyncHandlerInterceptor {
+
+    //Per-endpoint meters
+    private final ApiEndpointMetrics apiEndpointMetrics;
+
+    public ApiInFlightInterceptor(final ApiEndpointMetrics apiEndpointMetrics) {
+        this.apiEndpointMetrics = apiEndpointMetrics;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (handler instanceof HandlerMethod) {
+            apiEndpointMetrics.forHandler((HandlerMethod) handler).requestStarted();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler,
+                                final Exception ex) {
+        if (handler instanceof HandlerMethod) {
+            apiEndpointMetrics.forHandler((HandlerMethod) handler).requestEnded();
+        }
+    }
+
+    /**
+     * A stream that carries on asynchronously is no longer in flight on the request thread once its handler returns.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(final HttpServletRequest request, final HttpServletResponse response,
+                                               final Object handler) {
+        afterCompletion(request, response, handler, null);
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import org.eatsy.appservice.controller.application.constants.EatsyRecipeEndpoints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Recipe API endpoint metrics configuration.
+ * Registers the filter that records each request's latency, body sizes and errors, and the interceptor that keeps
+ * the in-flight gauges, for the recipe API paths only.
+ */
+@Configuration
+public class ApiMetricsConfiguration implements WebMvcConfigurer {
+
+    //Per-endpoint meters
+    private final ApiEndpointMetrics apiEndpointMetrics;
+
+    //Whether the endpoint metrics are recorded.
+    private final boolean apiMetricsEnabled;
+
+    //Inject the endpoint meters and whether they are enabled during instantiation.
+    public ApiMetricsConfiguration(final ApiEndpointMetrics apiEndpointMetrics,
+                                   @Value("${eatsy.metrics.api.enabled:true}") final boolean apiMetricsEnabled) {
+        this.apiEndpointMetrics = apiEndpointMetrics;
+        this.apiMetricsEnabled = apiMetricsEnabled;
+    }
+
+    /**
+     * Registers the metrics filter after admission control, so shed requests are not timed.
+     */
+    @Bean
+    public FilterRegistrationBean<ApiMetricsFilter> apiMetricsFilter() {
+
+        final FilterRegistrationBean<ApiMetricsFilter> registration = new FilterRegistrationBean<>(
+                new ApiMetricsFilter(apiEndpointMetrics));
+        registration.addUrlPatterns(EatsyRecipeEndpoints.API + "/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        registration.setEnabled(apiMetricsEnabled);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        if (apiMetricsEnabled) {
+            registry.addInterceptor(new ApiInFlightInterceptor(apiEndpointMetrics))
+                    .addPathPatterns(EatsyRecipeEndpoints.API + "/**");
+        }
+    }
+
+}
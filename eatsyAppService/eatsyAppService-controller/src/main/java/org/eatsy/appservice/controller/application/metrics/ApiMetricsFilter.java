@@ -0,0 +1,51 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records the latency, body sizes and error status of every request to a recipe API endpoint.
+ * The endpoint is the handler method the request was dispatched to, so requests that do not reach an endpoint
+ * (e.g. those shed by admission control or for unknown paths) are not recorded. Streams that carry on
+ * asynchronously after the handler returns, such as the recipe change feed, are not recorded either, as their
+ * duration is the client's connection time rather than a latency.
+ */
+public class ApiMetricsFilter extends OncePerRequestFilter {
+
+    //Per-endpoint meters
+    private final ApiEndpointMetrics apiEndpointMetrics;
+
+    public ApiMetricsFilter(final ApiEndpointMetrics apiEndpointMetrics) {
+        this.apiEndpointMetrics = apiEndpointMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+
+        final ByteCountingResponseWrapper countingResponse = new ByteCountingResponseWrapper(response);
+        final long requestStartTime = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, countingResponse);
+            completed = true;
+        } finally {
+            final Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            if (handler instanceof HandlerMethod && !request.isAsyncStarted()) {
+                //An exception that escapes the handler and its exception handlers becomes a server error.
+                final int status = completed ? response.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR.value();
+                apiEndpointMetrics.forHandler((HandlerMethod) handler).requestCompleted(System.nanoTime() - requestStartTime,
+                        request.getContentLengthLong(), countingResponse.getBytesWritten(), status);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+/**
+ * Counts the bytes of response body written through the output stream, which is how the message converters and
+ * the bulk importer write. The count is of the body before any compression by the servlet container.
+ */
+class ByteCountingResponseWrapper extends HttpServletResponseWrapper {
+
+    //Counts the bytes written through the output stream. Created on first use.
+    private ByteCountingOutputStream countingOutputStream;
+
+    ByteCountingResponseWrapper(final HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (null == countingOutputStream) {
+            countingOutputStream = new ByteCountingOutputStream(super.getOutputStream());
+        }
+        return countingOutputStream;
+    }
+
+    /**
+     * @return the number of bytes written through the output stream.
+     */
+    long getBytesWritten() {
+        return null == countingOutputStream ? 0 : countingOutputStream.bytesWritten;
+    }
+
+    /**
+     * Output stream that counts the bytes passed through to the response's own output stream.
+     */
+    private static class ByteCountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream outputStream;
+
+        //Read by the request thread once the handler has returned. Not read for asynchronous responses,
+        //which may be written by other threads.
+        private long bytesWritten;
+
+        private ByteCountingOutputStream(final ServletOutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            outputStream.write(b);
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            outputStream.write(b, off, len);
+            bytesWritten += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            outputStream.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return outputStream.isReady();
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            outputStream.setWriteListener(writeListener);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Compact binary encodings of the recipe API, for service-to-service consumers.
+ * As well as JSON, every endpoint reads and writes CBOR (application/cbor) and Smile (application/x-jackson-smile),
+ * chosen by the Accept and Content-Type headers. Both encode the same Jackson data model as JSON, so the payloads
+ * have the same fields and published OpenAPI schema, and honour the same recipe field selection.
+ */
+@Configuration
+public class BinaryEncodingConfiguration {
+
+    //Media type of Smile, Jackson's binary encoding of JSON.
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * The object mapper builder is the one Spring Boot configures the JSON converter with, so the binary encodings
+     * share its settings and filters.
+     *
+     * @param objectMapperBuilder a new, configured object mapper builder.
+     * @return the converter for CBOR requests and responses.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(final Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * @param objectMapperBuilder a new, configured object mapper builder.
+     * @return the converter for Smile requests and responses.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(final Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.eatsy.appservice.model.RecipeField;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Recipe field selection configuration.
+ * RecipeModel is serialized through a named Jackson filter, so responses can be limited to the fields a client asks for.
+ * By default the filter serializes every field, and a response selects fields by wrapping its body in a
+ * MappingJacksonValue with the filters from {@link #filtersFor(Set)}.
+ */
+@Configuration
+public class RecipeFieldsConfiguration {
+
+    //Serializes every field of a recipe, for any response that has not selected fields.
+    private static final FilterProvider ALL_FIELDS_FILTERS = new SimpleFilterProvider()
+            .addFilter(RecipeField.FILTER_ID, new RecipeFieldsFilter(RecipeField.ALL));
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer recipeFieldsFilterCustomizer() {
+        return builder -> builder.filters(ALL_FIELDS_FILTERS);
+    }
+
+    /**
+     * @param fields the fields of the recipes to serialize.
+     * @return the Jackson filters that serialize only the fields of the recipes in a response.
+     */
+    public static FilterProvider filtersFor(final Set<RecipeField> fields) {
+        if (fields.containsAll(RecipeField.ALL)) {
+            return ALL_FIELDS_FILTERS;
+        }
+        return new SimpleFilterProvider()
+                .addFilter(RecipeField.FILTER_ID, new RecipeFieldsFilter(fields));
+    }
+
+}
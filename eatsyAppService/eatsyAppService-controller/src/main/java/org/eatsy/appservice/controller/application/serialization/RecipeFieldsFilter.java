@@ -0,0 +1,38 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import org.eatsy.appservice.model.RecipeField;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The recipe fields filter, which serializes only the selected fields of a recipe.
+ * As well as filtering bean properties by name, it tells the recipe model serializer which fields are selected
+ * without a property lookup per field.
+ */
+class RecipeFieldsFilter extends SimpleBeanPropertyFilter.FilterExceptFilter {
+
+    //The fields serialized.
+    private final Set<RecipeField> fields;
+
+    /**
+     * @param fields the fields of the recipes to serialize.
+     */
+    RecipeFieldsFilter(final Set<RecipeField> fields) {
+        super(RecipeField.fieldNamesOf(fields));
+        this.fields = fields.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(fields));
+    }
+
+    /**
+     * @param field a field of a recipe.
+     * @return true if the field is serialized.
+     */
+    boolean includes(final RecipeField field) {
+        return fields.contains(field);
+    }
+
+}
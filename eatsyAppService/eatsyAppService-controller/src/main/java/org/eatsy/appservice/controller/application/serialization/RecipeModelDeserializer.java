@@ -0,0 +1,129 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.eatsy.appservice.model.RecipeModel;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand-written deserializer for RecipeModel, the body of recipe creation and edit requests and of every line of a
+ * bulk import.
+ * <p>
+ * Reads the tokens straight into the model rather than through Jackson's reflective bean deserializer, and parses
+ * method step numbers directly instead of through the generic Integer key deserializer. Unknown fields are handled
+ * as the object mapper is configured to (ignored by default), and malformed values are reported with Jackson's
+ * usual exceptions.
+ */
+class RecipeModelDeserializer extends StdDeserializer<RecipeModel> {
+
+    RecipeModelDeserializer() {
+        super(RecipeModel.class);
+    }
+
+    @Override
+    public RecipeModel deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+
+        JsonToken token = parser.currentToken();
+        if (JsonToken.START_OBJECT == token) {
+            token = parser.nextToken();
+        } else if (JsonToken.FIELD_NAME != token && JsonToken.END_OBJECT != token) {
+            return (RecipeModel) context.handleUnexpectedToken(RecipeModel.class, parser);
+        }
+
+        final RecipeModel recipeModel = new RecipeModel();
+        for (; JsonToken.FIELD_NAME == token; token = parser.nextToken()) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "key":
+                    recipeModel.setKey(readText(parser, context));
+                    break;
+                case "name":
+                    recipeModel.setName(readText(parser, context));
+                    break;
+                case "ingredientSet":
+                    recipeModel.setIngredientSet(readIngredientSet(parser, context));
+                    break;
+                case "method":
+                    recipeModel.setMethod(readMethod(parser, context));
+                    break;
+                default:
+                    //Skips the value, or fails if unknown properties are not allowed.
+                    context.handleUnknownProperty(parser, this, RecipeModel.class, fieldName);
+            }
+        }
+        return recipeModel;
+    }
+
+    private static Set<String> readIngredientSet(final JsonParser parser, final DeserializationContext context) throws IOException {
+
+        if (JsonToken.VALUE_NULL == parser.currentToken()) {
+            return null;
+        }
+        if (JsonToken.START_ARRAY != parser.currentToken()) {
+            @SuppressWarnings("unchecked") final Set<String> ingredientSet = (Set<String>) context.handleUnexpectedToken(Set.class, parser);
+            return ingredientSet;
+        }
+        final Set<String> ingredientSet = new HashSet<>();
+        while (JsonToken.END_ARRAY != parser.nextToken()) {
+            ingredientSet.add(readText(parser, context));
+        }
+        return ingredientSet;
+    }
+
+    private static Map<Integer, String> readMethod(final JsonParser parser, final DeserializationContext context) throws IOException {
+
+        if (JsonToken.VALUE_NULL == parser.currentToken()) {
+            return null;
+        }
+        if (JsonToken.START_OBJECT != parser.currentToken()) {
+            @SuppressWarnings("unchecked") final Map<Integer, String> method = (Map<Integer, String>) context.handleUnexpectedToken(Map.class, parser);
+            return method;
+        }
+        final Map<Integer, String> method = new LinkedHashMap<>();
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+            final Integer stepNumber = parseStepNumber(parser.currentName(), context);
+            parser.nextToken();
+            method.put(stepNumber, readText(parser, context));
+        }
+        return method;
+    }
+
+    /**
+     * Parses a step number without going through a key deserializer. Integer.valueOf shares the boxed values of
+     * small step numbers, so typical methods allocate nothing per step.
+     */
+    private static Integer parseStepNumber(final String stepName, final DeserializationContext context) throws IOException {
+        try {
+            return Integer.valueOf(Integer.parseInt(stepName));
+        } catch (final NumberFormatException e) {
+            return (Integer) context.handleWeirdKey(Integer.class, stepName, "not a valid step number");
+        }
+    }
+
+    /**
+     * Reads a text value. Numbers and booleans are read as their text, as Jackson's String deserializer does.
+     */
+    private static String readText(final JsonParser parser, final DeserializationContext context) throws IOException {
+
+        final JsonToken token = parser.currentToken();
+        if (JsonToken.VALUE_STRING == token) {
+            return parser.getText();
+        }
+        if (JsonToken.VALUE_NULL == token) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+
+}
@@ -0,0 +1,35 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.eatsy.appservice.model.RecipeModel;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jackson module with the hand-written RecipeModel serializer and deserializer.
+ * Spring Boot registers every Jackson module bean with the object mapper builder, so the JSON, CBOR and Smile
+ * converters and the bulk importer all use them.
+ */
+@Component
+public class RecipeModelModule extends SimpleModule {
+
+    public RecipeModelModule() {
+        super(RecipeModelModule.class.getSimpleName());
+        addDeserializer(RecipeModel.class, new RecipeModelDeserializer());
+        //Wraps Jackson's bean serializer, rather than replacing it, so it remains available for other filters.
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(final SerializationConfig config, final BeanDescription beanDescription,
+                                                      final JsonSerializer<?> serializer) {
+                if (RecipeModel.class == beanDescription.getBeanClass()) {
+                    return new RecipeModelSerializer(serializer);
+                }
+                return serializer;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.eatsy.appservice.domain.MethodSteps;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeModel;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand-written serializer for RecipeModel, the bulk of every recipe list response.
+ * <p>
+ * Writes the fields straight to the generator rather than through Jackson's reflective bean serializer: there are no
+ * property writers or per-value serializer lookups, the field names are pre-encoded once and written as raw bytes, and
+ * method step numbers are written from a table of pre-encoded names instead of through the generic Integer key
+ * serializer. A method shared from a domain recipe is read by position, without boxing its step numbers or creating
+ * entries. It writes through the generator, so it serves JSON, CBOR and Smile alike.
+ * <p>
+ * Field selection is honoured by reading the selected fields from the recipe fields filter. Any other filter
+ * configured for the recipe filter id is handed to Jackson's bean serializer, as are polymorphic types.
+ * Null fields are written as nulls, as the application's object mapper does for every other model.
+ */
+class RecipeModelSerializer extends StdSerializer<RecipeModel> implements ResolvableSerializer {
+
+    //Field names, encoded once.
+    private static final SerializedString KEY = new SerializedString(RecipeField.KEY.getFieldName());
+    private static final SerializedString NAME = new SerializedString(RecipeField.NAME.getFieldName());
+    private static final SerializedString INGREDIENT_SET = new SerializedString(RecipeField.INGREDIENT_SET.getFieldName());
+    private static final SerializedString METHOD = new SerializedString(RecipeField.METHOD.getFieldName());
+
+    //Names of the step numbers recipes use, encoded once. Higher step numbers are converted as they are written.
+    private static final SerializedString[] STEP_NAMES = new SerializedString[128];
+
+    static {
+        for (int step = 0; step < STEP_NAMES.length; step++) {
+            STEP_NAMES[step] = new SerializedString(Integer.toString(step));
+        }
+    }
+
+    //Jackson's bean serializer for RecipeModel, for filters other than the recipe fields filter.
+    private final JsonSerializer<Object> beanSerializer;
+
+    /**
+     * @param beanSerializer Jackson's bean serializer for RecipeModel.
+     */
+    @SuppressWarnings("unchecked")
+    RecipeModelSerializer(final JsonSerializer<?> beanSerializer) {
+        super(RecipeModel.class);
+        this.beanSerializer = (JsonSerializer<Object>) beanSerializer;
+    }
+
+    @Override
+    public void resolve(final SerializerProvider provider) throws JsonMappingException {
+        if (beanSerializer instanceof ResolvableSerializer) {
+            ((ResolvableSerializer) beanSerializer).resolve(provider);
+        }
+    }
+
+    @Override
+    public void serialize(final RecipeModel recipeModel, final JsonGenerator generator, final SerializerProvider provider)
+            throws IOException {
+
+        //No filters configured means every field is serialized.
+        final FilterProvider filterProvider = provider.getFilterProvider();
+        RecipeFieldsFilter recipeFieldsFilter = null;
+        if (null != filterProvider) {
+            final PropertyFilter filter = filterProvider.findPropertyFilter(RecipeField.FILTER_ID, recipeModel);
+            if (!(filter instanceof RecipeFieldsFilter)) {
+                beanSerializer.serialize(recipeModel, generator, provider);
+                return;
+            }
+            recipeFieldsFilter = (RecipeFieldsFilter) filter;
+        }
+
+        generator.writeStartObject(recipeModel);
+        if (null == recipeFieldsFilter || recipeFieldsFilter.includes(RecipeField.KEY)) {
+            generator.writeFieldName(KEY);
+            writeText(generator, recipeModel.getKey());
+        }
+        if (null == recipeFieldsFilter || recipeFieldsFilter.includes(RecipeField.NAME)) {
+            generator.writeFieldName(NAME);
+            writeText(generator, recipeModel.getName());
+        }
+        if (null == recipeFieldsFilter || recipeFieldsFilter.includes(RecipeField.INGREDIENT_SET)) {
+            generator.writeFieldName(INGREDIENT_SET);
+            writeIngredientSet(generator, recipeModel.getIngredientSet());
+        }
+        if (null == recipeFieldsFilter || recipeFieldsFilter.includes(RecipeField.METHOD)) {
+            generator.writeFieldName(METHOD);
+            writeMethod(generator, provider, recipeModel.getMethod());
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(final RecipeModel recipeModel, final JsonGenerator generator,
+                                  final SerializerProvider provider, final TypeSerializer typeSerializer) throws IOException {
+        beanSerializer.serializeWithType(recipeModel, generator, provider, typeSerializer);
+    }
+
+    private static void writeIngredientSet(final JsonGenerator generator, final Set<String> ingredientSet) throws IOException {
+
+        if (null == ingredientSet) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray(ingredientSet, ingredientSet.size());
+        for (final String ingredient : ingredientSet) {
+            writeText(generator, ingredient);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeMethod(final JsonGenerator generator, final SerializerProvider provider,
+                                    final Map<Integer, String> method) throws IOException {
+
+        if (null == method) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(method, method.size());
+        if (method instanceof MethodSteps) {
+            //Method steps have no null step numbers.
+            final MethodSteps methodSteps = (MethodSteps) method;
+            for (int i = 0; i < methodSteps.size(); i++) {
+                writeStepNumber(generator, methodSteps.stepNumberAt(i));
+                writeText(generator, methodSteps.stepAt(i));
+            }
+        } else {
+            for (final Map.Entry<Integer, String> step : method.entrySet()) {
+                final Integer stepNumber = step.getKey();
+                if (null == stepNumber) {
+                    //Reported as Jackson reports any other null map key.
+                    provider.findNullKeySerializer(provider.constructType(Integer.class), null)
+                            .serialize(null, generator, provider);
+                } else {
+                    writeStepNumber(generator, stepNumber);
+                }
+                writeText(generator, step.getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeStepNumber(final JsonGenerator generator, final int stepNumber) throws IOException {
+        if (stepNumber >= 0 && stepNumber < STEP_NAMES.length) {
+            generator.writeFieldName(STEP_NAMES[stepNumber]);
+        } else {
+            generator.writeFieldName(Integer.toString(stepNumber));
+        }
+    }
+
+    private static void writeText(final JsonGenerator generator, final String text) throws IOException {
+        if (null == text) {
+            generator.writeNull();
+        } else {
+            generator.writeString(text);
+        }
+    }
+
+}
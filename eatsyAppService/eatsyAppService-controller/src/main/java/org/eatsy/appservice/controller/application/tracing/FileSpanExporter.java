@@ -0,0 +1,96 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends spans to a local file as JSON lines, one span per line, for tracing without a collector.
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(FileSpanExporter.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    //Writer of the span file, guarded by this.
+    private final Writer writer;
+
+    /**
+     * @param path the file the spans are appended to, created if it does not exist.
+     * @throws IOException if the file cannot be opened.
+     */
+    public FileSpanExporter(final Path path) throws IOException {
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(final Collection<SpanData> spans) {
+        try {
+            for (final SpanData span : spans) {
+                writer.write(objectMapper.writeValueAsString(toJsonFields(span)));
+                writer.write('\n');
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (final IOException e) {
+            logger.warn("Failed to write {} spans to the span file", spans.size(), e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        //Every export is flushed as it is written.
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (final IOException e) {
+            logger.warn("Failed to close the span file", e);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * @return the fields of a span, in the order they are written.
+     */
+    static Map<String, Object> toJsonFields(final SpanData span) {
+
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("traceId", span.getTraceId());
+        fields.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            fields.put("parentSpanId", span.getParentSpanId());
+        }
+        fields.put("name", span.getName());
+        fields.put("kind", span.getKind().name());
+        fields.put("startEpochNanos", span.getStartEpochNanos());
+        fields.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        fields.put("status", span.getStatus().getStatusCode().name());
+        final Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        fields.put("attributes", attributes);
+        return fields;
+    }
+
+}
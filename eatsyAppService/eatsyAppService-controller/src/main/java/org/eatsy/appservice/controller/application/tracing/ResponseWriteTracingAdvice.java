@@ -0,0 +1,74 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.ServletRequest;
+
+/**
+ * Traces the writing of response bodies, which is where Jackson serialises the response (as JSON, CBOR or Smile).
+ * The span starts once the controller has returned and the message converter has been chosen, and is ended by the
+ * tracing filter once the response has been written.
+ */
+@ControllerAdvice
+public class ResponseWriteTracingAdvice implements ResponseBodyAdvice<Object> {
+
+    //Request attribute holding the span of the response body being written.
+    private static final String RESPONSE_WRITE_SPAN_ATTRIBUTE = ResponseWriteTracingAdvice.class.getName() + ".span";
+
+    private final Tracer tracer;
+
+    //Whether requests are traced.
+    private final boolean tracingEnabled;
+
+    //Inject the tracer and whether tracing is enabled during instantiation.
+    public ResponseWriteTracingAdvice(final Tracer tracer,
+                                      @Value("${eatsy.tracing.enabled:true}") final boolean tracingEnabled) {
+        this.tracer = tracer;
+        this.tracingEnabled = tracingEnabled;
+    }
+
+    @Override
+    public boolean supports(final MethodParameter returnType,
+                            final Class<? extends HttpMessageConverter<?>> converterType) {
+        return tracingEnabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(final Object body, final MethodParameter returnType, final MediaType selectedContentType,
+                                  final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  final ServerHttpRequest request, final ServerHttpResponse response) {
+
+        if (Span.current().getSpanContext().isValid() && request instanceof ServletServerHttpRequest) {
+            final Span span = tracer.spanBuilder("write response")
+                    .setAttribute("http.response.content_type", String.valueOf(selectedContentType))
+                    .setAttribute("eatsy.message_converter", selectedConverterType.getSimpleName())
+                    .startSpan();
+            ((ServletServerHttpRequest) request).getServletRequest().setAttribute(RESPONSE_WRITE_SPAN_ATTRIBUTE, span);
+        }
+        return body;
+    }
+
+    /**
+     * Ends the response write span of a request, if one was started.
+     *
+     * @param request the request whose response has been written.
+     */
+    static void endResponseWriteSpan(final ServletRequest request) {
+        final Object span = request.getAttribute(RESPONSE_WRITE_SPAN_ATTRIBUTE);
+        if (span instanceof Span) {
+            request.removeAttribute(RESPONSE_WRITE_SPAN_ATTRIBUTE);
+            ((Span) span).end();
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+
+/**
+ * Traces each call to a bean as a span named after the bean's class and the method called, e.g.
+ * "RecipeFactoryHandler.retrieveAllRecipes".
+ * Only calls made within a trace are traced, so start-up work such as the recipe cache warm-up is not.
+ */
+class SpanMethodInterceptor implements MethodInterceptor {
+
+    private final Tracer tracer;
+
+    //Simple class name of the traced bean, prefixing the span names.
+    private final String componentName;
+
+    SpanMethodInterceptor(final Tracer tracer, final String componentName) {
+        this.tracer = tracer;
+        this.componentName = componentName;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+
+        final Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class || !Span.current().getSpanContext().isValid()) {
+            return invocation.proceed();
+        }
+
+        final Span span = tracer.spanBuilder(componentName + "." + method.getName())
+                .setAttribute("code.namespace", componentName)
+                .setAttribute("code.function", method.getName())
+                .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return invocation.proceed();
+        } catch (final Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+}
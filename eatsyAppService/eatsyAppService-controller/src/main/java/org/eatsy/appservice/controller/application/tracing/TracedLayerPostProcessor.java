@@ -0,0 +1,58 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.Tracer;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.RecipeFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the controllers, recipe factory, recipe mapper and repository service in proxies that trace each call
+ * made on behalf of a traced request, so a request's trace shows the time spent in each layer.
+ * The time a recipe factory span spends outside its mapper and repository child spans is spent in the recipe cache.
+ */
+public class TracedLayerPostProcessor implements BeanPostProcessor {
+
+    //Interfaces of the traced layers below the controllers.
+    private static final List<Class<?>> TRACED_INTERFACES = Arrays.asList(
+            RecipeFactory.class, RecipeMapper.class, EatsyRepositoryService.class);
+
+    //Supplies the tracer once the first traced bean is created, as post processors are created before other beans.
+    private final Supplier<Tracer> tracerSupplier;
+
+    //Whether requests are traced.
+    private final boolean tracingEnabled;
+
+    public TracedLayerPostProcessor(final Supplier<Tracer> tracerSupplier, final boolean tracingEnabled) {
+        this.tracerSupplier = tracerSupplier;
+        this.tracingEnabled = tracingEnabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+
+        if (!tracingEnabled) {
+            return bean;
+        }
+        final Class<?> beanClass = ClassUtils.getUserClass(bean);
+        final boolean controller = AnnotatedElementUtils.hasAnnotation(beanClass, RestController.class);
+        if (!controller && TRACED_INTERFACES.stream().noneMatch(tracedInterface -> tracedInterface.isInstance(bean))) {
+            return bean;
+        }
+
+        final ProxyFactory proxyFactory = new ProxyFactory(bean);
+        //Controllers are not called through an interface, and keep their class so their request mappings are still found.
+        proxyFactory.setProxyTargetClass(controller);
+        proxyFactory.addAdvice(new SpanMethodInterceptor(tracerSupplier.get(), beanClass.getSimpleName()));
+        return proxyFactory.getProxy(beanClass.getClassLoader());
+    }
+
+}
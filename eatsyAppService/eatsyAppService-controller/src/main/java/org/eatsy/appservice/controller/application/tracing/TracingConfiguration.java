@@ -0,0 +1,150 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.eatsy.appservice.controller.application.constants.EatsyRecipeEndpoints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Request tracing configuration for the recipe API.
+ * Each request is traced from the tracing filter through the controllers, recipe factory, mapper and repository down to
+ * the SQL statements it runs, continuing any W3C trace context sent with the request.
+ * Spans are exported to every SpanExporter bean: the built-in exporter selected by eatsy.tracing.exporter, and any
+ * other exporter the application defines.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    //Instrumentation scope of the spans created by the application.
+    public static final String INSTRUMENTATION_NAME = "org.eatsy.appservice";
+
+    //Resource attribute naming the service the spans came from.
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    /**
+     * @param exporter     "logging" to log spans, "file" to append them as JSON lines to a local file, "otlp" to send
+     *                     them to an OTLP collector, or "none".
+     * @param filePath     the file spans are appended to by the file exporter.
+     * @param otlpEndpoint the OTLP/HTTP traces endpoint of the collector used by the otlp exporter.
+     * @return the built-in span exporter.
+     */
+    @Bean
+    public SpanExporter spanExporter(@Value("${eatsy.tracing.exporter:none}") final String exporter,
+                                     @Value("${eatsy.tracing.file.path:eatsy-spans.jsonl}") final String filePath,
+                                     @Value("${eatsy.tracing.otlp.endpoint:http://localhost:4318/v1/traces}") final String otlpEndpoint)
+            throws IOException {
+
+        switch (exporter.trim()) {
+            case "logging":
+                return LoggingSpanExporter.create();
+            case "file":
+                return new FileSpanExporter(Paths.get(filePath));
+            case "otlp":
+                return OtlpHttpSpanExporter.builder().setEndpoint(otlpEndpoint).build();
+            case "none":
+                return SpanExporter.composite();
+            default:
+                throw new IllegalArgumentException("Unknown span exporter: " + exporter);
+        }
+    }
+
+    /**
+     * Creates the tracer provider, which exports the spans to every span exporter and is shut down with the
+     * application so buffered spans are flushed.
+     *
+     * @param spanExporters the span exporters.
+     * @param samplingRatio the fraction of new traces that are sampled. Traces continued from a request follow the
+     *                      sampling decision of the caller.
+     * @param serviceName   the service name the spans are reported under.
+     */
+    @Bean
+    public SdkTracerProvider sdkTracerProvider(final ObjectProvider<SpanExporter> spanExporters,
+                                               @Value("${eatsy.tracing.sampling-ratio:0.1}") final double samplingRatio,
+                                               @Value("${spring.application.name:eatsy}") final String serviceName) {
+
+        final SdkTracerProviderBuilder tracerProviderBuilder = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(Attributes.of(SERVICE_NAME, serviceName))))
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplingRatio)));
+        spanExporters.orderedStream().forEach(spanExporter ->
+                tracerProviderBuilder.addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build()));
+        return tracerProviderBuilder.build();
+    }
+
+    /**
+     * @param sdkTracerProvider the tracer provider.
+     * @param tracingEnabled    whether requests are traced.
+     * @return OpenTelemetry with W3C trace context and baggage propagation, or a no-op implementation if tracing is disabled.
+     */
+    @Bean
+    public OpenTelemetry openTelemetry(final SdkTracerProvider sdkTracerProvider,
+                                       @Value("${eatsy.tracing.enabled:true}") final boolean tracingEnabled) {
+
+        if (!tracingEnabled) {
+            return OpenTelemetry.noop();
+        }
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(sdkTracerProvider)
+                .setPropagators(ContextPropagators.create(TextMapPropagator.composite(
+                        W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance())))
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(final OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    /**
+     * Registers the tracing filter for the recipe API paths only, ahead of admission control so that shed requests
+     * are traced too.
+     */
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(final OpenTelemetry openTelemetry, final Tracer tracer,
+                                                               @Value("${eatsy.tracing.enabled:true}") final boolean tracingEnabled) {
+
+        final FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(
+                new TracingFilter(tracer, openTelemetry.getPropagators().getTextMapPropagator()));
+        registration.addUrlPatterns(EatsyRecipeEndpoints.API + "/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(tracingEnabled);
+        return registration;
+    }
+
+    //Post processors are static so they are created before, and can wrap, the beans of the other configurations.
+
+    @Bean
+    public static TracedLayerPostProcessor tracedLayerPostProcessor(final ObjectProvider<Tracer> tracer,
+                                                                    @Value("${eatsy.tracing.enabled:true}") final boolean tracingEnabled) {
+        return new TracedLayerPostProcessor(tracer::getObject, tracingEnabled);
+    }
+
+    @Bean
+    public static TracingDataSourcePostProcessor tracingDataSourcePostProcessor(final ObjectProvider<Tracer> tracer,
+                                                                                @Value("${eatsy.tracing.enabled:true}") final boolean tracingEnabled) {
+        return new TracingDataSourcePostProcessor(tracer::getObject, tracingEnabled);
+    }
+
+}
@@ -0,0 +1,233 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Data source that traces the SQL statements run through its connections.
+ * Each execution of a statement within a trace becomes a span named after the SQL operation (e.g. SELECT or INSERT),
+ * holding the SQL and, for batches, the number of statements batched. Statements run outside a trace, such as those
+ * of the recipe cache warm-up, are not traced.
+ * Connections and statements are wrapped in dynamic proxies, and the underlying pool can still be unwrapped.
+ */
+public class TracingDataSource implements DataSource {
+
+    //The data source whose connections are traced.
+    private final DataSource dataSource;
+
+    private final Tracer tracer;
+
+    public TracingDataSource(final DataSource dataSource, final Tracer tracer) {
+        this.dataSource = dataSource;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traceConnection(dataSource.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return traceConnection(dataSource.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || dataSource.isWrapperFor(iface);
+    }
+
+    private Connection traceConnection(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * @return the SQL operation of a statement, its first keyword.
+     */
+    static String sqlOperation(final String sql) {
+        if (sql == null) {
+            return "SQL";
+        }
+        final String trimmedSql = sql.trim();
+        int operationEnd = 0;
+        while (operationEnd < trimmedSql.length() && Character.isLetter(trimmedSql.charAt(operationEnd))) {
+            operationEnd++;
+        }
+        return operationEnd == 0 ? "SQL" : trimmedSql.substring(0, operationEnd).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Invokes a method on the wrapped JDBC object, rethrowing what the method throws rather than the reflection exception.
+     */
+    private static Object invokeTarget(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Base of the connection and statement proxies. A proxy is only equal to itself, as the JDBC object it wraps
+     * cannot know it is equal to its proxy.
+     */
+    private abstract static class JdbcProxyHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return args.length == 1 && proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invokeJdbc(method, args);
+            }
+        }
+
+        abstract Object invokeJdbc(Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Wraps the statements created by a connection.
+     */
+    private final class ConnectionHandler extends JdbcProxyHandler {
+
+        private final Connection connection;
+
+        private ConnectionHandler(final Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        Object invokeJdbc(final Method method, final Object[] args) throws Throwable {
+
+            final Object result = invokeTarget(connection, method, args);
+            if (!(result instanceof Statement) || !Statement.class.isAssignableFrom(method.getReturnType())) {
+                return result;
+            }
+            //Prepared and callable statements are created from their SQL, plain statements are given SQL when executed.
+            final String preparedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()}, new StatementHandler((Statement) result, preparedSql));
+        }
+    }
+
+    /**
+     * Traces the executions of a statement. Statements are used by one thread at a time, so the batch state is not guarded.
+     */
+    private final class StatementHandler extends JdbcProxyHandler {
+
+        private final Statement statement;
+
+        //SQL the statement was prepared with, null for plain statements.
+        private final String preparedSql;
+
+        //Statements added to the current batch, and the SQL of the first statement added to a plain statement's batch.
+        private int batchSize;
+        private String batchSql;
+
+        private StatementHandler(final Statement statement, final String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object invokeJdbc(final Method method, final Object[] args) throws Throwable {
+
+            final String methodName = method.getName();
+            if ("addBatch".equals(methodName)) {
+                batchSize++;
+                if (batchSql == null && args != null && args.length > 0) {
+                    batchSql = (String) args[0];
+                }
+            } else if ("clearBatch".equals(methodName)) {
+                clearBatch();
+            }
+            if (!methodName.startsWith("execute") || !Span.current().getSpanContext().isValid()) {
+                return invokeTarget(statement, method, args);
+            }
+
+            final boolean batch = methodName.endsWith("Batch");
+            String sql = preparedSql;
+            if (sql == null) {
+                sql = batch ? batchSql : (String) args[0];
+            }
+            final SpanBuilder spanBuilder = tracer.spanBuilder(sqlOperation(sql))
+                    .setSpanKind(SpanKind.CLIENT)
+                    .setAttribute("db.operation", sqlOperation(sql));
+            if (sql != null) {
+                spanBuilder.setAttribute("db.statement", sql);
+            }
+            if (batch) {
+                spanBuilder.setAttribute("db.batch_size", batchSize);
+                //Executing a batch clears it.
+                clearBatch();
+            }
+            final Span span = spanBuilder.startSpan();
+            try (Scope ignored = span.makeCurrent()) {
+                return invokeTarget(statement, method, args);
+            } catch (final Throwable e) {
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR);
+                throw e;
+            } finally {
+                span.end();
+            }
+        }
+
+        private void clearBatch() {
+            batchSize = 0;
+            batchSql = null;
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the application's data sources so the SQL statements run on behalf of a traced request are traced.
+ */
+public class TracingDataSourcePostProcessor implements BeanPostProcessor {
+
+    //Supplies the tracer once the data source is created, as post processors are created before other beans.
+    private final Supplier<Tracer> tracerSupplier;
+
+    //Whether requests are traced.
+    private final boolean tracingEnabled;
+
+    public TracingDataSourcePostProcessor(final Supplier<Tracer> tracerSupplier, final boolean tracingEnabled) {
+        this.tracerSupplier = tracerSupplier;
+        this.tracingEnabled = tracingEnabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+
+        if (tracingEnabled && bean instanceof DataSource && !(bean instanceof TracingDataSource)) {
+            return new TracingDataSource((DataSource) bean, tracerSupplier.get());
+        }
+        return bean;
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Starts the server span of every request to the recipe API, continuing the trace of the caller when the request
+ * carries trace context headers (e.g. a W3C traceparent header).
+ * The span is current while the request is handled, so the spans of the controller, service, mapper, repository and
+ * SQL statements become its children. Streams that carry on asynchronously after the handler returns, such as the
+ * recipe change feed, are only traced until the handler returns.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    //Reads the trace context headers of a request.
+    private static final TextMapGetter<HttpServletRequest> REQUEST_HEADERS = new TextMapGetter<HttpServletRequest>() {
+        @Override
+        public Iterable<String> keys(final HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(final HttpServletRequest request, final String key) {
+            return request == null ? null : request.getHeader(key);
+        }
+    };
+
+    private final Tracer tracer;
+
+    //Extracts the caller's trace context from the request headers.
+    private final TextMapPropagator propagator;
+
+    public TracingFilter(final Tracer tracer, final TextMapPropagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+
+        final Context callerContext = propagator.extract(Context.root(), request, REQUEST_HEADERS);
+        final Span span = tracer.spanBuilder("HTTP " + request.getMethod())
+                .setParent(callerContext)
+                .setSpanKind(SpanKind.SERVER)
+                .setAttribute("http.method", request.getMethod())
+                .setAttribute("http.target", request.getRequestURI())
+                .startSpan();
+        boolean completed = false;
+        try (Scope ignored = span.makeCurrent()) {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } catch (final ServletException | IOException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            //Name the span after the endpoint's path pattern, which unlike the request path does not vary by request.
+            final Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.updateName(request.getMethod() + " " + route);
+                span.setAttribute("http.route", route.toString());
+            }
+            //An exception that escapes the handler and its exception handlers becomes a server error.
+            final int status = completed ? response.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR.value();
+            span.setAttribute("http.status_code", status);
+            if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            ResponseWriteTracingAdvice.endResponseWriteSpan(request);
+            span.end();
+        }
+    }
+
+}
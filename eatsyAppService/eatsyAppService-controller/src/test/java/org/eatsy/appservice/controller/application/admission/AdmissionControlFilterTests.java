@@ -0,0 +1,183 @@
+package org.eatsy.appservice.controller.application.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for the AdmissionControlFilter.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class AdmissionControlFilterTests {
+
+    private GradientConcurrencyLimiter readLimiter;
+    private GradientConcurrencyLimiter writeLimiter;
+    private GradientConcurrencyLimiter importLimiter;
+    private GradientConcurrencyLimiter changeFeedLimiter;
+
+    /**
+     * Class under test.
+     */
+    private AdmissionControlFilter admissionControlFilter;
+
+    @BeforeEach
+    public void setup() {
+        readLimiter = new GradientConcurrencyLimiter(1, 1, 1);
+        writeLimiter = new GradientConcurrencyLimiter(1, 1, 1);
+        importLimiter = new GradientConcurrencyLimiter(1, 1, 1);
+        changeFeedLimiter = new GradientConcurrencyLimiter(1, 1, 1);
+        final Map<String, GradientConcurrencyLimiter> streamingLimiters = new HashMap<>();
+        streamingLimiters.put("/api/import", importLimiter);
+        streamingLimiters.put("/api/changes", changeFeedLimiter);
+        admissionControlFilter = new AdmissionControlFilter(readLimiter, writeLimiter, streamingLimiters, 2);
+    }
+
+    /**
+     * Check a request within budget is passed on and its permit is released afterwards.
+     */
+    @Test
+    public void checkRequestWithinBudgetIsAdmitted() throws Exception {
+
+        //Setup
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/retrieveAllRecipes");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        //Test
+        admissionControlFilter.doFilter(request, response, filterChain);
+
+        //Assertions
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertNotNull(filterChain.getRequest());
+        Assertions.assertEquals(0, readLimiter.getInFlight());
+    }
+
+    /**
+     * Check a request over budget is shed with a 503 and Retry-After, without reaching the controller.
+     */
+    @Test
+    public void checkRequestOverBudgetIsShed() throws Exception {
+
+        //Setup - use up the read budget.
+        Assertions.assertTrue(readLimiter.tryAcquire());
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/retrieveAllRecipes");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        //Test
+        admissionControlFilter.doFilter(request, response, filterChain);
+
+        //Assertions
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        Assertions.assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertNull(filterChain.getRequest());
+    }
+
+    /**
+     * Check reads and writes have separate budgets, so writes are still admitted when the read budget is used up.
+     */
+    @Test
+    public void checkWritesHaveSeparateBudget() throws Exception {
+
+        //Setup - use up the read budget.
+        Assertions.assertTrue(readLimiter.tryAcquire());
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/add");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        //Test
+        admissionControlFilter.doFilter(request, response, filterChain);
+
+        //Assertions
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertNotNull(filterChain.getRequest());
+        Assertions.assertEquals(0, writeLimiter.getInFlight());
+    }
+
+    /**
+     * Check a streaming import has its own budget, so it is admitted when the write budget is used up,
+     * and its duration is not taken as a latency sample.
+     */
+    @Test
+    public void checkStreamingRequestsHaveSeparateBudget() throws Exception {
+
+        //Setup - use up the write budget.
+        Assertions.assertTrue(writeLimiter.tryAcquire());
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/import");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+
+        //Test
+        admissionControlFilter.doFilter(request, response, filterChain);
+
+        //Assertions
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertNotNull(filterChain.getRequest());
+        Assertions.assertEquals(0, importLimiter.getInFlight());
+        Assertions.assertEquals(1, writeLimiter.getInFlight());
+        Assertions.assertEquals(1, importLimiter.getLimit());
+    }
+
+    /**
+     * Check the change feed has a budget apart from imports, so clients are admitted while the import budget is used up.
+     */
+    @Test
+    public void checkChangeFeedIsAdmittedWhenImportBudgetIsUsedUp() throws Exception {
+
+        //Setup - use up the import budget.
+        Assertions.assertTrue(importLimiter.tryAcquire());
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/changes");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain();
+        final MockHttpServletResponse importResponse = new MockHttpServletResponse();
+
+        //Test
+        admissionControlFilter.doFilter(request, response, filterChain);
+        admissionControlFilter.doFilter(new MockHttpServletRequest("POST", "/api/import"), importResponse, new MockFilterChain());
+
+        //Assertions
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertNotNull(filterChain.getRequest());
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), importResponse.getStatus());
+        Assertions.assertEquals(0, changeFeedLimiter.getInFlight());
+        Assertions.assertEquals(1, importLimiter.getInFlight());
+    }
+
+    /**
+     * Check a stream of recipe changes holds its permit until its response completes, not just until the controller returns.
+     */
+    @Test
+    public void checkAsyncRequestHoldsPermitUntilComplete() throws Exception {
+
+        //Setup - the controller starts a stream and returns, as an SSE emitter does.
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/changes");
+        request.setAsyncSupported(true);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+        }, (filteredRequest, filteredResponse, chain) -> filteredRequest.startAsync());
+
+        //Test
+        admissionControlFilter.doFilter(request, response, filterChain);
+        final int inFlightWhileStreaming = changeFeedLimiter.getInFlight();
+        final MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+        admissionControlFilter.doFilter(new MockHttpServletRequest("GET", "/api/changes"), secondResponse, new MockFilterChain());
+        request.getAsyncContext().complete();
+
+        //Assertions
+        Assertions.assertEquals(1, inFlightWhileStreaming);
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), secondResponse.getStatus());
+        Assertions.assertEquals(0, changeFeedLimiter.getInFlight());
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.eatsy.appservice.controller.application.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the adaptive GradientConcurrencyLimiter.
+ */
+public class GradientConcurrencyLimiterTests {
+
+    //Latency of the simulated service when it is not overloaded.
+    private static final long BASE_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Check requests are admitted up to the limit and shed beyond it, and that releasing a permit admits the next request.
+     */
+    @Test
+    public void checkRequestsShedAtLimit() {
+
+        //Setup
+        final GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(4, 1, 10);
+
+        //Test
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(limiter.tryAcquire());
+        }
+
+        //Assertions
+        Assertions.assertFalse(limiter.tryAcquire());
+        Assertions.assertEquals(4, limiter.getInFlight());
+        limiter.releaseWithoutSample();
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertEquals(1L, limiter.getState().get("rejected"));
+    }
+
+    /**
+     * Check the limit is reduced when latency rises well beyond the minimum observed latency.
+     */
+    @Test
+    public void checkLimitReducedWhenLatencyRises() {
+
+        //Setup - establish the minimum latency with the limiter fully used.
+        final GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 1, 100);
+        runRound(limiter, 20, BASE_LATENCY_NANOS);
+        final int limitAtBaseLatency = limiter.getLimit();
+
+        //Test - latency rises to five times the minimum.
+        for (int round = 0; round < 10; round++) {
+            runRound(limiter, 100, BASE_LATENCY_NANOS * 5);
+        }
+
+        //Assertion
+        Assertions.assertTrue(limiter.getLimit() < limitAtBaseLatency,
+                "Limit " + limiter.getLimit() + " should be below " + limitAtBaseLatency);
+    }
+
+    /**
+     * Check the limit does not grow while the service is only lightly used.
+     */
+    @Test
+    public void checkLimitNotGrownWhenUnderused() {
+
+        //Setup
+        final GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 1, 100);
+
+        //Test
+        for (int round = 0; round < 50; round++) {
+            runRound(limiter, 2, BASE_LATENCY_NANOS);
+        }
+
+        //Assertion
+        Assertions.assertEquals(20, limiter.getLimit());
+    }
+
+    /**
+     * Load test past saturation.
+     * A simulated service processes CAPACITY requests concurrently at the base latency; beyond that requests queue and
+     * latency grows in proportion to concurrency. Ten times the capacity is offered in every round.
+     * Without admission control every request would be admitted and p99 latency would be ten times the base latency.
+     * With the limiter the excess is shed and the p99 latency of admitted requests stays within three times the base.
+     */
+    @Test
+    public void checkP99LatencyBoundedPastSaturation() {
+
+        //Setup
+        final int capacity = 10;
+        final int offeredConcurrency = capacity * 10;
+        final GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 1, 1000);
+        final List<Long> admittedLatencies = new ArrayList<>();
+        long admittedRequests = 0;
+
+        //Test
+        for (int round = 0; round < 5000; round++) {
+            int admittedInRound = 0;
+            for (int client = 0; client < offeredConcurrency; client++) {
+                if (limiter.tryAcquire()) {
+                    admittedInRound++;
+                }
+            }
+            final long latency = BASE_LATENCY_NANOS * Math.max(capacity, admittedInRound) / capacity;
+            for (int i = 0; i < admittedInRound; i++) {
+                limiter.release(latency);
+                //Ignore the rounds where the limiter is still learning the minimum latency.
+                if (round >= 200) {
+                    admittedLatencies.add(latency);
+                }
+            }
+            admittedRequests += admittedInRound;
+        }
+
+        //Assertions
+        Collections.sort(admittedLatencies);
+        final long p99Latency = admittedLatencies.get((int) (admittedLatencies.size() * 0.99));
+        Assertions.assertTrue(p99Latency <= BASE_LATENCY_NANOS * 3,
+                "p99 latency " + TimeUnit.NANOSECONDS.toMillis(p99Latency) + "ms is not bounded");
+        //Shedding must not starve the service: on average it should still be kept at least at capacity.
+        Assertions.assertTrue(admittedRequests / 5000 >= capacity);
+    }
+
+    /**
+     * Admits up to the requested number of concurrent requests, then completes them all with the given latency.
+     */
+    private static void runRound(final GradientConcurrencyLimiter limiter, final int requests, final long latencyNanos) {
+        int admitted = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limiter.tryAcquire()) {
+                admitted++;
+            }
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(latencyNanos);
+        }
+    }
+
+}
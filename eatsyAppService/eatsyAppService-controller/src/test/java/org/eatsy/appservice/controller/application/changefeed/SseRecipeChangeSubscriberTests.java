@@ -0,0 +1,148 @@
+package org.eatsy.appservice.controller.application.changefeed;
+
+import org.eatsy.appservice.model.RecipeChangeEventModel;
+import org.eatsy.appservice.service.changefeed.RecipeChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for writing recipe changes to a client's server-sent event stream.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class SseRecipeChangeSubscriberTests {
+
+    //Most events queued for the client in these tests.
+    private static final int MAX_QUEUED_EVENTS = 2;
+
+    //How long to wait for the dispatch thread, in milliseconds.
+    private static final int DISPATCH_TIMEOUT_MILLIS = 5000;
+
+    //Create a mock of the client's stream, to check what is written to it.
+    @Mock
+    private SseEmitter sseEmitter;
+
+    //Create a mock implementation of the RecipeChangeFeed. These unit tests are only concerned with the stream.
+    @Mock
+    private RecipeChangeFeed recipeChangeFeedHandler;
+
+    //Writes the queued events.
+    private ScheduledExecutorService dispatchExecutor;
+
+    /**
+     * Class under test.
+     */
+    private SseRecipeChangeSubscriber subscriber;
+
+    @BeforeEach
+    public void setup() {
+        //Initialise the mock objects upon initialisation of Junit tests.
+        MockitoAnnotations.openMocks(this);
+        dispatchExecutor = Executors.newScheduledThreadPool(1);
+        subscriber = new SseRecipeChangeSubscriber(sseEmitter, recipeChangeFeedHandler, dispatchExecutor, MAX_QUEUED_EVENTS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    /**
+     * Check each change published is written to the stream.
+     */
+    @Test
+    public void checkChangesAreWrittenToStream() throws Exception {
+
+        //Test
+        subscriber.changePublished(createRecipeChangeEvent("1"));
+        subscriber.changePublished(createRecipeChangeEvent("2"));
+        subscriber.changesMissed("2");
+
+        //Assertions
+        Mockito.verify(sseEmitter, Mockito.timeout(DISPATCH_TIMEOUT_MILLIS).times(3))
+                .send(ArgumentMatchers.any(SseEmitter.SseEventBuilder.class));
+        Mockito.verify(sseEmitter, Mockito.never()).complete();
+    }
+
+    /**
+     * Check a client that falls too far behind is unsubscribed and disconnected, and the events it had not been sent
+     * are discarded.
+     */
+    @Test
+    public void checkSlowClientIsDisconnected() throws Exception {
+
+        //Setup - the client does not read the first event until it is released.
+        final CountDownLatch firstEventSending = new CountDownLatch(1);
+        final CountDownLatch clientReading = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            firstEventSending.countDown();
+            clientReading.await(DISPATCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(sseEmitter).send(ArgumentMatchers.any(SseEmitter.SseEventBuilder.class));
+        subscriber.changePublished(createRecipeChangeEvent("1"));
+        firstEventSending.await(DISPATCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        //Test - one more event than can be queued while the first is being sent.
+        for (int i = 0; i <= MAX_QUEUED_EVENTS; i++) {
+            subscriber.changePublished(createRecipeChangeEvent(String.valueOf(i + 2)));
+        }
+        clientReading.countDown();
+
+        //Assertions
+        Mockito.verify(recipeChangeFeedHandler).unsubscribe(subscriber);
+        Mockito.verify(sseEmitter, Mockito.timeout(DISPATCH_TIMEOUT_MILLIS)).complete();
+        Mockito.verify(sseEmitter, Mockito.times(1)).send(ArgumentMatchers.any(SseEmitter.SseEventBuilder.class));
+    }
+
+    /**
+     * Check a resuming client is replayed no more events than it can queue, so a replay cannot disconnect it.
+     */
+    @Test
+    public void checkReplayIsBoundedByQueue() {
+
+        //Assertion
+        Assertions.assertEquals(MAX_QUEUED_EVENTS, subscriber.maxReplayedChanges());
+    }
+
+    /**
+     * Check the subscriber is unsubscribed once the client has gone.
+     */
+    @Test
+    public void checkClosedStreamIsUnsubscribed() throws Exception {
+
+        //Setup
+        final ArgumentCaptor<Runnable> completionCallback = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(sseEmitter).onCompletion(completionCallback.capture());
+
+        //Test
+        completionCallback.getValue().run();
+        subscriber.changePublished(createRecipeChangeEvent("1"));
+
+        //Assertions
+        Mockito.verify(recipeChangeFeedHandler).unsubscribe(subscriber);
+        Mockito.verify(sseEmitter, Mockito.after(100).never()).send(ArgumentMatchers.any(SseEmitter.SseEventBuilder.class));
+    }
+
+    private static RecipeChangeEventModel createRecipeChangeEvent(final String id) {
+        final RecipeChangeEventModel recipeChangeEvent = new RecipeChangeEventModel();
+        recipeChangeEvent.setId(id);
+        recipeChangeEvent.setType(RecipeChangeEventModel.CREATED);
+        recipeChangeEvent.setRecipeKey("recipe " + id);
+        return recipeChangeEvent;
+    }
+
+}
@@ -1,10 +1,24 @@
 package org.eatsy.appservice.controller.application.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeImportResultModel;
 import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.RecipeSearchPageModel;
+import org.eatsy.appservice.model.RecipeSearchResultModel;
+import org.eatsy.appservice.model.ShoppingListItemModel;
+import org.eatsy.appservice.model.ShoppingListModel;
 import org.eatsy.appservice.service.RecipeFactory;
+import org.eatsy.appservice.service.idempotency.IdempotencyKeyReuseException;
+import org.eatsy.appservice.service.search.RecipeSearch;
+import org.eatsy.appservice.service.versioning.RecipeCatalogVersion;
+import org.eatsy.appservice.service.versioning.RecipeVersionMismatchException;
+import org.eatsy.appservice.service.versioning.Versioned;
 import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
 import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.mockito.Mockito;
@@ -12,17 +26,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.util.NestedServletException;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -49,6 +73,10 @@ public class ApiControllerTest {
     @MockBean
     private RecipeFactory recipeFactoryHandler;
 
+    //Tells Mockito to mock the RecipeSearch instance
+    @MockBean
+    private RecipeSearch recipeSearchHandler;
+
     /**
      * Test the add recipe endpoint
      */
@@ -98,6 +126,42 @@ public class ApiControllerTest {
 
     }
 
+    /**
+     * Test the add recipe endpoint rejects an idempotency key that has already been used for a different recipe.
+     */
+    @Test
+    public void checkAddRecipeWithReusedIdempotencyKey() {
+
+        //Setup
+        final RecipeModel recipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        final String idempotencyKey = UUID.randomUUID().toString();
+
+        final MockHttpServletRequestBuilder mockRequest;
+        try {
+            mockRequest = MockMvcRequestBuilders.post(EatsyRecipeTestParameters.ADD_RECIPE)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(recipeModel));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        //The service rejects the reused key.
+        Mockito.when(recipeFactoryHandler.createRecipe(idempotencyKey, recipeModel))
+                .thenThrow(new IdempotencyKeyReuseException(idempotencyKey));
+
+        //Execute the test and assert the request is rejected as unprocessable.
+        try {
+            mockMvc.perform(mockRequest)
+                    .andExpect(status().isUnprocessableEntity());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
     /**
      * Test the retrieve all recipes endpoint
      */
@@ -110,8 +174,8 @@ public class ApiControllerTest {
         //Gather some information about the data to validate the assertion
         final String nameOfFirstRecipeInList = allRecipes.get(0).getName();
 
-        //Configure the mock to return the recipes when the retrieveAllRecipes is called.
-        Mockito.when(recipeFactoryHandler.retrieveAllRecipes()).thenReturn(allRecipes);
+        //Configure the mock to return the recipes, and the version of the list, when the retrieveAllRecipesVersioned is called.
+        Mockito.when(recipeFactoryHandler.retrieveAllRecipesVersioned()).thenReturn(new Versioned<>(allRecipes, "0123456789abcdef"));
 
         //Build the mock request that will hit the "/retrieveAllRecipes" endpoint and trigger the above chain method.
         final MockHttpServletRequestBuilder mockRequest;
@@ -127,13 +191,252 @@ public class ApiControllerTest {
             mockMvc.perform(mockRequest)
                     .andExpect(status().isOk())
                     .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(allRecipes.size())))
-                    .andExpect(jsonPath("$[0].name", is(nameOfFirstRecipeInList)));
+                    .andExpect(jsonPath("$[0].name", is(nameOfFirstRecipeInList)))
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"0123456789abcdef\""));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the retrieve all recipes endpoint answers an unchanged poll from the catalog version alone,
+     * without retrieving any recipes.
+     */
+    @Test
+    public void checkRetrieveAllRecipesNotModifiedFromCatalogVersion() {
+
+        //Setup
+        final long lastModified = 1700000000000L;
+        Mockito.when(recipeFactoryHandler.retrieveRecipeCatalogVersion())
+                .thenReturn(new RecipeCatalogVersion("0123456789abcdef", lastModified));
+        Mockito.when(recipeFactoryHandler.retrieveAllRecipesVersioned())
+                .thenReturn(new Versioned<>(Collections.<RecipeModel>emptyList(), "0123456789abcdef"));
+
+        //Execute the test and assert the catalog validators are returned, and then matched without retrieving the recipes.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_ALL_RECIPES)
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"fedcba9876543210\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"0123456789abcdef\""))
+                    .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, lastModified));
+            Mockito.verify(recipeFactoryHandler).retrieveAllRecipesVersioned();
+
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_ALL_RECIPES)
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"0123456789abcdef\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_ALL_RECIPES)
+                            .header(HttpHeaders.IF_MODIFIED_SINCE, "Tue, 14 Nov 2023 22:13:20 GMT"))
+                    .andExpect(status().isNotModified());
+            Mockito.verify(recipeFactoryHandler, Mockito.times(1)).retrieveAllRecipesVersioned();
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the retrieve recipe endpoint returns the recipe with its ETag, and 304 Not Modified when the ETag is sent back.
+     */
+    @Test
+    public void checkRetrieveRecipeWithETag() {
+
+        //Setup
+        final RecipeModel recipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModel.setKey(UUID.randomUUID().toString());
+        final String eTag = "\"fedcba9876543210\"";
+        Mockito.when(recipeFactoryHandler.retrieveRecipe(recipeModel.getKey())).thenReturn(new Versioned<>(recipeModel, "fedcba9876543210"));
+
+        //Execute the test and assert the recipe is returned with its ETag, then not returned again for a matching If-None-Match.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_RECIPE + recipeModel.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(jsonPath("$.name", is(recipeModel.getName())));
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_RECIPE + recipeModel.getKey())
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the retrieve recipe endpoint returns 404 Not Found for an unknown recipe.
+     */
+    @Test
+    public void checkRetrieveUnknownRecipe() {
+
+        //Setup - the mocked service returns null for any recipe key.
+        final String recipeKey = UUID.randomUUID().toString();
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_RECIPE + recipeKey))
+                    .andExpect(status().isNotFound());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the retrieve all recipes endpoint returns the recipes encoded as CBOR when a client accepts CBOR.
+     */
+    @Test
+    public void checkRetrieveAllRecipesAsCbor() {
+
+        //Setup
+        final List<RecipeModel> allRecipes = RecipeModelDataFactory.generateRecipeModelsList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        Mockito.when(recipeFactoryHandler.retrieveAllRecipesVersioned()).thenReturn(new Versioned<>(allRecipes, "0123456789abcdef"));
+
+        //Test
+        final byte[] cborRecipes;
+        try {
+            cborRecipes = mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_ALL_RECIPES)
+                            .accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        //Assertions - the CBOR payload decodes to the same recipes.
+        final RecipeModel[] decodedRecipes;
+        try {
+            decodedRecipes = new ObjectMapper(new CBORFactory()).readValue(cborRecipes, RecipeModel[].class);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        Assertions.assertEquals(allRecipes, Arrays.asList(decodedRecipes));
+
+    }
+
+    /**
+     * Test the retrieve all recipes endpoint only returns the recipe fields asked for, with an ETag for that selection.
+     */
+    @Test
+    public void checkRetrieveAllRecipesWithSelectedFields() {
+
+        //Setup
+        final List<RecipeModel> allRecipes = RecipeModelDataFactory.generateRecipeModelsList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        allRecipes.forEach(recipeModel -> {
+            recipeModel.setIngredientSet(null);
+            recipeModel.setMethod(null);
+        });
+        Mockito.when(recipeFactoryHandler.retrieveAllRecipesVersioned(EnumSet.of(RecipeField.KEY, RecipeField.NAME)))
+                .thenReturn(new Versioned<>(allRecipes, "0123456789abcdef"));
+
+        //Execute the test and assert only the selected fields are serialized.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_ALL_RECIPES)
+                            .param("fields", "name,key"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(allRecipes.size())))
+                    .andExpect(jsonPath("$[0].name", is(allRecipes.get(0).getName())))
+                    .andExpect(jsonPath("$[0].ingredientSet").doesNotExist())
+                    .andExpect(jsonPath("$[0].method").doesNotExist())
+                    .andExpect(header().string(HttpHeaders.ETAG, "W/\"0123456789abcdef-key.name\""));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the retrieve recipe endpoint rejects a field recipes do not have with 400 Bad Request.
+     */
+    @Test
+    public void checkRetrieveRecipeWithUnknownField() {
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.RETRIEVE_RECIPE + UUID.randomUUID())
+                            .param("fields", "name,calories"))
+                    .andExpect(status().isBadRequest());
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
 
     }
 
+    /**
+     * Test the edit recipe endpoint rejects an update made against an ETag the recipe no longer matches.
+     */
+    @Test
+    public void checkEditRecipeWithStaleIfMatch() {
+
+        //Setup
+        final RecipeModel recipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModel.setKey(UUID.randomUUID().toString());
+        Mockito.when(recipeFactoryHandler.updateRecipe(recipeModel.getKey(), recipeModel, Collections.singletonList("0000000000000001")))
+                .thenThrow(new RecipeVersionMismatchException(recipeModel.getKey()));
+
+        final MockHttpServletRequestBuilder mockRequest;
+        try {
+            mockRequest = MockMvcRequestBuilders.put(EatsyRecipeTestParameters.EDIT_RECIPE + recipeModel.getKey())
+                    .header(HttpHeaders.IF_MATCH, "\"0000000000000001\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(recipeModel));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        //Execute the test and assert the update is rejected.
+        try {
+            mockMvc.perform(mockRequest)
+                    .andExpect(status().isPreconditionFailed());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the edit recipe endpoint treats If-Match: * as requiring the recipe to exist, rejecting an update of a
+     * recipe that does not.
+     */
+    @Test
+    public void checkEditRecipeWithWildcardIfMatchForMissingRecipe() {
+
+        //Setup
+        final RecipeModel recipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModel.setKey(UUID.randomUUID().toString());
+        Mockito.when(recipeFactoryHandler.updateRecipe(recipeModel.getKey(), recipeModel, Collections.singletonList(RecipeFactory.ANY_VERSION)))
+                .thenThrow(new RecipeVersionMismatchException(recipeModel.getKey()));
+
+        final MockHttpServletRequestBuilder mockRequest;
+        try {
+            mockRequest = MockMvcRequestBuilders.put(EatsyRecipeTestParameters.EDIT_RECIPE + recipeModel.getKey())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .content(this.objectMapper.writeValueAsString(recipeModel));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        //Execute the test and assert the update is rejected rather than made unconditionally.
+        try {
+            mockMvc.perform(mockRequest)
+                    .andExpect(status().isPreconditionFailed());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+        Mockito.verify(recipeFactoryHandler, Mockito.never()).updateRecipe(recipeModel.getKey(), recipeModel);
+
+    }
+
     /**
      * Test the delete recipe endpoint.
      */
@@ -220,4 +523,140 @@ public class ApiControllerTest {
 
     }
 
+    /**
+     * Test the shopping list endpoint returns the merged ingredients of the requested recipes.
+     */
+    @Test
+    public void checkCreateShoppingListSuccess() {
+
+        //Setup
+        final List<String> recipeKeys = Arrays.asList(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        final ShoppingListItemModel item = new ShoppingListItemModel();
+        item.setIngredient("Eggs");
+        item.setRecipeCount(2);
+        final ShoppingListModel shoppingList = new ShoppingListModel();
+        shoppingList.setItems(Collections.singletonList(item));
+        shoppingList.setUnknownRecipeKeys(Collections.<String>emptyList());
+        Mockito.when(recipeFactoryHandler.createShoppingList(recipeKeys)).thenReturn(shoppingList);
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.post(EatsyRecipeTestParameters.SHOPPING_LIST)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(recipeKeys)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].ingredient", is("Eggs")))
+                    .andExpect(jsonPath("$.items[0].recipeCount", is(2)))
+                    .andExpect(jsonPath("$.unknownRecipeKeys", hasSize(0)));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the search endpoint returns the requested page of results.
+     */
+    @Test
+    public void checkSearchRecipesSuccess() {
+
+        //Setup
+        final RecipeModel recipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModel.setKey(UUID.randomUUID().toString());
+        final RecipeSearchResultModel result = new RecipeSearchResultModel();
+        result.setRecipe(recipeModel);
+        result.setScore(4.5);
+        final RecipeSearchPageModel searchPage = new RecipeSearchPageModel();
+        searchPage.setResults(Collections.singletonList(result));
+        searchPage.setPage(1);
+        searchPage.setPageSize(5);
+        searchPage.setTotalResults(6);
+        Mockito.when(recipeSearchHandler.search("chiken \"stir fry\"", 1, 5)).thenReturn(searchPage);
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.SEARCH)
+                            .param("q", "chiken \"stir fry\"")
+                            .param("page", "1")
+                            .param("pageSize", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results", hasSize(1)))
+                    .andExpect(jsonPath("$.results[0].recipe.key", is(recipeModel.getKey())))
+                    .andExpect(jsonPath("$.results[0].score", is(4.5)))
+                    .andExpect(jsonPath("$.page", is(1)))
+                    .andExpect(jsonPath("$.pageSize", is(5)))
+                    .andExpect(jsonPath("$.totalResults", is(6)));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the import endpoint imports NDJSON recipes and streams back the result of each line.
+     */
+    @Test
+    public void checkImportRecipesSuccess() {
+
+        //Setup
+        final RecipeImportResultModel importResult = new RecipeImportResultModel();
+        importResult.setKey(UUID.randomUUID().toString());
+        Mockito.when(recipeFactoryHandler.importRecipes(Mockito.anyList())).thenReturn(Collections.singletonList(importResult));
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.post(EatsyRecipeTestParameters.IMPORT_RECIPES)
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content("{\"name\":\"Soup\"}\nnot json\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string(startsWith("{\"line\":1,\"key\":\"" + importResult.getKey() + "\",\"error\":null}\n")))
+                    .andExpect(content().string(containsString("{\"line\":2,\"key\":null,\"error\":\"The line is not a JSON recipe")));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the search endpoint rejects an out of range page size with 400 Bad Request.
+     */
+    @Test
+    public void checkSearchRecipesWithInvalidPageSize() {
+
+        //Setup
+        Mockito.when(recipeSearchHandler.search("chicken", 0, 1000))
+                .thenThrow(new InvalidRequestParameterException("The page size must be between 1 and 100"));
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.SEARCH)
+                            .param("q", "chicken")
+                            .param("pageSize", "1000"))
+                    .andExpect(status().isBadRequest());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test an illegal argument that is not an invalid request parameter is not reported to the client as a bad request.
+     */
+    @Test
+    public void checkSearchRecipesWithInternalIllegalArgument() {
+
+        //Setup
+        Mockito.when(recipeSearchHandler.search("chicken", 0, 20))
+                .thenThrow(new IllegalArgumentException("Internal detail"));
+
+        //Execute the test and assert the failure is not handled as a bad request.
+        Assertions.assertThrows(NestedServletException.class, () -> mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.SEARCH)
+                .param("q", "chicken")));
+
+    }
+
 }
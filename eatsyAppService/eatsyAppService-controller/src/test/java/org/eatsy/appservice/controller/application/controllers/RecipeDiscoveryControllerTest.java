@@ -0,0 +1,197 @@
+package org.eatsy.appservice.controller.application.controllers;
+
+import org.eatsy.appservice.model.AutocompleteSuggestionModel;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.PantryMatchModel;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.SimilarRecipeModel;
+import org.eatsy.appservice.service.RecipeFactory;
+import org.eatsy.appservice.service.autocomplete.RecipeAutocomplete;
+import org.eatsy.appservice.service.autocomplete.SuggestionType;
+import org.eatsy.appservice.service.pantry.PantryMatcher;
+import org.eatsy.appservice.service.similarity.SimilarRecipeFinder;
+import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Recipe Discovery Controller unit tests with Mockito.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+//Responses are mocked so PER_METHOD is not needed
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RecipeDiscoveryControllerTest {
+
+    //mockMvc auto-configured and part of the dependencies directly loaded for this test class
+    @Autowired
+    private MockMvc mockMvc;
+
+    //Tells Mockito to mock the PantryMatcher instance
+    @MockBean
+    private PantryMatcher pantryMatcherHandler;
+
+    //Tells Mockito to mock the SimilarRecipeFinder instance
+    @MockBean
+    private SimilarRecipeFinder similarRecipeFinderHandler;
+
+    //Tells Mockito to mock the RecipeAutocomplete instance
+    @MockBean
+    private RecipeAutocomplete recipeAutocompleteHandler;
+
+    //Tells Mockito to mock the RecipeFactory instance, so the application context does not need a database.
+    @MockBean
+    private RecipeFactory recipeFactoryHandler;
+
+    /**
+     * Test the pantry match endpoint passes the pantry and query options to the matcher and returns its matches.
+     */
+    @Test
+    public void checkPantryMatchSuccess() {
+
+        //Setup
+        final RecipeModel recipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        final PantryMatchModel pantryMatchModel = new PantryMatchModel();
+        pantryMatchModel.setRecipe(recipeModel);
+        pantryMatchModel.setMissingIngredients(Collections.singleton("flour"));
+        Mockito.when(pantryMatcherHandler.findRecipesMissingAtMost(new HashSet<>(Arrays.asList("egg", "milk")), 1, 5))
+                .thenReturn(Collections.singletonList(pantryMatchModel));
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.PANTRY_MATCH)
+                            .param("ingredients", "egg", "milk")
+                            .param("maxMissing", "1")
+                            .param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].recipe.name", is(recipeModel.getName())))
+                    .andExpect(jsonPath("$[0].missingIngredients[0]", is("flour")));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the pantry match endpoint answers an invalid query with 400 Bad Request.
+     */
+    @Test
+    public void checkPantryMatchInvalidQuery() {
+
+        //Setup
+        Mockito.when(pantryMatcherHandler.findRecipesMissingAtMost(ArgumentMatchers.anySet(), ArgumentMatchers.eq(-1), ArgumentMatchers.anyInt()))
+                .thenThrow(new InvalidRequestParameterException("The maximum number of missing ingredients cannot be negative"));
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.PANTRY_MATCH)
+                            .param("ingredients", "egg")
+                            .param("maxMissing", "-1"))
+                    .andExpect(status().isBadRequest());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the similar recipes endpoint returns the similar recipes found for the recipe.
+     */
+    @Test
+    public void checkSimilarRecipesSuccess() {
+
+        //Setup
+        final String recipeKey = UUID.randomUUID().toString();
+        final SimilarRecipeModel similarRecipeModel = new SimilarRecipeModel();
+        similarRecipeModel.setRecipe(RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE));
+        similarRecipeModel.setSimilarity(0.75);
+        Mockito.when(similarRecipeFinderHandler.findSimilarRecipes(recipeKey, 3))
+                .thenReturn(Collections.singletonList(similarRecipeModel));
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.SIMILAR_RECIPES, recipeKey)
+                            .param("limit", "3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].recipe.name", is(similarRecipeModel.getRecipe().getName())))
+                    .andExpect(jsonPath("$[0].similarity", is(0.75)));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the similar recipes endpoint returns 404 Not Found for an unknown recipe.
+     */
+    @Test
+    public void checkSimilarRecipesForUnknownRecipe() {
+
+        //Setup - the mocked finder returns null for any recipe key.
+        final String recipeKey = UUID.randomUUID().toString();
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.SIMILAR_RECIPES, recipeKey))
+                    .andExpect(status().isNotFound());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+    /**
+     * Test the autocomplete endpoint passes the prefix, type and limit to the index and returns its suggestions.
+     */
+    @Test
+    public void checkAutocompleteSuccess() {
+
+        //Setup
+        final AutocompleteSuggestionModel suggestion = new AutocompleteSuggestionModel();
+        suggestion.setText("Chicken");
+        suggestion.setType(SuggestionType.INGREDIENT.name());
+        suggestion.setRecipeCount(12);
+        Mockito.when(recipeAutocompleteHandler.suggest("chi", SuggestionType.INGREDIENT, 5))
+                .thenReturn(Collections.singletonList(suggestion));
+
+        //Execute the test and assert the response is as expected.
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get(EatsyRecipeTestParameters.AUTOCOMPLETE)
+                            .param("prefix", "chi")
+                            .param("type", "INGREDIENT")
+                            .param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].text", is("Chicken")))
+                    .andExpect(jsonPath("$[0].type", is("INGREDIENT")))
+                    .andExpect(jsonPath("$[0].recipeCount", is(12)));
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.eatsy.appservice.controller.application.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatsy.appservice.model.RecipeImportResultModel;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.service.RecipeFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the streaming NDJSON recipe importer.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class NdjsonRecipeImporterTests {
+
+    //Parses the results written by the importer.
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    //Mock implementation of the RecipeFactory, which saves each recipe with its name as its key.
+    private RecipeFactory recipeFactoryHandler;
+
+    //The sizes of the batches the recipes were saved in.
+    private List<Integer> savedBatchSizes;
+
+    @BeforeEach
+    public void setup() {
+        savedBatchSizes = new ArrayList<>();
+        recipeFactoryHandler = Mockito.mock(RecipeFactory.class);
+        Mockito.when(recipeFactoryHandler.importRecipes(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+            final List<RecipeModel> recipeModels = invocation.getArgument(0);
+            savedBatchSizes.add(recipeModels.size());
+            final List<RecipeImportResultModel> importResults = new ArrayList<>();
+            for (final RecipeModel recipeModel : recipeModels) {
+                final RecipeImportResultModel importResult = new RecipeImportResultModel();
+                importResult.setKey(recipeModel.getName());
+                importResults.add(importResult);
+            }
+            return importResults;
+        });
+    }
+
+    /**
+     * Check every line gets a result in line order, with bad lines rejected without stopping the import,
+     * and the recipes saved in batches of no more than the batch size.
+     */
+    @Test
+    public void checkImportRecipes() throws IOException {
+
+        //Setup - a batch size of 2, and lines of at most 40 bytes.
+        final NdjsonRecipeImporter importer = new NdjsonRecipeImporter(recipeFactoryHandler, objectMapper, 2, 40);
+        final String ndjsonRecipes = "{\"name\":\"Soup\"}\n"
+                + "\n"
+                + "{\"name\":\"Stew\"}\r\n"
+                + "not json\n"
+                + "{\"name\":\"A recipe name that is far too long for the line limit\"}\n"
+                + "{\"name\":\"Pie\"}";
+
+        //Test
+        final List<RecipeImportResultModel> importResults = new ArrayList<>();
+        final long importedRecipeCount = importRecipes(importer, ndjsonRecipes, importResults);
+
+        //Assertions
+        Assertions.assertEquals(3, importedRecipeCount);
+        Assertions.assertEquals(5, importResults.size());
+        assertImported(importResults.get(0), 1, "Soup");
+        assertImported(importResults.get(1), 3, "Stew");
+        assertRejected(importResults.get(2), 4);
+        assertRejected(importResults.get(3), 5);
+        assertImported(importResults.get(4), 6, "Pie");
+        Assertions.assertTrue(savedBatchSizes.stream().allMatch(batchSize -> batchSize <= 2));
+        Assertions.assertEquals(3, savedBatchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    /**
+     * Check the import stops once a batch cannot be saved, rejecting the recipes of that batch.
+     */
+    @Test
+    public void checkImportStopsWhenBatchCannotBeSaved() throws IOException {
+
+        //Setup
+        Mockito.when(recipeFactoryHandler.importRecipes(ArgumentMatchers.anyList())).thenThrow(new IllegalStateException("Database down"));
+        final NdjsonRecipeImporter importer = new NdjsonRecipeImporter(recipeFactoryHandler, objectMapper, 1, 1024);
+
+        //Test
+        final List<RecipeImportResultModel> importResults = new ArrayList<>();
+        final long importedRecipeCount = importRecipes(importer, "{\"name\":\"Soup\"}\n{\"name\":\"Stew\"}\n", importResults);
+
+        //Assertions
+        Assertions.assertEquals(0, importedRecipeCount);
+        Assertions.assertEquals(1, importResults.size());
+        assertRejected(importResults.get(0), 1);
+        Mockito.verify(recipeFactoryHandler, Mockito.times(1)).importRecipes(ArgumentMatchers.anyList());
+    }
+
+    private long importRecipes(final NdjsonRecipeImporter importer, final String ndjsonRecipes,
+                               final List<RecipeImportResultModel> importResults) throws IOException {
+
+        final ByteArrayOutputStream resultLines = new ByteArrayOutputStream();
+        final long importedRecipeCount = importer.importRecipes(
+                new ByteArrayInputStream(ndjsonRecipes.getBytes(StandardCharsets.UTF_8)), resultLines);
+        for (final String resultLine : resultLines.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+            importResults.add(objectMapper.readValue(resultLine, RecipeImportResultModel.class));
+        }
+        return importedRecipeCount;
+    }
+
+    private static void assertImported(final RecipeImportResultModel importResult, final long line, final String key) {
+        Assertions.assertEquals(line, importResult.getLine());
+        Assertions.assertEquals(key, importResult.getKey());
+        Assertions.assertNull(importResult.getError());
+    }
+
+    private static void assertRejected(final RecipeImportResultModel importResult, final long line) {
+        Assertions.assertEquals(line, importResult.getLine());
+        Assertions.assertNull(importResult.getKey());
+        Assertions.assertNotNull(importResult.getError());
+    }
+
+}
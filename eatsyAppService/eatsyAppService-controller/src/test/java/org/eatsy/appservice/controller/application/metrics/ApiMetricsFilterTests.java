@@ -0,0 +1,154 @@
+package org.eatsy.appservice.controller.application.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Unit tests for the recipe API endpoint metrics filter and in-flight interceptor.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class ApiMetricsFilterTests {
+
+    //Name of the endpoint the requests are dispatched to.
+    private static final String ENDPOINT = "retrieveAllRecipes";
+
+    private MeterRegistry meterRegistry;
+
+    private ApiEndpointMetrics apiEndpointMetrics;
+
+    /**
+     * Class under test.
+     */
+    private ApiMetricsFilter apiMetricsFilter;
+
+    //The handler the requests are dispatched to.
+    private HandlerMethod handlerMethod;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        apiEndpointMetrics = new ApiEndpointMetrics(meterRegistry);
+        apiMetricsFilter = new ApiMetricsFilter(apiEndpointMetrics);
+        handlerMethod = new HandlerMethod(this, ApiMetricsFilterTests.class.getMethod(ENDPOINT));
+        request = new MockHttpServletRequest("POST", "/api/retrieveAllRecipes");
+        request.setContent(new byte[10]);
+        response = new MockHttpServletResponse();
+    }
+
+    /**
+     * Endpoint the test requests are dispatched to.
+     */
+    public void retrieveAllRecipes() {
+    }
+
+    /**
+     * Check a request is recorded against its endpoint, with its latency and body sizes and no error.
+     */
+    @Test
+    public void checkRequestRecordedForEndpoint() throws ServletException, IOException {
+
+        //Test
+        apiMetricsFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+            filteredRequest.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+            filteredResponse.getOutputStream().write(new byte[100]);
+        });
+
+        //Assertions
+        Assertions.assertEquals(1, meterRegistry.get(ApiEndpointMetrics.LATENCY).tag(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT).timer().count());
+        Assertions.assertEquals(10, meterRegistry.get(ApiEndpointMetrics.REQUEST_SIZE).tag(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT).summary().totalAmount());
+        Assertions.assertEquals(100, meterRegistry.get(ApiEndpointMetrics.RESPONSE_SIZE).tag(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT).summary().totalAmount());
+        Assertions.assertTrue(meterRegistry.find(ApiEndpointMetrics.ERRORS).counters().isEmpty());
+        Assertions.assertArrayEquals(new byte[100], response.getContentAsByteArray());
+    }
+
+    /**
+     * Check an error response is counted against its endpoint and status.
+     */
+    @Test
+    public void checkErrorResponseCounted() throws ServletException, IOException {
+
+        //Test
+        apiMetricsFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+            filteredRequest.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+            ((HttpServletResponse) filteredResponse).setStatus(HttpStatus.NOT_FOUND.value());
+        });
+
+        //Assertion
+        Assertions.assertEquals(1, meterRegistry.get(ApiEndpointMetrics.ERRORS)
+                .tags(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT, ApiEndpointMetrics.STATUS_TAG, "404").counter().count());
+    }
+
+    /**
+     * Check an exception that escapes the endpoint is counted as a server error.
+     */
+    @Test
+    public void checkExceptionCountedAsServerError() {
+
+        //Test
+        Assertions.assertThrows(IllegalStateException.class, () ->
+                apiMetricsFilter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+                    filteredRequest.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+                    throw new IllegalStateException("Handler failed");
+                }));
+
+        //Assertions
+        Assertions.assertEquals(1, meterRegistry.get(ApiEndpointMetrics.LATENCY).tag(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT).timer().count());
+        Assertions.assertEquals(1, meterRegistry.get(ApiEndpointMetrics.ERRORS)
+                .tags(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT, ApiEndpointMetrics.STATUS_TAG, "500").counter().count());
+    }
+
+    /**
+     * Check a request that does not reach an endpoint is not recorded.
+     */
+    @Test
+    public void checkRequestWithoutEndpointNotRecorded() throws ServletException, IOException {
+
+        //Test
+        apiMetricsFilter.doFilter(request, response, (filteredRequest, filteredResponse) ->
+                ((HttpServletResponse) filteredResponse).setStatus(HttpStatus.NOT_FOUND.value()));
+
+        //Assertion
+        Assertions.assertTrue(meterRegistry.find(ApiEndpointMetrics.LATENCY).timers().isEmpty());
+    }
+
+    /**
+     * Check a request is counted as in flight from when it is dispatched to the endpoint until its handler has returned.
+     */
+    @Test
+    public void checkInFlightRequestsCounted() {
+
+        //Setup
+        final ApiInFlightInterceptor apiInFlightInterceptor = new ApiInFlightInterceptor(apiEndpointMetrics);
+
+        //Test
+        apiInFlightInterceptor.preHandle(request, response, handlerMethod);
+
+        //Assertion
+        Assertions.assertEquals(1, meterRegistry.get(ApiEndpointMetrics.IN_FLIGHT).tag(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT).gauge().value());
+
+        //Test
+        apiInFlightInterceptor.afterCompletion(request, response, handlerMethod, null);
+
+        //Assertion
+        Assertions.assertEquals(0, meterRegistry.get(ApiEndpointMetrics.IN_FLIGHT).tag(ApiEndpointMetrics.ENDPOINT_TAG, ENDPOINT).gauge().value());
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.eatsy.appservice.controller.application.serialization;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.eatsy.appservice.domain.MethodSteps;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the hand-written RecipeModel serializer and deserializer, which must read and write exactly what
+ * Jackson's bean serializer and deserializer do.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RecipeModelModuleTests {
+
+    private static final TypeReference<List<RecipeModel>> RECIPE_LIST_TYPE = new TypeReference<List<RecipeModel>>() {
+    };
+
+    //Object mapper with Jackson's bean serializer and deserializer for recipes.
+    private ObjectMapper beanObjectMapper;
+
+    /**
+     * Class under test, installed in an object mapper configured as the application's is.
+     */
+    private ObjectMapper recipeModelObjectMapper;
+
+    //Recipes to read and write.
+    private List<RecipeModel> recipeModels;
+
+    @BeforeEach
+    public void setup() {
+        beanObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .filters(RecipeFieldsConfiguration.filtersFor(RecipeField.ALL))
+                .build();
+        recipeModelObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .filters(RecipeFieldsConfiguration.filtersFor(RecipeField.ALL))
+                .modulesToInstall(new RecipeModelModule())
+                .build();
+        recipeModels = RecipeModelDataFactory.generateRecipeModelsList(EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES,
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        //A recipe with every field missing.
+        recipeModels.add(new RecipeModel());
+    }
+
+    /**
+     * Check recipes are written as Jackson's bean serializer writes them, with every field or with selected fields.
+     */
+    @Test
+    public void checkSerializationMatchesBeanSerializer() throws IOException {
+
+        for (final EnumSet<RecipeField> fields : Arrays.asList(EnumSet.allOf(RecipeField.class),
+                EnumSet.of(RecipeField.KEY, RecipeField.METHOD), EnumSet.noneOf(RecipeField.class))) {
+
+            //Test
+            final String recipesJson = recipeModelObjectMapper.writer(RecipeFieldsConfiguration.filtersFor(fields))
+                    .forType(RECIPE_LIST_TYPE).writeValueAsString(recipeModels);
+
+            //Assertion
+            Assertions.assertEquals(beanObjectMapper.writer(RecipeFieldsConfiguration.filtersFor(fields))
+                    .forType(RECIPE_LIST_TYPE).writeValueAsString(recipeModels), recipesJson, fields.toString());
+        }
+    }
+
+    /**
+     * Check a method shared from a domain recipe, which is read by position, is written as any other map is.
+     */
+    @Test
+    public void checkMethodStepsSerializationMatchesBeanSerializer() throws IOException {
+
+        //Setup - contiguous and numbered steps, as the domain stores them differently.
+        final Map<Integer, String> numberedMethod = new HashMap<>();
+        numberedMethod.put(2, "Mix");
+        numberedMethod.put(200, "Bake");
+        for (final RecipeModel recipeModel : recipeModels) {
+            if (null != recipeModel.getMethod()) {
+                recipeModel.setMethod(MethodSteps.copyOf(recipeModel.getMethod()));
+            }
+        }
+        final RecipeModel numberedRecipeModel = new RecipeModel();
+        numberedRecipeModel.setMethod(MethodSteps.copyOf(numberedMethod));
+        recipeModels.add(numberedRecipeModel);
+
+        //Test
+        final String recipesJson = recipeModelObjectMapper.writerFor(RECIPE_LIST_TYPE).writeValueAsString(recipeModels);
+
+        //Assertion
+        Assertions.assertEquals(beanObjectMapper.writerFor(RECIPE_LIST_TYPE).writeValueAsString(recipeModels), recipesJson);
+    }
+
+    /**
+     * Check recipes are read back as they were written.
+     */
+    @Test
+    public void checkDeserializationRoundTrip() throws IOException {
+
+        //Setup
+        final String recipesJson = beanObjectMapper.writerFor(RECIPE_LIST_TYPE).writeValueAsString(recipeModels);
+
+        //Test
+        final List<RecipeModel> readRecipeModels = recipeModelObjectMapper.readValue(recipesJson, RECIPE_LIST_TYPE);
+
+        //Assertion
+        Assertions.assertEquals(recipeModels, readRecipeModels);
+    }
+
+    /**
+     * Check unknown fields are ignored, and scalar values are read as text, as Jackson's bean deserializer does.
+     */
+    @Test
+    public void checkDeserializationIgnoresUnknownFields() throws IOException {
+
+        //Setup
+        final String recipeJson = "{\"key\":\"key\",\"unknown\":{\"nested\":[1,2]},\"name\":5,"
+                + "\"ingredientSet\":[\"flour\"],\"method\":{\"1\":\"Mix\"}}";
+
+        //Test
+        final RecipeModel recipeModel = recipeModelObjectMapper.readValue(recipeJson, RecipeModel.class);
+
+        //Assertion
+        Assertions.assertEquals(beanObjectMapper.readValue(recipeJson, RecipeModel.class), recipeModel);
+        Assertions.assertEquals("5", recipeModel.getName());
+    }
+
+    /**
+     * Check a method step that is not numbered is rejected.
+     */
+    @Test
+    public void checkDeserializationRejectsUnnumberedStep() {
+
+        //Test and Assertion
+        Assertions.assertThrows(InvalidFormatException.class,
+                () -> recipeModelObjectMapper.readValue("{\"method\":{\"first\":\"Mix\"}}", RecipeModel.class));
+    }
+
+    /**
+     * Check recipes round trip through CBOR, which the serializer writes through the same generator calls.
+     */
+    @Test
+    public void checkCborRoundTrip() throws IOException {
+
+        //Setup
+        final ObjectMapper cborObjectMapper = Jackson2ObjectMapperBuilder.cbor()
+                .filters(RecipeFieldsConfiguration.filtersFor(RecipeField.ALL))
+                .modulesToInstall(new RecipeModelModule())
+                .build();
+
+        //Test
+        final byte[] recipesCbor = cborObjectMapper.writerFor(RECIPE_LIST_TYPE).writeValueAsBytes(recipeModels);
+
+        //Assertion
+        Assertions.assertEquals(recipeModels, cborObjectMapper.readValue(recipesCbor, RECIPE_LIST_TYPE));
+    }
+
+}
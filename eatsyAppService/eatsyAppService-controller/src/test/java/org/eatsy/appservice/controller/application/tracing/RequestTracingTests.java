@@ -0,0 +1,183 @@
+package org.eatsy.appservice.controller.application.tracing;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.eatsy.appservice.service.RecipeFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for request tracing, with the spans exported to an in-memory exporter.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RequestTracingTests {
+
+    //Trace and span of the caller that sent the traced request.
+    private static final String CALLER_TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String CALLER_SPAN_ID = "00f067aa0ba902b7";
+
+    private static final String SQL = "select * from recipe_entity where key=?";
+
+    private InMemorySpanExporter spanExporter;
+
+    private SdkTracerProvider tracerProvider;
+
+    /**
+     * Class under test.
+     */
+    private TracingFilter tracingFilter;
+
+    //Recipe factory proxied by the traced layer post processor.
+    private RecipeFactory tracedRecipeFactory;
+
+    //Data source wrapped by the tracing data source.
+    private DataSource tracedDataSource;
+
+    //Statement prepared by the wrapped data source.
+    private PreparedStatement preparedStatement;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+
+        spanExporter = InMemorySpanExporter.create();
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(SimpleSpanProcessor.create(spanExporter)).build();
+        final Tracer tracer = tracerProvider.get(TracingConfiguration.INSTRUMENTATION_NAME);
+        tracingFilter = new TracingFilter(tracer, W3CTraceContextPropagator.getInstance());
+
+        //The data source hands out a connection that prepares a statement for the SQL.
+        preparedStatement = Mockito.mock(PreparedStatement.class);
+        final Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(SQL)).thenReturn(preparedStatement);
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        tracedDataSource = (DataSource) new TracingDataSourcePostProcessor(() -> tracer, true)
+                .postProcessAfterInitialization(dataSource, "dataSource");
+
+        //The recipe factory reads the recipes through the data source, translating SQL failures as the repository does.
+        final RecipeFactory recipeFactory = Mockito.mock(RecipeFactory.class);
+        Mockito.when(recipeFactory.retrieveAllRecipes()).thenAnswer(invocation -> {
+            try {
+                tracedDataSource.getConnection().prepareStatement(SQL).executeQuery();
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return Collections.emptyList();
+        });
+        tracedRecipeFactory = (RecipeFactory) new TracedLayerPostProcessor(() -> tracer, true)
+                .postProcessAfterInitialization(recipeFactory, "recipeFactoryHandler");
+
+        request = new MockHttpServletRequest("GET", "/api/retrieveAllRecipes");
+        request.addHeader("traceparent", "00-" + CALLER_TRACE_ID + "-" + CALLER_SPAN_ID + "-01");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tracerProvider.close();
+    }
+
+    /**
+     * Check a request continues the caller's trace, with spans for the request, the recipe factory call and the SQL it runs.
+     */
+    @Test
+    public void checkRequestTracedThroughLayersWithinCallersTrace() throws ServletException, IOException {
+
+        //Test
+        tracingFilter.doFilter(request, new MockHttpServletResponse(), (filteredRequest, filteredResponse) -> {
+            filteredRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/retrieveAllRecipes");
+            tracedRecipeFactory.retrieveAllRecipes();
+        });
+
+        //Assertions - spans are exported as they end, so the innermost span is first.
+        final List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        Assertions.assertEquals(3, spans.size());
+        final SpanData sqlSpan = spans.get(0);
+        final SpanData recipeFactorySpan = spans.get(1);
+        final SpanData requestSpan = spans.get(2);
+        spans.forEach(span -> Assertions.assertEquals(CALLER_TRACE_ID, span.getTraceId()));
+
+        Assertions.assertEquals("GET /api/retrieveAllRecipes", requestSpan.getName());
+        Assertions.assertEquals(SpanKind.SERVER, requestSpan.getKind());
+        Assertions.assertEquals(CALLER_SPAN_ID, requestSpan.getParentSpanId());
+
+        Assertions.assertTrue(recipeFactorySpan.getName().endsWith(".retrieveAllRecipes"));
+        Assertions.assertEquals(requestSpan.getSpanId(), recipeFactorySpan.getParentSpanId());
+
+        Assertions.assertEquals("SELECT", sqlSpan.getName());
+        Assertions.assertEquals(SpanKind.CLIENT, sqlSpan.getKind());
+        Assertions.assertEquals(SQL, sqlSpan.getAttributes().asMap().entrySet().stream()
+                .filter(attribute -> attribute.getKey().getKey().equals("db.statement"))
+                .findFirst().get().getValue());
+        Assertions.assertEquals(recipeFactorySpan.getSpanId(), sqlSpan.getParentSpanId());
+    }
+
+    /**
+     * Check a failed SQL statement is recorded as an error through every layer, and its failure still reaches the caller.
+     */
+    @Test
+    public void checkFailedStatementRecordedAsError() throws SQLException {
+
+        //Setup
+        Mockito.when(preparedStatement.executeQuery()).thenThrow(new SQLException("Connection lost"));
+
+        //Test
+        Assertions.assertThrows(IllegalStateException.class, () ->
+                tracingFilter.doFilter(request, new MockHttpServletResponse(), (filteredRequest, filteredResponse) ->
+                        tracedRecipeFactory.retrieveAllRecipes()));
+
+        //Assertions
+        final List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        Assertions.assertEquals(3, spans.size());
+        spans.forEach(span -> Assertions.assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode()));
+    }
+
+    /**
+     * Check calls made outside a traced request, such as the recipe cache warm-up, are not traced.
+     */
+    @Test
+    public void checkCallsOutsideRequestNotTraced() {
+
+        //Test
+        tracedRecipeFactory.retrieveAllRecipes();
+
+        //Assertion
+        Assertions.assertTrue(spanExporter.getFinishedSpanItems().isEmpty());
+    }
+
+    /**
+     * Check the SQL operation naming a statement span is the statement's first keyword.
+     */
+    @Test
+    public void checkSqlOperation() {
+
+        //Assertions
+        Assertions.assertEquals("INSERT", TracingDataSource.sqlOperation("  insert into recipe_entity values (?)"));
+        Assertions.assertEquals("SELECT", TracingDataSource.sqlOperation(SQL));
+        Assertions.assertEquals("SQL", TracingDataSource.sqlOperation(null));
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.eatsy.appservice.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of generating recipe keys from several threads at once, random UUIDs against time-ordered UUIDs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RecipeKeyGeneratorBenchmark {
+
+    private final RecipeKeyGenerator randomUuidKeyGenerator = new RandomUuidRecipeKeyGenerator();
+
+    private final RecipeKeyGenerator timeOrderedUuidKeyGenerator = new TimeOrderedUuidRecipeKeyGenerator();
+
+    @Benchmark
+    public String randomUuid() {
+        return randomUuidKeyGenerator.generateKey();
+    }
+
+    @Benchmark
+    public String timeOrderedUuid() {
+        return timeOrderedUuidKeyGenerator.generateKey();
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.eatsy.appservice.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dictionary of every distinct ingredient in use, each held once and identified by an int id.
+ * Recipes store the ids of their ingredients rather than their own copies of the ingredient strings,
+ * so an ingredient such as "salt" is held once however many recipes use it, and ingredients can be compared as ints.
+ * Ingredients are only added by creating an ingredient set. Ids are assigned on first sight and never reused, and no
+ * lock is taken, so ingredient sets can be created in parallel, e.g. by bulk mapping and the cache warm-up.
+ * Ingredients are never removed, so the dictionary holds every distinct ingredient seen since start-up: one string,
+ * one map entry and one array slot each, which is small next to the per-recipe copies it replaces.
+ */
+public final class IngredientDictionary {
+
+    //The dictionary shared by all recipes.
+    private static final IngredientDictionary GLOBAL = new IngredientDictionary();
+
+    //Number of ingredients in each chunk of ingredients indexed by id.
+    private static final int CHUNK_SIZE = 4096;
+
+    //Most chunks of ingredients, so the dictionary can hold up to 16,777,216 ingredients.
+    private static final int MAX_CHUNKS = 4096;
+
+    //Lookup of ingredient to id.
+    private final ConcurrentHashMap<String, Integer> idsByIngredient = new ConcurrentHashMap<>();
+
+    //The id the next new ingredient will be given.
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    //Ingredients indexed by id, in fixed size chunks created as they are first needed, so ingredients never move.
+    private final AtomicReferenceArray<String[]> ingredientChunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+
+    private IngredientDictionary() {
+    }
+
+    /**
+     * @return the ingredient dictionary shared by all recipes.
+     */
+    public static IngredientDictionary global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Finds the id of the ingredient without adding it to the dictionary, e.g. for a search term.
+     *
+     * @param ingredient the ingredient.
+     * @return the id of the ingredient, or -1 if it is not in the dictionary.
+     */
+    public int findId(final String ingredient) {
+        final Integer id = null == ingredient ? null : idsByIngredient.get(ingredient);
+        return null == id ? -1 : id;
+    }
+
+    /**
+     * @param id the id of an ingredient in the dictionary.
+     * @return the ingredient with the id.
+     */
+    public String ingredientOf(final int id) {
+        return ingredientChunks.get(id / CHUNK_SIZE)[id % CHUNK_SIZE];
+    }
+
+    /**
+     * @return the number of distinct ingredients in the dictionary.
+     */
+    public int size() {
+        return idsByIngredient.size();
+    }
+
+    /**
+     * Gets the ids of the ingredients for a new ingredient set, adding any that are not in the dictionary.
+     *
+     * @param ingredients the ingredients. Null ingredients are left out.
+     * @return the distinct ids of the ingredients in ascending order.
+     */
+    int[] idsOf(final Collection<String> ingredients) {
+
+        final int[] sortedIngredientIds = new int[ingredients.size()];
+        int ingredientCount = 0;
+        for (final String ingredient : ingredients) {
+            if (null != ingredient) {
+                final Integer id = idsByIngredient.get(ingredient);
+                sortedIngredientIds[ingredientCount++] = null != id
+                        ? id : idsByIngredient.computeIfAbsent(ingredient, this::addIngredient);
+            }
+        }
+        if (ingredientCount == 0) {
+            return new int[0];
+        }
+        Arrays.sort(sortedIngredientIds, 0, ingredientCount);
+
+        //The source may not be a set, so drop any duplicates, which are now next to each other.
+        int distinctIngredients = 1;
+        for (int i = 1; i < ingredientCount; i++) {
+            if (sortedIngredientIds[distinctIngredients - 1] != sortedIngredientIds[i]) {
+                sortedIngredientIds[distinctIngredients++] = sortedIngredientIds[i];
+            }
+        }
+        return distinctIngredients == sortedIngredientIds.length
+                ? sortedIngredientIds : Arrays.copyOf(sortedIngredientIds, distinctIngredients);
+    }
+
+    /**
+     * Stores a new ingredient under the next id. Called at most once per ingredient, by the map.
+     *
+     * @param ingredient the ingredient.
+     * @return the id of the ingredient.
+     */
+    private Integer addIngredient(final String ingredient) {
+
+        final int id = nextId.getAndIncrement();
+        final int chunk = id / CHUNK_SIZE;
+        if (chunk >= MAX_CHUNKS) {
+            throw new IllegalStateException("The ingredient dictionary is full");
+        }
+        if (null == ingredientChunks.get(chunk)) {
+            ingredientChunks.compareAndSet(chunk, null, new String[CHUNK_SIZE]);
+        }
+        //The ingredient is stored before the map publishes its id, so any thread that can see the id can look up the ingredient.
+        ingredientChunks.get(chunk)[id % CHUNK_SIZE] = ingredient;
+        return id;
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.eatsy.appservice.domain;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of ingredients, encoded as the sorted ids of the ingredients in the global IngredientDictionary.
+ * Each ingredient costs one int, the ingredient strings are shared with every other recipe that uses them,
+ * and membership checks are a binary search over ints. Iteration is in ingredient id order.
+ */
+public final class IngredientSet extends AbstractSet<String> {
+
+    //The set with no ingredients, shared by every recipe without ingredients.
+    private static final IngredientSet EMPTY = new IngredientSet(new int[0]);
+
+    //Distinct ingredient ids in ascending order. Never modified after construction.
+    private final int[] ingredientIds;
+
+    private IngredientSet(final int[] ingredientIds) {
+        this.ingredientIds = ingredientIds;
+    }
+
+    /**
+     * Creates an ingredient set holding the supplied ingredients. Duplicates and null ingredients are left out.
+     *
+     * @param ingredients the ingredients.
+     * @return the ingredient set, which is the supplied set itself if it is already an ingredient set.
+     */
+    public static IngredientSet copyOf(final Collection<String> ingredients) {
+
+        if (ingredients instanceof IngredientSet) {
+            return (IngredientSet) ingredients;
+        }
+
+        final int[] sortedIngredientIds = IngredientDictionary.global().idsOf(ingredients);
+        return sortedIngredientIds.length == 0 ? EMPTY : new IngredientSet(sortedIngredientIds);
+    }
+
+    /**
+     * @param ingredientId the id of an ingredient in the global IngredientDictionary.
+     * @return true if this set contains the ingredient.
+     */
+    public boolean containsIngredientId(final int ingredientId) {
+        return Arrays.binarySearch(ingredientIds, ingredientId) >= 0;
+    }
+
+    /**
+     * @param index the position in this set, from 0 to size() - 1.
+     * @return the id of the ingredient at that position. Ids are in ascending order.
+     */
+    public int ingredientIdAt(final int index) {
+        return ingredientIds[index];
+    }
+
+    @Override
+    public boolean contains(final Object ingredient) {
+        return ingredient instanceof String && containsIngredientId(IngredientDictionary.global().findId((String) ingredient));
+    }
+
+    @Override
+    public int size() {
+        return ingredientIds.length;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < ingredientIds.length;
+            }
+
+            @Override
+            public String next() {
+                if (next >= ingredientIds.length) {
+                    throw new NoSuchElementException();
+                }
+                return IngredientDictionary.global().ingredientOf(ingredientIds[next++]);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,198 @@
+package org.eatsy.appservice.domain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable, ordered sequence of the steps of a recipe method, each with its step number.
+ * Method steps are almost always numbered 1, 2, 3..., in which case only the step text is stored in a dense array
+ * indexed by step number. Otherwise the step numbers are kept in a parallel sorted int array and found by binary search.
+ * Either way there are no entry nodes, hash table or boxed step numbers, and steps are always in step number order.
+ * <p>
+ * Steps can be read by position (stepNumberAt/stepAt) or with forEachStep without allocating.
+ * The sequence is also a read-only Map of step number to step, so it has the same JSON shape as the Map it replaces.
+ */
+public final class MethodSteps extends AbstractMap<Integer, String> {
+
+    //The method with no steps, shared by every recipe without a method.
+    private static final MethodSteps EMPTY = new MethodSteps(1, null, new String[0]);
+
+    //Step number of the first step when the steps are contiguous.
+    private final int firstStepNumber;
+
+    //Sorted step numbers, or null when the steps are contiguous from firstStepNumber.
+    private final int[] stepNumbers;
+
+    //The text of each step, in step number order. Never modified after construction.
+    private final String[] steps;
+
+    private MethodSteps(final int firstStepNumber, final int[] stepNumbers, final String[] steps) {
+        this.firstStepNumber = firstStepNumber;
+        this.stepNumbers = stepNumbers;
+        this.steps = steps;
+    }
+
+    /**
+     * @return the method with no steps.
+     */
+    public static MethodSteps empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the steps of a method from a map of step number to step.
+     *
+     * @param method the method to copy, keyed by step number.
+     * @return the method steps in step number order, which is the supplied method itself if it is already method steps.
+     */
+    public static MethodSteps copyOf(final Map<Integer, String> method) {
+
+        if (method instanceof MethodSteps) {
+            return (MethodSteps) method;
+        }
+        if (method.isEmpty()) {
+            return EMPTY;
+        }
+
+        final SortedMap<Integer, String> sortedMethod = method instanceof SortedMap && null == ((SortedMap<Integer, String>) method).comparator()
+                ? (SortedMap<Integer, String>) method : new TreeMap<>(method);
+
+        final int[] sortedStepNumbers = new int[sortedMethod.size()];
+        final String[] sortedSteps = new String[sortedMethod.size()];
+        int i = 0;
+        for (final Map.Entry<Integer, String> step : sortedMethod.entrySet()) {
+            sortedStepNumbers[i] = step.getKey();
+            sortedSteps[i] = step.getValue();
+            i++;
+        }
+
+        //Contiguous step numbers can be worked out from the position, so they do not need to be stored.
+        final boolean contiguous = sortedStepNumbers[sortedStepNumbers.length - 1] - sortedStepNumbers[0] == sortedStepNumbers.length - 1;
+        return new MethodSteps(sortedStepNumbers[0], contiguous ? null : sortedStepNumbers, sortedSteps);
+    }
+
+    /**
+     * @param index the position of the step, from 0 to size() - 1.
+     * @return the step number of the step at that position.
+     */
+    public int stepNumberAt(final int index) {
+        return null == stepNumbers ? firstStepNumber + index : stepNumbers[index];
+    }
+
+    /**
+     * @param index the position of the step, from 0 to size() - 1.
+     * @return the text of the step at that position.
+     */
+    public String stepAt(final int index) {
+        return steps[index];
+    }
+
+    /**
+     * Passes every step to the consumer in step number order, without boxing or allocating.
+     *
+     * @param stepConsumer receives the step number and text of each step.
+     */
+    public void forEachStep(final StepConsumer stepConsumer) {
+        for (int i = 0; i < steps.length; i++) {
+            stepConsumer.accept(stepNumberAt(i), steps[i]);
+        }
+    }
+
+    @Override
+    public String get(final Object stepNumber) {
+        final int index = indexOf(stepNumber);
+        return index < 0 ? null : steps[index];
+    }
+
+    @Override
+    public boolean containsKey(final Object stepNumber) {
+        return indexOf(stepNumber) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return steps.length;
+    }
+
+    @Override
+    public int hashCode() {
+        //Same as AbstractMap.hashCode, without creating an entry for every step.
+        int hashCode = 0;
+        for (int i = 0; i < steps.length; i++) {
+            hashCode += Integer.hashCode(stepNumberAt(i)) ^ Objects.hashCode(steps[i]);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, String>> entrySet() {
+        return new AbstractSet<Map.Entry<Integer, String>>() {
+
+            @Override
+            public Iterator<Map.Entry<Integer, String>> iterator() {
+                return new Iterator<Map.Entry<Integer, String>>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < steps.length;
+                    }
+
+                    @Override
+                    public Map.Entry<Integer, String> next() {
+                        if (next >= steps.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final Map.Entry<Integer, String> step = new SimpleImmutableEntry<>(stepNumberAt(next), steps[next]);
+                        next++;
+                        return step;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return steps.length;
+            }
+        };
+    }
+
+    /**
+     * @return the array index of the step number, or a negative number if there is no such step.
+     */
+    private int indexOf(final Object stepNumber) {
+
+        if (!(stepNumber instanceof Integer)) {
+            return -1;
+        }
+        final int number = (Integer) stepNumber;
+        if (null == stepNumbers) {
+            final int index = number - firstStepNumber;
+            return index >= 0 && index < steps.length ? index : -1;
+        }
+        return Arrays.binarySearch(stepNumbers, number);
+    }
+
+    /**
+     * Receives the steps of a method.
+     */
+    @FunctionalInterface
+    public interface StepConsumer {
+
+        /**
+         * @param stepNumber the step number.
+         * @param step       the text of the step.
+         */
+        void accept(int stepNumber, String step);
+    }
+
+}
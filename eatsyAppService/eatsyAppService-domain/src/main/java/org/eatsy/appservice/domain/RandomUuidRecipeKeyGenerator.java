@@ -0,0 +1,17 @@
+package org.eatsy.appservice.domain;
+
+import java.util.UUID;
+
+/**
+ * Generates random (version 4) UUID recipe keys.
+ * Keys come from SecureRandom, so they are unguessable, but they are unordered and SecureRandom can contend
+ * when many keys are generated concurrently.
+ */
+public final class RandomUuidRecipeKeyGenerator implements RecipeKeyGenerator {
+
+    @Override
+    public String generateKey() {
+        return UUID.randomUUID().toString();
+    }
+
+}
@@ -6,7 +6,6 @@ import lombok.ToString;
 
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * The domain object for a Recipe to hold its information such as method, ingredients and name.
@@ -24,18 +23,24 @@ public final class Recipe {
     //Recipe name.
     private final String name;
 
-    //The list of ingredients for the recipe
-    private final Set<String> ingredientSet;
+    //The list of ingredients for the recipe. Immutable and encoded as ingredient dictionary ids, so it is compact and safe to share.
+    private final IngredientSet ingredientSet;
 
-    //The method for creating the recipe from the ingredients
-    private final Map<Integer, String> method;
+    //The method for creating the recipe from the ingredients. Immutable, ordered and array-backed, so it is compact and safe to share.
+    private final MethodSteps method;
+
+    //Stable hash of the name, ingredients and method, computed once on build. Used as the version of the recipe,
+    //e.g. for ETags and to detect updates that change nothing. Being a primitive it is also compared first in equals.
+    private final long contentHash;
 
 
     private Recipe(final RecipeBuilder builder) {
         key = builder.key;
         name = builder.name;
-        ingredientSet = builder.ingredientSet;
-        method = builder.method;
+        //Copy into compact immutable collections, so the recipe never holds on to the caller's (possibly mutable) collections.
+        ingredientSet = null == builder.ingredientSet ? null : IngredientSet.copyOf(builder.ingredientSet);
+        method = null == builder.method ? null : MethodSteps.copyOf(builder.method);
+        contentHash = RecipeContentHash.of(name, ingredientSet, method);
     }
 
     /**
@@ -47,17 +52,23 @@ public final class Recipe {
      */
     public static class RecipeBuilder {
 
+        //Generates keys for recipes built without a specified key or key generator.
+        private static final RecipeKeyGenerator DEFAULT_KEY_GENERATOR = new RandomUuidRecipeKeyGenerator();
+
         //Required
-        private String key;
         private final String name;
 
+        //Generated by the key generator on build, unless a key is specified.
+        private String key;
+        private boolean keySpecified;
+        private RecipeKeyGenerator keyGenerator = DEFAULT_KEY_GENERATOR;
+
         //Optional
         private Set<String> ingredientSet;
         private Map<Integer, String> method;
 
         //Constructor for the mandatory Recipe object fields
         public RecipeBuilder(final String name) {
-            this.key = UUID.randomUUID().toString();
             this.name = name;
         }
 
@@ -71,13 +82,23 @@ public final class Recipe {
             return this;
         }
 
-        //If the key needs to be overwritten (e.g. by a mapper)
+        //If the key needs to be specified (e.g. by a mapper). No key is then generated for the recipe.
         public RecipeBuilder withSpecifiedKey(final String specifiedKey) {
             this.key = specifiedKey;
+            this.keySpecified = true;
+            return this;
+        }
+
+        //If the key needs to be generated by a configured strategy rather than as a random UUID.
+        public RecipeBuilder withKeyGenerator(final RecipeKeyGenerator keyGenerator) {
+            this.keyGenerator = keyGenerator;
             return this;
         }
 
         public Recipe build() {
+            if (!keySpecified) {
+                key = keyGenerator.generateKey();
+            }
             return new Recipe(this);
         }
 
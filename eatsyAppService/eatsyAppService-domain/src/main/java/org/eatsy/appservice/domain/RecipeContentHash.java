@@ -0,0 +1,103 @@
+package org.eatsy.appservice.domain;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stable 64 bit hash of the content of a recipe (its name, ingredients and method), used as its version.
+ * <p>
+ * The hash depends only on the content, never on the JVM, the ingredient dictionary ids or the collection types
+ * and iteration order, so the same recipe hashes the same however it was built, including straight from its
+ * persisted entity. Ingredients and method steps are hashed as unordered sets, and each method step is hashed
+ * together with its step number. The recipe key is not part of the content.
+ */
+public final class RecipeContentHash {
+
+    //Seeds that keep the name, ingredients and method apart, so the same string in different parts hashes differently.
+    private static final long NAME_SEED = 0x9E3779B97F4A7C15L;
+    private static final long INGREDIENTS_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long METHOD_SEED = 0x165667B19E3779F9L;
+    private static final long ABSENT = 0x27D4EB2F165667C5L;
+
+    //64 bit FNV-1a parameters.
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private RecipeContentHash() {
+    }
+
+    /**
+     * @param name          the recipe name.
+     * @param ingredientSet the recipe ingredients, or null if it has none.
+     * @param method        the recipe method steps by step number, or null if it has none.
+     * @return the content hash of the recipe.
+     */
+    public static long of(final String name, final Collection<String> ingredientSet, final Map<Integer, String> method) {
+
+        long ingredientsHash = ABSENT;
+        if (null != ingredientSet) {
+            ingredientsHash = INGREDIENTS_SEED;
+            //Summing is order independent, and each term is well mixed so the sum still separates different sets.
+            for (final String ingredient : ingredientSet) {
+                ingredientsHash += mix(ofString(ingredient));
+            }
+        }
+
+        long methodHash = ABSENT;
+        if (null != method) {
+            methodHash = METHOD_SEED;
+            for (final Map.Entry<Integer, String> step : method.entrySet()) {
+                methodHash += mix(combine(step.getKey(), ofString(step.getValue())));
+            }
+        }
+
+        return combine(combine(combine(NAME_SEED, ofString(name)), ingredientsHash), methodHash);
+    }
+
+    /**
+     * @param value the string to hash, which may be null.
+     * @return the 64 bit FNV-1a hash of the UTF-16 code units of the string.
+     */
+    public static long ofString(final String value) {
+        if (null == value) {
+            return ABSENT;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            final char character = value.charAt(i);
+            hash = (hash ^ (character & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (character >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Order dependent combination of two hashes, e.g. for hashing a list of recipes.
+     *
+     * @param hash      the hash so far.
+     * @param nextValue the hash to combine with it.
+     * @return the combined hash.
+     */
+    public static long combine(final long hash, final long nextValue) {
+        return mix(hash * 31 + nextValue);
+    }
+
+    /**
+     * @param hash a content hash.
+     * @return the hash as 16 lower case hex digits.
+     */
+    public static String toHex(final long hash) {
+        final String hex = Long.toHexString(hash);
+        return hex.length() == 16 ? hex : "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    /**
+     * Finalisation step of the SplitMix64 generator, spreading every input bit across the whole hash.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+}
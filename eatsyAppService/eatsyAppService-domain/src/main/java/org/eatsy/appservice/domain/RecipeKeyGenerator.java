@@ -0,0 +1,15 @@
+package org.eatsy.appservice.domain;
+
+/**
+ * Strategy for generating the unique key of a new recipe.
+ * Keys must be unique and fit the fixed-width (36 character) recipe key column.
+ */
+@FunctionalInterface
+public interface RecipeKeyGenerator {
+
+    /**
+     * @return a new unique recipe key.
+     */
+    String generateKey();
+
+}
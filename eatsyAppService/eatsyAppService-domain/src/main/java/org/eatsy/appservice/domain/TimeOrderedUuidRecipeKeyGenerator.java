@@ -0,0 +1,74 @@
+package org.eatsy.appservice.domain;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered (version 7) UUID recipe keys.
+ * <p>
+ * The key starts with the creation time in milliseconds, followed by a 12 bit counter and 62 random bits, so keys
+ * created later sort after keys created earlier, both as UUIDs and as strings. New recipes are then inserted at the
+ * end of the recipe primary key index rather than scattered across it.
+ * <p>
+ * Keys from one generator are strictly increasing: within the same millisecond, or if the clock goes backwards,
+ * the counter is incremented instead (running into the next millisecond if it overflows).
+ * Generating a key is lock free and the random bits come from ThreadLocalRandom rather than SecureRandom,
+ * so keys are cheap to generate concurrently, but unlike random UUIDs they should not be relied on to be unguessable.
+ */
+public final class TimeOrderedUuidRecipeKeyGenerator implements RecipeKeyGenerator {
+
+    //Number of bits of the counter within a millisecond.
+    private static final int COUNTER_BITS = 12;
+
+    //UUID version 7 in the version field.
+    private static final long VERSION_7 = 0x7L << COUNTER_BITS;
+
+    //IETF variant bits (10) and the mask of the remaining random bits.
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_BITS = 0x3FFFFFFFFFFFFFFFL;
+
+    //Source of the current time in milliseconds since the epoch.
+    private final LongSupplier millisecondClock;
+
+    //Timestamp and counter of the last key generated, as timestamp << COUNTER_BITS | counter.
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public TimeOrderedUuidRecipeKeyGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param millisecondClock source of the current time in milliseconds since the epoch.
+     */
+    public TimeOrderedUuidRecipeKeyGenerator(final LongSupplier millisecondClock) {
+        this.millisecondClock = millisecondClock;
+    }
+
+    @Override
+    public String generateKey() {
+        final long timestampAndCounter = nextTimestampAndCounter();
+        final long timestamp = timestampAndCounter >>> COUNTER_BITS;
+        final long counter = timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+
+        final long mostSignificantBits = timestamp << 16 | VERSION_7 | counter;
+        final long leastSignificantBits = VARIANT | ThreadLocalRandom.current().nextLong() & RANDOM_BITS;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    /**
+     * @return a timestamp and counter greater than any previously returned.
+     */
+    private long nextTimestampAndCounter() {
+        final long timestampAndZeroCounter = millisecondClock.getAsLong() << COUNTER_BITS;
+        while (true) {
+            final long last = lastTimestampAndCounter.get();
+            final long next = Math.max(last + 1, timestampAndZeroCounter);
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+}
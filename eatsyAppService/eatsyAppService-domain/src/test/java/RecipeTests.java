@@ -1,9 +1,13 @@
 import com.jparams.verifier.tostring.NameStyle;
 import com.jparams.verifier.tostring.ToStringVerifier;
 import nl.jqno.equalsverifier.EqualsVerifier;
+import org.eatsy.appservice.domain.IngredientSet;
+import org.eatsy.appservice.domain.MethodSteps;
 import org.eatsy.appservice.domain.Recipe;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+
 /**
  * Unit test class for Recipe domain object
  */
@@ -14,7 +18,12 @@ public class RecipeTests {
      */
     @Test
     public void TestRecipeEqualsContract() {
-        EqualsVerifier.forClass(Recipe.class).verify();
+        EqualsVerifier.forClass(Recipe.class)
+                .withPrefabValues(IngredientSet.class,
+                        IngredientSet.copyOf(Collections.singleton("red")), IngredientSet.copyOf(Collections.singleton("blue")))
+                .withPrefabValues(MethodSteps.class,
+                        MethodSteps.copyOf(Collections.singletonMap(1, "red")), MethodSteps.copyOf(Collections.singletonMap(1, "blue")))
+                .verify();
     }
 
     /**
@@ -0,0 +1,156 @@
+package org.eatsy.appservice.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for the compact immutable collections held by the Recipe domain object.
+ */
+public class CompactRecipeCollectionsTests {
+
+    /**
+     * Check the compact ingredient set equals the set it was copied from and has no duplicates.
+     */
+    @Test
+    public void checkIngredientSetMatchesSource() {
+
+        //Setup
+        final Set<String> ingredients = new HashSet<>(Arrays.asList("flour", "eggs", "milk"));
+
+        //Test
+        final IngredientSet compactIngredients = IngredientSet.copyOf(Arrays.asList("milk", "flour", "eggs", "milk", null));
+
+        //Assertions
+        Assertions.assertEquals(ingredients, compactIngredients);
+        Assertions.assertEquals(compactIngredients, ingredients);
+        Assertions.assertEquals(ingredients.hashCode(), compactIngredients.hashCode());
+        Assertions.assertTrue(compactIngredients.contains("eggs"));
+        Assertions.assertFalse(compactIngredients.contains("butter"));
+        Assertions.assertTrue(compactIngredients.containsIngredientId(IngredientDictionary.global().findId("eggs")));
+    }
+
+    /**
+     * Check recipes share a single copy of each ingredient string, however many recipes use it.
+     */
+    @Test
+    public void checkIngredientStringsSharedBetweenRecipes() {
+
+        //Setup - equal ingredient strings that are separate instances, as they would be from two requests.
+        final String firstRecipeIngredient = new String("olive oil");
+        final String secondRecipeIngredient = new String("olive oil");
+
+        //Test
+        final IngredientSet firstRecipeIngredients = IngredientSet.copyOf(Arrays.asList(firstRecipeIngredient));
+        final IngredientSet secondRecipeIngredients = IngredientSet.copyOf(Arrays.asList(secondRecipeIngredient));
+
+        //Assertions
+        Assertions.assertEquals(firstRecipeIngredients.ingredientIdAt(0), secondRecipeIngredients.ingredientIdAt(0));
+        Assertions.assertSame(firstRecipeIngredients.iterator().next(), secondRecipeIngredients.iterator().next());
+    }
+
+    /**
+     * Check a contiguously numbered method equals the map it was copied from.
+     */
+    @Test
+    public void checkContiguousMethodMatchesSource() {
+
+        //Setup
+        final Map<Integer, String> method = new HashMap<>();
+        method.put(1, "Whisk the eggs");
+        method.put(2, "Add the flour");
+        method.put(3, "Add the milk");
+
+        //Test
+        final Map<Integer, String> compactMethod = MethodSteps.copyOf(method);
+
+        //Assertions
+        Assertions.assertEquals(method, compactMethod);
+        Assertions.assertEquals(compactMethod, method);
+        Assertions.assertEquals(method.hashCode(), compactMethod.hashCode());
+        Assertions.assertEquals("Add the flour", compactMethod.get(2));
+        Assertions.assertNull(compactMethod.get(0));
+        Assertions.assertNull(compactMethod.get(4));
+    }
+
+    /**
+     * Check a method with gaps in its step numbers equals the map it was copied from and iterates in step order.
+     */
+    @Test
+    public void checkSparseMethodMatchesSource() {
+
+        //Setup
+        final Map<Integer, String> method = new HashMap<>();
+        method.put(10, "Serve");
+        method.put(2, "Fry");
+        method.put(5, "Flip");
+
+        //Test
+        final Map<Integer, String> compactMethod = MethodSteps.copyOf(method);
+
+        //Assertions
+        Assertions.assertEquals(method, compactMethod);
+        Assertions.assertEquals(method.hashCode(), compactMethod.hashCode());
+        Assertions.assertEquals("Flip", compactMethod.get(5));
+        Assertions.assertFalse(compactMethod.containsKey(3));
+        Assertions.assertEquals(Arrays.asList(2, 5, 10), Arrays.asList(compactMethod.keySet().toArray()));
+    }
+
+    /**
+     * Check the method steps can be read in step order by position and by callback.
+     */
+    @Test
+    public void checkMethodStepsReadInStepOrder() {
+
+        //Setup
+        final Map<Integer, String> method = new HashMap<>();
+        method.put(3, "Serve");
+        method.put(1, "Mix");
+        method.put(2, "Fry");
+        final MethodSteps methodSteps = MethodSteps.copyOf(method);
+        final StringBuilder stepsInOrder = new StringBuilder();
+
+        //Test
+        methodSteps.forEachStep((stepNumber, step) -> stepsInOrder.append(stepNumber).append(step));
+
+        //Assertions
+        Assertions.assertEquals("1Mix2Fry3Serve", stepsInOrder.toString());
+        Assertions.assertEquals(2, methodSteps.stepNumberAt(1));
+        Assertions.assertEquals("Fry", methodSteps.stepAt(1));
+        Assertions.assertSame(MethodSteps.empty(), MethodSteps.copyOf(new HashMap<>()));
+    }
+
+    /**
+     * Check the recipe copies the collections it is built with, so later changes to them do not affect the recipe,
+     * and that the recipe's collections cannot be modified.
+     */
+    @Test
+    public void checkRecipeCollectionsAreImmutableCopies() {
+
+        //Setup
+        final Set<String> ingredients = new HashSet<>(Arrays.asList("flour", "eggs"));
+        final Map<Integer, String> method = new TreeMap<>();
+        method.put(1, "Mix");
+
+        //Test
+        final Recipe recipe = new Recipe.RecipeBuilder("Pancakes")
+                .withIngredientSet(ingredients)
+                .withMethod(method)
+                .build();
+        ingredients.add("sugar");
+        method.put(2, "Fry");
+
+        //Assertions
+        Assertions.assertEquals(2, recipe.getIngredientSet().size());
+        Assertions.assertEquals(1, recipe.getMethod().size());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> recipe.getIngredientSet().add("sugar"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> recipe.getMethod().put(2, "Fry"));
+    }
+
+}
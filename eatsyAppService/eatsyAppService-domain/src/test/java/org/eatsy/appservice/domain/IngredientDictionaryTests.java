@@ -0,0 +1,123 @@
+package org.eatsy.appservice.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the IngredientDictionary.
+ */
+public class IngredientDictionaryTests {
+
+    /**
+     * Check an ingredient is given one id, which maps back to the ingredient.
+     */
+    @Test
+    public void checkIngredientGivenSingleId() {
+
+        //Setup
+        final IngredientDictionary ingredientDictionary = IngredientDictionary.global();
+        final String ingredient = "ingredient " + UUID.randomUUID();
+
+        //Test
+        final IngredientSet ingredientSet = IngredientSet.copyOf(Collections.singleton(ingredient));
+        final IngredientSet sameIngredientSet = IngredientSet.copyOf(Collections.singletonList(new String(ingredient)));
+
+        //Assertions
+        final int id = ingredientSet.ingredientIdAt(0);
+        Assertions.assertEquals(id, sameIngredientSet.ingredientIdAt(0));
+        Assertions.assertEquals(id, ingredientDictionary.findId(ingredient));
+        Assertions.assertEquals(ingredient, ingredientDictionary.ingredientOf(id));
+    }
+
+    /**
+     * Check looking up an unknown ingredient does not add it to the dictionary.
+     */
+    @Test
+    public void checkFindIdDoesNotAddIngredient() {
+
+        //Setup
+        final IngredientDictionary ingredientDictionary = IngredientDictionary.global();
+        final String ingredient = "ingredient " + UUID.randomUUID();
+
+        //Test
+        final int id = ingredientDictionary.findId(ingredient);
+
+        //Assertions
+        Assertions.assertEquals(-1, id);
+        Assertions.assertEquals(-1, ingredientDictionary.findId(ingredient));
+        Assertions.assertEquals(-1, ingredientDictionary.findId(null));
+    }
+
+    /**
+     * Check every ingredient keeps its id when the dictionary grows past its initial capacity.
+     */
+    @Test
+    public void checkIdsStableAsDictionaryGrows() {
+
+        //Setup
+        final IngredientDictionary ingredientDictionary = IngredientDictionary.global();
+        final String firstIngredient = "ingredient " + UUID.randomUUID();
+        final IngredientSet firstIngredientSet = IngredientSet.copyOf(Collections.singleton(firstIngredient));
+        final int firstId = firstIngredientSet.ingredientIdAt(0);
+
+        //Test
+        final List<IngredientSet> ingredientSets = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ingredientSets.add(IngredientSet.copyOf(Collections.singleton("ingredient " + UUID.randomUUID())));
+        }
+
+        //Assertions
+        Assertions.assertEquals(firstId, ingredientDictionary.findId(firstIngredient));
+        Assertions.assertEquals(firstIngredient, ingredientDictionary.ingredientOf(firstId));
+        Assertions.assertEquals(1000, ingredientSets.size());
+    }
+
+    /**
+     * Check ingredient sets created in parallel from the same new ingredients give each ingredient a single id.
+     */
+    @Test
+    public void checkIngredientGivenSingleIdWhenAddedInParallel() throws Exception {
+
+        //Setup
+        final IngredientDictionary ingredientDictionary = IngredientDictionary.global();
+        final List<String> ingredients = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ingredients.add("ingredient " + UUID.randomUUID());
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //Test
+        final List<Future<IngredientSet>> ingredientSets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                final List<String> shuffledIngredients = new ArrayList<>(ingredients);
+                Collections.shuffle(shuffledIngredients);
+                ingredientSets.add(executor.submit(() -> IngredientSet.copyOf(shuffledIngredients)));
+            }
+
+            //Assertions
+            final IngredientSet firstIngredientSet = ingredientSets.get(0).get(10, TimeUnit.SECONDS);
+            for (final Future<IngredientSet> ingredientSet : ingredientSets) {
+                Assertions.assertEquals(firstIngredientSet, ingredientSet.get(10, TimeUnit.SECONDS));
+                for (int i = 0; i < ingredients.size(); i++) {
+                    Assertions.assertEquals(firstIngredientSet.ingredientIdAt(i), ingredientSet.get().ingredientIdAt(i));
+                }
+            }
+            for (final String ingredient : ingredients) {
+                Assertions.assertEquals(ingredient, ingredientDictionary.ingredientOf(ingredientDictionary.findId(ingredient)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
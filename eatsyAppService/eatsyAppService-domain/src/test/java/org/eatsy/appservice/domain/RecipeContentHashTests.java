@@ -0,0 +1,87 @@
+package org.eatsy.appservice.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for the recipe content hash.
+ */
+public class RecipeContentHashTests {
+
+    /**
+     * Check the content hash is the same for the same content, whatever the key, collection types or iteration order.
+     */
+    @Test
+    public void checkContentHashIgnoresKeyAndOrder() {
+
+        //Setup
+        final Map<Integer, String> method = new TreeMap<>();
+        method.put(1, "Boil the water");
+        method.put(2, "Add the pasta");
+        final Map<Integer, String> reversedMethod = new LinkedHashMap<>();
+        reversedMethod.put(2, "Add the pasta");
+        reversedMethod.put(1, "Boil the water");
+
+        //Test
+        final Recipe recipe = new Recipe.RecipeBuilder("Pasta")
+                .withIngredientSet(new HashSet<>(Arrays.asList("pasta", "water", "salt")))
+                .withMethod(method)
+                .build();
+        final Recipe sameContentRecipe = new Recipe.RecipeBuilder("Pasta")
+                .withIngredientSet(new LinkedHashSet<>(Arrays.asList("salt", "water", "pasta")))
+                .withMethod(reversedMethod)
+                .build();
+
+        //Assertions
+        Assertions.assertNotEquals(recipe.getKey(), sameContentRecipe.getKey());
+        Assertions.assertEquals(recipe.getContentHash(), sameContentRecipe.getContentHash());
+        Assertions.assertEquals(recipe.getContentHash(),
+                RecipeContentHash.of("Pasta", new HashSet<>(Arrays.asList("water", "pasta", "salt")), new HashMap<>(method)));
+    }
+
+    /**
+     * Check the content hash changes when the name, an ingredient, a step or a step number changes.
+     */
+    @Test
+    public void checkContentHashChangesWithContent() {
+
+        //Setup
+        final Map<Integer, String> method = new HashMap<>();
+        method.put(1, "Boil the water");
+        method.put(2, "Add the pasta");
+        final Map<Integer, String> renumberedMethod = new HashMap<>();
+        renumberedMethod.put(1, "Add the pasta");
+        renumberedMethod.put(2, "Boil the water");
+        final HashSet<String> ingredients = new HashSet<>(Arrays.asList("pasta", "water"));
+
+        //Test
+        final long contentHash = RecipeContentHash.of("Pasta", ingredients, method);
+
+        //Assertions
+        Assertions.assertNotEquals(contentHash, RecipeContentHash.of("Pesto", ingredients, method));
+        Assertions.assertNotEquals(contentHash, RecipeContentHash.of("Pasta", new HashSet<>(Arrays.asList("pasta", "salt")), method));
+        Assertions.assertNotEquals(contentHash, RecipeContentHash.of("Pasta", ingredients, renumberedMethod));
+        Assertions.assertNotEquals(contentHash, RecipeContentHash.of("Pasta", null, method));
+        //The same string in a different part of the recipe hashes differently.
+        Assertions.assertNotEquals(RecipeContentHash.of("salt", new HashSet<>(), null),
+                RecipeContentHash.of("", new HashSet<>(Arrays.asList("salt")), null));
+    }
+
+    /**
+     * Check the content hash is formatted as a fixed width version string.
+     */
+    @Test
+    public void checkToHex() {
+        Assertions.assertEquals("000000000000002a", RecipeContentHash.toHex(42L));
+        Assertions.assertEquals("ffffffffffffffff", RecipeContentHash.toHex(-1L));
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.eatsy.appservice.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memory footprint test for the Recipe domain object held in the recipe cache.
+ * Measures the heap retained by a recipe's collections, excluding the ingredient and step strings themselves,
+ * for the compact representation against the HashSet and HashMap the recipe used to hold.
+ * Ingredient strings are held once in the shared IngredientDictionary, so they are not part of the compact recipe at all.
+ * The dictionary keeps nothing per ingredient set, so the collections measured are the whole cost of each recipe.
+ */
+public class RecipeFootprintTests {
+
+    //Size of a typical recipe.
+    private static final int INGREDIENTS = 12;
+    private static final int STEPS = 8;
+
+    /**
+     * Check the compact collections need less than half the bytes per cached recipe of HashSet and HashMap.
+     */
+    @Test
+    public void checkCompactRecipeFootprint() {
+
+        //Setup - the collections as they arrive from the model or entity.
+        final Set<String> ingredients = new HashSet<>();
+        for (int i = 0; i < INGREDIENTS; i++) {
+            ingredients.add("ingredient " + i);
+        }
+        final Map<Integer, String> method = new HashMap<>();
+        for (int i = 1; i <= STEPS; i++) {
+            method.put(i, "Step number " + i + " of the method for the recipe");
+        }
+        final long ingredientBytes = stringBytes(ingredients);
+        final long stepBytes = stringBytes(method.values());
+
+        //Test
+        final Recipe recipe = new Recipe.RecipeBuilder("Recipe").withIngredientSet(ingredients).withMethod(method).build();
+
+        //Assertions
+        final long hashCollectionBytes = GraphLayout.parseInstance(ingredients, method).totalSize() - ingredientBytes - stepBytes;
+        final long compactCollectionBytes = GraphLayout.parseInstance(recipe.getIngredientSet(), recipe.getMethod()).totalSize() - stepBytes;
+        Assertions.assertTrue(compactCollectionBytes * 2 < hashCollectionBytes,
+                "Compact collections use " + compactCollectionBytes + " bytes per recipe, HashSet and HashMap use " + hashCollectionBytes);
+    }
+
+    /**
+     * @return the bytes used by the strings themselves.
+     */
+    private static long stringBytes(final Collection<String> strings) {
+        long stringBytes = 0;
+        for (final String string : strings) {
+            stringBytes += GraphLayout.parseInstance(string).totalSize();
+        }
+        return stringBytes;
+    }
+
+}
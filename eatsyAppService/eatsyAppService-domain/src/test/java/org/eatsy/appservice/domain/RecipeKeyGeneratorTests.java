@@ -0,0 +1,126 @@
+package org.eatsy.appservice.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for the recipe key generation strategies.
+ */
+public class RecipeKeyGeneratorTests {
+
+    /**
+     * Check time-ordered keys are version 7 UUIDs that fit the key column and start with their creation time.
+     */
+    @Test
+    public void checkTimeOrderedKeyFormat() {
+
+        //Setup
+        final long creationTimeMillis = 1700000000000L;
+        final RecipeKeyGenerator keyGenerator = new TimeOrderedUuidRecipeKeyGenerator(() -> creationTimeMillis);
+
+        //Test
+        final String key = keyGenerator.generateKey();
+
+        //Assertions
+        final UUID uuid = UUID.fromString(key);
+        Assertions.assertEquals(36, key.length());
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+        Assertions.assertEquals(creationTimeMillis, uuid.getMostSignificantBits() >>> 16);
+    }
+
+    /**
+     * Check time-ordered keys strictly increase as strings, within a millisecond, across counter overflow
+     * and when the clock goes backwards.
+     */
+    @Test
+    public void checkTimeOrderedKeysStrictlyIncrease() {
+
+        //Setup - the clock stays still for longer than the counter can count, then goes backwards.
+        final AtomicLong clock = new AtomicLong(1700000000000L);
+        final RecipeKeyGenerator keyGenerator = new TimeOrderedUuidRecipeKeyGenerator(clock::get);
+
+        //Test
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            keys.add(keyGenerator.generateKey());
+        }
+        clock.addAndGet(-1000);
+        for (int i = 0; i < 100; i++) {
+            keys.add(keyGenerator.generateKey());
+        }
+
+        //Assertions
+        for (int i = 1; i < keys.size(); i++) {
+            Assertions.assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, "Keys must be strictly increasing");
+        }
+    }
+
+    /**
+     * Check time-ordered keys generated concurrently are unique.
+     */
+    @Test
+    public void checkTimeOrderedKeysUniqueAcrossThreads() throws Exception {
+
+        //Setup
+        final RecipeKeyGenerator keyGenerator = new TimeOrderedUuidRecipeKeyGenerator();
+        final Set<String> keys = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //Test
+        final List<Future<?>> generators = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            generators.add(executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    keys.add(keyGenerator.generateKey());
+                }
+            }));
+        }
+        for (final Future<?> generator : generators) {
+            generator.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //Assertion
+        Assertions.assertEquals(40000, keys.size());
+    }
+
+    /**
+     * Check the recipe builder generates keys from the given strategy, and only when no key is specified.
+     */
+    @Test
+    public void checkRecipeBuilderUsesGivenKeyGenerator() {
+
+        //Setup
+        final Set<String> generatedKeys = new HashSet<>();
+        final RecipeKeyGenerator keyGenerator = () -> {
+            final String key = "generated key " + generatedKeys.size();
+            generatedKeys.add(key);
+            return key;
+        };
+
+        //Test
+        final Recipe generatedKeyRecipe = new Recipe.RecipeBuilder("Generated key").withKeyGenerator(keyGenerator).build();
+        final Recipe specifiedKeyRecipe = new Recipe.RecipeBuilder("Specified key").withKeyGenerator(keyGenerator)
+                .withSpecifiedKey("specified key").build();
+
+        //Assertions
+        Assertions.assertEquals("generated key 0", generatedKeyRecipe.getKey());
+        Assertions.assertEquals("specified key", specifiedKeyRecipe.getKey());
+        Assertions.assertEquals(1, generatedKeys.size());
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.eatsy.appservice.model.mappers;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of mapping a whole result set of recipe entities to domain recipes and then to recipe models,
+ * one recipe at a time (as the recipe factory used to) against the bulk mapping methods, sequentially and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeMapperBenchmark {
+
+    //Number of recipes in the result set.
+    @Param({"100", "10000"})
+    private int recipeCount;
+
+    private List<RecipeEntity> recipeEntities;
+
+    //Never maps in parallel.
+    private RecipeMapper sequentialRecipeMapper;
+
+    //Maps in parallel from 1024 recipes.
+    private RecipeMapper parallelRecipeMapper;
+
+    @Setup
+    public void setup() {
+        sequentialRecipeMapper = new RecipeMapperHandler(Integer.MAX_VALUE);
+        parallelRecipeMapper = new RecipeMapperHandler(1024);
+        recipeEntities = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            recipeEntities.add(RecipeEntityDataFactory.generateRandomRecipeEntity(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE));
+        }
+    }
+
+    /**
+     * One mapper call per recipe per layer, into lists that grow as they go.
+     */
+    @Benchmark
+    public List<RecipeModel> perItemLoop() {
+        final List<Recipe> recipes = new ArrayList<>();
+        for (final RecipeEntity recipeEntity : recipeEntities) {
+            recipes.add(sequentialRecipeMapper.mapEntityToDomain(recipeEntity));
+        }
+        final List<RecipeModel> recipeModels = new ArrayList<>();
+        for (final Recipe recipe : recipes) {
+            recipeModels.add(sequentialRecipeMapper.mapDomainToModel(recipe));
+        }
+        return recipeModels;
+    }
+
+    @Benchmark
+    public List<RecipeModel> bulkSequential() {
+        return sequentialRecipeMapper.mapDomainsToModels(sequentialRecipeMapper.mapEntitiesToDomains(recipeEntities));
+    }
+
+    @Benchmark
+    public List<RecipeModel> bulkParallel() {
+        return parallelRecipeMapper.mapDomainsToModels(parallelRecipeMapper.mapEntitiesToDomains(recipeEntities));
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.eatsy.appservice.model.mappers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation benchmark for logging while mapping a list of recipes with debug logging disabled.
+ * Run with the gc profiler (configured in build.gradle) and compare gc.alloc.rate.norm, the bytes allocated per operation:
+ * <ul>
+ * <li>noLogging - the mapping work alone, the baseline.</li>
+ * <li>parameterizedLogging - the mapper as it is, logging each recipe with a parameterized message.
+ * Allocates the same bytes per operation as the baseline: no log strings are built.</li>
+ * <li>concatenatedLogging - the baseline plus a concatenated debug message per recipe, as the mapper used to log.
+ * Allocates a string per recipe even though the message is discarded.</li>
+ * </ul>
+ * No Log4j configuration is on the benchmark classpath, so the default ERROR level applies and debug is off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeMapperLoggingBenchmark {
+
+    private static final Logger logger = LogManager.getLogger(RecipeMapperLoggingBenchmark.class);
+
+    //Number of recipes in the list.
+    private static final int RECIPE_COUNT = 100;
+
+    private List<Recipe> recipes;
+
+    private RecipeMapper recipeMapper;
+
+    @Setup
+    public void setup() {
+        recipeMapper = new RecipeMapperHandler();
+        final List<RecipeEntity> recipeEntities = new ArrayList<>(RECIPE_COUNT);
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            recipeEntities.add(RecipeEntityDataFactory.generateRandomRecipeEntity(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE));
+        }
+        recipes = recipeMapper.mapEntitiesToDomains(recipeEntities);
+    }
+
+    @Benchmark
+    public List<RecipeModel> noLogging() {
+        final List<RecipeModel> recipeModels = new ArrayList<>(recipes.size());
+        for (int i = 0; i < recipes.size(); i++) {
+            recipeModels.add(toModel(recipes.get(i)));
+        }
+        return recipeModels;
+    }
+
+    @Benchmark
+    public List<RecipeModel> parameterizedLogging() {
+        final List<RecipeModel> recipeModels = new ArrayList<>(recipes.size());
+        for (int i = 0; i < recipes.size(); i++) {
+            recipeModels.add(recipeMapper.mapDomainToModel(recipes.get(i)));
+        }
+        return recipeModels;
+    }
+
+    @Benchmark
+    public List<RecipeModel> concatenatedLogging() {
+        final List<RecipeModel> recipeModels = new ArrayList<>(recipes.size());
+        for (int i = 0; i < recipes.size(); i++) {
+            final Recipe recipe = recipes.get(i);
+            logger.debug("Mapping domain object " + recipe.getName() + " to a recipeModel object");
+            recipeModels.add(toModel(recipe));
+        }
+        return recipeModels;
+    }
+
+    /**
+     * The same mapping the mapper does, without any logging.
+     */
+    private static RecipeModel toModel(final Recipe recipe) {
+        final RecipeModel recipeModel = new RecipeModel();
+        recipeModel.setKey(recipe.getKey());
+        recipeModel.setName(recipe.getName());
+        recipeModel.setIngredientSet(recipe.getIngredientSet());
+        recipeModel.setMethod(recipe.getMethod());
+        return recipeModel;
+    }
+
+}
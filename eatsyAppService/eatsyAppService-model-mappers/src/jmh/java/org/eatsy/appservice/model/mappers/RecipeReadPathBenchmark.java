@@ -0,0 +1,68 @@
+package org.eatsy.appservice.model.mappers;
+
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the read-all path, mapping a result set of recipe entities through domain recipes to recipe models
+ * against projecting the entities straight to recipe models. Run with the gc profiler (enabled in the jmh build
+ * configuration) to compare the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeReadPathBenchmark {
+
+    //Number of recipes in the result set.
+    @Param({"100", "10000"})
+    private int recipeCount;
+
+    private List<RecipeEntity> recipeEntities;
+
+    //Never maps in parallel, so only the mapping itself is measured.
+    private RecipeMapper recipeMapper;
+
+    @Setup
+    public void setup() {
+        recipeMapper = new RecipeMapperHandler(Integer.MAX_VALUE);
+        recipeEntities = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            final RecipeEntity recipeEntity = RecipeEntityDataFactory.generateRandomRecipeEntity(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+            recipeEntity.setKey(UUID.randomUUID().toString());
+            recipeEntities.add(recipeEntity);
+        }
+    }
+
+    @Benchmark
+    public List<RecipeModel> throughDomain() {
+        return recipeMapper.mapDomainsToModels(recipeMapper.mapEntitiesToDomains(recipeEntities));
+    }
+
+    @Benchmark
+    public List<RecipeModel> directProjection() {
+        return recipeMapper.mapEntitiesToModels(recipeEntities);
+    }
+
+}
@@ -1,9 +1,14 @@
 package org.eatsy.appservice.model.mappers;
 
 import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeField;
 import org.eatsy.appservice.model.RecipeModel;
 import org.eatsy.appservice.persistence.model.RecipeEntity;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Recipe Mapper to map between recipe domain and model objects.
  */
@@ -40,4 +45,94 @@ public interface RecipeMapper {
      * @return the recipeDomain object that has been created from the recipe entity object
      */
     Recipe mapEntityToDomain(final RecipeEntity recipeEntity);
+
+    /**
+     * Project the recipe entity object straight into a recipe model object for a read-only response,
+     * without creating a recipe domain object in between.
+     *
+     * @param recipeEntity the entity object to be projected
+     * @return the recipeModel object, which shares the entity's collections and must only be read.
+     */
+    RecipeModel mapEntityToModel(final RecipeEntity recipeEntity);
+
+    /**
+     * Project only the selected fields of the recipe entity object into a recipe model object for a read-only response.
+     * The entity's collections for fields that are not selected are never read, so lazily loaded collections are not loaded.
+     *
+     * @param recipeEntity the entity object to be projected
+     * @param fields       the fields to project, the others are left null.
+     * @return the recipeModel object, which shares the entity's collections and must only be read.
+     */
+    RecipeModel mapEntityToModel(final RecipeEntity recipeEntity, final Set<RecipeField> fields);
+
+    /**
+     * Map a list of recipe entity objects to recipe domain objects.
+     *
+     * @param recipeEntities the entity objects to be mapped, in order.
+     * @return the recipe domain objects in the same order. Entities that cannot be mapped (e.g. with no name) are left out.
+     */
+    default List<Recipe> mapEntitiesToDomains(final List<RecipeEntity> recipeEntities) {
+        final List<Recipe> recipes = new ArrayList<>(recipeEntities.size());
+        for (final RecipeEntity recipeEntity : recipeEntities) {
+            final Recipe recipe = mapEntityToDomain(recipeEntity);
+            if (null != recipe) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * Project a list of recipe entity objects straight into recipe model objects for a read-only response.
+     *
+     * @param recipeEntities the entity objects to be projected, in order.
+     * @return the recipe model objects in the same order, which must only be read.
+     * Entities that cannot be mapped (e.g. with no name) are left out.
+     */
+    default List<RecipeModel> mapEntitiesToModels(final List<RecipeEntity> recipeEntities) {
+        final List<RecipeModel> recipeModels = new ArrayList<>(recipeEntities.size());
+        for (final RecipeEntity recipeEntity : recipeEntities) {
+            final RecipeModel recipeModel = mapEntityToModel(recipeEntity);
+            if (null != recipeModel) {
+                recipeModels.add(recipeModel);
+            }
+        }
+        return recipeModels;
+    }
+
+    /**
+     * Project only the selected fields of a list of recipe entity objects into recipe model objects for a read-only response.
+     *
+     * @param recipeEntities the entity objects to be projected, in order.
+     * @param fields         the fields to project, the others are left null.
+     * @return the recipe model objects in the same order, which must only be read.
+     * Entities that cannot be mapped (e.g. with no name) are left out.
+     */
+    default List<RecipeModel> mapEntitiesToModels(final List<RecipeEntity> recipeEntities, final Set<RecipeField> fields) {
+        final List<RecipeModel> recipeModels = new ArrayList<>(recipeEntities.size());
+        for (final RecipeEntity recipeEntity : recipeEntities) {
+            final RecipeModel recipeModel = mapEntityToModel(recipeEntity, fields);
+            if (null != recipeModel) {
+                recipeModels.add(recipeModel);
+            }
+        }
+        return recipeModels;
+    }
+
+    /**
+     * Map a list of recipe domain objects to recipe model objects.
+     *
+     * @param recipes the domain objects to be mapped, in order.
+     * @return the recipe model objects in the same order. Recipes that cannot be mapped (e.g. with no name) are left out.
+     */
+    default List<RecipeModel> mapDomainsToModels(final List<Recipe> recipes) {
+        final List<RecipeModel> recipeModels = new ArrayList<>(recipes.size());
+        for (final Recipe recipe : recipes) {
+            final RecipeModel recipeModel = mapDomainToModel(recipe);
+            if (null != recipeModel) {
+                recipeModels.add(recipeModel);
+            }
+        }
+        return recipeModels;
+    }
 }
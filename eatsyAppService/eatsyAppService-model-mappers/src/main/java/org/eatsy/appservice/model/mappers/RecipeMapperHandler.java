@@ -3,11 +3,27 @@ package org.eatsy.appservice.model.mappers;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.domain.RandomUuidRecipeKeyGenerator;
 import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.domain.RecipeKeyGenerator;
+import org.eatsy.appservice.model.RecipeField;
 import org.eatsy.appservice.model.RecipeModel;
 import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
 /**
  * Recipe Mapper Handler to map between recipe domain and model objects.
  */
@@ -16,6 +32,32 @@ public class RecipeMapperHandler implements RecipeMapper {
 
     private static final Logger logger = LogManager.getLogger(RecipeMapperHandler.class);
 
+    //Default number of recipes at which bulk mapping is split across the fork/join pool.
+    private static final int DEFAULT_PARALLEL_MAPPING_THRESHOLD = 4096;
+
+    //Number of recipes at which bulk mapping is split across the fork/join pool.
+    private final int parallelMappingThreshold;
+
+    //Generates the keys of new recipes mapped from models without a key.
+    private final RecipeKeyGenerator recipeKeyGenerator;
+
+    public RecipeMapperHandler() {
+        this(DEFAULT_PARALLEL_MAPPING_THRESHOLD);
+    }
+
+    //As below, generating random UUID keys for new recipes.
+    public RecipeMapperHandler(final int parallelMappingThreshold) {
+        this(parallelMappingThreshold, new RandomUuidRecipeKeyGenerator());
+    }
+
+    //Inject the bulk mapping configuration and the key generation strategy into the RecipeMapperHandler during instantiation.
+    @Autowired
+    public RecipeMapperHandler(@Value("${eatsy.mapper.parallel-mapping-threshold:4096}") final int parallelMappingThreshold,
+                               final RecipeKeyGenerator recipeKeyGenerator) {
+        this.parallelMappingThreshold = parallelMappingThreshold;
+        this.recipeKeyGenerator = recipeKeyGenerator;
+    }
+
     /**
      * Map the recipe domain object to a recipe model object.
      *
@@ -25,28 +67,10 @@ public class RecipeMapperHandler implements RecipeMapper {
     @Override
     public RecipeModel mapDomainToModel(final Recipe recipe) {
 
-        RecipeModel recipeModel = null;
-        //The recipe to be mapped must not be null and the recipe must have a name.
-        if (null != recipe && StringUtils.isNotEmpty(recipe.getName().trim())) {
-
-            logger.debug("Mapping domain object " + recipe.getName() + " to a recipeModel object");
-
-            recipeModel = new RecipeModel();
-
-            //Map key.
-            recipeModel.setKey(recipe.getKey());
-
-            //Map name.
-            recipeModel.setName(recipe.getName());
-
-            //Map set of ingredients.
-            recipeModel.setIngredientSet(recipe.getIngredientSet());
-
-            //Map method.
-            recipeModel.setMethod(recipe.getMethod());
-
+        if (null != recipe) {
+            logger.debug("Mapping domain object {} to a recipeModel object", recipe.getName());
         }
-        return recipeModel;
+        return toModel(recipe);
 
     }
 
@@ -65,15 +89,17 @@ public class RecipeMapperHandler implements RecipeMapper {
         //The recipe model to be mapped must not be null and the recipeModel must have a name.
         if (null != recipeModel && StringUtils.isNotEmpty(recipeModel.getName().trim())) {
 
-            logger.debug("Mapping model object " + recipeModel.getName() + " to a recipe domain object");
+            logger.debug("Mapping model object {} to a recipe domain object", recipeModel.getName());
 
             final Recipe.RecipeBuilder recipeBuilder = new Recipe.RecipeBuilder(recipeModel.getName())
                     .withIngredientSet(recipeModel.getIngredientSet())
                     .withMethod(recipeModel.getMethod());
-            // The recipeBuilder automatically assigns a new key,
+            // The recipeBuilder assigns a new key on build unless one is specified,
             // so if the model already has an existing key, then this will ensure the existing key is kept.
             if (recipeModel.getKey() != null){
                 recipeBuilder.withSpecifiedKey(recipeModel.getKey());
+            } else {
+                recipeBuilder.withKeyGenerator(recipeKeyGenerator);
             }
 
             recipe = recipeBuilder.build();
@@ -97,7 +123,7 @@ public class RecipeMapperHandler implements RecipeMapper {
         //The recipe to be mapped must not be null and the recipe must have a name.
         if (null != recipe && StringUtils.isNotEmpty(recipe.getName().trim())) {
 
-            logger.debug("Mapping domain object " + recipe.getName() + " to a recipeEntity object");
+            logger.debug("Mapping domain object {} to a recipeEntity object", recipe.getName());
 
             recipeEntity = new RecipeEntity();
 
@@ -108,10 +134,17 @@ public class RecipeMapperHandler implements RecipeMapper {
             recipeEntity.setName(recipe.getName());
 
             //Map set of ingredients.
-            recipeEntity.setIngredientSet(recipe.getIngredientSet());
-
-            //Map method.
-            recipeEntity.setMethodMap(recipe.getMethod());
+            //The domain collections are immutable, so the entity is given its own mutable copies for the persistence provider to manage.
+            recipeEntity.setIngredientSet(null == recipe.getIngredientSet() ? null : new HashSet<>(recipe.getIngredientSet()));
+
+            //Map method. The entity map is filled straight from the ordered method steps, without an intermediate entry set.
+            if (null != recipe.getMethod()) {
+                final Map<Integer, String> methodMap = new LinkedHashMap<>((int) (recipe.getMethod().size() / 0.75f) + 1);
+                recipe.getMethod().forEachStep(methodMap::put);
+                recipeEntity.setMethodMap(methodMap);
+            } else {
+                recipeEntity.setMethodMap(null);
+            }
 
         }
         return recipeEntity;
@@ -126,21 +159,276 @@ public class RecipeMapperHandler implements RecipeMapper {
     @Override
     public Recipe mapEntityToDomain(final RecipeEntity recipeEntity) {
 
-        Recipe recipe = null;
+        if (null != recipeEntity) {
+            logger.debug("Mapping entity object {} to a recipedomain object", recipeEntity.getName());
+        }
+        return toDomain(recipeEntity);
+
+    }
+
+    /**
+     * Project the recipe entity object straight into a recipe model object for a read-only response,
+     * without creating a recipe domain object in between.
+     *
+     * @param recipeEntity the entity object to be projected
+     * @return the recipeModel object, which shares the entity's collections and must only be read.
+     */
+    @Override
+    public RecipeModel mapEntityToModel(final RecipeEntity recipeEntity) {
+
+        if (null != recipeEntity) {
+            logger.debug("Projecting entity object {} to a recipeModel object", recipeEntity.getName());
+        }
+        return toModel(recipeEntity);
+
+    }
+
+    /**
+     * Project only the selected fields of the recipe entity object into a recipe model object for a read-only response.
+     *
+     * @param recipeEntity the entity object to be projected
+     * @param fields       the fields to project, the others are left null.
+     * @return the recipeModel object, which shares the entity's collections and must only be read.
+     */
+    @Override
+    public RecipeModel mapEntityToModel(final RecipeEntity recipeEntity, final Set<RecipeField> fields) {
+
+        if (null != recipeEntity) {
+            logger.debug("Projecting fields {} of entity object {} to a recipeModel object", fields, recipeEntity.getName());
+        }
+        return toModel(recipeEntity, fields);
+
+    }
+
+    /**
+     * Map a list of recipe entity objects to recipe domain objects.
+     * The output is pre-sized and mapped without per-recipe logging. Lists of at least the parallel mapping threshold
+     * are split across the common fork/join pool.
+     *
+     * @param recipeEntities the entity objects to be mapped, in order.
+     * @return the recipe domain objects in the same order. Entities that cannot be mapped (e.g. with no name) are left out.
+     */
+    @Override
+    public List<Recipe> mapEntitiesToDomains(final List<RecipeEntity> recipeEntities) {
+
+        logger.debug("Mapping {} entity objects to recipe domain objects", recipeEntities.size());
+        return mapAll(recipeEntities, new Recipe[recipeEntities.size()], RecipeMapperHandler::toDomain);
+    }
+
+    /**
+     * Project a list of recipe entity objects straight into recipe model objects for a read-only response.
+     * The output is pre-sized and mapped without per-recipe logging. Lists of at least the parallel mapping threshold
+     * are split across the common fork/join pool.
+     *
+     * @param recipeEntities the entity objects to be projected, in order.
+     * @return the recipe model objects in the same order, which must only be read.
+     * Entities that cannot be mapped (e.g. with no name) are left out.
+     */
+    @Override
+    public List<RecipeModel> mapEntitiesToModels(final List<RecipeEntity> recipeEntities) {
+
+        logger.debug("Projecting {} entity objects to recipe model objects", recipeEntities.size());
+        return mapAll(recipeEntities, new RecipeModel[recipeEntities.size()], RecipeMapperHandler::toModel);
+    }
+
+    /**
+     * Project only the selected fields of a list of recipe entity objects into recipe model objects for a read-only response.
+     * The output is pre-sized and mapped without per-recipe logging. Lists of at least the parallel mapping threshold
+     * are split across the common fork/join pool.
+     *
+     * @param recipeEntities the entity objects to be projected, in order.
+     * @param fields         the fields to project, the others are left null.
+     * @return the recipe model objects in the same order, which must only be read.
+     * Entities that cannot be mapped (e.g. with no name) are left out.
+     */
+    @Override
+    public List<RecipeModel> mapEntitiesToModels(final List<RecipeEntity> recipeEntities, final Set<RecipeField> fields) {
+
+        logger.debug("Projecting fields {} of {} entity objects to recipe model objects", fields, recipeEntities.size());
+        return mapAll(recipeEntities, new RecipeModel[recipeEntities.size()], recipeEntity -> toModel(recipeEntity, fields));
+    }
+
+    /**
+     * Map a list of recipe domain objects to recipe model objects.
+     * The output is pre-sized and mapped without per-recipe logging. Lists of at least the parallel mapping threshold
+     * are split across the common fork/join pool.
+     *
+     * @param recipes the domain objects to be mapped, in order.
+     * @return the recipe model objects in the same order. Recipes that cannot be mapped (e.g. with no name) are left out.
+     */
+    @Override
+    public List<RecipeModel> mapDomainsToModels(final List<Recipe> recipes) {
+
+        logger.debug("Mapping {} domain objects to recipe model objects", recipes.size());
+        return mapAll(recipes, new RecipeModel[recipes.size()], RecipeMapperHandler::toModel);
+    }
+
+    /**
+     * Map the recipe domain object to a recipe model object, without logging.
+     *
+     * @param recipe the domain object to be mapped
+     * @return the recipeModel object, or null if the recipe is null or has no name.
+     */
+    private static RecipeModel toModel(final Recipe recipe) {
+
+        RecipeModel recipeModel = null;
         //The recipe to be mapped must not be null and the recipe must have a name.
-        if (null != recipeEntity && StringUtils.isNotEmpty(recipeEntity.getName().trim())) {
+        if (null != recipe && StringUtils.isNotBlank(recipe.getName())) {
+
+            recipeModel = new RecipeModel();
+
+            //Map key.
+            recipeModel.setKey(recipe.getKey());
+
+            //Map name.
+            recipeModel.setName(recipe.getName());
+
+            //Map set of ingredients.
+            //The domain collections are immutable, so they can be shared with the model without copying.
+            recipeModel.setIngredientSet(recipe.getIngredientSet());
+
+            //Map method.
+            recipeModel.setMethod(recipe.getMethod());
+
+        }
+        return recipeModel;
+    }
+
+    /**
+     * Project the recipe entity object to a recipe model object, without logging.
+     * The entity's collections are shared rather than copied, as the model is only used for a read-only response.
+     *
+     * @param recipeEntity the entity object to be projected
+     * @return the recipeModel object, or null if the entity is null or has no name.
+     */
+    private static RecipeModel toModel(final RecipeEntity recipeEntity) {
+
+        RecipeModel recipeModel = null;
+        //The recipe to be mapped must not be null and the recipe must have a name.
+        if (null != recipeEntity && StringUtils.isNotBlank(recipeEntity.getName())) {
+
+            recipeModel = new RecipeModel();
+            recipeModel.setKey(recipeEntity.getKey());
+            recipeModel.setName(recipeEntity.getName());
+            //Optional fields are mapped to empty collections, as they are on the domain path.
+            recipeModel.setIngredientSet(null != recipeEntity.getIngredientSet()
+                    ? recipeEntity.getIngredientSet() : Collections.<String>emptySet());
+            recipeModel.setMethod(null != recipeEntity.getMethodMap()
+                    ? recipeEntity.getMethodMap() : Collections.<Integer, String>emptyMap());
+
+        }
+        return recipeModel;
+    }
+
+    /**
+     * Project the selected fields of the recipe entity object to a recipe model object, without logging.
+     * Collections of fields that are not selected are not read, so they are not loaded if they are lazily loaded.
+     *
+     * @param recipeEntity the entity object to be projected
+     * @param fields       the fields to project, the others are left null.
+     * @return the recipeModel object, or null if the entity is null or has no name.
+     */
+    private static RecipeModel toModel(final RecipeEntity recipeEntity, final Set<RecipeField> fields) {
+
+        final RecipeModel recipeModel = toModel(recipeEntity);
+        if (null != recipeModel) {
+            //The unselected collections were only referenced, not read, by the full projection.
+            if (!fields.contains(RecipeField.KEY)) {
+                recipeModel.setKey(null);
+            }
+            if (!fields.contains(RecipeField.NAME)) {
+                recipeModel.setName(null);
+            }
+            if (!fields.contains(RecipeField.INGREDIENT_SET)) {
+                recipeModel.setIngredientSet(null);
+            }
+            if (!fields.contains(RecipeField.METHOD)) {
+                recipeModel.setMethod(null);
+            }
+        }
+        return recipeModel;
+    }
 
-            logger.debug("Mapping entity object " + recipeEntity.getName() + " to a recipedomain object");
+    /**
+     * Map the recipe entity object to a recipe domain object, without logging.
+     *
+     * @param recipeEntity the entity object to be mapped
+     * @return the recipeDomain object, or null if the entity is null or has no name.
+     */
+    private static Recipe toDomain(final RecipeEntity recipeEntity) {
+
+        Recipe recipe = null;
+        //The recipe to be mapped must not be null and the recipe must have a name.
+        if (null != recipeEntity && StringUtils.isNotBlank(recipeEntity.getName())) {
 
             recipe = new Recipe
                     .RecipeBuilder(recipeEntity.getName())
                     .withIngredientSet(recipeEntity.getIngredientSet())
                     .withMethod(recipeEntity.getMethodMap())
-                    .withSpecifiedKey(recipeEntity.getKey()) //override the newly generated key to ensure it is the same as the db entity key
+                    .withSpecifiedKey(recipeEntity.getKey()) //use the db entity key rather than generating a new key
                     .build();
 
         }
         return recipe;
+    }
+
+    /**
+     * Maps every source object into the pre-sized output array, in parallel if there are enough of them,
+     * then returns the mapped objects in order with any that could not be mapped left out.
+     */
+    private <S, T> List<T> mapAll(final List<S> sources, final T[] mapped, final Function<S, T> mapper) {
 
+        if (sources.size() >= parallelMappingThreshold) {
+            ForkJoinPool.commonPool().invoke(new MappingTask<>(sources, mapped, mapper, 0, sources.size()));
+        } else {
+            for (int i = 0; i < mapped.length; i++) {
+                mapped[i] = mapper.apply(sources.get(i));
+            }
+        }
+
+        final List<T> mappedList = new ArrayList<>(mapped.length);
+        for (final T current : mapped) {
+            if (null != current) {
+                mappedList.add(current);
+            }
+        }
+        return mappedList;
+    }
+
+    /**
+     * Fork/join task that maps a range of a list into the same positions of an array,
+     * splitting the range in half until it is small enough to map directly.
+     */
+    private static final class MappingTask<S, T> extends RecursiveAction {
+
+        //Ranges of up to this many objects are mapped directly rather than split further.
+        private static final int MAPPING_BATCH_SIZE = 512;
+
+        private final List<S> sources;
+        private final T[] mapped;
+        private final Function<S, T> mapper;
+        private final int from;
+        private final int to;
+
+        private MappingTask(final List<S> sources, final T[] mapped, final Function<S, T> mapper, final int from, final int to) {
+            this.sources = sources;
+            this.mapped = mapped;
+            this.mapper = mapper;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MAPPING_BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    mapped[i] = mapper.apply(sources.get(i));
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new MappingTask<>(sources, mapped, mapper, from, middle),
+                        new MappingTask<>(sources, mapped, mapper, middle, to));
+            }
+        }
     }
 }
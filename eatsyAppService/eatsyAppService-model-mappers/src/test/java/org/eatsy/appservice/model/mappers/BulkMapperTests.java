@@ -0,0 +1,134 @@
+package org.eatsy.appservice.model.mappers;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recipe Mapper unit tests for the bulk mapping methods.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class BulkMapperTests {
+
+    //Recipe entities to be mapped.
+    private List<RecipeEntity> recipeEntities;
+
+    /**
+     * Class under test, mapping sequentially.
+     */
+    private RecipeMapper recipeMapper;
+
+    /**
+     * Class under test, splitting even the smallest list across the fork/join pool.
+     */
+    private RecipeMapper parallelRecipeMapper;
+
+    @BeforeEach
+    public void setup() {
+        recipeMapper = new RecipeMapperHandler();
+        parallelRecipeMapper = new RecipeMapperHandler(1);
+        recipeEntities = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            recipeEntities.add(RecipeEntityDataFactory.generateRandomRecipeEntity(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE));
+        }
+    }
+
+    /**
+     * Check a list of entities maps to the same domain recipes, in the same order, as mapping each entity in turn.
+     */
+    @Test
+    public void checkMapEntitiesToDomains() {
+
+        //Expectation
+        final List<Recipe> expectedRecipes = new ArrayList<>();
+        for (final RecipeEntity recipeEntity : recipeEntities) {
+            expectedRecipes.add(recipeMapper.mapEntityToDomain(recipeEntity));
+        }
+
+        //Test
+        final List<Recipe> actualRecipes = recipeMapper.mapEntitiesToDomains(recipeEntities);
+        final List<Recipe> actualParallelRecipes = parallelRecipeMapper.mapEntitiesToDomains(recipeEntities);
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipes, actualRecipes);
+        Assertions.assertEquals(expectedRecipes, actualParallelRecipes);
+    }
+
+    /**
+     * Check a list of domain recipes maps to the same models, in the same order, as mapping each recipe in turn.
+     */
+    @Test
+    public void checkMapDomainsToModels() {
+
+        //Setup
+        final List<Recipe> recipes = recipeMapper.mapEntitiesToDomains(recipeEntities);
+
+        //Expectation
+        final List<RecipeModel> expectedRecipeModels = new ArrayList<>();
+        for (final Recipe recipe : recipes) {
+            expectedRecipeModels.add(recipeMapper.mapDomainToModel(recipe));
+        }
+
+        //Test
+        final List<RecipeModel> actualRecipeModels = recipeMapper.mapDomainsToModels(recipes);
+        final List<RecipeModel> actualParallelRecipeModels = parallelRecipeMapper.mapDomainsToModels(recipes);
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeModels, actualRecipeModels);
+        Assertions.assertEquals(expectedRecipeModels, actualParallelRecipeModels);
+    }
+
+    /**
+     * Check projecting a list of entities straight to models gives the same models, in the same order,
+     * as mapping the entities to domain recipes and then to models.
+     */
+    @Test
+    public void checkMapEntitiesToModels() {
+
+        //Setup
+        //Give each entity a key so the two paths do not assign different keys.
+        recipeEntities.forEach(recipeEntity -> recipeEntity.setKey(UUID.randomUUID().toString()));
+
+        //Expectation
+        final List<RecipeModel> expectedRecipeModels = recipeMapper.mapDomainsToModels(recipeMapper.mapEntitiesToDomains(recipeEntities));
+
+        //Test
+        final List<RecipeModel> actualRecipeModels = recipeMapper.mapEntitiesToModels(recipeEntities);
+        final List<RecipeModel> actualParallelRecipeModels = parallelRecipeMapper.mapEntitiesToModels(recipeEntities);
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeModels, actualRecipeModels);
+        Assertions.assertEquals(expectedRecipeModels, actualParallelRecipeModels);
+    }
+
+    /**
+     * Check entities that cannot be mapped are left out rather than mapped to null.
+     */
+    @Test
+    public void checkUnmappableEntitiesLeftOut() {
+
+        //Setup
+        final List<RecipeEntity> recipeEntitiesWithUnmappable = new ArrayList<>(recipeEntities.subList(0, 2));
+        recipeEntitiesWithUnmappable.add(1, null);
+
+        //Test
+        final List<Recipe> actualRecipes = recipeMapper.mapEntitiesToDomains(recipeEntitiesWithUnmappable);
+
+        //Assertion
+        Assertions.assertEquals(2, actualRecipes.size());
+        Assertions.assertEquals(recipeEntities.get(1).getName(), actualRecipes.get(1).getName());
+    }
+
+}
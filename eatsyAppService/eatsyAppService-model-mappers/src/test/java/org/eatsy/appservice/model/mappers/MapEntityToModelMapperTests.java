@@ -0,0 +1,133 @@
+package org.eatsy.appservice.model.mappers;
+
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Recipe Projection for Entity to Recipe Model Mapper unit tests
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class MapEntityToModelMapperTests {
+
+    /**
+     * Class under test.
+     */
+    private RecipeMapper recipeMapper;
+
+    @BeforeEach
+    public void setup() {
+        recipeMapper = new RecipeMapperHandler();
+    }
+
+    /**
+     * This test checks the Recipe Entity is projected to the same Recipe Model as mapping it through a Recipe Domain object.
+     */
+    @Test
+    public void checkMapEntityToModel() {
+
+        //Setup
+        //Generate a recipe entity object to be projected into a recipe model object.
+        final RecipeEntity recipeEntity = RecipeEntityDataFactory
+                .generateRandomRecipeEntity(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeEntity.setKey(UUID.randomUUID().toString());
+
+        //Expectation
+        final RecipeModel expectedRecipeModel = recipeMapper.mapDomainToModel(recipeMapper.mapEntityToDomain(recipeEntity));
+
+        //Test
+        final RecipeModel actualRecipeModel = recipeMapper.mapEntityToModel(recipeEntity);
+
+        //Assertion
+        Assertions.assertEquals(expectedRecipeModel, actualRecipeModel);
+
+    }
+
+    /**
+     * Check only the selected fields of the Recipe Entity are projected, leaving the others null.
+     */
+    @Test
+    public void checkMapSelectedFieldsOfEntityToModel() {
+
+        //Setup
+        final RecipeEntity recipeEntity = RecipeEntityDataFactory
+                .generateRandomRecipeEntity(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeEntity.setKey(UUID.randomUUID().toString());
+
+        //Test
+        final RecipeModel actualRecipeModel = recipeMapper.mapEntityToModel(recipeEntity, EnumSet.of(RecipeField.KEY, RecipeField.NAME));
+
+        //Assertions
+        Assertions.assertEquals(recipeEntity.getKey(), actualRecipeModel.getKey());
+        Assertions.assertEquals(recipeEntity.getName(), actualRecipeModel.getName());
+        Assertions.assertNull(actualRecipeModel.getIngredientSet());
+        Assertions.assertNull(actualRecipeModel.getMethod());
+
+    }
+
+    /**
+     * Check the recipe mapper gracefully deals with null being passed to the service.
+     */
+    @Test
+    public void checkMapToModelWithNull() {
+
+        //Test
+        final RecipeModel actualRecipeModel = recipeMapper.mapEntityToModel(null);
+
+        //Assert
+        Assertions.assertNull(actualRecipeModel);
+
+    }
+
+    /**
+     * Check the Recipe Mapper cannot project a recipe entity with an empty recipeName.
+     */
+    @Test
+    public void checkCantMapToModelWithEmptyName() {
+
+        //Setup
+        final RecipeEntity recipeEntityWithEmptyRecipeName = new RecipeEntity();
+        recipeEntityWithEmptyRecipeName.setName("         ");
+
+        //Test
+        final RecipeModel actualRecipeModel = recipeMapper.mapEntityToModel(recipeEntityWithEmptyRecipeName);
+
+        //Assertion
+        Assertions.assertNull(actualRecipeModel);
+
+    }
+
+    /**
+     * Test that the projection gives empty collections, as the domain path does, when non-compulsory fields are not populated.
+     */
+    @Test
+    public void checkMapToModelNoMethodOrIngredients() {
+
+        //Setup
+        //Make the recipe entity have only the required fields
+        final RecipeEntity requiredFieldsOnlyRecipeEntity = new RecipeEntity();
+        requiredFieldsOnlyRecipeEntity.setName("Required fields only");
+        requiredFieldsOnlyRecipeEntity.setKey(UUID.randomUUID().toString());
+
+        //Expectation
+        final RecipeModel expectedRecipeModel = recipeMapper.mapDomainToModel(recipeMapper.mapEntityToDomain(requiredFieldsOnlyRecipeEntity));
+
+        //Test
+        final RecipeModel actualRecipeModel = recipeMapper.mapEntityToModel(requiredFieldsOnlyRecipeEntity);
+
+        //Assertion
+        Assertions.assertEquals(expectedRecipeModel, actualRecipeModel);
+
+    }
+
+}
@@ -221,4 +221,29 @@ public class MapModelToDomainMapperTests {
 
     }
 
+    /**
+     * Check the key of a recipe model without a key is generated by the key generator given to the mapper,
+     * and the key of a recipe model with a key is kept.
+     */
+    @Test
+    public void checkMapToDomainGeneratesKeyWithGivenKeyGenerator() {
+
+        //Setup
+        final RecipeMapper keyGeneratingRecipeMapper = new RecipeMapperHandler(Integer.MAX_VALUE, () -> "generated key");
+        final RecipeModel recipeModel = RecipeModelDataFactory.generateRandomRecipeModel(
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        final RecipeModel recipeModelWithKey = RecipeModelDataFactory.generateRandomRecipeModel(
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModelWithKey.setKey("specified key");
+
+        //Test
+        final Recipe generatedKeyRecipe = keyGeneratingRecipeMapper.mapModelToDomain(recipeModel);
+        final Recipe specifiedKeyRecipe = keyGeneratingRecipeMapper.mapModelToDomain(recipeModelWithKey);
+
+        //Assertions
+        Assertions.assertEquals("generated key", generatedKeyRecipe.getKey());
+        Assertions.assertEquals("specified key", specifiedKeyRecipe.getKey());
+
+    }
+
 }
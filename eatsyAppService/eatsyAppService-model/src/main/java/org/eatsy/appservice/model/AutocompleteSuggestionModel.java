@@ -0,0 +1,29 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model for a suggested recipe name or ingredient for a search box.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "A recipe name or ingredient suggested for what has been typed so far")
+public class AutocompleteSuggestionModel {
+
+    @Schema(description = "The suggested text.")
+    private String text;
+
+    @Schema(description = "What the suggestion is: RECIPE for a recipe name or INGREDIENT for an ingredient.")
+    private String type;
+
+    @Schema(description = "The number of recipes with this name, or using this ingredient.")
+    private int recipeCount;
+
+}
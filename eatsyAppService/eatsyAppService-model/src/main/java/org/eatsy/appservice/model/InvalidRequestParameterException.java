@@ -0,0 +1,15 @@
+package org.eatsy.appservice.model;
+
+/**
+ * Thrown when a request parameter given by a client is not valid, e.g. a limit out of range or an unknown recipe field.
+ * The message describes the problem to the client, so it must only hold what the client sent and the allowed values.
+ */
+public class InvalidRequestParameterException extends IllegalArgumentException {
+
+    /**
+     * @param message what is wrong with the parameter, to be shown to the client.
+     */
+    public InvalidRequestParameterException(final String message) {
+        super(message);
+    }
+}
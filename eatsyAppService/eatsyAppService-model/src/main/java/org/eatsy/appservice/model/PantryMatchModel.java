@@ -0,0 +1,28 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Model for a recipe that can be made, or nearly made, from the ingredients in a pantry.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "A recipe matching a pantry, and the ingredients it needs that are not in the pantry")
+public class PantryMatchModel {
+
+    @Schema(description = "The matching recipe.")
+    private RecipeModel recipe;
+
+    @Schema(description = "The ingredients of the recipe that are not in the pantry.")
+    private Set<String> missingIngredients;
+
+}
@@ -0,0 +1,36 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model for an event in the recipe change feed: a recipe that has been created, updated or deleted.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "A recipe that has been created, updated or deleted")
+public class RecipeChangeEventModel {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    @Schema(description = "The identifier of the event. Send it as the Last-Event-ID header to resume the feed after it.")
+    private String id;
+
+    @Schema(description = "What happened to the recipe.", allowableValues = {CREATED, UPDATED, DELETED})
+    private String type;
+
+    @Schema(description = "The unique identifier of the recipe.")
+    private String recipeKey;
+
+    @Schema(description = "The version of the recipe after the change, as used in its ETag. Absent if the recipe was deleted.")
+    private String version;
+
+}
@@ -0,0 +1,79 @@
+package org.eatsy.appservice.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a recipe model that a client can ask for, so that responses only carry the fields it needs.
+ */
+public enum RecipeField {
+
+    KEY("key"),
+    NAME("name"),
+    INGREDIENT_SET("ingredientSet"),
+    METHOD("method");
+
+    //Id of the Jackson filter on RecipeModel that limits which of its fields are serialized.
+    public static final String FILTER_ID = "recipeFields";
+
+    //Every field, as selected when a client does not ask for particular fields.
+    public static final Set<RecipeField> ALL = Collections.unmodifiableSet(EnumSet.allOf(RecipeField.class));
+
+    //Name of the field in RecipeModel and its JSON.
+    private final String fieldName;
+
+    RecipeField(final String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    /**
+     * @return the name of the field in RecipeModel and its JSON.
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Parses a comma separated list of field names, e.g. "key,name".
+     *
+     * @param fields the field names, which may be null.
+     * @return the selected fields, or every field if no fields are given.
+     * @throws InvalidRequestParameterException if a field name is not a field of RecipeModel.
+     */
+    public static Set<RecipeField> parse(final String fields) {
+
+        if (StringUtils.isBlank(fields)) {
+            return ALL;
+        }
+        final Set<RecipeField> selectedFields = EnumSet.noneOf(RecipeField.class);
+        for (final String fieldName : fields.split(",")) {
+            if (StringUtils.isBlank(fieldName)) {
+                continue;
+            }
+            selectedFields.add(Arrays.stream(values())
+                    .filter(recipeField -> recipeField.fieldName.equals(fieldName.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestParameterException("Unknown recipe field '" + fieldName.trim()
+                            + "', the fields are " + fieldNamesOf(ALL))));
+        }
+        return selectedFields.isEmpty() ? ALL : Collections.unmodifiableSet(selectedFields);
+    }
+
+    /**
+     * @param fields the selected fields.
+     * @return the names of the fields, in declaration order.
+     */
+    public static Set<String> fieldNamesOf(final Set<RecipeField> fields) {
+        return fields.stream()
+                .sorted()
+                .map(RecipeField::getFieldName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model for the result of importing one recipe: the key it was saved with, or why it was rejected.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "The result of importing one recipe")
+public class RecipeImportResultModel {
+
+    @Schema(description = "The line of the import the recipe was on, counting from 1.")
+    private long line;
+
+    @Schema(description = "The unique identifier the recipe was saved with. Absent if the recipe was rejected.")
+    private String key;
+
+    @Schema(description = "Why the recipe was rejected. Absent if the recipe was imported.")
+    private String error;
+
+}
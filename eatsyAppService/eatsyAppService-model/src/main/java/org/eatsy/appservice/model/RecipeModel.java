@@ -1,5 +1,6 @@
 package org.eatsy.appservice.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -11,6 +12,7 @@ import java.util.Set;
 
 /**
  * Model for the recipe object
+ * Serialized through the recipe fields filter, so a response can be limited to the fields a client asks for.
  */
 //Lombok
 @Getter
@@ -18,6 +20,7 @@ import java.util.Set;
 @ToString
 @EqualsAndHashCode
 @Schema(description = "Stores and transports recipe data")
+@JsonFilter(RecipeField.FILTER_ID)
 public class RecipeModel {
 
     @Schema(description = "unique identifier.")
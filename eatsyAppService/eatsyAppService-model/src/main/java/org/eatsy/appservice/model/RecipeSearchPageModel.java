@@ -0,0 +1,34 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Model for one page of the results of a recipe search.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "One page of the recipes found by a search, most relevant first")
+public class RecipeSearchPageModel {
+
+    @Schema(description = "The recipes on this page, most relevant first.")
+    private List<RecipeSearchResultModel> results;
+
+    @Schema(description = "The number of the page, starting from 0.")
+    private int page;
+
+    @Schema(description = "The most results on a page.")
+    private int pageSize;
+
+    @Schema(description = "The number of recipes matching the search, across all pages.")
+    private int totalResults;
+
+}
@@ -0,0 +1,26 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model for a recipe found by a search, and how well it matched.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "A recipe found by a search, with its relevance score")
+public class RecipeSearchResultModel {
+
+    @Schema(description = "The recipe found.")
+    private RecipeModel recipe;
+
+    @Schema(description = "BM25 relevance score of the recipe for the search. Higher is more relevant.")
+    private double score;
+
+}
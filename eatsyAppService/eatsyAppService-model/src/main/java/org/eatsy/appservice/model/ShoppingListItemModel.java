@@ -0,0 +1,26 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model for an ingredient on a shopping list, and how many of the recipes on the list need it.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "An ingredient on a shopping list")
+public class ShoppingListItemModel {
+
+    @Schema(description = "The ingredient.")
+    private String ingredient;
+
+    @Schema(description = "The number of recipes on the shopping list that need the ingredient.")
+    private int recipeCount;
+
+}
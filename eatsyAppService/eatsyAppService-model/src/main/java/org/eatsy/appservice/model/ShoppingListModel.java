@@ -0,0 +1,28 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Model for the merged ingredients of a number of recipes.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "The ingredients of a number of recipes, each listed once")
+public class ShoppingListModel {
+
+    @Schema(description = "The ingredients, in the order they first appear in the requested recipes.")
+    private List<ShoppingListItemModel> items;
+
+    @Schema(description = "The requested recipe keys that do not match a recipe.")
+    private List<String> unknownRecipeKeys;
+
+}
@@ -0,0 +1,26 @@
+package org.eatsy.appservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Model for a recipe similar to another recipe, and how similar it is.
+ */
+//Lombok
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Schema(description = "A recipe similar to another recipe, with the estimated similarity of their ingredients")
+public class SimilarRecipeModel {
+
+    @Schema(description = "The similar recipe.")
+    private RecipeModel recipe;
+
+    @Schema(description = "Estimated Jaccard similarity of the two recipes' ingredients, from 0 (none shared) to 1 (all shared).")
+    private double similarity;
+
+}
@@ -0,0 +1,107 @@
+package org.eatsy.appservice.persistence;
+
+import org.eatsy.appservice.domain.RandomUuidRecipeKeyGenerator;
+import org.eatsy.appservice.domain.RecipeKeyGenerator;
+import org.eatsy.appservice.domain.TimeOrderedUuidRecipeKeyGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a large recipe table keyed the same way as the recipe entity (a 36 character primary key),
+ * with random UUID keys against time-ordered UUID keys.
+ * Uses a file-backed H2 database with a small page cache, so inserts that scatter across the primary key index
+ * have to read and write more index pages than inserts that append to the end of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecipeKeyInsertBenchmark {
+
+    //Number of recipes inserted per operation, in one transaction.
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "time-ordered"})
+    private String keyStrategy;
+
+    //Number of recipes in the table before the benchmark starts.
+    @Param({"1000000"})
+    private int existingRecipes;
+
+    private RecipeKeyGenerator keyGenerator;
+
+    private Path databaseDirectory;
+
+    private Connection connection;
+
+    private PreparedStatement insertRecipe;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        keyGenerator = "random".equals(keyStrategy)
+                ? new RandomUuidRecipeKeyGenerator() : new TimeOrderedUuidRecipeKeyGenerator();
+
+        databaseDirectory = Files.createTempDirectory("recipe-key-insert-benchmark");
+        connection = DriverManager.getConnection(
+                "jdbc:h2:" + databaseDirectory.resolve("recipes").toAbsolutePath() + ";CACHE_SIZE=8192");
+        connection.setAutoCommit(false);
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE recipe (\"key\" VARCHAR(36) PRIMARY KEY, name VARCHAR(255))");
+        }
+        insertRecipe = connection.prepareStatement("INSERT INTO recipe (\"key\", name) VALUES (?, ?)");
+
+        for (int inserted = 0; inserted < existingRecipes; inserted += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        insertRecipe.close();
+        connection.close();
+        try (final Stream<Path> databaseFiles = Files.walk(databaseDirectory)) {
+            databaseFiles.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void insertRecipes() throws SQLException {
+        insertBatch();
+    }
+
+    private void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insertRecipe.setString(1, keyGenerator.generateKey());
+            insertRecipe.setString(2, "Recipe");
+            insertRecipe.addBatch();
+        }
+        insertRecipe.executeBatch();
+        connection.commit();
+    }
+
+}
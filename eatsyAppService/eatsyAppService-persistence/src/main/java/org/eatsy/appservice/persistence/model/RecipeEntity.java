@@ -1,10 +1,12 @@
 package org.eatsy.appservice.persistence.model;
 
 
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.util.HashMap;
@@ -14,6 +16,8 @@ import java.util.Set;
 
 /**
  * Entity class to map the recipe object with a corresponding table in the database.
+ * Recipe keys are assigned before saving, so a recipe marked as new is inserted without first being selected to check
+ * whether it already exists. Every other recipe is saved as an update of any existing record with its key.
  */
 //Lombok
 @Getter
@@ -23,11 +27,14 @@ import java.util.Set;
 //persistence
 @Entity
 @Table(name = "recipe")
-public class RecipeEntity {
+public class RecipeEntity implements Persistable<String> {
 
-    //Primary key
+    //The longest recipe key the key column holds.
+    public static final int MAX_KEY_LENGTH = 36;
+
+    //Primary key. Recipe keys are 36 character UUID strings.
     @Id
-    @Column(name = "key")
+    @Column(name = "key", length = MAX_KEY_LENGTH)
     private String key;
 
     //Recipe name.
@@ -51,4 +58,24 @@ public class RecipeEntity {
     @CollectionTable(name = "recipe_method", joinColumns = @JoinColumn(name = "key"))
     private Map<Integer, String> methodMap = new HashMap<>();
 
+    //Whether the recipe is not yet in the database, so is inserted when saved. Cleared once persisted or loaded.
+    @Getter(AccessLevel.NONE)
+    private transient boolean newRecipe;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecipe;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        newRecipe = false;
+    }
+
 }
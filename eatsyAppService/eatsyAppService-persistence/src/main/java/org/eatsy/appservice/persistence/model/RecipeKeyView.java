@@ -0,0 +1,10 @@
+package org.eatsy.appservice.persistence.model;
+
+/**
+ * Closed projection of a recipe entity that only selects its primary key.
+ */
+public interface RecipeKeyView {
+
+    String getKey();
+
+}
@@ -1,14 +1,54 @@
 package org.eatsy.appservice.persistence.service;
 
 import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.model.RecipeKeyView;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * JPA Repository interface for CRUD operations in the Eatsy database
  */
 @Repository
 public interface EatsyRepository extends JpaRepository<RecipeEntity, String> {
 
+    /**
+     * Retrieves the key of every recipe in ascending key order, without loading the rest of the recipe.
+     *
+     * @return the key projection of every recipe in the Recipe table.
+     */
+    List<RecipeKeyView> findAllByOrderByKeyAsc();
+
+    /**
+     * Retrieves every recipe with a key in the inclusive key range.
+     * The ingredients and method are fetched in the same query, so the returned entities are fully loaded
+     * and can be used outside a persistence context.
+     *
+     * @param fromKey the lowest key in the range.
+     * @param toKey   the highest key in the range.
+     * @return the recipe entities with keys in the range.
+     */
+    @EntityGraph(attributePaths = {"ingredientSet", "methodMap"})
+    List<RecipeEntity> findDistinctByKeyBetween(String fromKey, String toKey);
+
+    /**
+     * Retrieves every recipe with one of the keys, fully loaded as for the key range query.
+     *
+     * @param keys the keys of the recipes.
+     * @return the recipe entities with the keys. Keys that do not match a recipe are left out.
+     */
+    @EntityGraph(attributePaths = {"ingredientSet", "methodMap"})
+    List<RecipeEntity> findDistinctByKeyIn(Collection<String> keys);
+
+    /**
+     * Retrieves the key of every recipe with one of the keys, without loading the rest of the recipe.
+     *
+     * @param keys the keys to look for.
+     * @return the key projection of each recipe with one of the keys. Keys that do not match a recipe are left out.
+     */
+    List<RecipeKeyView> findByKeyIn(Collection<String> keys);
 
 }
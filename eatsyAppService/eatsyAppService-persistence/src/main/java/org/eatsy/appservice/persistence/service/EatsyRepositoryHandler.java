@@ -3,11 +3,14 @@ package org.eatsy.appservice.persistence.service;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.model.RecipeKeyView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,7 +40,7 @@ public class EatsyRepositoryHandler implements EatsyRepositoryService {
     @Override
     public RecipeEntity persistRecipe(final RecipeEntity recipeEntity) {
 
-        logger.debug("Persisting a recipe entity object called" + recipeEntity.getName());
+        logger.debug("Persisting a recipe entity object called {}", recipeEntity.getName());
 
         final RecipeEntity persistedRecipeEntity = eatsyRepository.save(recipeEntity);
 
@@ -45,6 +48,25 @@ public class EatsyRepositoryHandler implements EatsyRepositoryService {
 
     }
 
+    /**
+     * Inserts a batch of new RecipeEntity objects into the database in a single transaction.
+     * The recipes are not selected first to check whether they exist, so none may have the key of an existing record.
+     *
+     * @param recipeEntities the new recipes to be persisted.
+     * @return the recipeEntities that have been successfully persisted, in the same order.
+     */
+    @Override
+    public List<RecipeEntity> persistRecipes(final List<RecipeEntity> recipeEntities) {
+
+        logger.debug("Persisting a batch of {} recipe entity objects", recipeEntities.size());
+
+        recipeEntities.forEach(recipeEntity -> recipeEntity.setNewRecipe(true));
+        final List<RecipeEntity> persistedRecipeEntities = eatsyRepository.saveAll(recipeEntities);
+
+        return persistedRecipeEntities;
+
+    }
+
     /**
      * Retrieves all Recipe Entity objects that are stored in the Recipe table
      *
@@ -61,13 +83,91 @@ public class EatsyRepositoryHandler implements EatsyRepositoryService {
 
     }
 
+    /**
+     * Retrieves the keys of all recipes in the Recipe table in ascending key order.
+     * Only the keys are loaded, so this can be used to split the table into key ranges cheaply.
+     *
+     * @return the ordered list of all recipe keys.
+     */
+    @Override
+    public List<String> retrieveAllRecipeKeys() {
+
+        logger.debug("Retrieving all Recipe keys from the Recipe DB table");
+
+        final List<RecipeKeyView> allRecipeKeyViews = eatsyRepository.findAllByOrderByKeyAsc();
+
+        final List<String> allRecipeKeys = new ArrayList<>(allRecipeKeyViews.size());
+        for (final RecipeKeyView currentRecipeKeyView : allRecipeKeyViews) {
+            allRecipeKeys.add(currentRecipeKeyView.getKey());
+        }
+        return allRecipeKeys;
+
+    }
+
+    /**
+     * Retrieves the fully loaded Recipe Entity objects with keys in the inclusive key range.
+     *
+     * @param fromKey the lowest recipe key in the range.
+     * @param toKey   the highest recipe key in the range.
+     * @return the list of recipeEntity objects with keys in the range.
+     */
+    @Override
+    public List<RecipeEntity> retrieveRecipesInKeyRange(final String fromKey, final String toKey) {
+
+        logger.debug("Retrieving Recipe Entity objects with keys from {} to {}", fromKey, toKey);
+
+        final List<RecipeEntity> recipeEntitiesInRange = eatsyRepository.findDistinctByKeyBetween(fromKey, toKey);
+
+        return recipeEntitiesInRange;
+
+    }
+
+    /**
+     * Retrieves the fully loaded Recipe Entity objects with any of the keys, in a single query.
+     *
+     * @param recipeKeys the unique keys of the recipes.
+     * @return the list of recipeEntity objects with the keys. Keys with no recipe are left out.
+     */
+    @Override
+    public List<RecipeEntity> retrieveRecipesByKeys(final Collection<String> recipeKeys) {
+
+        logger.debug("Retrieving {} Recipe Entity objects by key", recipeKeys.size());
+
+        final List<RecipeEntity> recipeEntitiesWithKeys = eatsyRepository.findDistinctByKeyIn(recipeKeys);
+
+        return recipeEntitiesWithKeys;
+
+    }
+
+    /**
+     * Retrieves which of the keys are already used by a recipe in the Recipe table.
+     * Only the keys are loaded.
+     *
+     * @param recipeKeys the recipe keys to look for.
+     * @return the keys that are used by a recipe. Keys with no recipe are left out.
+     */
+    @Override
+    public List<String> retrieveExistingRecipeKeys(final Collection<String> recipeKeys) {
+
+        logger.debug("Retrieving which of {} Recipe keys are in the Recipe DB table", recipeKeys.size());
+
+        final List<RecipeKeyView> existingRecipeKeyViews = eatsyRepository.findByKeyIn(recipeKeys);
+
+        final List<String> existingRecipeKeys = new ArrayList<>(existingRecipeKeyViews.size());
+        for (final RecipeKeyView currentRecipeKeyView : existingRecipeKeyViews) {
+            existingRecipeKeys.add(currentRecipeKeyView.getKey());
+        }
+        return existingRecipeKeys;
+
+    }
+
     /**
      * Deletes the Recipe Entity object that is stored in the database with the specified unique key.
      */
     @Override
     public void deleteRecipeById(final String recipeKey) {
 
-        logger.debug("Deleting Recipe Entity object from the Recipe database with recipeKey: " + recipeKey);
+        logger.debug("Deleting Recipe Entity object from the Recipe database with recipeKey: {}", recipeKey);
 
         eatsyRepository.deleteById(recipeKey);
 
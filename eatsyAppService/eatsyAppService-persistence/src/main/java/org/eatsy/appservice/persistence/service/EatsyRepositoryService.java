@@ -2,6 +2,7 @@ package org.eatsy.appservice.persistence.service;
 
 import org.eatsy.appservice.persistence.model.RecipeEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +19,15 @@ public interface EatsyRepositoryService {
      */
     RecipeEntity persistRecipe(final RecipeEntity recipeEntity);
 
+    /**
+     * Inserts a batch of new RecipeEntity objects into the database in a single transaction.
+     * The recipes are not selected first to check whether they exist, so none may have the key of an existing record.
+     *
+     * @param recipeEntities the new recipes to be persisted.
+     * @return the recipeEntities that have been successfully persisted, in the same order.
+     */
+    List<RecipeEntity> persistRecipes(final List<RecipeEntity> recipeEntities);
+
     /**
      * Retrieves all Recipe Entity objects that are stored in the Recipe table
      *
@@ -25,6 +35,40 @@ public interface EatsyRepositoryService {
      */
     List<RecipeEntity> retrieveAllRecipes();
 
+    /**
+     * Retrieves the keys of all recipes in the Recipe table in ascending key order.
+     * Only the keys are loaded, so this can be used to split the table into key ranges cheaply.
+     *
+     * @return the ordered list of all recipe keys.
+     */
+    List<String> retrieveAllRecipeKeys();
+
+    /**
+     * Retrieves the fully loaded Recipe Entity objects with keys in the inclusive key range.
+     *
+     * @param fromKey the lowest recipe key in the range.
+     * @param toKey   the highest recipe key in the range.
+     * @return the list of recipeEntity objects with keys in the range.
+     */
+    List<RecipeEntity> retrieveRecipesInKeyRange(String fromKey, String toKey);
+
+    /**
+     * Retrieves the fully loaded Recipe Entity objects with any of the keys, in a single query.
+     *
+     * @param recipeKeys the unique keys of the recipes.
+     * @return the list of recipeEntity objects with the keys. Keys with no recipe are left out.
+     */
+    List<RecipeEntity> retrieveRecipesByKeys(Collection<String> recipeKeys);
+
+    /**
+     * Retrieves which of the keys are already used by a recipe in the Recipe table.
+     * Only the keys are loaded.
+     *
+     * @param recipeKeys the recipe keys to look for.
+     * @return the keys that are used by a recipe. Keys with no recipe are left out.
+     */
+    List<String> retrieveExistingRecipeKeys(Collection<String> recipeKeys);
+
     /**
      * Deletes the Recipe Entity object that is stored in the database with the specified unique key.
      */
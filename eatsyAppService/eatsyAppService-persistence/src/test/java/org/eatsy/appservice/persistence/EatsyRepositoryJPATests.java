@@ -1,6 +1,7 @@
 package org.eatsy.appservice.persistence;
 
 import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.model.RecipeKeyView;
 import org.eatsy.appservice.persistence.service.EatsyRepository;
 import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
 import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
@@ -12,6 +13,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -73,6 +77,47 @@ public class EatsyRepositoryJPATests {
         Assertions.assertFalse(savedRecipe.getKey().isEmpty());
     }
 
+    /**
+     * Check recipes marked as new are inserted by saveAll, and are no longer new once persisted
+     */
+    @Test
+    public void checkSaveAllNewRecipeEntitiesOperation() {
+
+        //Setup
+        recipeEntityList.forEach(recipeEntity -> recipeEntity.setNewRecipe(true));
+
+        //Test
+        eatsyRepository.saveAll(recipeEntityList);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        //Assertions
+        for (final RecipeEntity savedRecipeEntity : recipeEntityList) {
+            Assertions.assertFalse(savedRecipeEntity.isNew());
+            Assertions.assertTrue(eatsyRepository.findById(savedRecipeEntity.getKey()).isPresent());
+        }
+    }
+
+    /**
+     * Check the key projection operation returns only the keys used by a recipe
+     */
+    @Test
+    public void checkFindExistingKeysOperation() {
+
+        //Setup
+        final RecipeEntity existingRecipeEntity = recipeEntityList.get(0);
+        testEntityManager.persist(existingRecipeEntity);
+        final String unusedRecipeKey = UUID.randomUUID().toString();
+
+        //Test
+        final List<RecipeKeyView> actualRecipeKeyViews = eatsyRepository.findByKeyIn(
+                Arrays.asList(existingRecipeEntity.getKey(), unusedRecipeKey));
+
+        //Assertions
+        Assertions.assertEquals(1, actualRecipeKeyViews.size());
+        Assertions.assertEquals(existingRecipeEntity.getKey(), actualRecipeKeyViews.get(0).getKey());
+    }
+
     /**
      * Check the findAll recipeEntity operation
      */
@@ -132,6 +177,100 @@ public class EatsyRepositoryJPATests {
         Assertions.assertFalse(recipeEntityOptional.isPresent());
     }
 
+    /**
+     * Check the ordered key projection operation returns every key in ascending order
+     */
+    @Test
+    public void checkFindAllKeysInOrderOperation() {
+
+        //Setup
+        //Add recipeEntities to the test database and record the expected key order
+        final List<String> expectedRecipeKeys = new ArrayList<>();
+        for (final RecipeEntity currentRecipeEntity : recipeEntityList) {
+            testEntityManager.persist(currentRecipeEntity);
+            expectedRecipeKeys.add(currentRecipeEntity.getKey());
+        }
+        Collections.sort(expectedRecipeKeys);
+
+        //Test
+        final List<RecipeKeyView> actualRecipeKeyViews = eatsyRepository.findAllByOrderByKeyAsc();
+
+        //Assertions
+        final List<String> actualRecipeKeys = new ArrayList<>();
+        actualRecipeKeyViews.forEach(recipeKeyView -> actualRecipeKeys.add(recipeKeyView.getKey()));
+        Assertions.assertEquals(expectedRecipeKeys, actualRecipeKeys);
+
+    }
+
+    /**
+     * Check the key range operation returns each recipe in the range once, with its collections loaded
+     */
+    @Test
+    public void checkFindRecipeEntitiesInKeyRangeOperation() {
+
+        //Setup
+        //Add recipeEntities to the test database
+        final List<String> sortedRecipeKeys = new ArrayList<>();
+        for (final RecipeEntity currentRecipeEntity : recipeEntityList) {
+            testEntityManager.persist(currentRecipeEntity);
+            sortedRecipeKeys.add(currentRecipeEntity.getKey());
+        }
+        //Ensure the recipes are re-read from the database rather than the persistence context.
+        testEntityManager.flush();
+        testEntityManager.clear();
+        Collections.sort(sortedRecipeKeys);
+
+        //Select the range covering every recipe except the first
+        final List<String> expectedRecipeKeys = sortedRecipeKeys.subList(1, sortedRecipeKeys.size());
+
+        //Test
+        final List<RecipeEntity> actualRecipeEntityList = expectedRecipeKeys.isEmpty()
+                ? Collections.emptyList()
+                : eatsyRepository.findDistinctByKeyBetween(expectedRecipeKeys.get(0), expectedRecipeKeys.get(expectedRecipeKeys.size() - 1));
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeKeys.size(), actualRecipeEntityList.size());
+        for (final RecipeEntity actualRecipeEntity : actualRecipeEntityList) {
+            Assertions.assertTrue(expectedRecipeKeys.contains(actualRecipeEntity.getKey()));
+            Assertions.assertFalse(actualRecipeEntity.getIngredientSet().isEmpty());
+        }
+
+    }
+
+    /**
+     * Check the keys operation returns each recipe with one of the keys once, with its collections loaded,
+     * and leaves out keys that do not match a recipe.
+     */
+    @Test
+    public void checkFindRecipeEntitiesByKeysOperation() {
+
+        //Setup
+        //Add recipeEntities to the test database
+        final List<String> expectedRecipeKeys = new ArrayList<>();
+        for (final RecipeEntity currentRecipeEntity : recipeEntityList) {
+            testEntityManager.persist(currentRecipeEntity);
+            expectedRecipeKeys.add(currentRecipeEntity.getKey());
+        }
+        //Ensure the recipes are re-read from the database rather than the persistence context.
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        //Ask for every recipe and one that does not exist
+        final List<String> requestedRecipeKeys = new ArrayList<>(expectedRecipeKeys);
+        requestedRecipeKeys.add(UUID.randomUUID().toString());
+
+        //Test
+        final List<RecipeEntity> actualRecipeEntityList = eatsyRepository.findDistinctByKeyIn(requestedRecipeKeys);
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeKeys.size(), actualRecipeEntityList.size());
+        for (final RecipeEntity actualRecipeEntity : actualRecipeEntityList) {
+            Assertions.assertTrue(expectedRecipeKeys.contains(actualRecipeEntity.getKey()));
+            Assertions.assertFalse(actualRecipeEntity.getIngredientSet().isEmpty());
+        }
+
+    }
+
 }
 
 /**
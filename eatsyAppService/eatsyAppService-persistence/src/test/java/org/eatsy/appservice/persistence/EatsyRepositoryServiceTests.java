@@ -1,6 +1,7 @@
 package org.eatsy.appservice.persistence;
 
 import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.model.RecipeKeyView;
 import org.eatsy.appservice.persistence.service.EatsyRepository;
 import org.eatsy.appservice.persistence.service.EatsyRepositoryHandler;
 import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
@@ -9,13 +10,16 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * EatsyRepository unit tests for the EatsyRepositoryHandler persistence service
@@ -64,6 +68,31 @@ public class EatsyRepositoryServiceTests {
         Assertions.assertEquals(persistedRecipeEntity, recipeEntity);
     }
 
+    /**
+     * Checks the persistRecipes method in the EatsyRepositoryHandler persists the whole batch in one call, as new recipes,
+     * whilst mocking the Eatsy Repository (JPARepository)
+     */
+    @Test
+    public void checkPersistRecipes() {
+
+        //Setup
+
+        //1) Create the recipe entities to persist
+        final List<RecipeEntity> recipeEntities = RecipeEntityDataFactory.generateRecipeEntityList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+
+        //2) Mock the eatsyRepository JPA functionality
+        Mockito.when(eatsyRepository.saveAll(recipeEntities)).thenReturn(recipeEntities);
+
+        //Test
+        final List<RecipeEntity> persistedRecipeEntities = eatsyRepositoryHandler.persistRecipes(recipeEntities);
+
+        //Assertions
+        Assertions.assertEquals(recipeEntities, persistedRecipeEntities);
+        recipeEntities.forEach(recipeEntity -> Assertions.assertTrue(recipeEntity.isNew()));
+        Mockito.verify(eatsyRepository, Mockito.never()).save(ArgumentMatchers.any());
+    }
+
     /**
      * Checks the retrieveAllRecipes method in the EatsyRepositoryHandler
      * whilst mocking the Eatsy Repository (JPARepository)
@@ -131,4 +160,105 @@ public class EatsyRepositoryServiceTests {
     }
 
 
+    /**
+     * Checks the retrieveAllRecipeKeys method in the EatsyRepositoryHandler
+     * whilst mocking the Eatsy Repository (JPARepository)
+     */
+    @Test
+    public void checkRetrieveAllRecipeKeys() {
+
+        //Setup
+        //1) Create an ordered list of recipe keys and their key projections
+        final List<String> expectedRecipeKeys = new ArrayList<>();
+        final List<RecipeKeyView> mockedRecipeKeyViews = new ArrayList<>();
+        for (int i = 0; i < EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES; i++) {
+            final String recipeKey = UUID.randomUUID().toString();
+            expectedRecipeKeys.add(recipeKey);
+            mockedRecipeKeyViews.add(() -> recipeKey);
+        }
+
+        //2) Mock the eatsyRepository JPA functionality
+        Mockito.when(eatsyRepository.findAllByOrderByKeyAsc()).thenReturn(mockedRecipeKeyViews);
+
+        //Test
+        final List<String> actualRecipeKeys = eatsyRepositoryHandler.retrieveAllRecipeKeys();
+
+        //Assertion
+        Assertions.assertEquals(expectedRecipeKeys, actualRecipeKeys);
+
+    }
+
+    /**
+     * Checks the retrieveRecipesInKeyRange method in the EatsyRepositoryHandler
+     * whilst mocking the Eatsy Repository (JPARepository)
+     */
+    @Test
+    public void checkRetrieveRecipesInKeyRange() {
+
+        //Setup
+        //1) Create a list of recipe entity objects that are in the key range
+        final List<RecipeEntity> mockedRecipeEntityList = RecipeEntityDataFactory.generateRecipeEntityList(EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES,
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+
+        //2) Mock the eatsyRepository JPA functionality
+        Mockito.when(eatsyRepository.findDistinctByKeyBetween("a", "f")).thenReturn(mockedRecipeEntityList);
+
+        //Test
+        final List<RecipeEntity> actualRecipeEntityList = eatsyRepositoryHandler.retrieveRecipesInKeyRange("a", "f");
+
+        //Assertion
+        Assertions.assertEquals(mockedRecipeEntityList, actualRecipeEntityList);
+
+    }
+
+    /**
+     * Checks the retrieveRecipesByKeys method in the EatsyRepositoryHandler
+     * whilst mocking the Eatsy Repository (JPARepository)
+     */
+    @Test
+    public void checkRetrieveRecipesByKeys() {
+
+        //Setup
+        //1) Create a list of recipe entity objects with the requested keys
+        final List<RecipeEntity> mockedRecipeEntityList = RecipeEntityDataFactory.generateRecipeEntityList(EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES,
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        final List<String> recipeKeys = new ArrayList<>();
+        mockedRecipeEntityList.forEach(recipeEntity -> recipeKeys.add(recipeEntity.getKey()));
+
+        //2) Mock the eatsyRepository JPA functionality
+        Mockito.when(eatsyRepository.findDistinctByKeyIn(recipeKeys)).thenReturn(mockedRecipeEntityList);
+
+        //Test
+        final List<RecipeEntity> actualRecipeEntityList = eatsyRepositoryHandler.retrieveRecipesByKeys(recipeKeys);
+
+        //Assertion
+        Assertions.assertEquals(mockedRecipeEntityList, actualRecipeEntityList);
+
+    }
+
+    /**
+     * Checks the retrieveExistingRecipeKeys method in the EatsyRepositoryHandler returns the keys of the projection
+     * whilst mocking the Eatsy Repository (JPARepository)
+     */
+    @Test
+    public void checkRetrieveExistingRecipeKeys() {
+
+        //Setup
+        //1) The keys to look for, of which only the first is used.
+        final List<String> recipeKeys = new ArrayList<>();
+        recipeKeys.add(UUID.randomUUID().toString());
+        recipeKeys.add(UUID.randomUUID().toString());
+        final RecipeKeyView existingRecipeKeyView = () -> recipeKeys.get(0);
+
+        //2) Mock the eatsyRepository JPA functionality
+        Mockito.when(eatsyRepository.findByKeyIn(recipeKeys)).thenReturn(Collections.singletonList(existingRecipeKeyView));
+
+        //Test
+        final List<String> existingRecipeKeys = eatsyRepositoryHandler.retrieveExistingRecipeKeys(recipeKeys);
+
+        //Assertion
+        Assertions.assertEquals(Collections.singletonList(recipeKeys.get(0)), existingRecipeKeys);
+
+    }
+
 }
@@ -0,0 +1,151 @@
+package org.eatsy.appservice.service;
+
+import org.eatsy.appservice.model.ShoppingListModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Latency of merging the ingredients of 100 or more cached recipes into a shopping list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ShoppingListBenchmark {
+
+    @Param({"100000"})
+    private int recipeCount;
+
+    @Param({"100", "500"})
+    private int recipesPerList;
+
+    private RecipeFactoryHandler recipeFactoryHandler;
+
+    private List<String> shoppingListRecipeKeys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        //The recipes are served from an in-memory repository and loaded into the recipe cache up front,
+        //so the benchmark measures the cached path.
+        final Random random = new Random(42);
+        final List<RecipeEntity> recipeEntities = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            final Set<String> ingredients = new HashSet<>();
+            final int ingredientCount = 5 + random.nextInt(11);
+            while (ingredients.size() < ingredientCount) {
+                ingredients.add("ingredient " + (int) (5000 * Math.pow(random.nextDouble(), 3)));
+            }
+            final RecipeEntity recipeEntity = new RecipeEntity();
+            recipeEntity.setKey(UUID.randomUUID().toString());
+            recipeEntity.setName("Recipe " + i);
+            recipeEntity.setIngredientSet(ingredients);
+            recipeEntities.add(recipeEntity);
+        }
+        recipeEntities.sort((first, second) -> first.getKey().compareTo(second.getKey()));
+
+        recipeFactoryHandler = new RecipeFactoryHandler(new RecipeMapperHandler(), new InMemoryRepository(recipeEntities));
+        recipeFactoryHandler.warmUpRecipeCache(10000, 4, new RecipeCacheWarmUpListener() {
+            @Override
+            public void warmUpStarted(final int totalRecipes) {
+            }
+
+            @Override
+            public void chunkLoaded(final int recipesInChunk) {
+            }
+        });
+
+        shoppingListRecipeKeys = new ArrayList<>(recipesPerList);
+        for (int i = 0; i < recipesPerList; i++) {
+            shoppingListRecipeKeys.add(recipeEntities.get(random.nextInt(recipeCount)).getKey());
+        }
+    }
+
+    @Benchmark
+    public ShoppingListModel createShoppingList() {
+        return recipeFactoryHandler.createShoppingList(shoppingListRecipeKeys);
+    }
+
+    /**
+     * Read-only repository over a key-sorted list of recipe entities.
+     */
+    private static final class InMemoryRepository implements EatsyRepositoryService {
+
+        private final List<RecipeEntity> recipeEntities;
+
+        private InMemoryRepository(final List<RecipeEntity> recipeEntities) {
+            this.recipeEntities = recipeEntities;
+        }
+
+        @Override
+        public RecipeEntity persistRecipe(final RecipeEntity recipeEntity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RecipeEntity> persistRecipes(final List<RecipeEntity> recipeEntities) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RecipeEntity> retrieveAllRecipes() {
+            return recipeEntities;
+        }
+
+        @Override
+        public List<String> retrieveAllRecipeKeys() {
+            return recipeEntities.stream().map(RecipeEntity::getKey).collect(Collectors.toList());
+        }
+
+        @Override
+        public List<RecipeEntity> retrieveRecipesInKeyRange(final String fromKey, final String toKey) {
+            return recipeEntities.stream()
+                    .filter(recipeEntity -> recipeEntity.getKey().compareTo(fromKey) >= 0 && recipeEntity.getKey().compareTo(toKey) <= 0)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<RecipeEntity> retrieveRecipesByKeys(final Collection<String> recipeKeys) {
+            return recipeEntities.stream()
+                    .filter(recipeEntity -> recipeKeys.contains(recipeEntity.getKey()))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<String> retrieveExistingRecipeKeys(final Collection<String> recipeKeys) {
+            return retrieveRecipesByKeys(recipeKeys).stream().map(RecipeEntity::getKey).collect(Collectors.toList());
+        }
+
+        @Override
+        public void deleteRecipeById(final String recipeKey) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.eatsy.appservice.service.autocomplete;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.AutocompleteSuggestionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of autocomplete suggestions for short and longer prefixes over a large synthetic catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeAutocompleteBenchmark {
+
+    private static final String[] WORDS = {"chicken", "curry", "thai", "green", "beef", "stew", "chickpea", "tomato",
+            "soup", "roast", "lemon", "cake", "spiced", "slow", "cooked", "pie", "salad", "garlic", "bread", "pasta"};
+
+    @Param({"1000000"})
+    private int recipeCount;
+
+    @Param({"c", "chick", "chicken cu"})
+    private String prefix;
+
+    private RecipeAutocompleteHandler recipeAutocompleteHandler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final Random random = new Random(42);
+        recipeAutocompleteHandler = new RecipeAutocompleteHandler();
+        for (int i = 0; i < recipeCount; i++) {
+            final Set<String> ingredients = new HashSet<>();
+            final int ingredientCount = 5 + random.nextInt(11);
+            while (ingredients.size() < ingredientCount) {
+                ingredients.add("ingredient " + random.nextInt(5000));
+            }
+            final String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            recipeAutocompleteHandler.recipeChanged(null, new Recipe.RecipeBuilder(name).withIngredientSet(ingredients).build());
+        }
+    }
+
+    @Benchmark
+    public List<AutocompleteSuggestionModel> suggest() {
+        return recipeAutocompleteHandler.suggest(prefix, null, 10);
+    }
+
+}
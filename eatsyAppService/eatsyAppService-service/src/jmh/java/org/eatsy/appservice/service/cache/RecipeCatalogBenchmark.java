@@ -0,0 +1,61 @@
+package org.eatsy.appservice.service.cache;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of adding a batch of imported recipes to the catalog as it grows, which should stay about the same
+ * whatever its size, since each new snapshot shares all but the changed paths with the one before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeCatalogBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"10000", "100000", "1000000"})
+    private int recipeCount;
+
+    private RecipeCatalog recipeCatalog;
+
+    private List<Recipe> recipeBatch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final List<Recipe> recipes = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            recipes.add(new Recipe.RecipeBuilder("Recipe " + i).build());
+        }
+        recipeCatalog = RecipeCatalog.empty().withRecipes(recipes);
+        recipeBatch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            recipeBatch.add(new Recipe.RecipeBuilder("Imported recipe " + i).build());
+        }
+    }
+
+    @Benchmark
+    public RecipeCatalog addRecipeBatch() {
+        return recipeCatalog.withRecipes(recipeBatch);
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.eatsy.appservice.service.pantry;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.PantryMatchModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of pantry matching over a large synthetic catalog.
+ * Ingredients are skewed so a few (salt, butter, ...) are in most recipes and most are rare, as in real recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class PantryMatcherBenchmark {
+
+    private static final int DISTINCT_INGREDIENTS = 2000;
+
+    @Param({"1000000"})
+    private int recipeCount;
+
+    @Param({"0", "2"})
+    private int maxMissingIngredients;
+
+    private PantryMatcherHandler pantryMatcherHandler;
+
+    private Set<String> pantry;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final Random random = new Random(42);
+        pantryMatcherHandler = new PantryMatcherHandler(new RecipeMapperHandler());
+        for (int i = 0; i < recipeCount; i++) {
+            final Set<String> ingredients = new HashSet<>();
+            final int ingredientCount = 5 + random.nextInt(11);
+            while (ingredients.size() < ingredientCount) {
+                ingredients.add(skewedIngredient(random));
+            }
+            pantryMatcherHandler.recipeChanged(null, new Recipe.RecipeBuilder("Recipe " + i).withIngredientSet(ingredients).build());
+        }
+
+        //A well stocked pantry: the 40 most common ingredients and a few rarer ones.
+        pantry = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            pantry.add("ingredient " + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            pantry.add("ingredient " + random.nextInt(DISTINCT_INGREDIENTS));
+        }
+    }
+
+    @Benchmark
+    public List<PantryMatchModel> findRecipesMissingAtMost() {
+        return pantryMatcherHandler.findRecipesMissingAtMost(pantry, maxMissingIngredients, 50);
+    }
+
+    private static String skewedIngredient(final Random random) {
+        return "ingredient " + (int) (DISTINCT_INGREDIENTS * Math.pow(random.nextDouble(), 3));
+    }
+
+}
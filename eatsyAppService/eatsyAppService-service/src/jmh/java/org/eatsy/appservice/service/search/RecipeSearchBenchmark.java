@@ -0,0 +1,78 @@
+package org.eatsy.appservice.service.search;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeSearchPageModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of searches for plain words, misspelt words and method phrases over a large synthetic catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RecipeSearchBenchmark {
+
+    private static final String[] WORDS = {"chicken", "curry", "thai", "green", "beef", "stew", "chickpea", "tomato",
+            "soup", "roast", "lemon", "cake", "spiced", "slow", "cooked", "pie", "salad", "garlic", "bread", "pasta",
+            "stir", "fry", "simmer", "bake", "chop", "slice", "until", "golden", "minutes", "oven"};
+
+    @Param({"100000"})
+    private int recipeCount;
+
+    @Param({"chicken curry", "chikpea stew", "\"stir fry\" garlic"})
+    private String query;
+
+    private RecipeSearchHandler recipeSearchHandler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final Random random = new Random(42);
+        recipeSearchHandler = new RecipeSearchHandler(new RecipeMapperHandler());
+        for (int i = 0; i < recipeCount; i++) {
+            final Set<String> ingredients = new HashSet<>();
+            final int ingredientCount = 5 + random.nextInt(11);
+            while (ingredients.size() < ingredientCount) {
+                ingredients.add("ingredient " + random.nextInt(5000));
+            }
+            final Map<Integer, String> method = new HashMap<>();
+            for (int step = 1; step <= 6; step++) {
+                final StringBuilder stepText = new StringBuilder();
+                for (int word = 0; word < 12; word++) {
+                    stepText.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                method.put(step, stepText.toString());
+            }
+            final String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            recipeSearchHandler.recipeChanged(null, new Recipe.RecipeBuilder(name).withIngredientSet(ingredients).withMethod(method).build());
+        }
+    }
+
+    @Benchmark
+    public RecipeSearchPageModel search() {
+        return recipeSearchHandler.search(query, 0, 20);
+    }
+
+}
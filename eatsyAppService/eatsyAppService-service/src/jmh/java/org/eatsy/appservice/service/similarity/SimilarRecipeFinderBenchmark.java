@@ -0,0 +1,72 @@
+package org.eatsy.appservice.service.similarity;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.SimilarRecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of finding similar recipes as the catalog grows, which should stay about the same whatever its size.
+ * Ingredients are skewed so a few (salt, butter, ...) are in most recipes and most are rare, as in real recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class SimilarRecipeFinderBenchmark {
+
+    private static final int DISTINCT_INGREDIENTS = 2000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int recipeCount;
+
+    private SimilarRecipeFinderHandler similarRecipeFinderHandler;
+
+    private String[] recipeKeys;
+
+    private int nextRecipe;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final Random random = new Random(42);
+        similarRecipeFinderHandler = new SimilarRecipeFinderHandler(new RecipeMapperHandler());
+        recipeKeys = new String[recipeCount];
+        for (int i = 0; i < recipeCount; i++) {
+            final Set<String> ingredients = new HashSet<>();
+            final int ingredientCount = 5 + random.nextInt(11);
+            while (ingredients.size() < ingredientCount) {
+                ingredients.add("ingredient " + (int) (DISTINCT_INGREDIENTS * Math.pow(random.nextDouble(), 3)));
+            }
+            final Recipe recipe = new Recipe.RecipeBuilder("Recipe " + i).withIngredientSet(ingredients).build();
+            similarRecipeFinderHandler.recipeChanged(null, recipe);
+            recipeKeys[i] = recipe.getKey();
+        }
+    }
+
+    @Benchmark
+    public List<SimilarRecipeModel> findSimilarRecipes() {
+        nextRecipe = (nextRecipe + 1) % recipeKeys.length;
+        return similarRecipeFinderHandler.findSimilarRecipes(recipeKeys[nextRecipe], 10);
+    }
+
+}
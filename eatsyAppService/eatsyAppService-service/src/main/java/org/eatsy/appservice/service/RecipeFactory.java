@@ -1,15 +1,26 @@
 package org.eatsy.appservice.service;
 
 
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeImportResultModel;
 import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.ShoppingListModel;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.eatsy.appservice.service.versioning.RecipeCatalogVersion;
+import org.eatsy.appservice.service.versioning.Versioned;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Interface for interacting with recipes
  */
 public interface RecipeFactory {
 
+    //Expected version matched by any existing recipe, e.g. for an If-Match: * header. Versions are hex, so never "*".
+    String ANY_VERSION = "*";
+
     /**
      * Retrieves all recipe model objects.
      *
@@ -17,14 +28,77 @@ public interface RecipeFactory {
      */
     List<RecipeModel> retrieveAllRecipes();
 
+    /**
+     * Retrieves all recipe model objects together with the version of the whole list.
+     *
+     * @return The list of all recipe model objects that exist, versioned by their keys and content in list order.
+     */
+    Versioned<List<RecipeModel>> retrieveAllRecipesVersioned();
+
+    /**
+     * Retrieves all recipe model objects together with the version of the whole list, for a response that only
+     * carries the selected fields. Fields that are not selected may be left null, and are then not loaded.
+     *
+     * @param fields the fields of the recipes that are needed.
+     * @return The list of all recipe model objects that exist, versioned by their keys and selected content in list order.
+     */
+    Versioned<List<RecipeModel>> retrieveAllRecipesVersioned(Set<RecipeField> fields);
+
+    /**
+     * Retrieves the version of the whole recipe catalog without loading any recipes, so a client's copy of the
+     * catalog can be checked as cheaply as possible.
+     *
+     * @return the version of the catalog and when it last changed, or null if it is not yet known to hold every recipe.
+     */
+    RecipeCatalogVersion retrieveRecipeCatalogVersion();
+
+    /**
+     * Retrieves a single recipe together with the version of its content.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @return the recipe model and its version, or null if there is no recipe with the key.
+     */
+    Versioned<RecipeModel> retrieveRecipe(String recipeKey);
+
+    /**
+     * Merges the ingredients of a number of recipes into a shopping list, listing each ingredient once.
+     *
+     * @param recipeKeys the unique IDs of the recipes.
+     * @return the merged ingredients, and the keys that do not match a recipe.
+     */
+    ShoppingListModel createShoppingList(Collection<String> recipeKeys);
+
     /**
      * Creates and persists a new Recipe.
      *
      * @param recipeModel the recipe model that has the data for the new Recipe
      * @return a recipe model object containing the data from the newly created and persisted recipe.
+     * @throws org.eatsy.appservice.model.InvalidRequestParameterException if the recipe's key is too long.
      */
     RecipeModel createRecipe(RecipeModel recipeModel);
 
+    /**
+     * Creates and persists a batch of new recipes, e.g. one batch of a bulk import.
+     * Each recipe is validated and mapped on its own, so an invalid recipe is rejected without failing the batch.
+     *
+     * @param recipeModels the recipe models that have the data for the new recipes.
+     * @return the result of each recipe model, in the same order. The line of each result is not set.
+     */
+    List<RecipeImportResultModel> importRecipes(List<RecipeModel> recipeModels);
+
+    /**
+     * Creates and persists a new Recipe once per idempotency key.
+     * A request retried with the same idempotency key returns the recipe created by the original request,
+     * without creating or persisting another recipe.
+     *
+     * @param idempotencyKey the client supplied key identifying the request. If blank the recipe is always created.
+     * @param recipeModel    the recipe model that has the data for the new Recipe
+     * @return a recipe model object containing the data from the recipe created for this idempotency key.
+     * @throws org.eatsy.appservice.service.idempotency.IdempotencyKeyReuseException if the idempotency key has
+     *                                                                                already been used for a different recipe.
+     */
+    RecipeModel createRecipe(String idempotencyKey, RecipeModel recipeModel);
+
     /**
      * Deletes the requested recipeModel
      *
@@ -35,11 +109,38 @@ public interface RecipeFactory {
 
     /**
      * Replaces the existing recipe with the updated version supplied.
+     * An update that does not change the recipe is not persisted again.
      *
      * @param recipeModelWithUpdates the recipe model with the updated changes to be persisted.
      * @param recipeKey              the unique ID of the recipe. This will allow the recipe that needs to be
      *                               updated to be identified.
      * @return the updated recipeModel with the new updates/changes applied.
+     * @throws org.eatsy.appservice.model.InvalidRequestParameterException if the updated recipe's key is too long.
      */
     RecipeModel updateRecipe(String recipeKey, RecipeModel recipeModelWithUpdates);
+
+    /**
+     * Replaces the existing recipe with the updated version supplied, only if the existing recipe is still at one of
+     * the expected versions (e.g. those a client sent in an If-Match header).
+     *
+     * @param recipeKey              the unique ID of the recipe to be updated.
+     * @param recipeModelWithUpdates the recipe model with the updated changes to be persisted.
+     * @param expectedVersions       the versions the existing recipe is expected to be at. {@link #ANY_VERSION}
+     *                               matches whatever version the recipe is at, as long as it exists.
+     * @return the updated recipeModel with the new updates/changes applied, and its version.
+     * @throws org.eatsy.appservice.service.versioning.RecipeVersionMismatchException if the recipe does not exist or
+     *                                                                                is not at any of the expected versions.
+     */
+    Versioned<RecipeModel> updateRecipe(String recipeKey, RecipeModel recipeModelWithUpdates, Collection<String> expectedVersions);
+
+    /**
+     * Loads every persisted recipe into the in-memory recipe cache, so that the first requests do not pay for it.
+     * Recipes are loaded in key-range chunks which are queried and mapped in parallel.
+     *
+     * @param chunkSize        the maximum number of recipes loaded by a single key-range query.
+     * @param parallelism      the maximum number of chunks loaded and mapped at the same time.
+     * @param warmUpListener   notified of progress as each chunk completes.
+     * @return the number of recipes in the recipe cache once warm-up has completed.
+     */
+    int warmUpRecipeCache(int chunkSize, int parallelism, RecipeCacheWarmUpListener warmUpListener);
 }
@@ -4,16 +4,51 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.domain.RecipeContentHash;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.RecipeField;
+import org.eatsy.appservice.model.RecipeImportResultModel;
 import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.ShoppingListModel;
 import org.eatsy.appservice.model.mappers.RecipeMapper;
 import org.eatsy.appservice.persistence.model.RecipeEntity;
 import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.eatsy.appservice.service.cache.RecipeCatalog;
+import org.eatsy.appservice.service.idempotency.IdempotencyStore;
+import org.eatsy.appservice.service.shopping.ShoppingListAggregator;
+import org.eatsy.appservice.service.versioning.RecipeVersionMismatchException;
+import org.eatsy.appservice.service.versioning.RecipeCatalogVersion;
+import org.eatsy.appservice.service.versioning.Versioned;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Recipe Factory implementation
@@ -25,8 +60,15 @@ public class RecipeFactoryHandler implements RecipeFactory {
     //logger
     private static final Logger logger = LogManager.getLogger();
 
-    //Cache of recipes
-    private final Map<String, Recipe> recipeCache = new LinkedHashMap<>();
+    //Most recipes that can be merged into one shopping list.
+    public static final int MAX_SHOPPING_LIST_RECIPES = 500;
+
+    //Cache of recipes. An immutable snapshot that writers replace atomically, so readers never need to lock.
+    private final AtomicReference<RecipeCatalog> recipeCache = new AtomicReference<>(RecipeCatalog.empty());
+
+    //Set once the recipe cache has been loaded with every persisted recipe. From then on every write also updates the
+    //cache, so the cache's version is the version of the whole catalog.
+    private volatile boolean recipeCacheComplete;
 
     //Recipe Mapper implementation
     private final RecipeMapper recipeMapperHandler;
@@ -34,10 +76,68 @@ public class RecipeFactoryHandler implements RecipeFactory {
     //Repository handler for persistence
     private final EatsyRepositoryService eatsyRepositoryHandler;
 
+    //Results of recent recipe creation requests, so retried requests are not created again.
+    private final IdempotencyStore<RecipeModel> createRecipeIdempotencyStore;
+
+    //Feature toggle: project read-only list results straight from entities to models, without building domain objects.
+    private final boolean directReadProjection;
+
+    //Indexes over the cached recipes, notified of every change to the recipe cache.
+    private final List<RecipeChangeListener> recipeChangeListeners;
+
+    //Number of recipe key locks. Writes to recipes whose keys share a lock wait for each other, other writes do not.
+    private static final int RECIPE_KEY_LOCK_STRIPES = 64;
+
+    //Held while the recipe cache is swapped and listeners notified, so listeners see changes in the order they were made.
+    //Never held across a database write.
+    private final Object recipeChangeLock = new Object();
+
+    //Striped locks by recipe key. A write to a recipe holds the lock for its key from its database write to its swap,
+    //so a conditional update's version check and write cannot interleave with another write to the same recipe, and
+    //writes to the same recipe reach the cache in the order they reached the database. Always taken before the
+    //recipe change lock.
+    private final Object[] recipeKeyLocks = new Object[RECIPE_KEY_LOCK_STRIPES];
+
+    //Number of writes made to the recipe cache, guarded by the recipe change lock.
+    private long recipeWriteCount;
+
+    //The write count at the start of each load from the database still in progress, and the number of loads started
+    //at that count, guarded by the recipe change lock.
+    private final TreeMap<Long, Integer> recipeLoadsInProgress = new TreeMap<>();
+
+    //The write count of the last write to each recipe written while a load is in progress, guarded by the recipe change
+    //lock. A load leaves out recipes written since it started, as what it read from the database may be out of date.
+    private final Map<String, Long> recipeWritesDuringLoads = new HashMap<>();
+
     //Inject the dependency of the recipeMapper and repositoryHandler implementations into the RecipeFactoryHandler during instantiation.
     public RecipeFactoryHandler(final RecipeMapper recipeMapperHandler, final EatsyRepositoryService eatsyRepositoryHandler) {
+        this(recipeMapperHandler, eatsyRepositoryHandler, new IdempotencyStore<>(10000, 1, TimeUnit.DAYS), false,
+                Collections.<RecipeChangeListener>emptyList());
+    }
+
+    //Inject the dependency of the recipeMapper, repositoryHandler and idempotency store, the read path configuration,
+    //and any recipe change listeners into the RecipeFactoryHandler during instantiation.
+    @Autowired
+    public RecipeFactoryHandler(final RecipeMapper recipeMapperHandler, final EatsyRepositoryService eatsyRepositoryHandler,
+                                final IdempotencyStore<RecipeModel> createRecipeIdempotencyStore,
+                                @Value("${eatsy.recipes.direct-read-projection.enabled:false}") final boolean directReadProjection,
+                                final ObjectProvider<RecipeChangeListener> recipeChangeListeners) {
+        this(recipeMapperHandler, eatsyRepositoryHandler, createRecipeIdempotencyStore, directReadProjection,
+                recipeChangeListeners.orderedStream().collect(Collectors.toList()));
+    }
+
+    //As above, with the recipe change listeners given directly.
+    public RecipeFactoryHandler(final RecipeMapper recipeMapperHandler, final EatsyRepositoryService eatsyRepositoryHandler,
+                                final IdempotencyStore<RecipeModel> createRecipeIdempotencyStore, final boolean directReadProjection,
+                                final List<RecipeChangeListener> recipeChangeListeners) {
         this.recipeMapperHandler = recipeMapperHandler;
         this.eatsyRepositoryHandler = eatsyRepositoryHandler;
+        this.createRecipeIdempotencyStore = createRecipeIdempotencyStore;
+        this.directReadProjection = directReadProjection;
+        this.recipeChangeListeners = new ArrayList<>(recipeChangeListeners);
+        for (int i = 0; i < recipeKeyLocks.length; i++) {
+            recipeKeyLocks[i] = new Object();
+        }
     }
 
     /**
@@ -49,12 +149,13 @@ public class RecipeFactoryHandler implements RecipeFactory {
     @Override
     public RecipeModel createRecipe(final RecipeModel recipeModel) {
 
+        checkRecipeKeyLength(recipeModel);
         RecipeModel newRecipeModel = null;
 
         //The recipeModel to create a Recipe object must not be null and the recipeModel must have a recipeName.
         if (null != recipeModel && StringUtils.isNotEmpty(recipeModel.getName().trim())) {
 
-            logger.debug("Creating a new recipe domain object called " + recipeModel.getName());
+            logger.debug("Creating a new recipe domain object called {}", recipeModel.getName());
 
             final Recipe recipe = recipeMapperHandler.mapModelToDomain(recipeModel);
 
@@ -67,6 +168,99 @@ public class RecipeFactoryHandler implements RecipeFactory {
         return newRecipeModel;
     }
 
+    /**
+     * Creates and persists a new Recipe once per idempotency key.
+     * The result of the original request is held in a bounded, time-limited store, so a retried request
+     * is answered from the store without mapping or persisting anything.
+     *
+     * @param idempotencyKey the client supplied key identifying the request. If blank the recipe is always created.
+     * @param recipeModel    the recipe model that has the data for the new Recipe
+     * @return a recipe model object containing the data from the recipe created for this idempotency key.
+     */
+    @Override
+    public RecipeModel createRecipe(final String idempotencyKey, final RecipeModel recipeModel) {
+
+        if (StringUtils.isBlank(idempotencyKey)) {
+            return createRecipe(recipeModel);
+        }
+
+        logger.debug("Creating a recipe for idempotency key {}", idempotencyKey);
+        return createRecipeIdempotencyStore.execute(idempotencyKey, recipeModel, () -> createRecipe(recipeModel));
+    }
+
+    /**
+     * Creates and persists a batch of new recipes, e.g. one batch of a bulk import.
+     * Each recipe is validated and mapped on its own, so an invalid recipe is rejected without failing the batch.
+     * A recipe with a key that is too long, used by an earlier recipe in the batch or used by an existing recipe is
+     * rejected too, as the recipes are inserted as new and one such key would fail the insert of the whole batch.
+     * The valid recipes are persisted in a single repository call and added to the cache in a single snapshot swap.
+     *
+     * @param recipeModels the recipe models that have the data for the new recipes.
+     * @return the result of each recipe model, in the same order. The line of each result is not set.
+     */
+    @Override
+    public List<RecipeImportResultModel> importRecipes(final List<RecipeModel> recipeModels) {
+
+        logger.debug("Importing a batch of {} recipes", recipeModels.size());
+
+        final List<RecipeImportResultModel> importResults = new ArrayList<>(recipeModels.size());
+        final List<Recipe> mappedRecipes = new ArrayList<>(recipeModels.size());
+        final List<RecipeEntity> mappedRecipeEntities = new ArrayList<>(recipeModels.size());
+        final List<RecipeImportResultModel> mappedRecipeResults = new ArrayList<>(recipeModels.size());
+        final Set<String> batchRecipeKeys = new HashSet<>();
+        final List<String> specifiedRecipeKeys = new ArrayList<>();
+        for (final RecipeModel recipeModel : recipeModels) {
+
+            final RecipeImportResultModel importResult = new RecipeImportResultModel();
+            importResults.add(importResult);
+            if (null == recipeModel || StringUtils.isBlank(recipeModel.getName())) {
+                importResult.setError("A recipe must have a name");
+                continue;
+            }
+            if (null != recipeModel.getKey() && recipeModel.getKey().length() > RecipeEntity.MAX_KEY_LENGTH) {
+                importResult.setError("A recipe key must be at most " + RecipeEntity.MAX_KEY_LENGTH + " characters");
+                continue;
+            }
+            try {
+                final Recipe recipe = recipeMapperHandler.mapModelToDomain(recipeModel);
+                if (!batchRecipeKeys.add(recipe.getKey())) {
+                    importResult.setError("The recipe key " + recipe.getKey() + " is used by an earlier recipe in the import");
+                    continue;
+                }
+                mappedRecipeEntities.add(recipeMapperHandler.mapDomainToEntity(recipe));
+                mappedRecipes.add(recipe);
+                mappedRecipeResults.add(importResult);
+                if (null != recipeModel.getKey()) {
+                    specifiedRecipeKeys.add(recipe.getKey());
+                }
+            } catch (final RuntimeException e) {
+                importResult.setError("The recipe is not valid: " + e.getMessage());
+            }
+        }
+
+        //Generated keys are unique, so only the keys given by the import are looked up, in a single query.
+        final Set<String> existingRecipeKeys = specifiedRecipeKeys.isEmpty()
+                ? Collections.emptySet() : new HashSet<>(eatsyRepositoryHandler.retrieveExistingRecipeKeys(specifiedRecipeKeys));
+        final List<Recipe> importedRecipes = new ArrayList<>(mappedRecipes.size());
+        final List<RecipeEntity> importedRecipeEntities = new ArrayList<>(mappedRecipes.size());
+        for (int i = 0; i < mappedRecipes.size(); i++) {
+            final Recipe recipe = mappedRecipes.get(i);
+            if (existingRecipeKeys.contains(recipe.getKey())) {
+                mappedRecipeResults.get(i).setError("The recipe key " + recipe.getKey() + " is used by an existing recipe");
+            } else {
+                importedRecipes.add(recipe);
+                importedRecipeEntities.add(mappedRecipeEntities.get(i));
+                mappedRecipeResults.get(i).setKey(recipe.getKey());
+            }
+        }
+
+        if (!importedRecipes.isEmpty()) {
+            eatsyRepositoryHandler.persistRecipes(importedRecipeEntities);
+            swapRecipeCache(catalog -> catalog.withRecipes(importedRecipes), keysOf(importedRecipes), true);
+        }
+        return importResults;
+    }
+
     /**
      * Retrieves all recipe model objects.
      *
@@ -77,16 +271,170 @@ public class RecipeFactoryHandler implements RecipeFactory {
 
         logger.debug("Retrieving all recipes to return to the controller");
 
-        //Retrieve all RecipeEntity objects from the database.
-        final List<RecipeEntity> allRecipeEntities = eatsyRepositoryHandler.retrieveAllRecipes();
+        if (directReadProjection) {
+            //Read-only: project the rows straight into the response models. The recipe cache is not refreshed;
+            //it is kept up to date by the cache warm-up and by every write.
+            return recipeMapperHandler.mapEntitiesToModels(eatsyRepositoryHandler.retrieveAllRecipes());
+        }
 
-        //Update the domain in-memory recipeCache, and create a recipeModel list of all existing recipes to be returned to the controller.
-        final List<RecipeModel> allRecipesModel = updateRecipeCacheAndGetAllRecipeModels(allRecipeEntities);
+        //Retrieve all recipes from the database and update the domain in-memory recipeCache with them, and create a
+        //recipeModel list of all existing recipes to be returned to the controller.
+        final List<RecipeModel> allRecipesModel = recipeMapperHandler.mapDomainsToModels(updateRecipeCache());
 
         return allRecipesModel;
 
     }
 
+    /**
+     * Retrieves all recipe model objects together with the version of the whole list.
+     * The version is built from the key and cached content hash of each recipe, so no recipe content is hashed again.
+     *
+     * @return The list of all recipe model objects that exist, versioned by their keys and content in list order.
+     */
+    @Override
+    public Versioned<List<RecipeModel>> retrieveAllRecipesVersioned() {
+
+        logger.debug("Retrieving all recipes and their version to return to the controller");
+
+        if (directReadProjection) {
+            //There are no domain recipes on this path, so the content of each mappable row is hashed instead.
+            final List<RecipeEntity> allRecipeEntities = eatsyRepositoryHandler.retrieveAllRecipes();
+            long listHash = 0;
+            for (final RecipeEntity recipeEntity : allRecipeEntities) {
+                if (null != recipeEntity && StringUtils.isNotBlank(recipeEntity.getName())) {
+                    listHash = combineListHash(listHash, recipeEntity.getKey(), RecipeContentHash.of(
+                            recipeEntity.getName(), recipeEntity.getIngredientSet(), recipeEntity.getMethodMap()));
+                }
+            }
+            return new Versioned<>(recipeMapperHandler.mapEntitiesToModels(allRecipeEntities), RecipeContentHash.toHex(listHash));
+        }
+
+        final List<Recipe> allDomainRecipes = updateRecipeCache();
+        long listHash = 0;
+        for (final Recipe recipe : allDomainRecipes) {
+            listHash = combineListHash(listHash, recipe.getKey(), recipe.getContentHash());
+        }
+        return new Versioned<>(recipeMapperHandler.mapDomainsToModels(allDomainRecipes), RecipeContentHash.toHex(listHash));
+    }
+
+    /**
+     * Retrieves all recipe model objects together with the version of the whole list, for a response that only
+     * carries the selected fields.
+     * When reads are projected straight from the database, only the selected fields are projected and hashed, so the
+     * ingredients and method are not loaded unless they are selected. The cached domain recipes hold every field
+     * anyway, so otherwise the full recipe models are returned and only the response is limited.
+     *
+     * @param fields the fields of the recipes that are needed.
+     * @return The list of all recipe model objects that exist, versioned by their keys and selected content in list order.
+     */
+    @Override
+    public Versioned<List<RecipeModel>> retrieveAllRecipesVersioned(final Set<RecipeField> fields) {
+
+        if (!directReadProjection || fields.containsAll(RecipeField.ALL)) {
+            return retrieveAllRecipesVersioned();
+        }
+
+        logger.debug("Retrieving fields {} of all recipes and their version to return to the controller", fields);
+        final List<RecipeModel> recipeModels = recipeMapperHandler.mapEntitiesToModels(eatsyRepositoryHandler.retrieveAllRecipes(), fields);
+
+        long listHash = 0;
+        for (final RecipeModel recipeModel : recipeModels) {
+            listHash = combineListHash(listHash, recipeModel.getKey(),
+                    RecipeContentHash.of(recipeModel.getName(), recipeModel.getIngredientSet(), recipeModel.getMethod()));
+        }
+        return new Versioned<>(recipeModels, RecipeContentHash.toHex(listHash));
+    }
+
+    /**
+     * Retrieves the version of the whole recipe catalog from the current recipe cache snapshot.
+     * Nothing is read from the database, and the version of a snapshot is only computed once.
+     *
+     * @return the version of the catalog and when it last changed, or null until the recipe cache has been loaded
+     * with every persisted recipe, by the cache warm-up or by retrieving all recipes.
+     */
+    @Override
+    public RecipeCatalogVersion retrieveRecipeCatalogVersion() {
+
+        if (!recipeCacheComplete) {
+            return null;
+        }
+        final RecipeCatalog catalog = recipeCache.get();
+        return new RecipeCatalogVersion(catalog.getVersion(), catalog.getCreatedAt());
+    }
+
+    /**
+     * Retrieves a single recipe together with the version of its content.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @return the recipe model and its version, or null if there is no recipe with the key.
+     */
+    @Override
+    public Versioned<RecipeModel> retrieveRecipe(final String recipeKey) {
+
+        logger.debug("Retrieving recipe with key: {}", recipeKey);
+
+        final Recipe recipe = findRecipe(recipeKey);
+        return null == recipe ? null : versionOf(recipe);
+    }
+
+    /**
+     * Merges the ingredients of a number of recipes into a shopping list, listing each ingredient once.
+     * The recipes are read from a single snapshot of the recipe cache. Once the cache holds every persisted recipe,
+     * keys that are not cached do not match a recipe; until then they are loaded from the database in a single query
+     * and added to the cache in a single swap. The ingredients are merged by ingredient id.
+     *
+     * @param recipeKeys the unique IDs of the recipes. Repeated keys are only counted once.
+     * @return the merged ingredients, in the order they first appear, and the keys that do not match a recipe.
+     */
+    @Override
+    public ShoppingListModel createShoppingList(final Collection<String> recipeKeys) {
+
+        if (recipeKeys.size() > MAX_SHOPPING_LIST_RECIPES) {
+            throw new InvalidRequestParameterException("A shopping list can have at most " + MAX_SHOPPING_LIST_RECIPES + " recipes");
+        }
+        logger.debug("Creating a shopping list for {} recipes", recipeKeys.size());
+
+        //Read whether the cache is complete before the snapshot, so a snapshot read after completion is complete too.
+        final boolean cacheComplete = recipeCacheComplete;
+        final RecipeCatalog cachedRecipes = recipeCache.get();
+        final Set<String> distinctRecipeKeys = new LinkedHashSet<>(recipeKeys);
+        final List<String> uncachedRecipeKeys = new ArrayList<>();
+        for (final String recipeKey : distinctRecipeKeys) {
+            if (!cachedRecipes.contains(recipeKey) && !StringUtils.isBlank(recipeKey)) {
+                uncachedRecipeKeys.add(recipeKey);
+            }
+        }
+
+        //The cache once the recipes that were not cached have been loaded into it.
+        RecipeCatalog loadedRecipes = cachedRecipes;
+        if (!cacheComplete && !uncachedRecipeKeys.isEmpty()) {
+            final long loadStart = startRecipeLoad();
+            try {
+                loadedRecipes = swapLoadedRecipes(loadStart, recipeMapperHandler.mapEntitiesToDomains(
+                        eatsyRepositoryHandler.retrieveRecipesByKeys(uncachedRecipeKeys)));
+            } finally {
+                endRecipeLoad(loadStart);
+            }
+        }
+
+        final ShoppingListAggregator shoppingListAggregator = new ShoppingListAggregator();
+        final List<String> unknownRecipeKeys = new ArrayList<>();
+        for (final String recipeKey : distinctRecipeKeys) {
+            final Recipe cachedRecipe = cachedRecipes.get(recipeKey);
+            final Recipe recipe = null == cachedRecipe ? loadedRecipes.get(recipeKey) : cachedRecipe;
+            if (null == recipe) {
+                unknownRecipeKeys.add(recipeKey);
+            } else {
+                shoppingListAggregator.addRecipe(recipe);
+            }
+        }
+
+        final ShoppingListModel shoppingListModel = new ShoppingListModel();
+        shoppingListModel.setItems(shoppingListAggregator.toItems());
+        shoppingListModel.setUnknownRecipeKeys(unknownRecipeKeys);
+        return shoppingListModel;
+    }
+
     /**
      * Deletes the requested recipeModel
      *
@@ -96,13 +444,16 @@ public class RecipeFactoryHandler implements RecipeFactory {
     @Override
     public List<RecipeModel> deleteRecipe(final String recipeKey) {
 
-        logger.debug("deleting recipe with key : " + recipeKey);
+        logger.debug("deleting recipe with key : {}", recipeKey);
 
-        //Delete the recipe with the specified recipeKey from the database.
-        eatsyRepositoryHandler.deleteRecipeById(recipeKey);
+        lockingRecipeKeys(recipeKey, recipeKey, () -> {
+            //Delete the recipe with the specified recipeKey from the database.
+            eatsyRepositoryHandler.deleteRecipeById(recipeKey);
 
-        //Remove the recipe for deletion from the recipe cache.
-        recipeCache.remove(recipeKey);
+            //Remove the recipe for deletion from the recipe cache.
+            swapRecipeCache(catalog -> catalog.withoutRecipe(recipeKey), Collections.singletonList(recipeKey), true);
+            return null;
+        });
 
         //map the updated recipeCache to a recipeModel list to be returned.
         final List<RecipeModel> allRecipesModel = retrieveAllRecipeDomainsAndMapToModel();
@@ -121,24 +472,178 @@ public class RecipeFactoryHandler implements RecipeFactory {
     @Override
     public RecipeModel updateRecipe(final String recipeKey, final RecipeModel recipeModelWithUpdates) {
 
-        logger.debug("replacing recipe with key: " + recipeKey + " for the new updated version");
+        logger.debug("replacing recipe with key: {} for the new updated version", recipeKey);
+
+        //Map the updated recipe to a RecipeModel and return.
+        final RecipeModel updatedRecipeModel = recipeMapperHandler.mapDomainToModel(applyUpdate(recipeKey, recipeModelWithUpdates, null));
+        return updatedRecipeModel;
+    }
+
+    /**
+     * Replaces the existing recipe with the updated version supplied, only if the existing recipe is still at one of
+     * the expected versions. The check is made against the recipe cache (loading the recipe if it is not cached),
+     * and is made and acted on under the lock for the recipe's key so no other write to the recipe can come in between.
+     *
+     * @param recipeKey              the unique ID of the recipe to be updated.
+     * @param recipeModelWithUpdates the recipe model with the updated changes to be persisted.
+     * @param expectedVersions       the versions the existing recipe is expected to be at. {@link #ANY_VERSION}
+     *                               matches whatever version the recipe is at, as long as it exists.
+     * @return the updated recipeModel with the new updates/changes applied, and its version.
+     */
+    @Override
+    public Versioned<RecipeModel> updateRecipe(final String recipeKey, final RecipeModel recipeModelWithUpdates,
+                                               final Collection<String> expectedVersions) {
+
+        logger.debug("replacing recipe with key: {} if it is at one of the versions {}", recipeKey, expectedVersions);
+
+        return versionOf(applyUpdate(recipeKey, recipeModelWithUpdates, expectedVersions));
+    }
+
+    /**
+     * Replaces the existing recipe with the updated version, unless the update would not change the cached recipe.
+     * The locks for the recipe's old and new keys are held throughout, and the recipe change lock only for the swap.
+     *
+     * @param recipeKey              the unique ID of the recipe to be updated.
+     * @param recipeModelWithUpdates the recipe model with the updated changes to be persisted.
+     * @param expectedVersions       the versions the existing recipe is expected to be at, or null to update it whatever
+     *                               its version.
+     * @return the recipe as it is after the update.
+     */
+    private Recipe applyUpdate(final String recipeKey, final RecipeModel recipeModelWithUpdates,
+                               final Collection<String> expectedVersions) {
 
         //Create the updated Recipe domain object
+        checkRecipeKeyLength(recipeModelWithUpdates);
         final Recipe updatedRecipe = recipeMapperHandler.mapModelToDomain(recipeModelWithUpdates);
 
-        //Persist the updated recipe
-        logger.debug("Creating a corresponding recipe entity object for persistence called " + updatedRecipe.getName());
-        final RecipeEntity recipeEntityWithUpdates = recipeMapperHandler.mapDomainToEntity(updatedRecipe);
-        eatsyRepositoryHandler.persistRecipe(recipeEntityWithUpdates);
+        return lockingRecipeKeys(recipeKey, updatedRecipe.getKey(), () -> {
+            if (null != expectedVersions) {
+                final Recipe existingRecipe = findRecipe(recipeKey);
+                if (null == existingRecipe || !(expectedVersions.contains(ANY_VERSION)
+                        || expectedVersions.contains(RecipeContentHash.toHex(existingRecipe.getContentHash())))) {
+                    throw new RecipeVersionMismatchException(recipeKey);
+                }
+            }
+
+            //An update with the same key and content as the cached recipe is a no-op, so nothing is written.
+            //Equals compares the cached content hashes first, so a changed recipe is found without comparing its content.
+            final Recipe existingRecipe = recipeCache.get().get(recipeKey);
+            if (updatedRecipe.equals(existingRecipe)) {
+                logger.debug("Recipe with key: {} is unchanged, skipping persistence", recipeKey);
+                return existingRecipe;
+            }
+
+            //Persist the updated recipe
+            logger.debug("Creating a corresponding recipe entity object for persistence called {}", updatedRecipe.getName());
+            final RecipeEntity recipeEntityWithUpdates = recipeMapperHandler.mapDomainToEntity(updatedRecipe);
+            eatsyRepositoryHandler.persistRecipe(recipeEntityWithUpdates);
+
+            //replace the outdated recipe with the updated version in the recipeCache in a single atomic swap.
+            //The updatedRecipe domain object may have a different key, so the replacement is re-keyed in the same step.
+            swapRecipeCache(catalog -> catalog.withReplacedRecipe(recipeKey, updatedRecipe), Arrays.asList(recipeKey, updatedRecipe.getKey()), true);
+            return updatedRecipe;
+        });
+    }
 
-        //replace the outdated recipe with the updated version in the recipeCache.
-        recipeCache.replace(recipeKey, updatedRecipe);
-        //The updatedRecipe domain object has a new key generated on creation, so the Maps Key value will need to be updated to correspond.
-        recipeCache.put(updatedRecipe.getKey(), recipeCache.remove(recipeKey));
+    /**
+     * Rejects a recipe model with a key too long for the key column, which would otherwise fail its database write.
+     *
+     * @param recipeModel the recipe model to be written.
+     */
+    private static void checkRecipeKeyLength(final RecipeModel recipeModel) {
+        if (null != recipeModel && null != recipeModel.getKey() && recipeModel.getKey().length() > RecipeEntity.MAX_KEY_LENGTH) {
+            throw new InvalidRequestParameterException("A recipe key must be at most " + RecipeEntity.MAX_KEY_LENGTH + " characters");
+        }
+    }
 
-        //Map the updated recipe to a RecipeModel and return.
-        final RecipeModel updatedRecipeModel = recipeMapperHandler.mapDomainToModel(updatedRecipe);
-        return updatedRecipeModel;
+    /**
+     * Makes a write to up to two recipes while holding the locks for their keys, taken in a fixed order.
+     *
+     * @param firstRecipeKey  the unique ID of a recipe written.
+     * @param secondRecipeKey the unique ID of the other recipe written, or the same ID if only one recipe is written.
+     * @param write           writes the recipes to the database and the recipe cache.
+     * @return the result of the write.
+     */
+    private <T> T lockingRecipeKeys(final String firstRecipeKey, final String secondRecipeKey, final Supplier<T> write) {
+
+        final int firstStripe = Math.floorMod(Objects.hashCode(firstRecipeKey), RECIPE_KEY_LOCK_STRIPES);
+        final int secondStripe = Math.floorMod(Objects.hashCode(secondRecipeKey), RECIPE_KEY_LOCK_STRIPES);
+        synchronized (recipeKeyLocks[Math.min(firstStripe, secondStripe)]) {
+            synchronized (recipeKeyLocks[Math.max(firstStripe, secondStripe)]) {
+                return write.get();
+            }
+        }
+    }
+
+    /**
+     * Loads every persisted recipe into the in-memory recipe cache, so that the first requests do not pay for it.
+     * Recipes are loaded in key-range chunks which are queried and mapped in parallel on a bounded pool of worker threads,
+     * then added to the cache in a single snapshot swap.
+     *
+     * @param chunkSize      the maximum number of recipes loaded by a single key-range query.
+     * @param parallelism    the maximum number of chunks loaded and mapped at the same time.
+     * @param warmUpListener notified of progress as each chunk completes.
+     * @return the number of recipes in the recipe cache once warm-up has completed.
+     */
+    @Override
+    public int warmUpRecipeCache(final int chunkSize, final int parallelism, final RecipeCacheWarmUpListener warmUpListener) {
+
+        //Only the keys are loaded up front. They are used to split the recipe table into key-range chunks.
+        final List<String> allRecipeKeys = eatsyRepositoryHandler.retrieveAllRecipeKeys();
+        logger.info("Warming up the in-memory recipe cache with {} recipes", allRecipeKeys.size());
+        warmUpListener.warmUpStarted(allRecipeKeys.size());
+
+        //Recipes written while the chunks are loading are left out of the warm-up, as they are already cached.
+        final long loadStart = startRecipeLoad();
+        final ExecutorService warmUpExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), new WarmUpThreadFactory());
+        try {
+            //Submit a load for each key range. The keys are ordered, so the first and last key of each chunk bound its range.
+            final List<Future<List<Recipe>>> recipeChunks = new ArrayList<>();
+            final int recipesPerChunk = Math.max(1, chunkSize);
+            for (int chunkStart = 0; chunkStart < allRecipeKeys.size(); chunkStart += recipesPerChunk) {
+                final String fromKey = allRecipeKeys.get(chunkStart);
+                final String toKey = allRecipeKeys.get(Math.min(chunkStart + recipesPerChunk, allRecipeKeys.size()) - 1);
+                recipeChunks.add(warmUpExecutor.submit(() -> loadRecipeChunk(fromKey, toKey, warmUpListener)));
+            }
+
+            //Gather the chunks in key order and add them to the cache together.
+            final List<Recipe> warmedRecipes = new ArrayList<>(allRecipeKeys.size());
+            for (final Future<List<Recipe>> recipeChunk : recipeChunks) {
+                warmedRecipes.addAll(recipeChunk.get());
+            }
+            swapLoadedRecipes(loadStart, warmedRecipes);
+            recipeCacheComplete = true;
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recipe cache warm-up was interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Recipe cache warm-up failed", e.getCause());
+        } finally {
+            warmUpExecutor.shutdownNow();
+            endRecipeLoad(loadStart);
+        }
+
+        return recipeCache.get().size();
+    }
+
+    /**
+     * Loads and maps one key-range chunk of recipes for the cache warm-up.
+     *
+     * @param fromKey        the lowest recipe key in the chunk.
+     * @param toKey          the highest recipe key in the chunk.
+     * @param warmUpListener notified once the chunk has been loaded and mapped.
+     * @return the domain recipes in the chunk.
+     */
+    private List<Recipe> loadRecipeChunk(final String fromKey, final String toKey, final RecipeCacheWarmUpListener warmUpListener) {
+
+        final List<RecipeEntity> recipeEntityChunk = eatsyRepositoryHandler.retrieveRecipesInKeyRange(fromKey, toKey);
+
+        //Recipes that cannot be mapped (e.g. with no name) are left out of the cache.
+        final List<Recipe> recipeChunk = recipeMapperHandler.mapEntitiesToDomains(recipeEntityChunk);
+
+        warmUpListener.chunkLoaded(recipeChunk.size());
+        return recipeChunk;
     }
 
     /**
@@ -148,48 +653,218 @@ public class RecipeFactoryHandler implements RecipeFactory {
      */
     private void persistRecipeAndUpdateRecipeCache(final Recipe recipe) {
 
-        logger.debug("Creating a new recipe entity object for persistence called " + recipe.getName());
+        logger.debug("Creating a new recipe entity object for persistence called {}", recipe.getName());
         final RecipeEntity recipeEntity = recipeMapperHandler.mapDomainToEntity(recipe);
 
-        //Persist the recipe to the database.
-        final RecipeEntity persistedRecipeEntity = eatsyRepositoryHandler.persistRecipe(recipeEntity);
+        lockingRecipeKeys(recipe.getKey(), recipe.getKey(), () -> {
+            //Persist the recipe to the database.
+            eatsyRepositoryHandler.persistRecipe(recipeEntity);
 
-        //Add the new domain recipe to the cache of recipes.
-        recipeCache.put(recipe.getKey(), recipe);
+            //Add the new domain recipe to the cache of recipes.
+            swapRecipeCache(catalog -> catalog.withRecipe(recipe), Collections.singletonList(recipe.getKey()), true);
+            return null;
+        });
 
     }
 
     /**
-     * Updates the in-memory domain Recipe cache and creates a list of all Recipe Model objects to be returned to the controller.
+     * Updates the in-memory domain Recipe cache with all recipe entities that exist in the database.
+     * Recipes written since the entities were read are not replaced by what was read.
      *
-     * @param allRecipeEntities the list of all recipe entities that exist in the recipe database table.
-     * @return a list of all recipe model objects created from all recipe entities in the database.
+     * @return the domain recipes created from the recipe entities in the database, in the same order.
      */
-    private List<RecipeModel> updateRecipeCacheAndGetAllRecipeModels(final List<RecipeEntity> allRecipeEntities) {
+    private List<Recipe> updateRecipeCache() {
 
         logger.debug("Updating in-memory domain recipe cache");
 
-        //a recipeModel list to be returned to the controller when all existing recipes have been added to this list.
-        final List<RecipeModel> allRecipesModel = new ArrayList<>();
+        final long loadStart = startRecipeLoad();
+        try {
+            //Retrieve all RecipeEntity objects from the database, and map the whole result set in bulk.
+            final List<Recipe> allDomainRecipes = recipeMapperHandler.mapEntitiesToDomains(eatsyRepositoryHandler.retrieveAllRecipes());
 
-        //Update the domain model in memory recipeCache to be up-to-date.
-        for (final RecipeEntity currentRecipeEntity : allRecipeEntities) {
+            //Update the domain model in memory recipeCache to be up-to-date with a single snapshot swap.
+            //If the cache already contains a recipe with the same key then it will be updated in the recipe cache.
+            //If the key is not already in the cache, the new recipe will be added to the recipe cache.
+            swapLoadedRecipes(loadStart, allDomainRecipes);
+            recipeCacheComplete = true;
 
-            final Recipe currentDomainRecipe = recipeMapperHandler.mapEntityToDomain(currentRecipeEntity);
+            return allDomainRecipes;
+        } finally {
+            endRecipeLoad(loadStart);
+        }
 
-            //If the map already contains a mapping for the key then the corresponding recipe (value) will be updated in the recipe cache.
-            //If the key does is not already in the map, a new recipe entry will be added to the recipe cache.
-            recipeCache.put(currentDomainRecipe.getKey(), currentDomainRecipe);
+    }
+
+    /**
+     * Finds a recipe in the recipe cache, loading it from the database into the cache if it is not cached yet.
+     * Once the cache holds every persisted recipe, a recipe that is not cached does not exist.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @return the recipe, or null if there is no recipe with the key.
+     */
+    private Recipe findRecipe(final String recipeKey) {
 
-            //map the updated recipeCache to a recipeModel list to be returned to the controller.
-            final RecipeModel currentModelRecipe = recipeMapperHandler.mapDomainToModel(currentDomainRecipe);
-            allRecipesModel.add(currentModelRecipe);
+        final boolean cacheComplete = recipeCacheComplete;
+        final Recipe cachedRecipe = recipeCache.get().get(recipeKey);
+        if (null != cachedRecipe || cacheComplete || StringUtils.isBlank(recipeKey)) {
+            return cachedRecipe;
         }
 
-        logger.debug("returning the list of all recipe model objects.");
+        final long loadStart = startRecipeLoad();
+        try {
+            final List<Recipe> persistedRecipes = recipeMapperHandler.mapEntitiesToDomains(
+                    eatsyRepositoryHandler.retrieveRecipesInKeyRange(recipeKey, recipeKey));
+            //If the recipe was written while it was loading, the cached recipe is the current one.
+            return swapLoadedRecipes(loadStart, persistedRecipes).get(recipeKey);
+        } finally {
+            endRecipeLoad(loadStart);
+        }
+    }
 
-        return allRecipesModel;
+    /**
+     * Registers a load of recipes from the database, so writes made while it is in progress are recorded.
+     * Must be called before the recipes are read, and followed by {@link #endRecipeLoad(long)} once they are cached.
+     *
+     * @return the write count at the start of the load.
+     */
+    private long startRecipeLoad() {
+        synchronized (recipeChangeLock) {
+            recipeLoadsInProgress.merge(recipeWriteCount, 1, Integer::sum);
+            return recipeWriteCount;
+        }
+    }
 
+    /**
+     * Adds recipes loaded from the database to the recipe cache, leaving out any recipe that has been created,
+     * updated or deleted since the load started. The cached version of such a recipe is newer than the loaded one.
+     *
+     * @param loadStart     the write count at the start of the load.
+     * @param loadedRecipes the domain recipes loaded from the database.
+     * @return the recipe cache once the loaded recipes have been added.
+     */
+    private RecipeCatalog swapLoadedRecipes(final long loadStart, final List<Recipe> loadedRecipes) {
+        synchronized (recipeChangeLock) {
+            final List<Recipe> unchangedRecipes = new ArrayList<>(loadedRecipes.size());
+            for (final Recipe loadedRecipe : loadedRecipes) {
+                final Long lastWrite = recipeWritesDuringLoads.get(loadedRecipe.getKey());
+                if (null == lastWrite || lastWrite <= loadStart) {
+                    unchangedRecipes.add(loadedRecipe);
+                }
+            }
+            if (!unchangedRecipes.isEmpty()) {
+                swapRecipeCache(catalog -> catalog.withRecipes(unchangedRecipes), keysOf(unchangedRecipes), false);
+            }
+            return recipeCache.get();
+        }
+    }
+
+    /**
+     * Deregisters a load of recipes, forgetting the writes that no load still in progress started before.
+     *
+     * @param loadStart the write count at the start of the load.
+     */
+    private void endRecipeLoad(final long loadStart) {
+        synchronized (recipeChangeLock) {
+            recipeLoadsInProgress.computeIfPresent(loadStart, (writeCount, loads) -> loads == 1 ? null : loads - 1);
+            if (recipeLoadsInProgress.isEmpty()) {
+                recipeWritesDuringLoads.clear();
+            } else {
+                final long oldestLoadStart = recipeLoadsInProgress.firstKey();
+                recipeWritesDuringLoads.values().removeIf(writeCount -> writeCount <= oldestLoadStart);
+            }
+        }
+    }
+
+    /**
+     * Replaces the recipe cache with an updated snapshot and notifies the recipe change listeners of each recipe
+     * that the update changed.
+     *
+     * @param update            creates the updated snapshot from the current one.
+     * @param changedRecipeKeys the keys of the recipes the update may change.
+     * @param recipesMutated    true if the update creates, updates or deletes recipes, false if it only loads
+     *                          persisted recipes into the cache.
+     */
+    private void swapRecipeCache(final UnaryOperator<RecipeCatalog> update, final Collection<String> changedRecipeKeys,
+                                 final boolean recipesMutated) {
+
+        synchronized (recipeChangeLock) {
+            if (recipesMutated) {
+                //Record the write, so loads in progress do not replace it with what they read before it was made.
+                recipeWriteCount++;
+                if (!recipeLoadsInProgress.isEmpty()) {
+                    for (final String recipeKey : changedRecipeKeys) {
+                        recipeWritesDuringLoads.put(recipeKey, recipeWriteCount);
+                    }
+                }
+            }
+            if (recipeChangeListeners.isEmpty()) {
+                recipeCache.updateAndGet(update);
+                return;
+            }
+
+            //Every write goes through this lock, so the snapshot read straight after the swap is the one just made.
+            final RecipeCatalog previousCatalog = recipeCache.getAndUpdate(update);
+            final RecipeCatalog currentCatalog = recipeCache.get();
+            if (previousCatalog == currentCatalog) {
+                return;
+            }
+            for (final String recipeKey : changedRecipeKeys) {
+                final Recipe previousRecipe = previousCatalog.get(recipeKey);
+                final Recipe currentRecipe = currentCatalog.get(recipeKey);
+                if (!Objects.equals(previousRecipe, currentRecipe)) {
+                    notifyRecipeChanged(previousRecipe, currentRecipe, recipesMutated);
+                }
+            }
+        }
+    }
+
+    /**
+     * Notifies every recipe change listener of a change. A failing listener is logged rather than failing the write,
+     * which has already been persisted.
+     */
+    private void notifyRecipeChanged(final Recipe previousRecipe, final Recipe currentRecipe, final boolean recipeMutated) {
+        for (final RecipeChangeListener recipeChangeListener : recipeChangeListeners) {
+            try {
+                recipeChangeListener.recipeChanged(previousRecipe, currentRecipe);
+                if (recipeMutated) {
+                    recipeChangeListener.recipeMutated(previousRecipe, currentRecipe);
+                }
+            } catch (final RuntimeException e) {
+                logger.error("Recipe change listener {} failed", recipeChangeListener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /**
+     * @param recipes domain recipes.
+     * @return the keys of the recipes, in the same order.
+     */
+    private static List<String> keysOf(final List<Recipe> recipes) {
+        final List<String> recipeKeys = new ArrayList<>(recipes.size());
+        for (final Recipe recipe : recipes) {
+            recipeKeys.add(recipe.getKey());
+        }
+        return recipeKeys;
+    }
+
+    /**
+     * @param recipe the domain recipe.
+     * @return the recipe model for the recipe, versioned by the recipe's content hash.
+     */
+    private Versioned<RecipeModel> versionOf(final Recipe recipe) {
+        return new Versioned<>(recipeMapperHandler.mapDomainToModel(recipe), RecipeContentHash.toHex(recipe.getContentHash()));
+    }
+
+    /**
+     * Adds a recipe to the version of a list of recipes. The order of the recipes in the list matters.
+     *
+     * @param listHash    the hash of the list so far.
+     * @param recipeKey   the unique ID of the recipe.
+     * @param contentHash the content hash of the recipe.
+     * @return the hash of the list with the recipe added.
+     */
+    private static long combineListHash(final long listHash, final String recipeKey, final long contentHash) {
+        return RecipeContentHash.combine(RecipeContentHash.combine(listHash, RecipeContentHash.ofString(recipeKey)), contentHash);
     }
 
     /**
@@ -198,12 +873,23 @@ public class RecipeFactoryHandler implements RecipeFactory {
      * @return all recipe models.
      */
     private List<RecipeModel> retrieveAllRecipeDomainsAndMapToModel() {
-        final List<RecipeModel> allRecipesModel = new ArrayList();
-        recipeCache.forEach((key, value) -> {
-                    allRecipesModel.add(recipeMapperHandler.mapDomainToModel(value));
-                }
-        );
-        return allRecipesModel;
+        //Read a single consistent snapshot of the cache and map it in bulk.
+        return recipeMapperHandler.mapDomainsToModels(recipeCache.get().getRecipes());
+    }
+
+    /**
+     * Creates named daemon threads for the cache warm-up, so they can be identified and never hold up shutdown.
+     */
+    private static class WarmUpThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "recipe-cache-warm-up-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
 
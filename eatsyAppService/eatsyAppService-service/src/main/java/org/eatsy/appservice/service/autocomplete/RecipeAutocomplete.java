@@ -0,0 +1,22 @@
+package org.eatsy.appservice.service.autocomplete;
+
+import org.eatsy.appservice.model.AutocompleteSuggestionModel;
+
+import java.util.List;
+
+/**
+ * Interface for suggesting recipe names and ingredients as a search is typed.
+ */
+public interface RecipeAutocomplete {
+
+    /**
+     * Suggests the recipe names and ingredients with a word starting with the prefix.
+     *
+     * @param prefix the text typed so far. Case and repeated whitespace are ignored.
+     * @param type   the kind of suggestions wanted, or null for both recipe names and ingredients.
+     * @param limit  the maximum number of suggestions to return.
+     * @return the suggestions used by the most recipes first.
+     */
+    List<AutocompleteSuggestionModel> suggest(String prefix, SuggestionType type, int limit);
+
+}
@@ -0,0 +1,119 @@
+package org.eatsy.appservice.service.autocomplete;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.AutocompleteSuggestionModel;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recipe Autocomplete implementation
+ * Tagged with @Component for dependency injection
+ * <p>
+ * Keeps a compressed trie of the cached recipes' names and one of their ingredients, updated as the recipe cache
+ * changes. Every node of a trie holds the most used terms below it, so a suggestion costs a walk down the prefix
+ * whatever the size of the catalog.
+ */
+@Component
+public class RecipeAutocompleteHandler implements RecipeAutocomplete, RecipeChangeListener {
+
+    //Most suggestions returned for a prefix.
+    public static final int MAX_SUGGESTIONS = 20;
+
+    //Most used first, then alphabetically.
+    private static final Comparator<AutocompleteSuggestionModel> SUGGESTION_ORDER = Comparator
+            .comparingInt(AutocompleteSuggestionModel::getRecipeCount).reversed()
+            .thenComparing(suggestion -> suggestion.getText().toLowerCase(Locale.ROOT));
+
+    //Queries share the read lock, recipe changes take the write lock. Guards the tries.
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    //Recipe names, each counted by the number of recipes with the name.
+    private final SuggestionTrie recipeNames = new SuggestionTrie(MAX_SUGGESTIONS);
+
+    //Ingredients, each counted by the number of recipes using the ingredient.
+    private final SuggestionTrie ingredients = new SuggestionTrie(MAX_SUGGESTIONS);
+
+    /**
+     * Keeps the tries up to date with the recipe cache.
+     *
+     * @param previousRecipe the recipe as it was before the change, or null if the recipe has been added.
+     * @param currentRecipe  the recipe as it is after the change, or null if the recipe has been removed.
+     */
+    @Override
+    public void recipeChanged(final Recipe previousRecipe, final Recipe currentRecipe) {
+
+        indexLock.writeLock().lock();
+        try {
+            if (null != previousRecipe) {
+                recipeNames.remove(previousRecipe.getName());
+                if (null != previousRecipe.getIngredientSet()) {
+                    previousRecipe.getIngredientSet().forEach(ingredients::remove);
+                }
+            }
+            if (null != currentRecipe) {
+                recipeNames.add(currentRecipe.getName());
+                if (null != currentRecipe.getIngredientSet()) {
+                    currentRecipe.getIngredientSet().forEach(ingredients::add);
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggests the recipe names and ingredients with a word starting with the prefix.
+     *
+     * @param prefix the text typed so far. Case and repeated whitespace are ignored.
+     * @param type   the kind of suggestions wanted, or null for both recipe names and ingredients.
+     * @param limit  the maximum number of suggestions to return, at most MAX_SUGGESTIONS.
+     * @return the suggestions used by the most recipes first.
+     */
+    @Override
+    public List<AutocompleteSuggestionModel> suggest(final String prefix, final SuggestionType type, final int limit) {
+
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidRequestParameterException("The limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        final List<AutocompleteSuggestionModel> suggestions = new ArrayList<>();
+        indexLock.readLock().lock();
+        try {
+            if (SuggestionType.INGREDIENT != type) {
+                addSuggestions(suggestions, recipeNames.topTerms(prefix, limit), SuggestionType.RECIPE);
+            }
+            if (SuggestionType.RECIPE != type) {
+                addSuggestions(suggestions, ingredients.topTerms(prefix, limit), SuggestionType.INGREDIENT);
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        if (null != type) {
+            return suggestions;
+        }
+        //Both kinds were asked for, so merge them and keep the best.
+        suggestions.sort(SUGGESTION_ORDER);
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    private static void addSuggestions(final List<AutocompleteSuggestionModel> suggestions,
+                                       final List<SuggestionTrie.Term> terms, final SuggestionType type) {
+        for (final SuggestionTrie.Term term : terms) {
+            final AutocompleteSuggestionModel suggestion = new AutocompleteSuggestionModel();
+            suggestion.setText(term.getText());
+            suggestion.setType(type.name());
+            suggestion.setRecipeCount(term.getRecipeCount());
+            suggestions.add(suggestion);
+        }
+    }
+
+}
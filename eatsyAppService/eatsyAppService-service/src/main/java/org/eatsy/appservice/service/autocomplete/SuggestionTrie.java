@@ -0,0 +1,396 @@
+package org.eatsy.appservice.service.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compressed (radix) trie of suggestion terms, each counted by the number of recipes using it.
+ * Every word of a term starts an entry in the trie, so "Thai green curry" is found by "thai", "green" and "curry".
+ * Every node keeps the most used terms below it, so a prefix is answered by finding its node, without visiting the
+ * terms below. The lists are updated along the path of a term whenever its count changes, and only rebuilt from the
+ * node's children when a term drops out of a full list.
+ * Not thread-safe, guarded by the owning index.
+ */
+final class SuggestionTrie {
+
+    //Most used first, then alphabetically.
+    private static final Comparator<Term> TERM_ORDER = Comparator
+            .comparingInt((Term term) -> term.recipeCount).reversed()
+            .thenComparing(term -> term.key);
+
+    //Number of terms kept at each node, and so the most suggestions a prefix can return.
+    private final int topTermCount;
+
+    //Terms by normalised text.
+    private final Map<String, Term> termsByKey = new HashMap<>();
+
+    private final Node root = new Node("", null);
+
+    /**
+     * @param topTermCount the number of most used terms to keep at each node.
+     */
+    SuggestionTrie(final int topTermCount) {
+        this.topTermCount = topTermCount;
+    }
+
+    /**
+     * Counts one more recipe using the term, adding the term if it is new.
+     *
+     * @param text the text of the term.
+     */
+    void add(final String text) {
+
+        final String key = normalise(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Term term = termsByKey.get(key);
+        final boolean newTerm = null == term;
+        if (newTerm) {
+            term = new Term(key, text.trim());
+            termsByKey.put(key, term);
+        }
+        term.recipeCount++;
+
+        for (final String wordSuffix : wordSuffixesOf(key)) {
+            final Node node = newTerm ? insert(wordSuffix) : find(wordSuffix);
+            if (newTerm) {
+                node.terms.add(term);
+            }
+            //A term that does not make the top of a node cannot make the top of its ancestors either.
+            Node current = node;
+            while (null != current && offerTopTerm(current, term)) {
+                current = current.parent;
+            }
+        }
+    }
+
+    /**
+     * Counts one fewer recipe using the term, removing the term once no recipes use it.
+     *
+     * @param text the text of the term.
+     */
+    void remove(final String text) {
+
+        final String key = normalise(text);
+        final Term term = termsByKey.get(key);
+        if (null == term) {
+            return;
+        }
+        term.recipeCount--;
+
+        final List<Node> nodes = new ArrayList<>();
+        for (final String wordSuffix : wordSuffixesOf(key)) {
+            nodes.add(find(wordSuffix));
+        }
+        if (term.recipeCount == 0) {
+            termsByKey.remove(key);
+            //Take the term out of every node before refreshing, as it can reach a node through more than one word.
+            for (int i = 0; i < nodes.size(); i++) {
+                nodes.get(i).terms.remove(term);
+                nodes.set(i, prune(nodes.get(i)));
+            }
+        }
+
+        //Only the nodes holding the term in their top terms can change, though they may be anywhere up the path.
+        for (final Node node : nodes) {
+            for (Node current = node; null != current; current = current.parent) {
+                final int index = indexOfTopTerm(current, term);
+                if (index < 0) {
+                    continue;
+                }
+                if (term.recipeCount > 0 && current.topTerms.length < topTermCount) {
+                    //Every term below the node is already in its top terms, so moving the term down is enough.
+                    moveTopTerm(current, index);
+                } else {
+                    refreshTopTerms(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param prefix the prefix of a word of the terms.
+     * @param limit  the most terms to return, no more than the number of terms kept at each node.
+     * @return the most used terms with a word starting with the prefix, most used first.
+     */
+    List<Term> topTerms(final String prefix, final int limit) {
+
+        final String key = normalise(prefix);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            final Node child = node.child(key.charAt(matched));
+            if (null == child) {
+                return Collections.emptyList();
+            }
+            //The prefix may end part way along the child's label.
+            final int labelMatch = commonPrefixLength(child.label, key, matched);
+            if (labelMatch < child.label.length() && matched + labelMatch < key.length()) {
+                return Collections.emptyList();
+            }
+            node = child;
+            matched += labelMatch;
+        }
+        return Arrays.asList(node.topTerms).subList(0, Math.min(limit, node.topTerms.length));
+    }
+
+    /**
+     * @return the number of distinct terms.
+     */
+    int size() {
+        return termsByKey.size();
+    }
+
+    //Finds the node at the end of the text, creating it and splitting labels as needed.
+    private Node insert(final String text) {
+
+        Node node = root;
+        int matched = 0;
+        while (matched < text.length()) {
+            final Node child = node.child(text.charAt(matched));
+            if (null == child) {
+                final Node leaf = new Node(text.substring(matched), node);
+                node.addChild(leaf);
+                return leaf;
+            }
+            final int labelMatch = commonPrefixLength(child.label, text, matched);
+            if (labelMatch < child.label.length()) {
+                //Split the child's label, putting a new node above the child so the child keeps its terms.
+                final Node split = new Node(child.label.substring(0, labelMatch), node);
+                node.replaceChild(child, split);
+                child.label = child.label.substring(labelMatch);
+                child.parent = split;
+                split.addChild(child);
+                split.topTerms = child.topTerms;
+                node = split;
+            } else {
+                node = child;
+            }
+            matched += labelMatch;
+        }
+        return node;
+    }
+
+    //Finds the node at the end of text that is in the trie.
+    private Node find(final String text) {
+        Node node = root;
+        int matched = 0;
+        while (matched < text.length()) {
+            node = node.child(text.charAt(matched));
+            matched += node.label.length();
+        }
+        return node;
+    }
+
+    //Removes the node if it no longer leads to any terms, and merges away a node left with one child and no terms.
+    //Returns the deepest node still in the trie whose top terms need refreshing.
+    private Node prune(final Node node) {
+
+        Node current = node;
+        while (current != root && current.terms.isEmpty() && current.childCount == 0) {
+            current.parent.removeChild(current);
+            current = current.parent;
+        }
+        if (current != root && current.terms.isEmpty() && current.childCount == 1) {
+            final Node onlyChild = current.children[0];
+            onlyChild.label = current.label + onlyChild.label;
+            onlyChild.parent = current.parent;
+            current.parent.replaceChild(current, onlyChild);
+            return onlyChild;
+        }
+        return current;
+    }
+
+    //Adds the term to the top terms of the node if it is good enough, or moves it up if it is already there.
+    //Returns false if the term is not in the node's top terms.
+    private boolean offerTopTerm(final Node node, final Term term) {
+
+        final int index = indexOfTopTerm(node, term);
+        if (index >= 0) {
+            moveTopTerm(node, index);
+            return true;
+        }
+
+        final Term[] topTerms = node.topTerms;
+        if (topTerms.length == topTermCount && TERM_ORDER.compare(term, topTerms[topTerms.length - 1]) >= 0) {
+            return false;
+        }
+        final Term[] offeredTopTerms = Arrays.copyOf(topTerms, Math.min(topTermCount, topTerms.length + 1));
+        offeredTopTerms[offeredTopTerms.length - 1] = term;
+        node.topTerms = offeredTopTerms;
+        moveTopTerm(node, offeredTopTerms.length - 1);
+        return true;
+    }
+
+    //Moves the top term at the index up or down to its place, after its count has changed.
+    private static void moveTopTerm(final Node node, final int index) {
+
+        final Term[] topTerms = node.topTerms;
+        final Term term = topTerms[index];
+        int position = index;
+        while (position > 0 && TERM_ORDER.compare(term, topTerms[position - 1]) < 0) {
+            topTerms[position] = topTerms[position - 1];
+            position--;
+        }
+        while (position < topTerms.length - 1 && TERM_ORDER.compare(term, topTerms[position + 1]) > 0) {
+            topTerms[position] = topTerms[position + 1];
+            position++;
+        }
+        topTerms[position] = term;
+    }
+
+    private static int indexOfTopTerm(final Node node, final Term term) {
+        for (int i = 0; i < node.topTerms.length; i++) {
+            if (node.topTerms[i] == term) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //Recomputes the top terms of the node from its own terms and its children's top terms.
+    private void refreshTopTerms(final Node node) {
+
+        //A term can reach a node more than once, through different words, so candidates are de-duplicated.
+        final Set<Term> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        candidates.addAll(node.terms);
+        for (int i = 0; i < node.childCount; i++) {
+            candidates.addAll(Arrays.asList(node.children[i].topTerms));
+        }
+        final List<Term> orderedCandidates = new ArrayList<>(candidates);
+        orderedCandidates.sort(TERM_ORDER);
+        node.topTerms = orderedCandidates.subList(0, Math.min(topTermCount, orderedCandidates.size())).toArray(new Term[0]);
+    }
+
+    //Lower case, with runs of whitespace made a single space.
+    static String normalise(final String text) {
+        return null == text ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    //The normalised text from the start of each of its words.
+    private static List<String> wordSuffixesOf(final String key) {
+        final List<String> wordSuffixes = new ArrayList<>();
+        wordSuffixes.add(key);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            wordSuffixes.add(key.substring(i + 1));
+        }
+        return wordSuffixes;
+    }
+
+    private static int commonPrefixLength(final String label, final String text, final int textOffset) {
+        final int maxLength = Math.min(label.length(), text.length() - textOffset);
+        int length = 0;
+        while (length < maxLength && label.charAt(length) == text.charAt(textOffset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * A suggestion, and the number of recipes using it.
+     */
+    static final class Term {
+
+        //Normalised text, unique within the trie.
+        private final String key;
+
+        //Text as first added, for display.
+        private final String text;
+
+        private int recipeCount;
+
+        private Term(final String key, final String text) {
+            this.key = key;
+            this.text = text;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        int getRecipeCount() {
+            return recipeCount;
+        }
+    }
+
+    /**
+     * A node of the trie. Children are kept sorted by the first character of their labels.
+     */
+    private static final class Node {
+
+        private static final Term[] NO_TERMS = new Term[0];
+
+        //Characters from the parent to this node.
+        private String label;
+
+        private Node parent;
+
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        //Terms with a word ending at this node. Usually empty or one term.
+        private final List<Term> terms = new ArrayList<>(1);
+
+        //The most used terms at or below this node, most used first.
+        private Term[] topTerms = NO_TERMS;
+
+        private Node(final String label, final Node parent) {
+            this.label = label;
+            this.parent = parent;
+        }
+
+        private Node child(final char firstCharacter) {
+            final int index = indexOf(firstCharacter);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(final Node child) {
+            final int insertionPoint = -indexOf(child.label.charAt(0)) - 1;
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            System.arraycopy(children, insertionPoint, children, insertionPoint + 1, childCount - insertionPoint);
+            children[insertionPoint] = child;
+            childCount++;
+        }
+
+        private void replaceChild(final Node child, final Node replacement) {
+            children[indexOf(child.label.charAt(0))] = replacement;
+        }
+
+        private void removeChild(final Node child) {
+            final int index = indexOf(child.label.charAt(0));
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            children[--childCount] = null;
+        }
+
+        //Binary search of the children by first character, as for Arrays.binarySearch.
+        private int indexOf(final char firstCharacter) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final char middleCharacter = children[middle].label.charAt(0);
+                if (middleCharacter < firstCharacter) {
+                    low = middle + 1;
+                } else if (middleCharacter > firstCharacter) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+}
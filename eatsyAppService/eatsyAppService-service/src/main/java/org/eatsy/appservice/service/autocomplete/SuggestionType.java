@@ -0,0 +1,14 @@
+package org.eatsy.appservice.service.autocomplete;
+
+/**
+ * The kinds of text autocomplete suggests.
+ */
+public enum SuggestionType {
+
+    //A recipe name.
+    RECIPE,
+
+    //An ingredient.
+    INGREDIENT
+
+}
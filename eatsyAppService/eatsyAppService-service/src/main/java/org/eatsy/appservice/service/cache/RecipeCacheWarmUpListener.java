@@ -0,0 +1,23 @@
+package org.eatsy.appservice.service.cache;
+
+/**
+ * Receives progress notifications while the in-memory recipe cache is being warmed up.
+ * Chunks are loaded in parallel, so implementations must be thread-safe.
+ */
+public interface RecipeCacheWarmUpListener {
+
+    /**
+     * Called once, before any recipes are loaded.
+     *
+     * @param totalRecipes the number of recipes that will be loaded into the cache.
+     */
+    void warmUpStarted(int totalRecipes);
+
+    /**
+     * Called each time a chunk of recipes has been loaded and mapped.
+     *
+     * @param recipesInChunk the number of recipes in the chunk that has just completed.
+     */
+    void chunkLoaded(int recipesInChunk);
+
+}
@@ -0,0 +1,237 @@
+package org.eatsy.appservice.service.cache;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.domain.RecipeContentHash;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the in-memory recipe catalog.
+ * Every write produces a new snapshot rather than modifying this one, so a snapshot can be shared freely between
+ * threads and swapped in atomically by its owner. Readers always see a consistent catalog without locks.
+ * Snapshots share structure: the recipes are held in slots in catalog order, and looked up by key through a hash
+ * trie of their slots, both persistent tries 32 wide. A write copies only the few small arrays on the paths it
+ * changes, so adding, replacing or removing a recipe costs O(log32 n) rather than a copy of the whole catalog,
+ * and a batch of k recipes costs O(k log32 n). The list of all recipes is built once per snapshot, when first read.
+ */
+public final class RecipeCatalog {
+
+    //The catalog with no recipes in it.
+    private static final RecipeCatalog EMPTY = new RecipeCatalog(RecipeSlots.empty(), RecipeKeyIndex.empty());
+
+    //Slots left by removed recipes are compacted away once they outnumber the recipes and there are more than this many.
+    private static final int MIN_COMPACTED_SLOTS = 64;
+
+    //Recipes in catalog (insertion) order, with a null slot for each recipe removed since the slots were last compacted.
+    private final RecipeSlots slots;
+
+    //Lookup of the slot of each recipe by its unique key.
+    private final RecipeKeyIndex slotsByKey;
+
+    //When this snapshot was created, in milliseconds since the epoch.
+    private final long createdAt;
+
+    //Read-only list of the recipes in catalog order. Built on first use, as most snapshots are replaced before they are read in full.
+    private volatile List<Recipe> recipeList;
+
+    //Version of the snapshot's content. Computed on first use, as most snapshots are replaced before they are polled.
+    private volatile String version;
+
+    private RecipeCatalog(final RecipeSlots slots, final RecipeKeyIndex slotsByKey) {
+        this.slots = slots;
+        this.slotsByKey = slotsByKey;
+        createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the catalog with no recipes in it.
+     */
+    public static RecipeCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of recipes in this catalog.
+     */
+    public int size() {
+        return slotsByKey.size();
+    }
+
+    /**
+     * Retrieves the recipe with the specified key.
+     *
+     * @param recipeKey the unique key of the recipe.
+     * @return the recipe, or null if this catalog does not contain a recipe with that key.
+     */
+    public Recipe get(final String recipeKey) {
+        final int slot = slotOf(recipeKey);
+        return slot < 0 ? null : slots.get(slot);
+    }
+
+    /**
+     * @param recipeKey the unique key of the recipe.
+     * @return true if this catalog contains a recipe with the specified key.
+     */
+    public boolean contains(final String recipeKey) {
+        return slotOf(recipeKey) >= 0;
+    }
+
+    /**
+     * Read-only, random access view of all recipes in catalog order.
+     * The view is built once per snapshot, so only the first call allocates.
+     *
+     * @return all recipes in this catalog.
+     */
+    public List<Recipe> getRecipes() {
+        List<Recipe> recipes = recipeList;
+        if (null == recipes) {
+            //Racing threads build equal lists, so it is only published once built rather than locked.
+            final Recipe[] recipeArray = new Recipe[size()];
+            slots.copyRecipesTo(recipeArray);
+            recipes = Collections.unmodifiableList(Arrays.asList(recipeArray));
+            recipeList = recipes;
+        }
+        return recipes;
+    }
+
+    /**
+     * When this snapshot was created. Writes that change nothing keep the existing snapshot, so this is when the
+     * catalog last changed for as long as the snapshot is current.
+     *
+     * @return when this snapshot was created, in milliseconds since the epoch.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * The version of this snapshot, built from the key and cached content hash of each recipe in catalog order.
+     * Snapshots with the same recipes in the same order have the same version, even across restarts.
+     *
+     * @return the version of this snapshot's content, as 16 hex digits.
+     */
+    public String getVersion() {
+        String catalogVersion = version;
+        if (null == catalogVersion) {
+            //Racing threads compute the same value, so it is only published once computed rather than locked.
+            long catalogHash = 0;
+            for (final Recipe recipe : getRecipes()) {
+                catalogHash = RecipeContentHash.combine(
+                        RecipeContentHash.combine(catalogHash, RecipeContentHash.ofString(recipe.getKey())), recipe.getContentHash());
+            }
+            catalogVersion = RecipeContentHash.toHex(catalogHash);
+            version = catalogVersion;
+        }
+        return catalogVersion;
+    }
+
+    /**
+     * Creates a new catalog with the recipe added.
+     * If a recipe with the same key already exists it is replaced in its existing position,
+     * otherwise the recipe is added to the end of the catalog.
+     *
+     * @param recipe the recipe to add.
+     * @return the new catalog snapshot.
+     */
+    public RecipeCatalog withRecipe(final Recipe recipe) {
+        return withRecipes(Collections.singletonList(recipe));
+    }
+
+    /**
+     * Creates a new catalog with all the supplied recipes added.
+     * Recipes with keys that already exist replace the existing recipe in its position,
+     * all others are added to the end of the catalog in the order supplied.
+     *
+     * @param recipesToAdd the recipes to add.
+     * @return the new catalog snapshot, or this catalog if every recipe is already present and unchanged.
+     */
+    public RecipeCatalog withRecipes(final Collection<Recipe> recipesToAdd) {
+
+        RecipeSlots newSlots = slots;
+        RecipeKeyIndex newSlotsByKey = slotsByKey;
+        for (final Recipe recipe : recipesToAdd) {
+            final int slot = newSlotsByKey.slotOf(recipe.getKey());
+            if (slot < 0) {
+                newSlotsByKey = newSlotsByKey.withSlot(recipe.getKey(), newSlots.length());
+                newSlots = newSlots.append(recipe);
+            } else if (!recipe.equals(newSlots.get(slot))) {
+                newSlots = newSlots.with(slot, recipe);
+            }
+        }
+        return newSlots == slots ? this : new RecipeCatalog(newSlots, newSlotsByKey);
+    }
+
+    /**
+     * Creates a new catalog with the recipe that has the specified key removed.
+     *
+     * @param recipeKey the unique key of the recipe to remove.
+     * @return the new catalog snapshot, or this catalog if it does not contain the key.
+     */
+    public RecipeCatalog withoutRecipe(final String recipeKey) {
+
+        final int slot = slotOf(recipeKey);
+        if (slot < 0) {
+            return this;
+        }
+        return compacted(slots.with(slot, null), slotsByKey.without(recipeKey));
+    }
+
+    /**
+     * Creates a new catalog in which the recipe with the existing key is replaced by the supplied recipe.
+     * The replacement takes the position of the existing recipe, even if it has been assigned a different key.
+     * If there is no recipe with the existing key, the replacement is added to the end of the catalog.
+     *
+     * @param existingRecipeKey the unique key of the recipe being replaced.
+     * @param replacementRecipe the recipe to replace it with.
+     * @return the new catalog snapshot.
+     */
+    public RecipeCatalog withReplacedRecipe(final String existingRecipeKey, final Recipe replacementRecipe) {
+
+        final int slot = slotOf(existingRecipeKey);
+        if (slot < 0) {
+            return withRecipe(replacementRecipe);
+        }
+        RecipeSlots newSlots = slots;
+        RecipeKeyIndex newSlotsByKey = slotsByKey;
+        if (!existingRecipeKey.equals(replacementRecipe.getKey())) {
+            //Any other recipe already holding the replacement's key is superseded by the replacement.
+            final int supersededSlot = newSlotsByKey.slotOf(replacementRecipe.getKey());
+            if (supersededSlot >= 0) {
+                newSlots = newSlots.with(supersededSlot, null);
+            }
+            newSlotsByKey = newSlotsByKey.without(existingRecipeKey).withSlot(replacementRecipe.getKey(), slot);
+        }
+        return compacted(newSlots.with(slot, replacementRecipe), newSlotsByKey);
+    }
+
+    /**
+     * @param recipeKey the unique key of a recipe, or null.
+     * @return the slot of the recipe, or -1 if this catalog does not contain a recipe with that key.
+     */
+    private int slotOf(final String recipeKey) {
+        return null == recipeKey ? -1 : slotsByKey.slotOf(recipeKey);
+    }
+
+    /**
+     * Creates a catalog from slots that may have had recipes removed. Once most of the slots are empty, the recipes
+     * are copied into new slots without gaps. A copy needs as many removals again before the next, so it adds
+     * O(log32 n) to each removal on average.
+     *
+     * @param newSlots      the recipes of the new catalog.
+     * @param newSlotsByKey the slot of each recipe of the new catalog.
+     * @return the new catalog snapshot.
+     */
+    private static RecipeCatalog compacted(final RecipeSlots newSlots, final RecipeKeyIndex newSlotsByKey) {
+
+        if (newSlots.length() <= MIN_COMPACTED_SLOTS || newSlots.length() <= 2 * newSlotsByKey.size()) {
+            return new RecipeCatalog(newSlots, newSlotsByKey);
+        }
+        final Recipe[] recipes = new Recipe[newSlotsByKey.size()];
+        newSlots.copyRecipesTo(recipes);
+        return EMPTY.withRecipes(Arrays.asList(recipes));
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.eatsy.appservice.service.cache;
+
+import org.eatsy.appservice.domain.Recipe;
+
+/**
+ * Receives a notification for every recipe added to, replaced in or removed from the in-memory recipe cache,
+ * so that indexes over the cached recipes can be kept up to date incrementally.
+ * Notifications are delivered one at a time, in the order the cache changed.
+ */
+public interface RecipeChangeListener {
+
+    /**
+     * Called after a recipe in the cache has changed.
+     *
+     * @param previousRecipe the recipe as it was before the change, or null if the recipe has been added.
+     * @param currentRecipe  the recipe as it is after the change, or null if the recipe has been removed.
+     */
+    void recipeChanged(Recipe previousRecipe, Recipe currentRecipe);
+
+    /**
+     * Called after {@link #recipeChanged(Recipe, Recipe)} when the change was made by a write that created, updated
+     * or deleted the recipe, rather than by persisted recipes being loaded into the cache.
+     *
+     * @param previousRecipe the recipe as it was before the write, or null if the recipe has been created.
+     * @param currentRecipe  the recipe as it is after the write, or null if the recipe has been deleted.
+     */
+    default void recipeMutated(final Recipe previousRecipe, final Recipe currentRecipe) {
+    }
+
+}
@@ -0,0 +1,289 @@
+package org.eatsy.appservice.service.cache;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map of recipe key to the slot of the recipe in a {@link RecipeSlots}, stored as a hash array mapped trie.
+ * Each level of the trie consumes 5 bits of the key's hash, and a node only holds the children it has, marked in a
+ * bitmap. Adding or removing a key copies the nodes on its path, at most 7, and shares the rest with this index,
+ * so a write costs about the same however many keys the index holds.
+ */
+final class RecipeKeyIndex {
+
+    //Bits of the hash consumed by each level of the trie.
+    private static final int BITS_PER_LEVEL = 5;
+
+    //The index with no keys in it.
+    private static final RecipeKeyIndex EMPTY = new RecipeKeyIndex(BitmapNode.EMPTY, 0);
+
+    //The root of the trie.
+    private final Node root;
+
+    //The number of keys in the index.
+    private final int size;
+
+    private RecipeKeyIndex(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the index with no keys in it.
+     */
+    static RecipeKeyIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of keys in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param recipeKey the unique key of a recipe.
+     * @return the slot of the recipe, or -1 if the index does not hold the key.
+     */
+    int slotOf(final String recipeKey) {
+        final Integer slot = root.find(0, recipeKey.hashCode(), recipeKey);
+        return null == slot ? -1 : slot;
+    }
+
+    /**
+     * @param recipeKey the unique key of a recipe.
+     * @param slot      the slot of the recipe.
+     * @return the index with the key at the slot, or this index if the key is already at the slot.
+     */
+    RecipeKeyIndex withSlot(final String recipeKey, final int slot) {
+        final boolean[] added = new boolean[1];
+        final Node newRoot = root.put(0, recipeKey.hashCode(), recipeKey, slot, added);
+        return newRoot == root ? this : new RecipeKeyIndex(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @param recipeKey the unique key of a recipe.
+     * @return the index without the key, or this index if it does not hold the key.
+     */
+    RecipeKeyIndex without(final String recipeKey) {
+        final Node newRoot = root.remove(0, recipeKey.hashCode(), recipeKey);
+        if (newRoot == root) {
+            return this;
+        }
+        return null == newRoot ? EMPTY : new RecipeKeyIndex(newRoot, size - 1);
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private interface Node {
+
+        /**
+         * @return the slot of the key, or null if the node does not hold the key.
+         */
+        Integer find(int shift, int hash, String recipeKey);
+
+        /**
+         * @param added set to true if the key was not already held.
+         * @return the node with the key at the slot, or this node if the key is already at the slot.
+         */
+        Node put(int shift, int hash, String recipeKey, Integer slot, boolean[] added);
+
+        /**
+         * @return the node without the key, this node if it does not hold the key, or null if nothing is left.
+         */
+        Node remove(int shift, int hash, String recipeKey);
+    }
+
+    /**
+     * A node holding a key and slot, or a child node, for each 5 bit hash fragment in its bitmap.
+     * The entries are packed in pairs, a key and its slot, or null and the child node.
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] entries;
+
+        private BitmapNode(final int bitmap, final Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+        }
+
+        @Override
+        public Integer find(final int shift, final int hash, final String recipeKey) {
+
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int entry = 2 * Integer.bitCount(bitmap & (bit - 1));
+            final Object key = entries[entry];
+            if (null == key) {
+                return ((Node) entries[entry + 1]).find(shift + BITS_PER_LEVEL, hash, recipeKey);
+            }
+            return recipeKey.equals(key) ? (Integer) entries[entry + 1] : null;
+        }
+
+        @Override
+        public Node put(final int shift, final int hash, final String recipeKey, final Integer slot, final boolean[] added) {
+
+            final int bit = bitFor(hash, shift);
+            final int entry = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                final Object[] newEntries = new Object[entries.length + 2];
+                System.arraycopy(entries, 0, newEntries, 0, entry);
+                newEntries[entry] = recipeKey;
+                newEntries[entry + 1] = slot;
+                System.arraycopy(entries, entry, newEntries, entry + 2, entries.length - entry);
+                return new BitmapNode(bitmap | bit, newEntries);
+            }
+
+            final Object key = entries[entry];
+            final Object value = entries[entry + 1];
+            if (null == key) {
+                final Node child = (Node) value;
+                final Node newChild = child.put(shift + BITS_PER_LEVEL, hash, recipeKey, slot, added);
+                return newChild == child ? this : withEntry(entry + 1, newChild);
+            }
+            if (recipeKey.equals(key)) {
+                return slot.equals(value) ? this : withEntry(entry + 1, slot);
+            }
+
+            //Another key shares this hash fragment, so both move down into a new child node.
+            added[0] = true;
+            final String existingKey = (String) key;
+            final Node child = newChild(shift + BITS_PER_LEVEL, existingKey.hashCode(), existingKey, (Integer) value,
+                    hash, recipeKey, slot);
+            final Object[] newEntries = entries.clone();
+            newEntries[entry] = null;
+            newEntries[entry + 1] = child;
+            return new BitmapNode(bitmap, newEntries);
+        }
+
+        @Override
+        public Node remove(final int shift, final int hash, final String recipeKey) {
+
+            final int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int entry = 2 * Integer.bitCount(bitmap & (bit - 1));
+            final Object key = entries[entry];
+            if (null == key) {
+                final Node child = (Node) entries[entry + 1];
+                final Node newChild = child.remove(shift + BITS_PER_LEVEL, hash, recipeKey);
+                if (newChild == child) {
+                    return this;
+                }
+                if (null != newChild) {
+                    return withEntry(entry + 1, newChild);
+                }
+            } else if (!recipeKey.equals(key)) {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] newEntries = new Object[entries.length - 2];
+            System.arraycopy(entries, 0, newEntries, 0, entry);
+            System.arraycopy(entries, entry + 2, newEntries, entry, entries.length - entry - 2);
+            return new BitmapNode(bitmap ^ bit, newEntries);
+        }
+
+        private BitmapNode withEntry(final int entry, final Object value) {
+            final Object[] newEntries = entries.clone();
+            newEntries[entry] = value;
+            return new BitmapNode(bitmap, newEntries);
+        }
+
+        /**
+         * Creates a node holding two keys.
+         */
+        private static Node newChild(final int shift, final int firstHash, final String firstKey, final Integer firstSlot,
+                                     final int secondHash, final String secondKey, final Integer secondSlot) {
+            if (firstHash == secondHash) {
+                return new CollisionNode(firstHash, new Object[]{firstKey, firstSlot, secondKey, secondSlot});
+            }
+            final boolean[] added = new boolean[1];
+            return EMPTY.put(shift, firstHash, firstKey, firstSlot, added).put(shift, secondHash, secondKey, secondSlot, added);
+        }
+
+        private static int bitFor(final int hash, final int shift) {
+            return 1 << ((hash >>> shift) & 31);
+        }
+    }
+
+    /**
+     * A node holding the keys that have the same hash, as pairs of a key and its slot.
+     * Keys with different hashes always differ within the 32 bits of the hash, so never reach the same collision node.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final int hash;
+        private final Object[] entries;
+
+        private CollisionNode(final int hash, final Object[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        @Override
+        public Integer find(final int shift, final int hash, final String recipeKey) {
+            final int entry = entryOf(recipeKey);
+            return entry < 0 ? null : (Integer) entries[entry + 1];
+        }
+
+        @Override
+        public Node put(final int shift, final int hash, final String recipeKey, final Integer slot, final boolean[] added) {
+
+            if (hash != this.hash) {
+                //Only reached while the hashes still share their fragments so far, so this node moves down a level.
+                return new BitmapNode(BitmapNode.bitFor(this.hash, shift), new Object[]{null, this})
+                        .put(shift, hash, recipeKey, slot, added);
+            }
+            final int entry = entryOf(recipeKey);
+            if (entry >= 0) {
+                if (slot.equals(entries[entry + 1])) {
+                    return this;
+                }
+                final Object[] newEntries = entries.clone();
+                newEntries[entry + 1] = slot;
+                return new CollisionNode(hash, newEntries);
+            }
+            added[0] = true;
+            final Object[] newEntries = Arrays.copyOf(entries, entries.length + 2);
+            newEntries[entries.length] = recipeKey;
+            newEntries[entries.length + 1] = slot;
+            return new CollisionNode(hash, newEntries);
+        }
+
+        @Override
+        public Node remove(final int shift, final int hash, final String recipeKey) {
+
+            final int entry = entryOf(recipeKey);
+            if (entry < 0) {
+                return this;
+            }
+            if (entries.length == 2) {
+                return null;
+            }
+            final Object[] newEntries = new Object[entries.length - 2];
+            System.arraycopy(entries, 0, newEntries, 0, entry);
+            System.arraycopy(entries, entry + 2, newEntries, entry, entries.length - entry - 2);
+            return new CollisionNode(hash, newEntries);
+        }
+
+        private int entryOf(final String recipeKey) {
+            for (int entry = 0; entry < entries.length; entry += 2) {
+                if (recipeKey.equals(entries[entry])) {
+                    return entry;
+                }
+            }
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.eatsy.appservice.service.cache;
+
+import org.eatsy.appservice.domain.Recipe;
+
+/**
+ * Immutable, ordered sequence of recipe slots, stored as a trie of 32 slot arrays.
+ * A slot holds a recipe, or null once its recipe has been removed, so the slots of the other recipes never move.
+ * Setting or appending a slot copies the arrays on its path, one per level, and shares the rest with this sequence,
+ * so a write costs about the same however many slots there are.
+ */
+final class RecipeSlots {
+
+    //Bits of the slot number consumed by each level of the trie.
+    private static final int BITS_PER_LEVEL = 5;
+
+    //Slots in each array of the trie.
+    private static final int WIDTH = 1 << BITS_PER_LEVEL;
+
+    //The sequence with no slots.
+    private static final RecipeSlots EMPTY = new RecipeSlots(new Object[WIDTH], 0, 0);
+
+    //The root array of the trie. Arrays below the leaves hold recipes, the others hold the arrays of the next level.
+    private final Object[] root;
+
+    //The number of bits of the slot number consumed below the root, 0 when the root holds recipes.
+    private final int shift;
+
+    //The number of slots, including those whose recipe has been removed.
+    private final int length;
+
+    private RecipeSlots(final Object[] root, final int shift, final int length) {
+        this.root = root;
+        this.shift = shift;
+        this.length = length;
+    }
+
+    /**
+     * @return the sequence with no slots.
+     */
+    static RecipeSlots empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return the number of slots, including those whose recipe has been removed.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * @param slot the slot, from 0 to length() - 1.
+     * @return the recipe in the slot, or null if it has been removed.
+     */
+    Recipe get(final int slot) {
+        Object[] slots = root;
+        for (int level = shift; level > 0; level -= BITS_PER_LEVEL) {
+            slots = (Object[]) slots[(slot >>> level) & (WIDTH - 1)];
+        }
+        return (Recipe) slots[slot & (WIDTH - 1)];
+    }
+
+    /**
+     * @param slot   the slot, from 0 to length() - 1.
+     * @param recipe the recipe to put in the slot, or null to empty it.
+     * @return the sequence with the recipe in the slot.
+     */
+    RecipeSlots with(final int slot, final Recipe recipe) {
+        return new RecipeSlots(withSlot(root, shift, slot, recipe), shift, length);
+    }
+
+    /**
+     * @param recipe the recipe to add.
+     * @return the sequence with the recipe in a new slot at the end, numbered length().
+     */
+    RecipeSlots append(final Recipe recipe) {
+
+        if (length < WIDTH << shift) {
+            return new RecipeSlots(withSlot(root, shift, length, recipe), shift, length + 1);
+        }
+        //The trie is full, so it gains a level, with the current root as the first array of the new one.
+        final Object[] newRoot = new Object[WIDTH];
+        newRoot[0] = root;
+        final int newShift = shift + BITS_PER_LEVEL;
+        return new RecipeSlots(withSlot(newRoot, newShift, length, recipe), newShift, length + 1);
+    }
+
+    /**
+     * Copies the recipes, skipping removed slots, in slot order.
+     *
+     * @param recipes the array to copy the recipes into, at least as long as the number of recipes.
+     * @return the number of recipes copied.
+     */
+    int copyRecipesTo(final Recipe[] recipes) {
+        return copyRecipes(root, shift, recipes, 0);
+    }
+
+    private int copyRecipes(final Object[] slots, final int level, final Recipe[] recipes, final int copied) {
+
+        int recipeCount = copied;
+        for (final Object slot : slots) {
+            if (null == slot) {
+                continue;
+            }
+            if (level == 0) {
+                recipes[recipeCount++] = (Recipe) slot;
+            } else {
+                recipeCount = copyRecipes((Object[]) slot, level - BITS_PER_LEVEL, recipes, recipeCount);
+            }
+        }
+        return recipeCount;
+    }
+
+    private static Object[] withSlot(final Object[] slots, final int level, final int slot, final Recipe recipe) {
+
+        final Object[] newSlots = null == slots ? new Object[WIDTH] : slots.clone();
+        if (level == 0) {
+            newSlots[slot & (WIDTH - 1)] = recipe;
+        } else {
+            final int child = (slot >>> level) & (WIDTH - 1);
+            newSlots[child] = withSlot((Object[]) newSlots[child], level - BITS_PER_LEVEL, slot, recipe);
+        }
+        return newSlots;
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.eatsy.appservice.service.changefeed;
+
+/**
+ * Interface for subscribing to the created, updated and deleted recipes.
+ */
+public interface RecipeChangeFeed {
+
+    /**
+     * Subscribes to the changes made from now on, first replaying any changes made after the given event.
+     * If the changes since that event are no longer held, or there are more of them than the subscriber can be sent at
+     * once, the subscriber is told they were missed instead.
+     *
+     * @param lastEventId            the id of the last event the subscriber received, or null to start from now.
+     * @param recipeChangeSubscriber the subscriber to the changes.
+     */
+    void subscribe(String lastEventId, RecipeChangeSubscriber recipeChangeSubscriber);
+
+    /**
+     * Stops sending changes to the subscriber. Does nothing if the subscriber is not subscribed.
+     *
+     * @param recipeChangeSubscriber the subscriber to remove.
+     */
+    void unsubscribe(RecipeChangeSubscriber recipeChangeSubscriber);
+
+}
@@ -0,0 +1,164 @@
+package org.eatsy.appservice.service.changefeed;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.domain.RecipeContentHash;
+import org.eatsy.appservice.model.RecipeChangeEventModel;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Recipe Change Feed implementation
+ * Tagged with @Component for dependency injection
+ * <p>
+ * Turns every recipe write into an event and passes it to the subscribers. The most recent events are held in a
+ * bounded ring so a subscriber that reconnects can resume from the last event it received. Event ids are made of an
+ * id for this instance of the feed and a sequence number, so an id from before a restart is recognised as unknown
+ * rather than replaying the wrong events.
+ */
+@Component
+public class RecipeChangeFeedHandler implements RecipeChangeFeed, RecipeChangeListener {
+
+    //logger
+    private static final Logger logger = LogManager.getLogger(RecipeChangeFeedHandler.class);
+
+    //Separates the stream id from the sequence number in an event id.
+    private static final char EVENT_ID_SEPARATOR = '-';
+
+    //Identifies this instance of the feed in event ids.
+    private final String streamId = UUID.randomUUID().toString();
+
+    //The most recent events, the event with sequence number n held at n % length. Guarded by feedLock.
+    private final RecipeChangeEventModel[] recentEvents;
+
+    //Sequence number of the next event. Guarded by feedLock.
+    private long nextSequence = 1;
+
+    //Current subscribers. Copy on write so a subscriber can unsubscribe while an event is being published to it.
+    private final List<RecipeChangeSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    //Orders publishing against subscribing, so a subscriber neither misses nor repeats an event.
+    private final Object feedLock = new Object();
+
+    //Inject the number of events held for resuming subscribers during instantiation.
+    public RecipeChangeFeedHandler(@Value("${eatsy.change-feed.capacity:10000}") final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The change feed capacity must be at least 1");
+        }
+        recentEvents = new RecipeChangeEventModel[capacity];
+    }
+
+    /**
+     * Publishes a recipe write to the subscribers.
+     *
+     * @param previousRecipe the recipe as it was before the write, or null if the recipe has been created.
+     * @param currentRecipe  the recipe as it is after the write, or null if the recipe has been deleted.
+     */
+    @Override
+    public void recipeMutated(final Recipe previousRecipe, final Recipe currentRecipe) {
+
+        final RecipeChangeEventModel recipeChangeEvent = new RecipeChangeEventModel();
+        if (null == previousRecipe) {
+            recipeChangeEvent.setType(RecipeChangeEventModel.CREATED);
+        } else if (null == currentRecipe) {
+            recipeChangeEvent.setType(RecipeChangeEventModel.DELETED);
+        } else {
+            recipeChangeEvent.setType(RecipeChangeEventModel.UPDATED);
+        }
+        if (null == currentRecipe) {
+            recipeChangeEvent.setRecipeKey(previousRecipe.getKey());
+        } else {
+            recipeChangeEvent.setRecipeKey(currentRecipe.getKey());
+            recipeChangeEvent.setVersion(RecipeContentHash.toHex(currentRecipe.getContentHash()));
+        }
+
+        synchronized (feedLock) {
+            final long sequence = nextSequence++;
+            recipeChangeEvent.setId(streamId + EVENT_ID_SEPARATOR + sequence);
+            recentEvents[(int) (sequence % recentEvents.length)] = recipeChangeEvent;
+            for (final RecipeChangeSubscriber subscriber : subscribers) {
+                publish(subscriber, recipeChangeEvent);
+            }
+        }
+    }
+
+    /**
+     * Changes are only published for recipe writes, not for recipes loaded into the cache.
+     */
+    @Override
+    public void recipeChanged(final Recipe previousRecipe, final Recipe currentRecipe) {
+    }
+
+    @Override
+    public void subscribe(final String lastEventId, final RecipeChangeSubscriber recipeChangeSubscriber) {
+
+        synchronized (feedLock) {
+            if (null != lastEventId) {
+                final long lastSequence = parseSequence(lastEventId);
+                final long oldestHeldSequence = Math.max(1, nextSequence - recentEvents.length);
+                if (lastSequence < 0 || lastSequence >= nextSequence || lastSequence + 1 < oldestHeldSequence
+                        || nextSequence - 1 - lastSequence > recipeChangeSubscriber.maxReplayedChanges()) {
+                    //A replay larger than the subscriber can take would only get it disconnected again,
+                    //so it reloads the recipes instead.
+                    recipeChangeSubscriber.changesMissed(latestEventId());
+                } else {
+                    for (long sequence = lastSequence + 1; sequence < nextSequence; sequence++) {
+                        publish(recipeChangeSubscriber, recentEvents[(int) (sequence % recentEvents.length)]);
+                    }
+                }
+            }
+            subscribers.add(recipeChangeSubscriber);
+        }
+    }
+
+    @Override
+    public void unsubscribe(final RecipeChangeSubscriber recipeChangeSubscriber) {
+        subscribers.remove(recipeChangeSubscriber);
+    }
+
+    /**
+     * @return the id of the latest event published. Before any event is published, an id that resumes from the start.
+     */
+    String latestEventId() {
+        synchronized (feedLock) {
+            return streamId + EVENT_ID_SEPARATOR + (nextSequence - 1);
+        }
+    }
+
+    /**
+     * Reads the sequence number from an event id.
+     *
+     * @param eventId the event id.
+     * @return the sequence number, or -1 if the event id was not issued by this instance of the feed.
+     */
+    private long parseSequence(final String eventId) {
+
+        final int separatorIndex = eventId.lastIndexOf(EVENT_ID_SEPARATOR);
+        if (separatorIndex != streamId.length() || !eventId.startsWith(streamId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separatorIndex + 1));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Passes an event to a subscriber. A failing subscriber is logged rather than failing the recipe write.
+     */
+    private static void publish(final RecipeChangeSubscriber subscriber, final RecipeChangeEventModel recipeChangeEvent) {
+        try {
+            subscriber.changePublished(recipeChangeEvent);
+        } catch (final RuntimeException e) {
+            logger.error("Recipe change subscriber {} failed", subscriber.getClass().getSimpleName(), e);
+        }
+    }
+
+}
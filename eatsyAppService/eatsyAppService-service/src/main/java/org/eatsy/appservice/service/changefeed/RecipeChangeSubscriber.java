@@ -0,0 +1,34 @@
+package org.eatsy.appservice.service.changefeed;
+
+import org.eatsy.appservice.model.RecipeChangeEventModel;
+
+/**
+ * Receives the events of the recipe change feed it is subscribed to.
+ * Events are delivered on the thread that changed the recipe, so implementations must hand them off rather than block.
+ */
+public interface RecipeChangeSubscriber {
+
+    /**
+     * Called for each recipe change, in the order the changes were made.
+     *
+     * @param recipeChangeEvent the change.
+     */
+    void changePublished(RecipeChangeEventModel recipeChangeEvent);
+
+    /**
+     * Called when the subscriber resumed the feed from an event that is no longer held, so some changes cannot be
+     * replayed. The subscriber should reload the recipes it is interested in, then resume from the given event.
+     *
+     * @param latestEventId the id of the latest event published, which the reloaded recipes already reflect.
+     */
+    void changesMissed(String latestEventId);
+
+    /**
+     * The most changes the subscriber can be sent at once when it resumes. A subscriber that has missed more changes
+     * than this is told they were missed instead of being sent them, e.g. as they would overflow its bounded queue.
+     *
+     * @return the most changes that may be replayed to the subscriber.
+     */
+    int maxReplayedChanges();
+
+}
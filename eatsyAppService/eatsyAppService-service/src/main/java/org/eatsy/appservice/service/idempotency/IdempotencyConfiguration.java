@@ -0,0 +1,27 @@
+package org.eatsy.appservice.service.idempotency;
+
+import org.eatsy.appservice.model.RecipeModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the idempotency store used to absorb retried recipe creation requests.
+ */
+@Configuration
+public class IdempotencyConfiguration {
+
+    /**
+     * @param maxEntries        the maximum number of recipe creation results held.
+     * @param timeToLiveSeconds how long a result is held for retries.
+     * @return the store of recent recipe creation results.
+     */
+    @Bean
+    public IdempotencyStore<RecipeModel> createRecipeIdempotencyStore(
+            @Value("${eatsy.idempotency.max-entries:10000}") final int maxEntries,
+            @Value("${eatsy.idempotency.ttl-seconds:86400}") final long timeToLiveSeconds) {
+        return new IdempotencyStore<>(maxEntries, timeToLiveSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,14 @@
+package org.eatsy.appservice.service.idempotency;
+
+/**
+ * Thrown when an idempotency key that has already been used is sent again with a different request.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    /**
+     * @param idempotencyKey the idempotency key that was reused.
+     */
+    public IdempotencyKeyReuseException(final String idempotencyKey) {
+        super("Idempotency key " + idempotencyKey + " has already been used for a different request");
+    }
+}
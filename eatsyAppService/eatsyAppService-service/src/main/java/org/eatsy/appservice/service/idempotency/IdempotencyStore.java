@@ -0,0 +1,152 @@
+package org.eatsy.appservice.service.idempotency;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited store of the results of recent requests, keyed by the client supplied idempotency key.
+ * A request that is retried with the same key receives the result of the original request rather than repeating
+ * the operation. A retry that arrives while the original is still running waits for it to finish.
+ * Entries expire after the time-to-live and the oldest entries are evicted once the store is full.
+ *
+ * @param <V> the type of result stored.
+ */
+public final class IdempotencyStore<V> {
+
+    //Maximum number of results held. Once full the oldest entry is evicted.
+    private final int maxEntries;
+
+    //How long a result is held before the key can be used for a new request.
+    private final long timeToLiveNanos;
+
+    //Source of the current time, in nanoseconds.
+    private final LongSupplier nanoClock;
+
+    //Entries in the order they were created, which is also the order in which they expire. Guarded by itself.
+    private final LinkedHashMap<String, StoredResult<V>> entries;
+
+    /**
+     * @param maxEntries the maximum number of results held.
+     * @param timeToLive how long a result is held.
+     * @param unit       the unit of the time to live.
+     */
+    public IdempotencyStore(final int maxEntries, final long timeToLive, final TimeUnit unit) {
+        this(maxEntries, timeToLive, unit, System::nanoTime);
+    }
+
+    /**
+     * @param maxEntries the maximum number of results held.
+     * @param timeToLive how long a result is held.
+     * @param unit       the unit of the time to live.
+     * @param nanoClock  the source of the current time, in nanoseconds.
+     */
+    public IdempotencyStore(final int maxEntries, final long timeToLive, final TimeUnit unit, final LongSupplier nanoClock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<String, StoredResult<V>>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, StoredResult<V>> eldest) {
+                return size() > IdempotencyStore.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Runs the operation once per idempotency key.
+     * The first request with a key runs the operation and its result is stored. Repeated requests with the same key
+     * and the same request content are given the stored result without running the operation again.
+     * If the operation fails nothing is stored, so the request can be retried.
+     *
+     * @param idempotencyKey the client supplied key identifying the request.
+     * @param request        the content of the request, used to check a repeated key is for the same request.
+     * @param operation      the operation to run for the first request with this key.
+     * @return the result of the operation for the first request with this key.
+     * @throws IdempotencyKeyReuseException if the key has already been used for a request with different content.
+     */
+    public V execute(final String idempotencyKey, final Object request, final Supplier<V> operation) {
+
+        final StoredResult<V> entry;
+        final boolean firstRequest;
+        synchronized (entries) {
+            final long now = nanoClock.getAsLong();
+            removeExpiredEntries(now);
+            final StoredResult<V> existingEntry = entries.get(idempotencyKey);
+            firstRequest = null == existingEntry;
+            entry = firstRequest ? new StoredResult<>(request, now + timeToLiveNanos) : existingEntry;
+            if (firstRequest) {
+                entries.put(idempotencyKey, entry);
+            }
+        }
+
+        if (!Objects.equals(entry.request, request)) {
+            throw new IdempotencyKeyReuseException(idempotencyKey);
+        }
+        if (firstRequest) {
+            return runOperation(idempotencyKey, entry, operation);
+        }
+        try {
+            return entry.result.join();
+        } catch (final CompletionException e) {
+            //The original request failed; its failure is reported to anyone who was waiting on it.
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * @return the number of results currently held, including any that have expired but not yet been removed.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private V runOperation(final String idempotencyKey, final StoredResult<V> entry, final Supplier<V> operation) {
+        try {
+            final V result = operation.get();
+            entry.result.complete(result);
+            return result;
+        } catch (final RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(idempotencyKey, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes expired entries. Every entry has the same time to live, so they expire in creation order
+     * and only the head of the map needs to be checked.
+     */
+    private void removeExpiredEntries(final long now) {
+        final Iterator<StoredResult<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAtNanos - now <= 0) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The request seen for an idempotency key and its (possibly still pending) result.
+     */
+    private static final class StoredResult<V> {
+
+        private final Object request;
+        private final long expiresAtNanos;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private StoredResult(final Object request, final long expiresAtNanos) {
+            this.request = request;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+}
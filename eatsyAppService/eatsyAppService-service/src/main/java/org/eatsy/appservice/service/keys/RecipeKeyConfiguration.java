@@ -0,0 +1,36 @@
+package org.eatsy.appservice.service.keys;
+
+import org.eatsy.appservice.domain.RandomUuidRecipeKeyGenerator;
+import org.eatsy.appservice.domain.RecipeKeyGenerator;
+import org.eatsy.appservice.domain.TimeOrderedUuidRecipeKeyGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the key generation strategy used for new recipes.
+ */
+@Configuration
+public class RecipeKeyConfiguration {
+
+    /**
+     * @param strategy "time-ordered" for time-ordered (version 7) UUID keys or "random" for random (version 4) UUID keys.
+     * @return the key generator, injected into the recipe mapper to generate the keys of new recipes.
+     */
+    @Bean
+    public RecipeKeyGenerator recipeKeyGenerator(@Value("${eatsy.recipes.key-generator:time-ordered}") final String strategy) {
+
+        final RecipeKeyGenerator recipeKeyGenerator;
+        switch (strategy.trim()) {
+            case "time-ordered":
+                recipeKeyGenerator = new TimeOrderedUuidRecipeKeyGenerator();
+                break;
+            case "random":
+                recipeKeyGenerator = new RandomUuidRecipeKeyGenerator();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown recipe key generator: " + strategy);
+        }
+        return recipeKeyGenerator;
+    }
+}
@@ -0,0 +1,55 @@
+package org.eatsy.appservice.service.pantry;
+
+/**
+ * A small counter for every document, stored bit-sliced: plane p holds bit p of every document's count, 64 documents
+ * to a word. Adding one to the counts of up to 64 documents is then a handful of word operations, whatever the
+ * number of documents being added to.
+ */
+final class BitSlicedCounter {
+
+    //planes[p][word] holds bit p of the counts of documents word * 64 to word * 64 + 63.
+    private final long[][] planes;
+
+    private final int words;
+
+    /**
+     * @param planeCount the number of bits per count. Counts must not exceed 2^planeCount - 1.
+     * @param words      the number of 64 document words to count.
+     */
+    BitSlicedCounter(final int planeCount, final int words) {
+        this.planes = new long[planeCount][words];
+        this.words = words;
+    }
+
+    /**
+     * Adds one to the count of each document whose bit is set.
+     *
+     * @param word      the word of documents.
+     * @param documents the documents in the word to add to.
+     */
+    void add(final int word, final long documents) {
+        long carry = documents;
+        for (int plane = 0; plane < planes.length && carry != 0; plane++) {
+            final long bits = planes[plane][word];
+            planes[plane][word] = bits ^ carry;
+            carry = bits & carry;
+        }
+    }
+
+    /**
+     * @param plane the bit of the counts.
+     * @param word  the word of documents.
+     * @return the bit of the counts of the 64 documents in the word.
+     */
+    long plane(final int plane, final int word) {
+        return plane < planes.length ? planes[plane][word] : 0;
+    }
+
+    /**
+     * @return the number of 64 document words counted.
+     */
+    int words() {
+        return words;
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.eatsy.appservice.service.pantry;
+
+import org.eatsy.appservice.model.PantryMatchModel;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Interface for finding the recipes that can be made from the ingredients in a pantry.
+ */
+public interface PantryMatcher {
+
+    /**
+     * Finds the recipes whose ingredients are all in the pantry.
+     *
+     * @param pantryIngredients the ingredients in the pantry.
+     * @param limit             the maximum number of recipes to return.
+     * @return the recipes that can be made from the pantry alone.
+     */
+    default List<PantryMatchModel> findRecipesCoveredBy(final Set<String> pantryIngredients, final int limit) {
+        return findRecipesMissingAtMost(pantryIngredients, 0, limit);
+    }
+
+    /**
+     * Finds the recipes that need at most the given number of ingredients that are not in the pantry.
+     *
+     * @param pantryIngredients     the ingredients in the pantry.
+     * @param maxMissingIngredients the maximum number of ingredients a recipe may need that are not in the pantry.
+     * @param limit                 the maximum number of recipes to return.
+     * @return the matching recipes with their missing ingredients, those missing the fewest ingredients first.
+     */
+    List<PantryMatchModel> findRecipesMissingAtMost(Set<String> pantryIngredients, int maxMissingIngredients, int limit);
+
+}
@@ -0,0 +1,355 @@
+package org.eatsy.appservice.service.pantry;
+
+import org.eatsy.appservice.domain.IngredientDictionary;
+import org.eatsy.appservice.domain.IngredientSet;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.PantryMatchModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pantry Matcher implementation
+ * Tagged with @Component for dependency injection
+ * <p>
+ * Keeps an inverted index from ingredient to the recipes that use it, updated as the recipe cache changes, so it
+ * covers the whole catalog once the cache has been warmed up.
+ * Each cached recipe is given a dense document number. For a query, the posting lists of the pantry ingredients are
+ * added into a bit-sliced count of how many of each recipe's ingredients are in the pantry, and the recipes whose
+ * count plus the allowed number of missing ingredients reaches their own (also bit-sliced) ingredient count are
+ * selected 64 at a time with word operations. Only the selected recipes are ever looked at individually.
+ */
+@Component
+public class PantryMatcherHandler implements PantryMatcher, RecipeChangeListener {
+
+    //Maximum number of matching recipes returned by a query.
+    public static final int MAX_MATCHES = 200;
+
+    //Number of 64 document words counted and selected at a time (16384 documents).
+    private static final int BLOCK_WORDS = 256;
+
+    //Recipe Mapper implementation
+    private final RecipeMapper recipeMapperHandler;
+
+    //Dictionary the recipes' ingredient ids belong to.
+    private final IngredientDictionary ingredientDictionary = IngredientDictionary.global();
+
+    //Queries share the read lock, recipe changes take the write lock. Guards all of the index state below.
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    //Document number of each indexed recipe key.
+    private final Map<String, Integer> documentsByRecipeKey = new HashMap<>();
+
+    //Recipe held by each document number, null for free document numbers.
+    private Recipe[] recipesByDocument = new Recipe[64];
+
+    //Bitmap of the document numbers currently holding a recipe.
+    private long[] liveDocuments = new long[1];
+
+    //Bit-sliced ingredient count of each document: plane p holds bit p of every document's count.
+    private long[][] ingredientCountPlanes = new long[0][];
+
+    //Document numbers freed by removed recipes, reused before new numbers so the documents stay dense.
+    private int[] freeDocuments = new int[16];
+    private int freeDocumentCount;
+
+    //One past the highest document number ever used.
+    private int documentLimit;
+
+    //Posting list of each ingredient, indexed by ingredient dictionary id. Null for ingredients no recipe has used.
+    private PostingList[] postingsByIngredientId = new PostingList[256];
+
+    //Inject the dependency of the recipeMapper implementation into the PantryMatcherHandler during instantiation.
+    public PantryMatcherHandler(final RecipeMapper recipeMapperHandler) {
+        this.recipeMapperHandler = recipeMapperHandler;
+    }
+
+    /**
+     * Keeps the index up to date with the recipe cache.
+     *
+     * @param previousRecipe the recipe as it was before the change, or null if the recipe has been added.
+     * @param currentRecipe  the recipe as it is after the change, or null if the recipe has been removed.
+     */
+    @Override
+    public void recipeChanged(final Recipe previousRecipe, final Recipe currentRecipe) {
+
+        indexLock.writeLock().lock();
+        try {
+            if (null != previousRecipe) {
+                removeRecipe(previousRecipe.getKey());
+            }
+            if (null != currentRecipe) {
+                //A replaced recipe may keep its key, so clear out whatever the key held before.
+                removeRecipe(currentRecipe.getKey());
+                addRecipe(currentRecipe);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes that need at most the given number of ingredients that are not in the pantry.
+     *
+     * @param pantryIngredients     the ingredients in the pantry.
+     * @param maxMissingIngredients the maximum number of ingredients a recipe may need that are not in the pantry.
+     * @param limit                 the maximum number of recipes to return, at most MAX_MATCHES.
+     * @return the matching recipes with their missing ingredients, those missing the fewest ingredients first.
+     */
+    @Override
+    public List<PantryMatchModel> findRecipesMissingAtMost(final Set<String> pantryIngredients,
+                                                           final int maxMissingIngredients, final int limit) {
+
+        if (maxMissingIngredients < 0) {
+            throw new InvalidRequestParameterException("The maximum number of missing ingredients cannot be negative");
+        }
+        if (limit < 1 || limit > MAX_MATCHES) {
+            throw new InvalidRequestParameterException("The limit must be between 1 and " + MAX_MATCHES);
+        }
+
+        //Pantry ingredients no recipe has ever used cannot match anything, so are not looked up any further.
+        final BitSet pantryIngredientIds = new BitSet();
+        if (null != pantryIngredients) {
+            for (final String pantryIngredient : pantryIngredients) {
+                final int ingredientId = ingredientDictionary.findId(pantryIngredient);
+                if (ingredientId >= 0) {
+                    pantryIngredientIds.set(ingredientId);
+                }
+            }
+        }
+
+        indexLock.readLock().lock();
+        try {
+            //A recipe cannot be missing more ingredients than it has, so allowing more than the largest ingredient count
+            //the count planes can hold matches nothing extra. This also bounds the per-missing-count work below.
+            final int allowedMissing = Math.min(maxMissingIngredients, (1 << ingredientCountPlanes.length) - 1);
+            final int words = documentWords();
+            final BitSlicedCounter matchedCounts = new BitSlicedCounter(bitsFor(pantryIngredientIds.cardinality()), words);
+
+            //Sparse posting lists are small, so are counted straight away. Dense ones are counted a block at a time below.
+            final List<PostingList> densePostings = new ArrayList<>();
+            for (int ingredientId = pantryIngredientIds.nextSetBit(0); ingredientId >= 0;
+                 ingredientId = pantryIngredientIds.nextSetBit(ingredientId + 1)) {
+                final PostingList postings = ingredientId < postingsByIngredientId.length ? postingsByIngredientId[ingredientId] : null;
+                if (null == postings) {
+                    continue;
+                }
+                if (postings.isDense()) {
+                    densePostings.add(postings);
+                } else {
+                    postings.addTo(matchedCounts);
+                }
+            }
+
+            //Enough planes to hold both matched + missing and every recipe's ingredient count without overflowing.
+            final int planeCount = Math.max(1, Math.max(
+                    bitsFor(pantryIngredientIds.cardinality() + allowedMissing), ingredientCountPlanes.length));
+            final long[] sumPlanes = new long[planeCount];
+
+            //Matching documents by the number of ingredients they are missing, each in document order.
+            final List<List<Integer>> documentsByMissing = new ArrayList<>();
+            for (int missing = 0; missing <= allowedMissing; missing++) {
+                documentsByMissing.add(new ArrayList<>());
+            }
+
+            //Count and select a block of documents at a time, so the counts being compared are still in cache, and so
+            //the search can stop as soon as the limit has been reached with recipes that are missing nothing.
+            for (int blockStart = 0; blockStart < words && documentsByMissing.get(0).size() < limit; blockStart += BLOCK_WORDS) {
+                final int blockEnd = Math.min(words, blockStart + BLOCK_WORDS);
+                for (final PostingList postings : densePostings) {
+                    postings.addTo(matchedCounts, blockStart, blockEnd);
+                }
+                for (int word = blockStart; word < blockEnd; word++) {
+                    long coveredWithFewerMissing = 0;
+                    for (int missing = 0; missing <= allowedMissing; missing++) {
+                        final long covered = liveDocuments[word] & coveredWithin(matchedCounts, word, missing, sumPlanes);
+                        final List<Integer> documents = documentsByMissing.get(missing);
+                        long selected = covered & ~coveredWithFewerMissing;
+                        while (selected != 0 && documents.size() < limit) {
+                            documents.add((word << 6) + Long.numberOfTrailingZeros(selected));
+                            selected &= selected - 1;
+                        }
+                        coveredWithFewerMissing = covered;
+                    }
+                }
+            }
+
+            //Return the recipes missing no ingredients first, then one, and so on, until the limit is reached.
+            final List<PantryMatchModel> matches = new ArrayList<>();
+            for (final List<Integer> documents : documentsByMissing) {
+                for (int i = 0; i < documents.size() && matches.size() < limit; i++) {
+                    matches.add(toPantryMatch(recipesByDocument[documents.get(i)], pantryIngredientIds));
+                }
+            }
+            return matches;
+
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the documents in a word whose matched count plus the allowed number of missing ingredients is at least
+     * their ingredient count, i.e. those missing no more than the allowed number of ingredients.
+     *
+     * @param matchedCounts           the bit-sliced count of each document's ingredients that are in the pantry.
+     * @param word                    the word of documents.
+     * @param allowedMissing          the allowed number of missing ingredients.
+     * @param sumPlanes               scratch space for the bit-sliced sum, one word per plane.
+     * @return the selected documents of the word.
+     */
+    private long coveredWithin(final BitSlicedCounter matchedCounts, final int word, final int allowedMissing,
+                               final long[] sumPlanes) {
+
+        //Bit-sliced ripple-carry add of the constant allowedMissing to the matched counts.
+        long carry = 0;
+        for (int plane = 0; plane < sumPlanes.length; plane++) {
+            final long matched = matchedCounts.plane(plane, word);
+            final long constant = ((allowedMissing >>> plane) & 1) != 0 ? -1L : 0L;
+            sumPlanes[plane] = matched ^ constant ^ carry;
+            carry = (matched & constant) | (matched & carry) | (constant & carry);
+        }
+
+        //Bit-sliced comparison of sum >= ingredient count, from the most significant plane down.
+        long greater = 0;
+        long equal = -1L;
+        for (int plane = sumPlanes.length - 1; plane >= 0; plane--) {
+            final long sum = sumPlanes[plane];
+            final long count = plane < ingredientCountPlanes.length ? ingredientCountPlanes[plane][word] : 0;
+            greater |= equal & sum & ~count;
+            equal &= ~(sum ^ count);
+        }
+        return greater | equal;
+    }
+
+    private PantryMatchModel toPantryMatch(final Recipe recipe, final BitSet pantryIngredientIds) {
+
+        final Set<String> missingIngredients = new LinkedHashSet<>();
+        final IngredientSet ingredientSet = recipe.getIngredientSet();
+        if (null != ingredientSet) {
+            for (int i = 0; i < ingredientSet.size(); i++) {
+                final int ingredientId = ingredientSet.ingredientIdAt(i);
+                if (!pantryIngredientIds.get(ingredientId)) {
+                    missingIngredients.add(ingredientDictionary.ingredientOf(ingredientId));
+                }
+            }
+        }
+
+        final PantryMatchModel pantryMatchModel = new PantryMatchModel();
+        pantryMatchModel.setRecipe(recipeMapperHandler.mapDomainToModel(recipe));
+        pantryMatchModel.setMissingIngredients(missingIngredients);
+        return pantryMatchModel;
+    }
+
+    private void addRecipe(final Recipe recipe) {
+
+        final int document = freeDocumentCount > 0 ? freeDocuments[--freeDocumentCount] : documentLimit++;
+        ensureDocumentCapacity(document);
+
+        documentsByRecipeKey.put(recipe.getKey(), document);
+        recipesByDocument[document] = recipe;
+        liveDocuments[document >>> 6] |= 1L << document;
+
+        final IngredientSet ingredientSet = recipe.getIngredientSet();
+        final int ingredientCount = null == ingredientSet ? 0 : ingredientSet.size();
+        setIngredientCount(document, ingredientCount);
+
+        final int words = documentWords();
+        for (int i = 0; i < ingredientCount; i++) {
+            final int ingredientId = ingredientSet.ingredientIdAt(i);
+            if (ingredientId >= postingsByIngredientId.length) {
+                postingsByIngredientId = Arrays.copyOf(postingsByIngredientId,
+                        Math.max(postingsByIngredientId.length * 2, ingredientId + 1));
+            }
+            if (null == postingsByIngredientId[ingredientId]) {
+                postingsByIngredientId[ingredientId] = new PostingList();
+            }
+            postingsByIngredientId[ingredientId].add(document, words);
+        }
+    }
+
+    private void removeRecipe(final String recipeKey) {
+
+        final Integer document = documentsByRecipeKey.remove(recipeKey);
+        if (null == document) {
+            return;
+        }
+
+        final IngredientSet ingredientSet = recipesByDocument[document].getIngredientSet();
+        if (null != ingredientSet) {
+            final int words = documentWords();
+            for (int i = 0; i < ingredientSet.size(); i++) {
+                postingsByIngredientId[ingredientSet.ingredientIdAt(i)].remove(document, words);
+            }
+        }
+
+        recipesByDocument[document] = null;
+        liveDocuments[document >>> 6] &= ~(1L << document);
+        setIngredientCount(document, 0);
+
+        if (freeDocumentCount == freeDocuments.length) {
+            freeDocuments = Arrays.copyOf(freeDocuments, freeDocuments.length * 2);
+        }
+        freeDocuments[freeDocumentCount++] = document;
+    }
+
+    private void setIngredientCount(final int document, final int ingredientCount) {
+
+        //Add planes when a recipe has more ingredients than the existing planes can count.
+        final int planesNeeded = bitsFor(ingredientCount);
+        if (planesNeeded > ingredientCountPlanes.length) {
+            final int previousPlaneCount = ingredientCountPlanes.length;
+            ingredientCountPlanes = Arrays.copyOf(ingredientCountPlanes, planesNeeded);
+            for (int plane = previousPlaneCount; plane < planesNeeded; plane++) {
+                ingredientCountPlanes[plane] = new long[liveDocuments.length];
+            }
+        }
+
+        final long documentBit = 1L << document;
+        for (int plane = 0; plane < ingredientCountPlanes.length; plane++) {
+            if (((ingredientCount >>> plane) & 1) != 0) {
+                ingredientCountPlanes[plane][document >>> 6] |= documentBit;
+            } else {
+                ingredientCountPlanes[plane][document >>> 6] &= ~documentBit;
+            }
+        }
+    }
+
+    private void ensureDocumentCapacity(final int document) {
+
+        if (document >= recipesByDocument.length) {
+            recipesByDocument = Arrays.copyOf(recipesByDocument, recipesByDocument.length * 2);
+        }
+        final int wordsNeeded = (document >>> 6) + 1;
+        if (wordsNeeded > liveDocuments.length) {
+            final int newWords = Math.max(wordsNeeded, liveDocuments.length * 2);
+            liveDocuments = Arrays.copyOf(liveDocuments, newWords);
+            for (int plane = 0; plane < ingredientCountPlanes.length; plane++) {
+                ingredientCountPlanes[plane] = Arrays.copyOf(ingredientCountPlanes[plane], newWords);
+            }
+        }
+    }
+
+    //Number of 64 bit words needed for a bitmap over every document number in use.
+    private int documentWords() {
+        return (documentLimit + 63) >>> 6;
+    }
+
+    //Number of bits needed to hold the value.
+    private static int bitsFor(final int value) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(value);
+    }
+
+}
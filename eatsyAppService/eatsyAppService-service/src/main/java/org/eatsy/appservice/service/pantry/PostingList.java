@@ -0,0 +1,147 @@
+package org.eatsy.appservice.service.pantry;
+
+import java.util.Arrays;
+
+/**
+ * The documents (recipes) that hold one ingredient.
+ * While few recipes hold the ingredient the documents are kept as an unordered int array. Once the array would take
+ * more memory than a bitmap over every document, they are kept as a bitmap instead, so rare ingredients stay small
+ * and common ingredients can be counted a whole word (64 documents) at a time.
+ * Not thread-safe, guarded by the owning index.
+ */
+final class PostingList {
+
+    //Documents, while sparse. Only the first size entries are used.
+    private int[] sparseDocuments = new int[4];
+
+    //Bitmap of documents, while dense. Null while sparse.
+    private long[] denseDocuments;
+
+    //Number of documents in the list.
+    private int size;
+
+    /**
+     * Adds a document that is not already in the list.
+     *
+     * @param document      the document.
+     * @param documentWords the number of 64 bit words needed for a bitmap over every document.
+     */
+    void add(final int document, final int documentWords) {
+
+        size++;
+        if (null != denseDocuments) {
+            if (document >>> 6 >= denseDocuments.length) {
+                denseDocuments = Arrays.copyOf(denseDocuments, Math.max(documentWords, (document >>> 6) + 1));
+            }
+            denseDocuments[document >>> 6] |= 1L << document;
+            return;
+        }
+
+        if (size > sparseDocuments.length) {
+            sparseDocuments = Arrays.copyOf(sparseDocuments, sparseDocuments.length * 2);
+        }
+        sparseDocuments[size - 1] = document;
+        //An int per document takes more memory than a bitmap once more than one in 32 documents are held.
+        if (size > 2 * documentWords) {
+            toDense(documentWords);
+        }
+    }
+
+    /**
+     * Removes a document that is in the list.
+     *
+     * @param document      the document.
+     * @param documentWords the number of 64 bit words needed for a bitmap over every document.
+     */
+    void remove(final int document, final int documentWords) {
+
+        if (null != denseDocuments) {
+            denseDocuments[document >>> 6] &= ~(1L << document);
+            size--;
+            //Only go back to sparse well below the threshold, so a list on the boundary does not keep converting.
+            if (size < documentWords / 2) {
+                toSparse();
+            }
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (sparseDocuments[i] == document) {
+                sparseDocuments[i] = sparseDocuments[--size];
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the number of documents in the list.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the documents are kept as a bitmap, false if they are kept as an int array.
+     */
+    boolean isDense() {
+        return null != denseDocuments;
+    }
+
+    /**
+     * Adds one to the count of every document in the list.
+     *
+     * @param counter the per-document counter.
+     */
+    void addTo(final BitSlicedCounter counter) {
+
+        if (null != denseDocuments) {
+            addTo(counter, 0, counter.words());
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            final int document = sparseDocuments[i];
+            counter.add(document >>> 6, 1L << document);
+        }
+    }
+
+    /**
+     * Adds one to the count of every document in the list within a range of words. The list must be dense.
+     *
+     * @param counter  the per-document counter.
+     * @param fromWord the first word of documents to count.
+     * @param toWord   one past the last word of documents to count.
+     */
+    void addTo(final BitSlicedCounter counter, final int fromWord, final int toWord) {
+
+        final int endWord = Math.min(denseDocuments.length, toWord);
+        for (int word = fromWord; word < endWord; word++) {
+            if (denseDocuments[word] != 0) {
+                counter.add(word, denseDocuments[word]);
+            }
+        }
+    }
+
+    private void toDense(final int documentWords) {
+        denseDocuments = new long[documentWords];
+        for (int i = 0; i < size; i++) {
+            final int document = sparseDocuments[i];
+            denseDocuments[document >>> 6] |= 1L << document;
+        }
+        sparseDocuments = null;
+    }
+
+    private void toSparse() {
+        sparseDocuments = new int[Math.max(4, size * 2)];
+        int next = 0;
+        for (int word = 0; word < denseDocuments.length; word++) {
+            long bits = denseDocuments[word];
+            while (bits != 0) {
+                sparseDocuments[next++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        denseDocuments = null;
+    }
+
+}
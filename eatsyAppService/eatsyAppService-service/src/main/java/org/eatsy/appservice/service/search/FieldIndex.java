@@ -0,0 +1,118 @@
+package org.eatsy.appservice.service.search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index of one field (e.g. the method) of the indexed recipes: for each word, the documents holding it and
+ * the positions it is at, along with the length of the field in each document for BM25 length normalisation.
+ * A field is made of segments (e.g. the steps of a method), and positions jump between segments so a phrase
+ * cannot match across two of them.
+ * Not thread-safe, guarded by the owning index.
+ */
+final class FieldIndex {
+
+    //Gap left between the positions of consecutive segments.
+    private static final int SEGMENT_POSITION_GAP = 1000;
+
+    //For each word, the sorted positions of the word in each document holding it.
+    private final Map<String, Map<Integer, int[]>> postingsByTerm = new HashMap<>();
+
+    //Number of words in the field of each document.
+    private int[] lengthsByDocument = new int[64];
+
+    //Sum of the lengths of the field over every document.
+    private long totalLength;
+
+    /**
+     * Adds a document's field.
+     *
+     * @param document the document.
+     * @param segments the words of each segment of the field.
+     * @return the distinct words of the field.
+     */
+    Iterable<String> add(final int document, final List<List<String>> segments) {
+
+        final Map<String, int[]> positionsByTerm = positionsByTerm(segments);
+        int length = 0;
+        for (final Map.Entry<String, int[]> termPositions : positionsByTerm.entrySet()) {
+            postingsByTerm.computeIfAbsent(termPositions.getKey(), term -> new HashMap<>()).put(document, termPositions.getValue());
+            length += termPositions.getValue().length;
+        }
+
+        if (document >= lengthsByDocument.length) {
+            lengthsByDocument = Arrays.copyOf(lengthsByDocument, Math.max(lengthsByDocument.length * 2, document + 1));
+        }
+        lengthsByDocument[document] = length;
+        totalLength += length;
+        return positionsByTerm.keySet();
+    }
+
+    /**
+     * Removes a document's field.
+     *
+     * @param document the document.
+     * @param segments the words of each segment of the field, as they were added.
+     * @return the distinct words of the field.
+     */
+    Iterable<String> remove(final int document, final List<List<String>> segments) {
+
+        final Map<String, int[]> positionsByTerm = positionsByTerm(segments);
+        for (final String term : positionsByTerm.keySet()) {
+            final Map<Integer, int[]> postings = postingsByTerm.get(term);
+            postings.remove(document);
+            if (postings.isEmpty()) {
+                postingsByTerm.remove(term);
+            }
+        }
+        totalLength -= lengthsByDocument[document];
+        lengthsByDocument[document] = 0;
+        return positionsByTerm.keySet();
+    }
+
+    /**
+     * @param term a word.
+     * @return the sorted positions of the word in each document holding it.
+     */
+    Map<Integer, int[]> postings(final String term) {
+        final Map<Integer, int[]> postings = postingsByTerm.get(term);
+        return null == postings ? Collections.emptyMap() : postings;
+    }
+
+    /**
+     * @param document a document.
+     * @return the number of words in the document's field.
+     */
+    int length(final int document) {
+        return lengthsByDocument[document];
+    }
+
+    /**
+     * @param documentCount the number of indexed documents.
+     * @return the average number of words in the field of a document.
+     */
+    double averageLength(final int documentCount) {
+        return documentCount == 0 ? 0 : totalLength / (double) documentCount;
+    }
+
+    private static Map<String, int[]> positionsByTerm(final List<List<String>> segments) {
+
+        final Map<String, int[]> positionsByTerm = new LinkedHashMap<>();
+        int segmentStart = 0;
+        for (final List<String> segment : segments) {
+            for (int i = 0; i < segment.size(); i++) {
+                final int[] positions = positionsByTerm.get(segment.get(i));
+                final int[] extendedPositions = null == positions ? new int[1] : Arrays.copyOf(positions, positions.length + 1);
+                extendedPositions[extendedPositions.length - 1] = segmentStart + i;
+                positionsByTerm.put(segment.get(i), extendedPositions);
+            }
+            segmentStart += segment.size() + SEGMENT_POSITION_GAP;
+        }
+        return positionsByTerm;
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.eatsy.appservice.service.search;
+
+import org.eatsy.appservice.model.RecipeSearchPageModel;
+
+/**
+ * Interface for searching recipes by the text of their name, ingredients and method.
+ */
+public interface RecipeSearch {
+
+    /**
+     * Searches the recipes.
+     * Words are matched against recipe names, ingredients and method steps, allowing for small typos.
+     * Text in double quotes is a phrase that must appear, word for word, in one of a recipe's method steps.
+     *
+     * @param query    the search text.
+     * @param page     the page of results to return, starting from 0.
+     * @param pageSize the most results on a page.
+     * @return the page of results, most relevant first.
+     */
+    RecipeSearchPageModel search(String query, int page, int pageSize);
+
+}
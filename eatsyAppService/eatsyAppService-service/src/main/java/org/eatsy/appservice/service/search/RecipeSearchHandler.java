@@ -0,0 +1,375 @@
+package org.eatsy.appservice.service.search;
+
+import org.eatsy.appservice.domain.MethodSteps;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.RecipeSearchPageModel;
+import org.eatsy.appservice.model.RecipeSearchResultModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recipe Search implementation
+ * Tagged with @Component for dependency injection
+ * <p>
+ * Keeps an inverted index of the words in the cached recipes' names, ingredients and method steps, updated as the
+ * recipe cache changes. Recipes are ranked by BM25, summed over the fields with matches in the name counting for the
+ * most, so a recipe is ranked by how often the searched words appear in it relative to the length of each field,
+ * with rare words counting for more than common ones.
+ * <p>
+ * A searched word that is not in any recipe is taken to be a typo, and is replaced by the nearest indexed words found
+ * through a trigram index of the vocabulary, with their scores discounted. Phrases in double quotes are matched
+ * against the word positions within single method steps.
+ */
+@Component
+public class RecipeSearchHandler implements RecipeSearch, RecipeChangeListener {
+
+    //Largest page size that can be requested.
+    public static final int MAX_PAGE_SIZE = 100;
+
+    //BM25 term frequency saturation and field length normalisation.
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    //How much a match counts for in each indexed field: the name, the ingredients and the method.
+    private static final double[] FIELD_BOOSTS = {3.0, 2.0, 1.0};
+
+    //Field holding the method, the only field phrases are matched against.
+    private static final int METHOD = 2;
+
+    //How much a match on a word standing in for a misspelt word counts for, and the most words it is replaced by.
+    private static final double FUZZY_MATCH_WEIGHT = 0.5;
+    private static final int MAX_FUZZY_EXPANSIONS = 5;
+
+    //Orders recipes from least to most relevant, then by key so that equally relevant recipes are returned consistently.
+    private static final Comparator<ScoredRecipe> SCORE_ORDER = Comparator
+            .comparingDouble((ScoredRecipe scoredRecipe) -> scoredRecipe.score)
+            .thenComparing(scoredRecipe -> scoredRecipe.recipe.getKey(), Comparator.reverseOrder());
+
+    //Recipe Mapper implementation
+    private final RecipeMapper recipeMapperHandler;
+
+    //Searches share the read lock, recipe changes take the write lock. Guards all of the index state below.
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    //Inverted index of each field.
+    private final FieldIndex[] fieldIndexes = {new FieldIndex(), new FieldIndex(), new FieldIndex()};
+
+    //Every indexed word, counted once per field of each document it is in.
+    private final TrigramIndex vocabulary = new TrigramIndex();
+
+    //Document number of each indexed recipe key.
+    private final Map<String, Integer> documentsByRecipeKey = new HashMap<>();
+
+    //Recipe of each document number, null for free document numbers.
+    private Recipe[] recipesByDocument = new Recipe[64];
+
+    //Document numbers freed by removed recipes, reused before new numbers so the documents stay dense.
+    private int[] freeDocuments = new int[16];
+    private int freeDocumentCount;
+
+    //One past the highest document number ever used.
+    private int documentLimit;
+
+    //Inject the dependency of the recipeMapper implementation into the RecipeSearchHandler during instantiation.
+    public RecipeSearchHandler(final RecipeMapper recipeMapperHandler) {
+        this.recipeMapperHandler = recipeMapperHandler;
+    }
+
+    /**
+     * Keeps the index up to date with the recipe cache.
+     *
+     * @param previousRecipe the recipe as it was before the change, or null if the recipe has been added.
+     * @param currentRecipe  the recipe as it is after the change, or null if the recipe has been removed.
+     */
+    @Override
+    public void recipeChanged(final Recipe previousRecipe, final Recipe currentRecipe) {
+
+        //The recipe is split into words before taking the lock, so searches are only held up by the index updates.
+        final List<List<List<String>>> fields = null == currentRecipe ? null : fieldsOf(currentRecipe);
+
+        indexLock.writeLock().lock();
+        try {
+            if (null != previousRecipe) {
+                removeRecipe(previousRecipe.getKey());
+            }
+            if (null != currentRecipe) {
+                //A replaced recipe may keep its key, so clear out whatever the key held before.
+                removeRecipe(currentRecipe.getKey());
+                addRecipe(currentRecipe, fields);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the recipes.
+     * Any of the words may match, but every quoted phrase must be found in the recipe's method.
+     *
+     * @param query    the search text.
+     * @param page     the page of results to return, starting from 0.
+     * @param pageSize the most results on a page.
+     * @return the page of results, most relevant first.
+     */
+    @Override
+    public RecipeSearchPageModel search(final String query, final int page, final int pageSize) {
+
+        if (page < 0) {
+            throw new InvalidRequestParameterException("The page must not be negative");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestParameterException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        //Split the query into the quoted phrases and the words outside them.
+        final List<String> terms = new ArrayList<>();
+        final List<List<String>> phrases = new ArrayList<>();
+        final String[] quotedParts = (null == query ? "" : query).split("\"", -1);
+        for (int i = 0; i < quotedParts.length; i++) {
+            final List<String> partTerms = SearchTokenizer.tokenize(quotedParts[i]);
+            //Odd parts are inside quotes, apart from the text after an unclosed quote.
+            if (i % 2 == 1 && i < quotedParts.length - 1) {
+                if (!partTerms.isEmpty()) {
+                    phrases.add(partTerms);
+                }
+            } else {
+                terms.addAll(partTerms);
+            }
+        }
+
+        final List<ScoredRecipe> pageRecipes = new ArrayList<>();
+        final int totalResults;
+        indexLock.readLock().lock();
+        try {
+            final int documentCount = documentsByRecipeKey.size();
+            final Map<Integer, Double> scoresByDocument = new HashMap<>();
+            for (final String term : new HashSet<>(terms)) {
+                addTermScores(term, documentCount, scoresByDocument);
+            }
+
+            //Phrases filter the matching recipes, and add the scores of their words in the method.
+            if (!phrases.isEmpty()) {
+                Set<Integer> phraseDocuments = null;
+                for (final List<String> phrase : phrases) {
+                    final Set<Integer> documents = phraseMatches(phrase);
+                    if (null == phraseDocuments) {
+                        phraseDocuments = documents;
+                    } else {
+                        phraseDocuments.retainAll(documents);
+                    }
+                }
+                scoresByDocument.keySet().retainAll(phraseDocuments);
+                for (final List<String> phrase : phrases) {
+                    for (final String term : new HashSet<>(phrase)) {
+                        final Map<Integer, int[]> postings = fieldIndexes[METHOD].postings(term);
+                        for (final int document : phraseDocuments) {
+                            scoresByDocument.merge(document, score(METHOD, document, postings, documentCount), Double::sum);
+                        }
+                    }
+                }
+            }
+
+            totalResults = scoresByDocument.size();
+
+            //Keep the most relevant recipes up to the end of the page, least relevant at the head so it is the one replaced.
+            final int pageStart = (int) Math.min(Integer.MAX_VALUE, (long) page * pageSize);
+            if (pageStart < totalResults) {
+                final int pageEnd = Math.min(totalResults, pageStart + pageSize);
+                final PriorityQueue<ScoredRecipe> topRecipes = new PriorityQueue<>(pageEnd + 1, SCORE_ORDER);
+                for (final Map.Entry<Integer, Double> documentScore : scoresByDocument.entrySet()) {
+                    topRecipes.add(new ScoredRecipe(recipesByDocument[documentScore.getKey()], documentScore.getValue()));
+                    if (topRecipes.size() > pageEnd) {
+                        topRecipes.poll();
+                    }
+                }
+                final List<ScoredRecipe> mostRelevantRecipes = new ArrayList<>(topRecipes);
+                mostRelevantRecipes.sort(SCORE_ORDER.reversed());
+                pageRecipes.addAll(mostRelevantRecipes.subList(pageStart, pageEnd));
+            }
+
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        //Recipes are immutable, so they can be mapped once the index has been released.
+        final List<RecipeSearchResultModel> results = new ArrayList<>(pageRecipes.size());
+        for (final ScoredRecipe scoredRecipe : pageRecipes) {
+            final RecipeSearchResultModel result = new RecipeSearchResultModel();
+            result.setRecipe(recipeMapperHandler.mapDomainToModel(scoredRecipe.recipe));
+            result.setScore(scoredRecipe.score);
+            results.add(result);
+        }
+        final RecipeSearchPageModel searchPage = new RecipeSearchPageModel();
+        searchPage.setResults(results);
+        searchPage.setPage(page);
+        searchPage.setPageSize(pageSize);
+        searchPage.setTotalResults(totalResults);
+        return searchPage;
+    }
+
+    //Adds the scores of the recipes matching the word, or the words it was probably meant to be if it is not indexed.
+    private void addTermScores(final String term, final int documentCount, final Map<Integer, Double> scoresByDocument) {
+
+        final List<String> matchingTerms;
+        final double weight;
+        if (vocabulary.contains(term)) {
+            matchingTerms = Collections.singletonList(term);
+            weight = 1.0;
+        } else {
+            final int maxEdits = term.length() < 4 ? 0 : term.length() < 8 ? 1 : 2;
+            matchingTerms = maxEdits == 0 ? Collections.emptyList() : vocabulary.fuzzyMatches(term, maxEdits, MAX_FUZZY_EXPANSIONS);
+            weight = FUZZY_MATCH_WEIGHT;
+        }
+
+        //A recipe matching several of the replacement words only scores for its best match, as only one was meant.
+        final Map<Integer, Double> termScores = new HashMap<>();
+        for (final String matchingTerm : matchingTerms) {
+            final Map<Integer, Double> matchingTermScores = new HashMap<>();
+            for (int field = 0; field < fieldIndexes.length; field++) {
+                final Map<Integer, int[]> postings = fieldIndexes[field].postings(matchingTerm);
+                for (final int document : postings.keySet()) {
+                    matchingTermScores.merge(document, score(field, document, postings, documentCount), Double::sum);
+                }
+            }
+            matchingTermScores.forEach((document, score) -> termScores.merge(document, score * weight, Math::max));
+        }
+        termScores.forEach((document, score) -> scoresByDocument.merge(document, score, Double::sum));
+    }
+
+    //BM25 score of a word for a field of a document, given the postings of the word in the field.
+    private double score(final int field, final int document, final Map<Integer, int[]> postings, final int documentCount) {
+
+        final int[] positions = postings.get(document);
+        if (null == positions) {
+            return 0;
+        }
+        final FieldIndex fieldIndex = fieldIndexes[field];
+        final double inverseDocumentFrequency = Math.log(1 + (documentCount - postings.size() + 0.5) / (postings.size() + 0.5));
+        final double averageLength = Math.max(1, fieldIndex.averageLength(documentCount));
+        final double termFrequency = positions.length;
+        final double lengthNormalisation = 1 - B + B * fieldIndex.length(document) / averageLength;
+        return FIELD_BOOSTS[field] * inverseDocumentFrequency * termFrequency * (K1 + 1) / (termFrequency + K1 * lengthNormalisation);
+    }
+
+    //The documents with the words of the phrase in consecutive positions of their method.
+    private Set<Integer> phraseMatches(final List<String> phrase) {
+
+        final FieldIndex methodIndex = fieldIndexes[METHOD];
+        final List<Map<Integer, int[]>> phrasePostings = new ArrayList<>(phrase.size());
+        Map<Integer, int[]> rarestPostings = null;
+        for (final String term : phrase) {
+            final Map<Integer, int[]> postings = methodIndex.postings(term);
+            phrasePostings.add(postings);
+            if (null == rarestPostings || postings.size() < rarestPostings.size()) {
+                rarestPostings = postings;
+            }
+        }
+
+        final Set<Integer> documents = new HashSet<>();
+        for (final int document : rarestPostings.keySet()) {
+            final int[] firstPositions = phrasePostings.get(0).get(document);
+            if (null == firstPositions) {
+                continue;
+            }
+            for (final int firstPosition : firstPositions) {
+                if (phraseAt(phrasePostings, document, firstPosition)) {
+                    documents.add(document);
+                    break;
+                }
+            }
+        }
+        return documents;
+    }
+
+    private static boolean phraseAt(final List<Map<Integer, int[]>> phrasePostings, final int document, final int firstPosition) {
+        for (int i = 1; i < phrasePostings.size(); i++) {
+            final int[] positions = phrasePostings.get(i).get(document);
+            if (null == positions || Arrays.binarySearch(positions, firstPosition + i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //The words of each segment of each field of the recipe: the name, each ingredient and each method step.
+    private static List<List<List<String>>> fieldsOf(final Recipe recipe) {
+
+        final List<List<String>> ingredients = new ArrayList<>();
+        if (null != recipe.getIngredientSet()) {
+            for (final String ingredient : recipe.getIngredientSet()) {
+                ingredients.add(SearchTokenizer.tokenize(ingredient));
+            }
+        }
+        final List<List<String>> methodSteps = new ArrayList<>();
+        final MethodSteps method = recipe.getMethod();
+        if (null != method) {
+            for (int i = 0; i < method.size(); i++) {
+                methodSteps.add(SearchTokenizer.tokenize(method.stepAt(i)));
+            }
+        }
+        return Arrays.asList(Collections.singletonList(SearchTokenizer.tokenize(recipe.getName())), ingredients, methodSteps);
+    }
+
+    private void addRecipe(final Recipe recipe, final List<List<List<String>>> fields) {
+
+        final int document = freeDocumentCount > 0 ? freeDocuments[--freeDocumentCount] : documentLimit++;
+        if (document >= recipesByDocument.length) {
+            recipesByDocument = Arrays.copyOf(recipesByDocument, recipesByDocument.length * 2);
+        }
+        documentsByRecipeKey.put(recipe.getKey(), document);
+        recipesByDocument[document] = recipe;
+        for (int field = 0; field < fieldIndexes.length; field++) {
+            fieldIndexes[field].add(document, fields.get(field)).forEach(vocabulary::add);
+        }
+    }
+
+    private void removeRecipe(final String recipeKey) {
+
+        final Integer document = documentsByRecipeKey.remove(recipeKey);
+        if (null == document) {
+            return;
+        }
+
+        //Recipes are immutable, so splitting the indexed recipe again gives the words it was indexed with.
+        final List<List<List<String>>> fields = fieldsOf(recipesByDocument[document]);
+        for (int field = 0; field < fieldIndexes.length; field++) {
+            fieldIndexes[field].remove(document, fields.get(field)).forEach(vocabulary::remove);
+        }
+
+        recipesByDocument[document] = null;
+        if (freeDocumentCount == freeDocuments.length) {
+            freeDocuments = Arrays.copyOf(freeDocuments, freeDocuments.length * 2);
+        }
+        freeDocuments[freeDocumentCount++] = document;
+    }
+
+    /**
+     * A matching recipe with its relevance score.
+     */
+    private static final class ScoredRecipe {
+
+        private final Recipe recipe;
+        private final double score;
+
+        private ScoredRecipe(final Recipe recipe, final double score) {
+            this.recipe = recipe;
+            this.score = score;
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.eatsy.appservice.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower case words (runs of letters and digits) for the search index.
+ */
+final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * @param text the text, which may be null.
+     * @return the words of the text, in order.
+     */
+    static List<String> tokenize(final String text) {
+
+        final List<String> tokens = new ArrayList<>();
+        if (null == text) {
+            return tokens;
+        }
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            final boolean wordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordCharacter && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!wordCharacter && tokenStart >= 0) {
+                tokens.add(text.substring(tokenStart, i).toLowerCase(Locale.ROOT));
+                tokenStart = -1;
+            }
+        }
+        return tokens;
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.eatsy.appservice.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vocabulary of the indexed words, with an index from each trigram (three letter sequence) to the words containing
+ * it, for finding the words a misspelt word was probably meant to be.
+ * A word within k edits of another shares all but at most 3k of its trigrams, so only the words in a few of the
+ * misspelt word's trigram lists need to be checked.
+ * Not thread-safe, guarded by the owning index.
+ */
+final class TrigramIndex {
+
+    //Number of times each word has been added and not removed.
+    private final Map<String, Integer> termCounts = new HashMap<>();
+
+    //The words containing each trigram.
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+    /**
+     * Adds a use of the word to the vocabulary.
+     *
+     * @param term the word.
+     */
+    void add(final String term) {
+        if (termCounts.merge(term, 1, Integer::sum) == 1) {
+            for (final String trigram : trigramsOf(term)) {
+                termsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    /**
+     * Removes a use of the word from the vocabulary.
+     *
+     * @param term the word.
+     */
+    void remove(final String term) {
+        final Integer count = termCounts.get(term);
+        if (null == count) {
+            return;
+        }
+        if (count > 1) {
+            termCounts.put(term, count - 1);
+            return;
+        }
+        termCounts.remove(term);
+        for (final String trigram : trigramsOf(term)) {
+            final Set<String> terms = termsByTrigram.get(trigram);
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                termsByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * @param term a word.
+     * @return true if the word is in the vocabulary.
+     */
+    boolean contains(final String term) {
+        return termCounts.containsKey(term);
+    }
+
+    /**
+     * Finds the words in the vocabulary within a number of edits (insertions, deletions, substitutions or
+     * transpositions of adjacent letters) of the word.
+     *
+     * @param term       a word.
+     * @param maxEdits   the most edits allowed.
+     * @param maxMatches the most words to return.
+     * @return the nearest words, fewest edits first.
+     */
+    List<String> fuzzyMatches(final String term, final int maxEdits, final int maxMatches) {
+
+        final List<String> trigrams = new ArrayList<>(trigramsOf(term));
+        final int minSharedTrigrams = trigrams.size() - 3 * maxEdits;
+        if (minSharedTrigrams <= 0) {
+            return Collections.emptyList();
+        }
+
+        //A word sharing at least minSharedTrigrams trigrams is in at least one of any (size - minShared + 1)
+        //trigram lists, so only the shortest of them need to be read.
+        trigrams.sort(Comparator.comparingInt(trigram -> termsByTrigram.getOrDefault(trigram, Collections.emptySet()).size()));
+        final Set<String> candidates = new LinkedHashSet<>();
+        for (final String trigram : trigrams.subList(0, trigrams.size() - minSharedTrigrams + 1)) {
+            candidates.addAll(termsByTrigram.getOrDefault(trigram, Collections.emptySet()));
+        }
+
+        final List<String> matches = new ArrayList<>();
+        final Map<String, Integer> editsByMatch = new HashMap<>();
+        for (final String candidate : candidates) {
+            if (Math.abs(candidate.length() - term.length()) > maxEdits || candidate.equals(term)) {
+                continue;
+            }
+            final int edits = editDistance(term, candidate, maxEdits);
+            if (edits <= maxEdits) {
+                matches.add(candidate);
+                editsByMatch.put(candidate, edits);
+            }
+        }
+        matches.sort(Comparator.comparingInt((String match) -> editsByMatch.get(match)).thenComparing(match -> match));
+        return matches.size() > maxMatches ? matches.subList(0, maxMatches) : matches;
+    }
+
+    //The trigrams of the word, with its start and end marked so they count as trigrams too.
+    private static Set<String> trigramsOf(final String term) {
+        final String marked = "$" + term + "$";
+        final Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= marked.length(); i++) {
+            trigrams.add(marked.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    //Optimal string alignment distance, giving up (returning maxEdits + 1) once it must exceed maxEdits.
+    private static int editDistance(final String source, final String target, final int maxEdits) {
+
+        int[] previousPreviousRow = new int[target.length() + 1];
+        int[] previousRow = new int[target.length() + 1];
+        int[] row = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previousRow[j] = j;
+        }
+
+        for (int i = 1; i <= source.length(); i++) {
+            row[0] = i;
+            int rowMinimum = row[0];
+            for (int j = 1; j <= target.length(); j++) {
+                final int substitutionCost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previousRow[j] + 1), previousRow[j - 1] + substitutionCost);
+                if (i > 1 && j > 1 && source.charAt(i - 1) == target.charAt(j - 2) && source.charAt(i - 2) == target.charAt(j - 1)) {
+                    row[j] = Math.min(row[j], previousPreviousRow[j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, row[j]);
+            }
+            if (rowMinimum > maxEdits) {
+                return maxEdits + 1;
+            }
+            final int[] recycledRow = previousPreviousRow;
+            previousPreviousRow = previousRow;
+            previousRow = row;
+            row = recycledRow;
+        }
+        return previousRow[target.length()];
+    }
+
+}
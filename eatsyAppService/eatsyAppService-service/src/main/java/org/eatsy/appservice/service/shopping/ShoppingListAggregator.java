@@ -0,0 +1,111 @@
+package org.eatsy.appservice.service.shopping;
+
+import org.eatsy.appservice.domain.IngredientDictionary;
+import org.eatsy.appservice.domain.IngredientSet;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.ShoppingListItemModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Merges the ingredients of recipes into a shopping list, listing each ingredient once along with the number of
+ * recipes that need it.
+ * Recipes hold the ingredient dictionary ids of their ingredients, so ingredients are merged by id with an
+ * open addressing table of ints rather than by comparing strings, and each ingredient string is only looked up once,
+ * when the list is built.
+ * Not thread-safe, a new aggregator is used for each shopping list.
+ */
+public final class ShoppingListAggregator {
+
+    //Marks an empty slot of the table.
+    private static final int EMPTY = -1;
+
+    //Index into the items of the ingredient id in each slot, EMPTY for empty slots. The length is a power of two.
+    private int[] slotItems = newSlots(64);
+
+    //Ingredient id and number of recipes of each item, in the order the ingredients were first added.
+    private int[] itemIngredientIds = new int[32];
+    private int[] itemRecipeCounts = new int[32];
+    private int itemCount;
+
+    /**
+     * Adds the ingredients of a recipe to the shopping list.
+     *
+     * @param recipe the recipe.
+     */
+    public void addRecipe(final Recipe recipe) {
+
+        final IngredientSet ingredientSet = recipe.getIngredientSet();
+        if (null == ingredientSet) {
+            return;
+        }
+        for (int i = 0; i < ingredientSet.size(); i++) {
+            addIngredient(ingredientSet.ingredientIdAt(i));
+        }
+    }
+
+    /**
+     * @return the ingredients added, each once, in the order they were first added.
+     */
+    public List<ShoppingListItemModel> toItems() {
+
+        final IngredientDictionary ingredientDictionary = IngredientDictionary.global();
+        final List<ShoppingListItemModel> items = new ArrayList<>(itemCount);
+        for (int item = 0; item < itemCount; item++) {
+            final ShoppingListItemModel shoppingListItemModel = new ShoppingListItemModel();
+            shoppingListItemModel.setIngredient(ingredientDictionary.ingredientOf(itemIngredientIds[item]));
+            shoppingListItemModel.setRecipeCount(itemRecipeCounts[item]);
+            items.add(shoppingListItemModel);
+        }
+        return items;
+    }
+
+    private void addIngredient(final int ingredientId) {
+
+        final int mask = slotItems.length - 1;
+        int slot = slotOf(ingredientId, mask);
+        while (slotItems[slot] != EMPTY) {
+            if (itemIngredientIds[slotItems[slot]] == ingredientId) {
+                itemRecipeCounts[slotItems[slot]]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (itemCount == itemIngredientIds.length) {
+            itemIngredientIds = Arrays.copyOf(itemIngredientIds, itemCount * 2);
+            itemRecipeCounts = Arrays.copyOf(itemRecipeCounts, itemCount * 2);
+        }
+        itemIngredientIds[itemCount] = ingredientId;
+        itemRecipeCounts[itemCount] = 1;
+        slotItems[slot] = itemCount++;
+
+        //Keep the table at most half full, so probe sequences stay short.
+        if (itemCount * 2 > slotItems.length) {
+            slotItems = newSlots(slotItems.length * 2);
+            final int newMask = slotItems.length - 1;
+            for (int item = 0; item < itemCount; item++) {
+                int newSlot = slotOf(itemIngredientIds[item], newMask);
+                while (slotItems[newSlot] != EMPTY) {
+                    newSlot = (newSlot + 1) & newMask;
+                }
+                slotItems[newSlot] = item;
+            }
+        }
+    }
+
+    //Dictionary ids are sequential, so they are scrambled to spread them over the table.
+    private static int slotOf(final int ingredientId, final int mask) {
+        final int hash = ingredientId * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int[] newSlots(final int slotCount) {
+        final int[] slots = new int[slotCount];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.eatsy.appservice.service.similarity;
+
+import org.eatsy.appservice.domain.IngredientSet;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Computes MinHash signatures of ingredient sets.
+ * Each position of a signature is the minimum, over the set's ingredients, of an independent hash of the ingredient.
+ * Two sets agree at a position with probability equal to their Jaccard similarity, so the fraction of positions
+ * two signatures agree at estimates the similarity of the sets without comparing the sets themselves.
+ * Only the low 16 bits of each minimum are kept, which quarters the size of a signature at the cost of unrelated
+ * minimums agreeing by chance once in 65536 positions, too rarely to matter to the estimate.
+ */
+final class MinHasher {
+
+    //Odd multipliers and offsets of the multiply-shift hash function for each signature position.
+    private final long[] multipliers;
+    private final long[] offsets;
+
+    /**
+     * @param signatureLength the number of hash functions, and so of positions in a signature.
+     * @param seed            the seed the hash functions are chosen from, so signatures are reproducible.
+     */
+    MinHasher(final int signatureLength, final long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        multipliers = new long[signatureLength];
+        offsets = new long[signatureLength];
+        for (int i = 0; i < signatureLength; i++) {
+            multipliers[i] = random.nextLong() | 1L;
+            offsets[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * @param ingredientSet the ingredients, which must not be empty.
+     * @return the MinHash signature of the ingredients.
+     */
+    short[] signatureOf(final IngredientSet ingredientSet) {
+
+        final int[] minimums = new int[multipliers.length];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        for (int i = 0; i < ingredientSet.size(); i++) {
+            //Scramble the dictionary id first, as consecutive ids would otherwise hash to related values.
+            final long ingredientHash = mix(ingredientSet.ingredientIdAt(i));
+            for (int position = 0; position < minimums.length; position++) {
+                final int hash = (int) ((multipliers[position] * ingredientHash + offsets[position]) >>> 33);
+                if (hash < minimums[position]) {
+                    minimums[position] = hash;
+                }
+            }
+        }
+
+        final short[] signature = new short[minimums.length];
+        for (int position = 0; position < minimums.length; position++) {
+            signature[position] = (short) minimums[position];
+        }
+        return signature;
+    }
+
+    /**
+     * @param signature      a MinHash signature.
+     * @param otherSignature another MinHash signature of the same length.
+     * @return the fraction of positions the signatures agree at, an estimate of the Jaccard similarity of their sets.
+     */
+    static double estimateSimilarity(final short[] signature, final short[] otherSignature) {
+        int agreements = 0;
+        for (int position = 0; position < signature.length; position++) {
+            if (signature[position] == otherSignature[position]) {
+                agreements++;
+            }
+        }
+        return agreements / (double) signature.length;
+    }
+
+    //SplitMix64 finaliser.
+    private static long mix(final long value) {
+        long mixed = value + 0x9E3779B97F4A7C15L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.eatsy.appservice.service.similarity;
+
+import org.eatsy.appservice.model.SimilarRecipeModel;
+
+import java.util.List;
+
+/**
+ * Interface for finding the recipes most similar to a recipe.
+ */
+public interface SimilarRecipeFinder {
+
+    /**
+     * Finds the recipes whose ingredients are most similar to those of the recipe.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @param limit     the maximum number of similar recipes to return.
+     * @return the similar recipes, most similar first, or null if there is no recipe with the key.
+     */
+    List<SimilarRecipeModel> findSimilarRecipes(String recipeKey, int limit);
+
+}
@@ -0,0 +1,322 @@
+package org.eatsy.appservice.service.similarity;
+
+import org.eatsy.appservice.domain.IngredientSet;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.SimilarRecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Similar Recipe Finder implementation
+ * Tagged with @Component for dependency injection
+ * <p>
+ * Keeps a locality-sensitive hashing index of the cached recipes' ingredients, updated as the recipe cache changes.
+ * Each recipe's MinHash signature is cut into bands, and recipes are bucketed by the hash of each band. Recipes sharing
+ * a bucket in any band are likely to be similar, so only they are compared, and only a bounded number of them from each
+ * bucket, so the cost of a query does not grow with the size of the catalog.
+ * With 20 bands of 3 rows, recipes with a Jaccard similarity of 0.5 share a bucket with probability 0.93,
+ * and recipes with a similarity of 0.2 with probability 0.15.
+ * <p>
+ * The index is held in arrays over dense document numbers rather than in collections, as it holds an entry for
+ * every band of every recipe: each bucket is a chain through the documents in it, threaded through an int array.
+ */
+@Component
+public class SimilarRecipeFinderHandler implements SimilarRecipeFinder, RecipeChangeListener {
+
+    //Maximum number of similar recipes returned by a query.
+    public static final int MAX_SIMILAR_RECIPES = 100;
+
+    //Shape of the LSH index. The signature length is the number of bands multiplied by the rows in each band.
+    private static final int BANDS = 20;
+    private static final int ROWS_PER_BAND = 3;
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS_PER_BAND;
+
+    //Most recipes compared from any one bucket, bounding the work done for recipes in very popular buckets.
+    private static final int MAX_CANDIDATES_PER_BUCKET = 32;
+
+    //Seed of the MinHash functions.
+    private static final long MIN_HASH_SEED = 0x5EED_CAFEL;
+
+    //Marks the end of a bucket chain.
+    private static final int NO_DOCUMENT = -1;
+
+    //Orders recipes from least to most similar, then by key so that equally similar recipes are returned consistently.
+    private static final Comparator<ScoredRecipe> SCORE_ORDER = Comparator
+            .comparingDouble((ScoredRecipe scoredRecipe) -> scoredRecipe.similarity)
+            .thenComparing(scoredRecipe -> scoredRecipe.recipe.getKey(), Comparator.reverseOrder());
+
+    //Recipe Mapper implementation
+    private final RecipeMapper recipeMapperHandler;
+
+    //Computes the MinHash signatures of recipes' ingredients.
+    private final MinHasher minHasher = new MinHasher(SIGNATURE_LENGTH, MIN_HASH_SEED);
+
+    //Queries share the read lock, recipe changes take the write lock. Guards all of the index state below.
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    //Document number of each indexed recipe key.
+    private final Map<String, Integer> documentsByRecipeKey = new HashMap<>();
+
+    //Recipe and signature of each document number. Null for free document numbers, and the signature is also null
+    //for a recipe without ingredients, which is not in any bucket.
+    private Recipe[] recipesByDocument = new Recipe[64];
+    private short[][] signaturesByDocument = new short[64][];
+
+    //Document numbers freed by removed recipes, reused before new numbers so the documents stay dense.
+    private int[] freeDocuments = new int[16];
+    private int freeDocumentCount;
+
+    //One past the highest document number ever used.
+    private int documentLimit;
+
+    //First document in each bucket of each band, at band * bucketsPerBand + bucket. Buckets are found by the hash of
+    //a band, so different bands can share a bucket and chains are checked against the band when they are read.
+    private int[] bucketHeads = newBucketHeads(64);
+
+    //Next document in the same bucket, at document * BANDS + band.
+    private int[] nextInBucket = new int[64 * BANDS];
+
+    //Inject the dependency of the recipeMapper implementation into the SimilarRecipeFinderHandler during instantiation.
+    public SimilarRecipeFinderHandler(final RecipeMapper recipeMapperHandler) {
+        this.recipeMapperHandler = recipeMapperHandler;
+    }
+
+    /**
+     * Keeps the index up to date with the recipe cache.
+     *
+     * @param previousRecipe the recipe as it was before the change, or null if the recipe has been added.
+     * @param currentRecipe  the recipe as it is after the change, or null if the recipe has been removed.
+     */
+    @Override
+    public void recipeChanged(final Recipe previousRecipe, final Recipe currentRecipe) {
+
+        //Signatures are computed before taking the lock, so queries are only held up by the bucket updates.
+        final short[] signature = null == currentRecipe ? null : signatureOf(currentRecipe);
+
+        indexLock.writeLock().lock();
+        try {
+            if (null != previousRecipe) {
+                removeRecipe(previousRecipe.getKey());
+            }
+            if (null != currentRecipe) {
+                //A replaced recipe may keep its key, so clear out whatever the key held before.
+                removeRecipe(currentRecipe.getKey());
+                addRecipe(currentRecipe, signature);
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes whose ingredients are most similar to those of the recipe.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @param limit     the maximum number of similar recipes to return, at most MAX_SIMILAR_RECIPES.
+     * @return the similar recipes, most similar first, or null if there is no recipe with the key.
+     */
+    @Override
+    public List<SimilarRecipeModel> findSimilarRecipes(final String recipeKey, final int limit) {
+
+        if (limit < 1 || limit > MAX_SIMILAR_RECIPES) {
+            throw new InvalidRequestParameterException("The limit must be between 1 and " + MAX_SIMILAR_RECIPES);
+        }
+
+        final List<ScoredRecipe> mostSimilarRecipes;
+        indexLock.readLock().lock();
+        try {
+            final Integer document = documentsByRecipeKey.get(recipeKey);
+            if (null == document) {
+                return null;
+            }
+            //A recipe without ingredients is not similar to anything.
+            final short[] signature = signaturesByDocument[document];
+            if (null == signature) {
+                return Collections.emptyList();
+            }
+
+            //Only the recipes sharing a bucket with the recipe in at least one band are compared.
+            final Set<Integer> candidateDocuments = new LinkedHashSet<>();
+            final int bucketsPerBand = bucketsPerBand();
+            for (int band = 0; band < BANDS; band++) {
+                int candidatesFromBucket = 0;
+                int candidate = bucketHeads[band * bucketsPerBand + bucketOf(signature, band, bucketsPerBand)];
+                while (candidate != NO_DOCUMENT && candidatesFromBucket < MAX_CANDIDATES_PER_BUCKET) {
+                    if (candidate != document && bandsEqual(signature, signaturesByDocument[candidate], band)
+                            && candidateDocuments.add(candidate)) {
+                        candidatesFromBucket++;
+                    }
+                    candidate = nextInBucket[candidate * BANDS + band];
+                }
+            }
+
+            //Keep the most similar candidates, least similar at the head so it is the one replaced.
+            final PriorityQueue<ScoredRecipe> topRecipes = new PriorityQueue<>(
+                    Math.min(limit, candidateDocuments.size()) + 1, SCORE_ORDER);
+            for (final int candidate : candidateDocuments) {
+                final double similarity = MinHasher.estimateSimilarity(signature, signaturesByDocument[candidate]);
+                topRecipes.add(new ScoredRecipe(recipesByDocument[candidate], similarity));
+                if (topRecipes.size() > limit) {
+                    topRecipes.poll();
+                }
+            }
+            mostSimilarRecipes = new ArrayList<>(topRecipes);
+
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        //Recipes are immutable, so they can be mapped once the index has been released.
+        mostSimilarRecipes.sort(SCORE_ORDER.reversed());
+        final List<SimilarRecipeModel> similarRecipeModels = new ArrayList<>(mostSimilarRecipes.size());
+        for (final ScoredRecipe scoredRecipe : mostSimilarRecipes) {
+            final SimilarRecipeModel similarRecipeModel = new SimilarRecipeModel();
+            similarRecipeModel.setRecipe(recipeMapperHandler.mapDomainToModel(scoredRecipe.recipe));
+            similarRecipeModel.setSimilarity(scoredRecipe.similarity);
+            similarRecipeModels.add(similarRecipeModel);
+        }
+        return similarRecipeModels;
+    }
+
+    private short[] signatureOf(final Recipe recipe) {
+        final IngredientSet ingredientSet = recipe.getIngredientSet();
+        return null == ingredientSet || ingredientSet.isEmpty() ? null : minHasher.signatureOf(ingredientSet);
+    }
+
+    private void addRecipe(final Recipe recipe, final short[] signature) {
+
+        final int document = freeDocumentCount > 0 ? freeDocuments[--freeDocumentCount] : documentLimit++;
+        ensureDocumentCapacity(document);
+
+        documentsByRecipeKey.put(recipe.getKey(), document);
+        recipesByDocument[document] = recipe;
+        signaturesByDocument[document] = signature;
+        if (null != signature) {
+            linkIntoBuckets(document);
+        }
+    }
+
+    private void removeRecipe(final String recipeKey) {
+
+        final Integer document = documentsByRecipeKey.remove(recipeKey);
+        if (null == document) {
+            return;
+        }
+
+        final short[] signature = signaturesByDocument[document];
+        if (null != signature) {
+            final int bucketsPerBand = bucketsPerBand();
+            for (int band = 0; band < BANDS; band++) {
+                //Unlink the document from its bucket's chain.
+                final int bucketIndex = band * bucketsPerBand + bucketOf(signature, band, bucketsPerBand);
+                final int next = nextInBucket[document * BANDS + band];
+                if (bucketHeads[bucketIndex] == document) {
+                    bucketHeads[bucketIndex] = next;
+                } else {
+                    int previous = bucketHeads[bucketIndex];
+                    while (nextInBucket[previous * BANDS + band] != document) {
+                        previous = nextInBucket[previous * BANDS + band];
+                    }
+                    nextInBucket[previous * BANDS + band] = next;
+                }
+            }
+        }
+
+        recipesByDocument[document] = null;
+        signaturesByDocument[document] = null;
+        if (freeDocumentCount == freeDocuments.length) {
+            freeDocuments = Arrays.copyOf(freeDocuments, freeDocuments.length * 2);
+        }
+        freeDocuments[freeDocumentCount++] = document;
+    }
+
+    private void linkIntoBuckets(final int document) {
+
+        final short[] signature = signaturesByDocument[document];
+        final int bucketsPerBand = bucketsPerBand();
+        for (int band = 0; band < BANDS; band++) {
+            final int bucketIndex = band * bucketsPerBand + bucketOf(signature, band, bucketsPerBand);
+            nextInBucket[document * BANDS + band] = bucketHeads[bucketIndex];
+            bucketHeads[bucketIndex] = document;
+        }
+    }
+
+    private void ensureDocumentCapacity(final int document) {
+
+        if (document < recipesByDocument.length) {
+            return;
+        }
+
+        //Grow every array, and keep about one bucket per band for each document by rebuilding the buckets.
+        final int capacity = recipesByDocument.length * 2;
+        recipesByDocument = Arrays.copyOf(recipesByDocument, capacity);
+        signaturesByDocument = Arrays.copyOf(signaturesByDocument, capacity);
+        nextInBucket = new int[capacity * BANDS];
+        bucketHeads = newBucketHeads(capacity);
+        for (int existingDocument = 0; existingDocument < document; existingDocument++) {
+            if (null != signaturesByDocument[existingDocument]) {
+                linkIntoBuckets(existingDocument);
+            }
+        }
+    }
+
+    //Number of buckets in each band, a power of two.
+    private int bucketsPerBand() {
+        return bucketHeads.length / BANDS;
+    }
+
+    private static int[] newBucketHeads(final int bucketsPerBand) {
+        final int[] bucketHeads = new int[bucketsPerBand * BANDS];
+        Arrays.fill(bucketHeads, NO_DOCUMENT);
+        return bucketHeads;
+    }
+
+    //Bucket of the band of the signature, from a hash of the band's rows.
+    private static int bucketOf(final short[] signature, final int band, final int bucketsPerBand) {
+        int bandHash = 0;
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            bandHash = bandHash * 0x01000193 + (signature[row] & 0xFFFF);
+        }
+        bandHash *= 0x9E3779B9;
+        return (bandHash ^ (bandHash >>> 16)) & (bucketsPerBand - 1);
+    }
+
+    private static boolean bandsEqual(final short[] signature, final short[] otherSignature, final int band) {
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            if (signature[row] != otherSignature[row]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A candidate recipe with its estimated similarity to the recipe being queried.
+     */
+    private static final class ScoredRecipe {
+
+        private final Recipe recipe;
+        private final double similarity;
+
+        private ScoredRecipe(final Recipe recipe, final double similarity) {
+            this.recipe = recipe;
+            this.similarity = similarity;
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.eatsy.appservice.service.versioning;
+
+/**
+ * The version of the whole recipe catalog and when it last changed, e.g. for use as an ETag and Last-Modified.
+ * The version changes whenever any recipe is added, changed or removed, and is the same for the same recipes.
+ */
+public final class RecipeCatalogVersion {
+
+    //Version of the catalog's content, as 16 hex digits.
+    private final String version;
+
+    //When the catalog last changed, in milliseconds since the epoch.
+    private final long lastModified;
+
+    /**
+     * @param version      the version of the catalog's content.
+     * @param lastModified when the catalog last changed, in milliseconds since the epoch.
+     */
+    public RecipeCatalogVersion(final String version, final long lastModified) {
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @return the version of the catalog's content, as 16 hex digits.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return when the catalog last changed, in milliseconds since the epoch.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,15 @@
+package org.eatsy.appservice.service.versioning;
+
+/**
+ * Thrown when a conditional update is made against a version of a recipe that is no longer current,
+ * or against a recipe that does not exist.
+ */
+public class RecipeVersionMismatchException extends RuntimeException {
+
+    /**
+     * @param recipeKey the unique key of the recipe being updated.
+     */
+    public RecipeVersionMismatchException(final String recipeKey) {
+        super("Recipe " + recipeKey + " does not match any of the expected versions");
+    }
+}
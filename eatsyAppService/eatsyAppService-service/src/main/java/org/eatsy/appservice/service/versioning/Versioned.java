@@ -0,0 +1,39 @@
+package org.eatsy.appservice.service.versioning;
+
+/**
+ * A result together with the version of its content, e.g. for use as an ETag.
+ * The version changes whenever the content changes, and is the same for the same content.
+ *
+ * @param <T> the type of the result.
+ */
+public final class Versioned<T> {
+
+    //The result.
+    private final T value;
+
+    //Version of the result's content, as 16 hex digits.
+    private final String version;
+
+    /**
+     * @param value   the result.
+     * @param version the version of the result's content.
+     */
+    public Versioned(final T value, final String version) {
+        this.value = value;
+        this.version = version;
+    }
+
+    /**
+     * @return the result.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return the version of the result's content, as 16 hex digits.
+     */
+    public String getVersion() {
+        return version;
+    }
+}
@@ -1,16 +1,19 @@
 package org.eatsy.appservice.service;
 
 import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
 import org.eatsy.appservice.model.RecipeModel;
 import org.eatsy.appservice.model.mappers.RecipeMapper;
 import org.eatsy.appservice.persistence.model.RecipeEntity;
 import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.idempotency.IdempotencyKeyReuseException;
 import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
 import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -18,6 +21,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.HashSet;
 import java.util.TreeMap;
+import java.util.UUID;
 
 /**
  * Recipe Factory unit tests for the Create Recipe Method
@@ -48,6 +52,8 @@ public class CreateRecipeTests {
         MockitoAnnotations.openMocks(this);
         //Initialise the class under test and inject the mocks.
         recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
     }
 
     /**
@@ -196,6 +202,66 @@ public class CreateRecipeTests {
         Assertions.assertEquals(inputRecipeModel, actualRecipeModel);
     }
 
+    /**
+     * Check a create request retried with the same idempotency key returns the original recipe
+     * without mapping or persisting the recipe again.
+     */
+    @Test
+    public void checkCreateRecipeRetriedWithIdempotencyKey() {
+
+        //Setup
+        final RecipeModel inputRecipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        //Mock the services that are not being tested through these unit tests
+        createMocksForRecipeMapperAndEatsyRepositoryServicesInCreateRecipeTests(inputRecipeModel);
+        final String idempotencyKey = UUID.randomUUID().toString();
+
+        //Test
+        final RecipeModel originalRecipeModel = recipeFactoryHandler.createRecipe(idempotencyKey, inputRecipeModel);
+        final RecipeModel retriedRecipeModel = recipeFactoryHandler.createRecipe(idempotencyKey, inputRecipeModel);
+
+        //Assertions
+        Assertions.assertSame(originalRecipeModel, retriedRecipeModel);
+        Mockito.verify(recipeMapperHandler, Mockito.times(1)).mapModelToDomain(inputRecipeModel);
+        Mockito.verify(eatsyRepositoryHandler, Mockito.times(1)).persistRecipe(ArgumentMatchers.any());
+    }
+
+    /**
+     * Check an idempotency key cannot be reused to create a different recipe.
+     */
+    @Test
+    public void checkCreateRecipeWithReusedIdempotencyKey() {
+
+        //Setup
+        final RecipeModel inputRecipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        createMocksForRecipeMapperAndEatsyRepositoryServicesInCreateRecipeTests(inputRecipeModel);
+        final String idempotencyKey = UUID.randomUUID().toString();
+        recipeFactoryHandler.createRecipe(idempotencyKey, inputRecipeModel);
+        final RecipeModel differentRecipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+
+        //Test and Assertion
+        Assertions.assertThrows(IdempotencyKeyReuseException.class,
+                () -> recipeFactoryHandler.createRecipe(idempotencyKey, differentRecipeModel));
+    }
+
+    /**
+     * Check a recipe with a key too long for the key column is rejected as an invalid request without being persisted.
+     */
+    @Test
+    public void checkCreateRecipeWithTooLongKey() {
+
+        //Setup
+        final RecipeModel inputRecipeModel = RecipeModelDataFactory
+                .generateRandomRecipeModel(EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        inputRecipeModel.setKey(UUID.randomUUID() + "-too-long");
+
+        //Test and Assertions
+        Assertions.assertThrows(InvalidRequestParameterException.class, () -> recipeFactoryHandler.createRecipe(inputRecipeModel));
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).persistRecipe(ArgumentMatchers.any());
+    }
+
     /**
      * Only the Service module is under test. The Mapper and Persistence modules that the Recipe Factory interacts with
      * need to be mocked to ensure these tests are RecipeFactory unit tests.
@@ -0,0 +1,187 @@
+package org.eatsy.appservice.service;
+
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.ShoppingListItemModel;
+import org.eatsy.appservice.model.ShoppingListModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Recipe Factory unit tests for the Create Shopping List Method
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class CreateShoppingListTests {
+
+    //Create a mock implementation of the RecipeMapper. These unit tests are only concerned with the service module not the mapper module.
+    @Mock
+    private RecipeMapper recipeMapperHandler;
+
+    //Create a mock implementation of the EatsyRepositoryService. These unit tests are only concerned with the service module not the persistence module.
+    @Mock
+    private EatsyRepositoryService eatsyRepositoryHandler;
+
+    /**
+     * Class under test.
+     */
+    //Injects the dependent mocks (marked with @Mock) for a recipe factory instance.
+    @InjectMocks
+    private RecipeFactoryHandler recipeFactoryHandler;
+
+    @BeforeEach
+    public void setup() {
+        //Initialise the mock objects upon initialisation of Junit tests.
+        MockitoAnnotations.openMocks(this);
+        //Initialise the class under test and inject the mocks.
+        recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
+    }
+
+    /**
+     * Check the ingredients of cached recipes are merged, each listed once with the number of recipes needing it,
+     * and that unknown keys are reported rather than failing the whole list.
+     */
+    @Test
+    public void checkCreateShoppingList() {
+
+        //Setup
+        final List<RecipeModel> recipeModelsInCache = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final String unknownRecipeKey = UUID.randomUUID().toString();
+        Mockito.when(eatsyRepositoryHandler.retrieveRecipesByKeys(Collections.singletonList(unknownRecipeKey)))
+                .thenReturn(Collections.<RecipeEntity>emptyList());
+
+        //Ask for every cached recipe, the first one twice, and one that does not exist.
+        final List<String> requestedRecipeKeys = new ArrayList<>();
+        final Map<String, Integer> expectedRecipeCounts = new HashMap<>();
+        for (final RecipeModel recipeModel : recipeModelsInCache) {
+            requestedRecipeKeys.add(recipeModel.getKey());
+            for (final String ingredient : recipeModel.getIngredientSet()) {
+                expectedRecipeCounts.merge(ingredient, 1, Integer::sum);
+            }
+        }
+        requestedRecipeKeys.add(recipeModelsInCache.get(0).getKey());
+        requestedRecipeKeys.add(unknownRecipeKey);
+
+        //Test
+        final ShoppingListModel shoppingList = recipeFactoryHandler.createShoppingList(requestedRecipeKeys);
+
+        //Assertions
+        final Map<String, Integer> actualRecipeCounts = new HashMap<>();
+        for (final ShoppingListItemModel item : shoppingList.getItems()) {
+            actualRecipeCounts.put(item.getIngredient(), item.getRecipeCount());
+        }
+        Assertions.assertEquals(expectedRecipeCounts.size(), shoppingList.getItems().size());
+        Assertions.assertEquals(expectedRecipeCounts, actualRecipeCounts);
+        Assertions.assertEquals(Collections.singletonList(unknownRecipeKey), shoppingList.getUnknownRecipeKeys());
+        Mockito.verify(eatsyRepositoryHandler).retrieveRecipesByKeys(Collections.singletonList(unknownRecipeKey));
+
+    }
+
+    /**
+     * Check the recipes that are not cached are loaded from the database together in a single query,
+     * and are cached so a later shopping list does not load them again.
+     */
+    @Test
+    public void checkCreateShoppingListLoadsUncachedRecipesInOneQuery() {
+
+        //Setup
+        //1) Create the persisted recipe entities, none of which are cached.
+        final List<RecipeEntity> persistedRecipeEntities = RecipeEntityDataFactory.generateRecipeEntityList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        persistedRecipeEntities.forEach(recipeEntity -> recipeEntity.setKey(UUID.randomUUID().toString()));
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, persistedRecipeEntities);
+        Mockito.when(eatsyRepositoryHandler.retrieveRecipesByKeys(ArgumentMatchers.anyCollection()))
+                .thenReturn(persistedRecipeEntities);
+
+        //2) Ask for every persisted recipe and one that does not exist.
+        final List<String> requestedRecipeKeys = new ArrayList<>();
+        final Map<String, Integer> expectedRecipeCounts = new HashMap<>();
+        for (final RecipeEntity recipeEntity : persistedRecipeEntities) {
+            requestedRecipeKeys.add(recipeEntity.getKey());
+            for (final String ingredient : recipeEntity.getIngredientSet()) {
+                expectedRecipeCounts.merge(ingredient, 1, Integer::sum);
+            }
+        }
+        final String unknownRecipeKey = UUID.randomUUID().toString();
+        requestedRecipeKeys.add(unknownRecipeKey);
+
+        //Test - the second shopping list is made from the recipes cached by the first.
+        final ShoppingListModel shoppingList = recipeFactoryHandler.createShoppingList(requestedRecipeKeys);
+        final ShoppingListModel cachedShoppingList = recipeFactoryHandler.createShoppingList(requestedRecipeKeys.subList(0, 1));
+
+        //Assertions
+        final Map<String, Integer> actualRecipeCounts = new HashMap<>();
+        for (final ShoppingListItemModel item : shoppingList.getItems()) {
+            actualRecipeCounts.put(item.getIngredient(), item.getRecipeCount());
+        }
+        Assertions.assertEquals(expectedRecipeCounts, actualRecipeCounts);
+        Assertions.assertEquals(Collections.singletonList(unknownRecipeKey), shoppingList.getUnknownRecipeKeys());
+        Assertions.assertTrue(cachedShoppingList.getUnknownRecipeKeys().isEmpty());
+        Mockito.verify(eatsyRepositoryHandler, Mockito.times(1)).retrieveRecipesByKeys(ArgumentMatchers.anyCollection());
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).retrieveRecipesInKeyRange(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+
+    }
+
+    /**
+     * Check that once the cache holds every persisted recipe, keys that are not cached are reported as unknown
+     * without going to the database.
+     */
+    @Test
+    public void checkCreateShoppingListWithCompleteCacheDoesNotQuery() {
+
+        //Setup - warm up the cache from an empty recipe table, so the cache is complete.
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipeKeys()).thenReturn(Collections.<String>emptyList());
+        recipeFactoryHandler.warmUpRecipeCache(10, 1, Mockito.mock(RecipeCacheWarmUpListener.class));
+        final String unknownRecipeKey = UUID.randomUUID().toString();
+
+        //Test
+        final ShoppingListModel shoppingList = recipeFactoryHandler.createShoppingList(Collections.singletonList(unknownRecipeKey));
+
+        //Assertions
+        Assertions.assertTrue(shoppingList.getItems().isEmpty());
+        Assertions.assertEquals(Collections.singletonList(unknownRecipeKey), shoppingList.getUnknownRecipeKeys());
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).retrieveRecipesByKeys(ArgumentMatchers.anyCollection());
+
+    }
+
+    /**
+     * Check a shopping list of too many recipes is rejected.
+     */
+    @Test
+    public void checkCreateShoppingListWithTooManyRecipes() {
+
+        //Setup
+        final List<String> requestedRecipeKeys = new ArrayList<>();
+        for (int i = 0; i <= RecipeFactoryHandler.MAX_SHOPPING_LIST_RECIPES; i++) {
+            requestedRecipeKeys.add(UUID.randomUUID().toString());
+        }
+
+        //Test and Assertion
+        Assertions.assertThrows(InvalidRequestParameterException.class, () -> recipeFactoryHandler.createShoppingList(requestedRecipeKeys));
+
+    }
+
+}
@@ -42,6 +42,8 @@ public class DeleteRecipeTests {
         MockitoAnnotations.openMocks(this);
         //Initialise the class under test and inject the mocks.
         recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
     }
 
     /**
@@ -1,21 +1,34 @@
 package org.eatsy.appservice.service;
 
 import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.domain.RecipeContentHash;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
 import org.eatsy.appservice.model.RecipeModel;
 import org.eatsy.appservice.model.mappers.RecipeMapper;
 import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.versioning.RecipeVersionMismatchException;
+import org.eatsy.appservice.service.versioning.Versioned;
 import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
 import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Recipe Factory unit tests for the Edit Recipe Method
@@ -46,6 +59,8 @@ public class EditRecipeTests {
         MockitoAnnotations.openMocks(this);
         //Initialise the class under test and inject the mocks.
         recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
     }
 
     /**
@@ -88,4 +103,283 @@ public class EditRecipeTests {
 
     }
 
+    /**
+     * Check an update that does not change the recipe is not persisted again.
+     */
+    @Test
+    public void checkEditRecipeUnchangedSkipsPersistence() {
+
+        //Setup
+        //1) Add recipes to the cache as setup for the test.
+        final List<RecipeModel> inputRecipeModelWithKeysList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        Mockito.clearInvocations(eatsyRepositoryHandler);
+
+        //2) Submit one of the recipes unchanged, mapping to a domain recipe equal to the cached one.
+        final RecipeModel unchangedRecipeModel = inputRecipeModelWithKeysList.get(0);
+        final Recipe unchangedDomainRecipe = RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(
+                unchangedRecipeModel, unchangedRecipeModel.getKey());
+        Mockito.when(recipeMapperHandler.mapModelToDomain(unchangedRecipeModel)).thenReturn(unchangedDomainRecipe);
+        Mockito.when(recipeMapperHandler.mapDomainToModel(unchangedDomainRecipe)).thenReturn(unchangedRecipeModel);
+
+        //Test
+        final RecipeModel actualRecipeModel = recipeFactoryHandler.updateRecipe(unchangedRecipeModel.getKey(), unchangedRecipeModel);
+
+        //Assertions
+        Assertions.assertEquals(unchangedRecipeModel, actualRecipeModel);
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).persistRecipe(ArgumentMatchers.any());
+
+    }
+
+    /**
+     * Check a conditional edit made against the current version of the recipe is applied and returns the new version.
+     */
+    @Test
+    public void checkEditRecipeWithCurrentVersion() {
+
+        //Setup
+        final List<RecipeModel> inputRecipeModelWithKeysList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final RecipeModel recipeModelToEdit = inputRecipeModelWithKeysList.get(0);
+        final String recipeKey = recipeModelToEdit.getKey();
+        final String currentVersion = recipeFactoryHandler.retrieveRecipe(recipeKey).getVersion();
+
+        recipeModelToEdit.setName("Updated name");
+        final Recipe updatedDomainRecipe = RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(recipeModelToEdit, recipeKey);
+        Mockito.when(recipeMapperHandler.mapModelToDomain(recipeModelToEdit)).thenReturn(updatedDomainRecipe);
+        Mockito.when(recipeMapperHandler.mapDomainToModel(updatedDomainRecipe)).thenReturn(recipeModelToEdit);
+
+        //Test
+        final Versioned<RecipeModel> actualUpdatedRecipe = recipeFactoryHandler.updateRecipe(
+                recipeKey, recipeModelToEdit, Collections.singletonList(currentVersion));
+
+        //Assertions
+        Assertions.assertEquals(recipeModelToEdit, actualUpdatedRecipe.getValue());
+        Assertions.assertEquals(RecipeContentHash.toHex(updatedDomainRecipe.getContentHash()), actualUpdatedRecipe.getVersion());
+        Assertions.assertNotEquals(currentVersion, actualUpdatedRecipe.getVersion());
+
+    }
+
+    /**
+     * Check a conditional edit made against a version the recipe is no longer at is rejected without persisting anything.
+     */
+    @Test
+    public void checkEditRecipeWithStaleVersion() {
+
+        //Setup
+        final List<RecipeModel> inputRecipeModelWithKeysList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        Mockito.clearInvocations(eatsyRepositoryHandler);
+        final RecipeModel recipeModelToEdit = inputRecipeModelWithKeysList.get(0);
+        final String staleVersion = RecipeContentHash.toHex(~RecipeContentHash.ofString(recipeModelToEdit.getName()));
+
+        //Test and Assertions
+        Assertions.assertThrows(RecipeVersionMismatchException.class, () -> recipeFactoryHandler.updateRecipe(
+                recipeModelToEdit.getKey(), recipeModelToEdit, Collections.singletonList(staleVersion)));
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).persistRecipe(ArgumentMatchers.any());
+
+    }
+
+    /**
+     * Check a conditional edit made against any version is applied to an existing recipe, whatever its version.
+     */
+    @Test
+    public void checkEditRecipeWithAnyVersion() {
+
+        //Setup
+        final List<RecipeModel> inputRecipeModelWithKeysList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final RecipeModel recipeModelToEdit = inputRecipeModelWithKeysList.get(0);
+        final String recipeKey = recipeModelToEdit.getKey();
+
+        recipeModelToEdit.setName("Updated name");
+        final Recipe updatedDomainRecipe = RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(recipeModelToEdit, recipeKey);
+        Mockito.when(recipeMapperHandler.mapModelToDomain(recipeModelToEdit)).thenReturn(updatedDomainRecipe);
+        Mockito.when(recipeMapperHandler.mapDomainToModel(updatedDomainRecipe)).thenReturn(recipeModelToEdit);
+
+        //Test
+        final Versioned<RecipeModel> actualUpdatedRecipe = recipeFactoryHandler.updateRecipe(
+                recipeKey, recipeModelToEdit, Collections.singletonList(RecipeFactory.ANY_VERSION));
+
+        //Assertions
+        Assertions.assertEquals(recipeModelToEdit, actualUpdatedRecipe.getValue());
+        Assertions.assertEquals(RecipeContentHash.toHex(updatedDomainRecipe.getContentHash()), actualUpdatedRecipe.getVersion());
+
+    }
+
+    /**
+     * Check a conditional edit made against any version is rejected without persisting anything if the recipe
+     * does not exist, rather than creating it.
+     */
+    @Test
+    public void checkEditMissingRecipeWithAnyVersion() {
+
+        //Setup
+        final RecipeModel recipeModelToEdit = RecipeModelDataFactory.generateRandomRecipeModel(
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModelToEdit.setKey(UUID.randomUUID().toString());
+        final Recipe updatedDomainRecipe = RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(recipeModelToEdit, recipeModelToEdit.getKey());
+        Mockito.when(recipeMapperHandler.mapModelToDomain(recipeModelToEdit)).thenReturn(updatedDomainRecipe);
+
+        //Test and Assertions
+        Assertions.assertThrows(RecipeVersionMismatchException.class, () -> recipeFactoryHandler.updateRecipe(
+                recipeModelToEdit.getKey(), recipeModelToEdit, Collections.singletonList(RecipeFactory.ANY_VERSION)));
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).persistRecipe(ArgumentMatchers.any());
+
+    }
+
+    /**
+     * Check two conditional edits made against the same version at the same time cannot both be applied:
+     * the second is checked once the first has been written, so it is rejected as stale.
+     */
+    @Test
+    public void checkConcurrentEditsWithSameVersion() throws Exception {
+
+        //Setup
+        final List<RecipeModel> inputRecipeModelWithKeysList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final RecipeModel existingRecipeModel = inputRecipeModelWithKeysList.get(0);
+        final String recipeKey = existingRecipeModel.getKey();
+        final List<String> currentVersion = Collections.singletonList(recipeFactoryHandler.retrieveRecipe(recipeKey).getVersion());
+        final RecipeModel firstEdit = createEdit(existingRecipeModel, "First edit");
+        final RecipeModel secondEdit = createEdit(existingRecipeModel, "Second edit");
+        Mockito.clearInvocations(eatsyRepositoryHandler);
+
+        //The first write to the database is held until the second edit has been started.
+        final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        Mockito.when(eatsyRepositoryHandler.persistRecipe(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.getArgument(0);
+        });
+
+        //Test
+        final ExecutorService editExecutor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Versioned<RecipeModel>> firstResult = editExecutor.submit(() ->
+                    recipeFactoryHandler.updateRecipe(recipeKey, firstEdit, currentVersion));
+            Assertions.assertTrue(firstWriteStarted.await(10, TimeUnit.SECONDS));
+            final Future<Versioned<RecipeModel>> secondResult = editExecutor.submit(() ->
+                    recipeFactoryHandler.updateRecipe(recipeKey, secondEdit, currentVersion));
+            //Give the second edit time to reach its version check before the first write completes.
+            Thread.sleep(100);
+            releaseFirstWrite.countDown();
+
+            //Assertions
+            Assertions.assertEquals(firstEdit, firstResult.get(10, TimeUnit.SECONDS).getValue());
+            final ExecutionException secondFailure = Assertions.assertThrows(ExecutionException.class,
+                    () -> secondResult.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(secondFailure.getCause() instanceof RecipeVersionMismatchException);
+            Mockito.verify(eatsyRepositoryHandler, Mockito.times(1)).persistRecipe(ArgumentMatchers.any());
+        } finally {
+            editExecutor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Check an edit that gives a recipe a key too long for the key column is rejected as an invalid request
+     * without being persisted.
+     */
+    @Test
+    public void checkEditRecipeWithTooLongKey() {
+
+        //Setup
+        final List<RecipeModel> inputRecipeModelWithKeysList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final RecipeModel existingRecipeModel = inputRecipeModelWithKeysList.get(0);
+        final RecipeModel editedRecipeModel = createEdit(existingRecipeModel, "Edited name");
+        editedRecipeModel.setKey(existingRecipeModel.getKey() + "-too-long");
+        Mockito.clearInvocations(eatsyRepositoryHandler);
+
+        //Test and Assertions
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> recipeFactoryHandler.updateRecipe(existingRecipeModel.getKey(), editedRecipeModel));
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).persistRecipe(ArgumentMatchers.any());
+    }
+
+    /**
+     * Check a write to one recipe does not hold up an edit of another recipe while it is written to the database.
+     */
+    @Test
+    public void checkEditIsNotHeldUpByDatabaseWriteOfAnotherRecipe() throws Exception {
+
+        //Setup - two recipes whose keys are guarded by different locks.
+        final RecipeModel firstRecipeModel = createRecipeInCache("a");
+        final RecipeModel secondRecipeModel = createRecipeInCache("b");
+        final RecipeModel firstEdit = createEdit(firstRecipeModel, "First edit");
+        final RecipeModel secondEdit = createEdit(secondRecipeModel, "Second edit");
+
+        //The first write to the database is held until the edit of the other recipe has completed.
+        final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        Mockito.when(eatsyRepositoryHandler.persistRecipe(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.getArgument(0);
+        });
+
+        //Test
+        final ExecutorService editExecutor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<RecipeModel> firstResult = editExecutor.submit(() ->
+                    recipeFactoryHandler.updateRecipe(firstRecipeModel.getKey(), firstEdit));
+            Assertions.assertTrue(firstWriteStarted.await(10, TimeUnit.SECONDS));
+            final Future<RecipeModel> secondResult = editExecutor.submit(() ->
+                    recipeFactoryHandler.updateRecipe(secondRecipeModel.getKey(), secondEdit));
+
+            //Assertions
+            Assertions.assertEquals(secondEdit, secondResult.get(10, TimeUnit.SECONDS));
+            Assertions.assertFalse(firstResult.isDone());
+            releaseFirstWrite.countDown();
+            Assertions.assertEquals(firstEdit, firstResult.get(10, TimeUnit.SECONDS));
+        } finally {
+            releaseFirstWrite.countDown();
+            editExecutor.shutdownNow();
+        }
+
+    }
+
+    /**
+     * Creates a recipe with a specified key in the recipe cache, mocking how it is mapped.
+     *
+     * @param recipeKey the unique ID of the recipe.
+     * @return the recipe model of the created recipe.
+     */
+    private RecipeModel createRecipeInCache(final String recipeKey) {
+
+        final RecipeModel recipeModel = RecipeModelDataFactory.generateRandomRecipeModel(
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModel.setKey(recipeKey);
+        Mockito.when(recipeMapperHandler.mapModelToDomain(recipeModel))
+                .thenReturn(RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(recipeModel, recipeKey));
+        recipeFactoryHandler.createRecipe(recipeModel);
+        return recipeModel;
+    }
+
+    /**
+     * Creates an edit of an existing recipe with a new name, mocking how it is mapped.
+     *
+     * @param existingRecipeModel the recipe being edited.
+     * @param name                the new name of the recipe.
+     * @return the edited recipe model.
+     */
+    private RecipeModel createEdit(final RecipeModel existingRecipeModel, final String name) {
+
+        final RecipeModel editedRecipeModel = new RecipeModel();
+        editedRecipeModel.setKey(existingRecipeModel.getKey());
+        editedRecipeModel.setName(name);
+        editedRecipeModel.setIngredientSet(existingRecipeModel.getIngredientSet());
+        editedRecipeModel.setMethod(existingRecipeModel.getMethod());
+        final Recipe editedDomainRecipe = RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(editedRecipeModel, existingRecipeModel.getKey());
+        Mockito.when(recipeMapperHandler.mapModelToDomain(editedRecipeModel)).thenReturn(editedDomainRecipe);
+        Mockito.when(recipeMapperHandler.mapDomainToModel(editedDomainRecipe)).thenReturn(editedRecipeModel);
+        return editedRecipeModel;
+    }
+
 }
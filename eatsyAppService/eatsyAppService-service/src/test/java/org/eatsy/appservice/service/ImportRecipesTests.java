@@ -0,0 +1,154 @@
+package org.eatsy.appservice.service;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeImportResultModel;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recipe Factory unit tests for the Import Recipes Method
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class ImportRecipesTests {
+
+    //Create a mock implementation of the RecipeMapper. These unit tests are only concerned with the service module not the mapper module.
+    @Mock
+    private RecipeMapper recipeMapperHandler;
+
+    //Create a mock implementation of the EatsyRepositoryService. These unit tests are only concerned with the service module not the persistence module.
+    @Mock
+    private EatsyRepositoryService eatsyRepositoryHandler;
+
+    /**
+     * Class under test.
+     */
+    //Injects the dependent mocks (marked with @Mock) for a recipe factory instance.
+    @InjectMocks
+    private RecipeFactoryHandler recipeFactoryHandler;
+
+    @BeforeEach
+    public void setup() {
+        //Initialise the mock objects upon initialisation of Junit tests.
+        MockitoAnnotations.openMocks(this);
+        //Initialise the class under test and inject the mocks.
+        recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
+    }
+
+    /**
+     * Check a batch of recipes is saved in a single repository call and cached, and a recipe with no name is rejected
+     * without failing the rest of the batch.
+     */
+    @Test
+    public void checkImportRecipes() {
+
+        //Setup
+        //1) The valid recipes to import, and their mocked mapping and persistence.
+        final List<RecipeModel> validRecipeModels = RecipeModelDataFactory.generateRecipeModelsList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        RecipeMockFactory.createMocksForRecipeMapperAndEatsyRepositoryServices(validRecipeModels, recipeMapperHandler, eatsyRepositoryHandler);
+
+        //2) A recipe with no name, first in the batch.
+        final RecipeModel namelessRecipeModel = RecipeModelDataFactory.generateRandomRecipeModel(
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        namelessRecipeModel.setName(" ");
+        final List<RecipeModel> recipeModelsToImport = new ArrayList<>();
+        recipeModelsToImport.add(namelessRecipeModel);
+        recipeModelsToImport.addAll(validRecipeModels);
+
+        //Test
+        final List<RecipeImportResultModel> importResults = recipeFactoryHandler.importRecipes(recipeModelsToImport);
+
+        //Assertions
+        Assertions.assertEquals(recipeModelsToImport.size(), importResults.size());
+        Assertions.assertNull(importResults.get(0).getKey());
+        Assertions.assertNotNull(importResults.get(0).getError());
+        for (int i = 0; i < validRecipeModels.size(); i++) {
+            final RecipeImportResultModel importResult = importResults.get(i + 1);
+            Assertions.assertNull(importResult.getError());
+            Assertions.assertEquals(validRecipeModels.get(i).getName(),
+                    recipeFactoryHandler.retrieveRecipe(importResult.getKey()).getValue().getName());
+        }
+        Mockito.verify(eatsyRepositoryHandler, Mockito.times(1)).persistRecipes(ArgumentMatchers.argThat(
+                recipeEntities -> recipeEntities.size() == validRecipeModels.size()));
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).persistRecipe(ArgumentMatchers.any());
+
+    }
+
+    /**
+     * Check a recipe with a key that is too long, used by an earlier recipe in the batch or used by an existing recipe
+     * is rejected, and only the recipes with usable keys are persisted.
+     */
+    @Test
+    public void checkImportRecipesRejectsUnusableKeys() {
+
+        //Setup
+        //1) A recipe with a key too long for the key column, which is rejected before it is mapped.
+        final RecipeModel longKeyRecipeModel = generateRecipeModelWithKey(StringUtils.repeat('k', RecipeEntity.MAX_KEY_LENGTH + 1));
+
+        //2) A recipe with the key of an existing recipe.
+        final RecipeModel existingKeyRecipeModel = generateRecipeModelWithKey("existing-key");
+        mockMappingWithSpecifiedKey(existingKeyRecipeModel);
+        Mockito.when(eatsyRepositoryHandler.retrieveExistingRecipeKeys(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.singletonList("existing-key"));
+
+        //3) Two recipes with the same new key.
+        final RecipeModel firstRecipeModel = generateRecipeModelWithKey("shared-key");
+        final RecipeModel duplicateKeyRecipeModel = generateRecipeModelWithKey("shared-key");
+        mockMappingWithSpecifiedKey(firstRecipeModel);
+        mockMappingWithSpecifiedKey(duplicateKeyRecipeModel);
+
+        //Test
+        final List<RecipeImportResultModel> importResults = recipeFactoryHandler.importRecipes(
+                Arrays.asList(longKeyRecipeModel, existingKeyRecipeModel, firstRecipeModel, duplicateKeyRecipeModel));
+
+        //Assertions
+        Assertions.assertNotNull(importResults.get(0).getError());
+        Assertions.assertNotNull(importResults.get(1).getError());
+        Assertions.assertNull(importResults.get(1).getKey());
+        Assertions.assertNull(importResults.get(2).getError());
+        Assertions.assertEquals("shared-key", importResults.get(2).getKey());
+        Assertions.assertNotNull(importResults.get(3).getError());
+        Mockito.verify(recipeMapperHandler, Mockito.never()).mapModelToDomain(longKeyRecipeModel);
+        Mockito.verify(eatsyRepositoryHandler, Mockito.times(1)).retrieveExistingRecipeKeys(
+                ArgumentMatchers.argThat(recipeKeys -> recipeKeys.size() == 2));
+        Mockito.verify(eatsyRepositoryHandler, Mockito.times(1)).persistRecipes(ArgumentMatchers.argThat(
+                recipeEntities -> recipeEntities.size() == 1 && "shared-key".equals(recipeEntities.get(0).getKey())));
+
+    }
+
+    private static RecipeModel generateRecipeModelWithKey(final String key) {
+        final RecipeModel recipeModel = RecipeModelDataFactory.generateRandomRecipeModel(
+                EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        recipeModel.setKey(key);
+        return recipeModel;
+    }
+
+    private void mockMappingWithSpecifiedKey(final RecipeModel recipeModel) {
+        final Recipe recipe = RecipeMockFactory.createMockDomainRecipeWithSpecifiedKey(recipeModel, recipeModel.getKey());
+        Mockito.when(recipeMapperHandler.mapModelToDomain(recipeModel)).thenReturn(recipe);
+        Mockito.when(recipeMapperHandler.mapDomainToEntity(recipe)).thenReturn(RecipeMockFactory.createMockRecipeEntity(recipe));
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.eatsy.appservice.service;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.eatsy.appservice.service.cache.RecipeChangeListener;
+import org.eatsy.appservice.service.idempotency.IdempotencyStore;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Recipe Factory unit tests for the notification of recipe change listeners
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RecipeChangeListenerTests {
+
+    //Create a mock implementation of the RecipeMapper. These unit tests are only concerned with the service module not the mapper module.
+    @Mock
+    private RecipeMapper recipeMapperHandler;
+
+    //Create a mock implementation of the EatsyRepositoryService. These unit tests are only concerned with the service module not the persistence module.
+    @Mock
+    private EatsyRepositoryService eatsyRepositoryHandler;
+
+    /**
+     * Class under test.
+     */
+    //Injects the dependent mocks (marked with @Mock) for a recipe factory instance.
+    @InjectMocks
+    private RecipeFactoryHandler recipeFactoryHandler;
+
+    //Changes received by the listener, as {previous recipe, current recipe} pairs.
+    private List<Recipe[]> recipeChanges;
+
+    //Recipe writes received by the listener, as {previous recipe, current recipe} pairs.
+    private List<Recipe[]> recipeMutations;
+
+    @BeforeEach
+    public void setup() {
+        //Initialise the mock objects upon initialisation of Junit tests.
+        MockitoAnnotations.openMocks(this);
+        //Initialise the class under test with a listener that records every change and write, and inject the mocks.
+        recipeChanges = new ArrayList<>();
+        recipeMutations = new ArrayList<>();
+        final RecipeChangeListener recordingListener = new RecipeChangeListener() {
+            @Override
+            public void recipeChanged(final Recipe previousRecipe, final Recipe currentRecipe) {
+                recipeChanges.add(new Recipe[]{previousRecipe, currentRecipe});
+            }
+
+            @Override
+            public void recipeMutated(final Recipe previousRecipe, final Recipe currentRecipe) {
+                recipeMutations.add(new Recipe[]{previousRecipe, currentRecipe});
+            }
+        };
+        recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler,
+                new IdempotencyStore<>(10000, 1, TimeUnit.DAYS), false, Collections.singletonList(recordingListener));
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
+    }
+
+    /**
+     * Check the listener is told of every recipe created, then of a recipe being deleted.
+     */
+    @Test
+    public void checkListenerNotifiedOfCreateAndDelete() {
+
+        //Setup
+        final List<RecipeModel> createdRecipeModels = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final String deletedRecipeKey = createdRecipeModels.get(0).getKey();
+
+        //Assertions - one addition per created recipe, in the order they were created.
+        Assertions.assertEquals(createdRecipeModels.size(), recipeChanges.size());
+        for (int i = 0; i < createdRecipeModels.size(); i++) {
+            Assertions.assertNull(recipeChanges.get(i)[0]);
+            Assertions.assertEquals(createdRecipeModels.get(i).getKey(), recipeChanges.get(i)[1].getKey());
+        }
+
+        //Test
+        recipeChanges.clear();
+        recipeFactoryHandler.deleteRecipe(deletedRecipeKey);
+
+        //Assertions - one removal of the deleted recipe.
+        Assertions.assertEquals(1, recipeChanges.size());
+        Assertions.assertEquals(deletedRecipeKey, recipeChanges.get(0)[0].getKey());
+        Assertions.assertNull(recipeChanges.get(0)[1]);
+    }
+
+    /**
+     * Check the listener is not told of a deletion that does not change the cache.
+     */
+    @Test
+    public void checkListenerNotNotifiedOfUnknownRecipeDeletion() {
+
+        //Setup
+        RecipeMockFactory.createRecipesInCache(recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        recipeChanges.clear();
+
+        //Test
+        recipeFactoryHandler.deleteRecipe("unknown key");
+
+        //Assertion
+        Assertions.assertTrue(recipeChanges.isEmpty());
+    }
+
+    /**
+     * Check the listener is told of recipes loaded into the cache as changes but not as writes,
+     * and of a recipe being deleted as both.
+     */
+    @Test
+    public void checkListenerNotifiedOfWritesButNotCacheLoads() {
+
+        //Setup
+        //1) Persisted recipe entities, in key order, returned by the repository for each requested key range.
+        final List<RecipeEntity> persistedRecipeEntities = RecipeEntityDataFactory.generateRecipeEntityList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        persistedRecipeEntities.forEach(recipeEntity -> recipeEntity.setKey(UUID.randomUUID().toString()));
+        persistedRecipeEntities.sort(Comparator.comparing(RecipeEntity::getKey));
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipeKeys())
+                .thenReturn(persistedRecipeEntities.stream().map(RecipeEntity::getKey).collect(Collectors.toList()));
+        Mockito.when(eatsyRepositoryHandler.retrieveRecipesInKeyRange(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> persistedRecipeEntities.stream()
+                        .filter(recipeEntity -> recipeEntity.getKey().compareTo(invocation.getArgument(0)) >= 0
+                                && recipeEntity.getKey().compareTo(invocation.getArgument(1)) <= 0)
+                        .collect(Collectors.toList()));
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, persistedRecipeEntities);
+        final String deletedRecipeKey = persistedRecipeEntities.get(0).getKey();
+
+        //Test
+        recipeFactoryHandler.warmUpRecipeCache(2, 1, Mockito.mock(RecipeCacheWarmUpListener.class));
+
+        //Assertions - every loaded recipe is a change, none are writes.
+        Assertions.assertEquals(persistedRecipeEntities.size(), recipeChanges.size());
+        Assertions.assertTrue(recipeMutations.isEmpty());
+
+        //Test
+        recipeFactoryHandler.deleteRecipe(deletedRecipeKey);
+
+        //Assertions - the deletion is both a change and a write.
+        Assertions.assertEquals(persistedRecipeEntities.size() + 1, recipeChanges.size());
+        Assertions.assertEquals(1, recipeMutations.size());
+        Assertions.assertEquals(deletedRecipeKey, recipeMutations.get(0)[0].getKey());
+        Assertions.assertNull(recipeMutations.get(0)[1]);
+    }
+
+}
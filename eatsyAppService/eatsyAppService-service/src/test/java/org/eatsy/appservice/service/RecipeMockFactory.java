@@ -8,6 +8,7 @@ import org.eatsy.appservice.persistence.model.RecipeEntity;
 import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
 import org.eatsy.appservice.testdatageneration.RecipeModelDataFactory;
 import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
@@ -18,6 +19,19 @@ import java.util.List;
  */
 public interface RecipeMockFactory {
 
+    /**
+     * Configures the bulk mapping methods of the mocked RecipeMapper to use their default implementations,
+     * which map each recipe through the individual mapping methods. Those can then be mocked per recipe as usual.
+     *
+     * @param recipeMapperHandler mock implementation of the RecipeMapper
+     */
+    static void mockBulkMappingMethods(final RecipeMapper recipeMapperHandler) {
+        Mockito.when(recipeMapperHandler.mapEntitiesToDomains(ArgumentMatchers.anyList())).thenCallRealMethod();
+        Mockito.when(recipeMapperHandler.mapDomainsToModels(ArgumentMatchers.anyList())).thenCallRealMethod();
+        Mockito.when(recipeMapperHandler.mapEntitiesToModels(ArgumentMatchers.anyList())).thenCallRealMethod();
+        Mockito.when(recipeMapperHandler.mapEntitiesToModels(ArgumentMatchers.anyList(), ArgumentMatchers.anySet())).thenCallRealMethod();
+    }
+
     /**
      * Only the Service module is under test. The Mapper and Persistence modules that the Recipe Factory interacts with
      * need to be mocked to ensure these tests are RecipeFactory unit tests.
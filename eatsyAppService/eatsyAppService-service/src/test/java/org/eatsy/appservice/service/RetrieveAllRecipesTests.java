@@ -1,19 +1,35 @@
 package org.eatsy.appservice.service;
 
+import org.eatsy.appservice.model.RecipeField;
 import org.eatsy.appservice.model.RecipeModel;
 import org.eatsy.appservice.model.mappers.RecipeMapper;
 import org.eatsy.appservice.persistence.model.RecipeEntity;
 import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.idempotency.IdempotencyStore;
+import org.eatsy.appservice.service.versioning.RecipeCatalogVersion;
+import org.eatsy.appservice.service.versioning.Versioned;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -44,6 +60,8 @@ public class RetrieveAllRecipesTests {
         MockitoAnnotations.openMocks(this);
         //Initialise the class under test and inject the mocks.
         recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
     }
 
     /**
@@ -70,5 +88,148 @@ public class RetrieveAllRecipesTests {
 
     }
 
+    /**
+     * Check the catalog version is only known once every recipe has been loaded into the cache,
+     * stays the same while nothing changes and changes when a recipe is deleted.
+     */
+    @Test
+    public void checkRetrieveRecipeCatalogVersion() {
+
+        //Setup and mocking
+        final List<RecipeModel> expectedRecipeModelList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final List<RecipeEntity> expectedRecipeEntityList = RecipeMockFactory.createMockRecipeEntity(expectedRecipeModelList);
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipes()).thenReturn(expectedRecipeEntityList);
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, expectedRecipeEntityList);
+        //Recipes created so far are cached, but the cache is not yet known to hold every persisted recipe.
+        Assertions.assertNull(recipeFactoryHandler.retrieveRecipeCatalogVersion());
+
+        //Test
+        recipeFactoryHandler.retrieveAllRecipesVersioned();
+        final RecipeCatalogVersion catalogVersion = recipeFactoryHandler.retrieveRecipeCatalogVersion();
+        final RecipeCatalogVersion unchangedCatalogVersion = recipeFactoryHandler.retrieveRecipeCatalogVersion();
+        recipeFactoryHandler.deleteRecipe(expectedRecipeModelList.get(0).getKey());
+        final RecipeCatalogVersion changedCatalogVersion = recipeFactoryHandler.retrieveRecipeCatalogVersion();
+
+        //Assertions
+        Assertions.assertNotNull(catalogVersion);
+        Assertions.assertEquals(catalogVersion.getVersion(), unchangedCatalogVersion.getVersion());
+        Assertions.assertEquals(catalogVersion.getLastModified(), unchangedCatalogVersion.getLastModified());
+        Assertions.assertNotEquals(catalogVersion.getVersion(), changedCatalogVersion.getVersion());
+        Assertions.assertTrue(changedCatalogVersion.getLastModified() >= catalogVersion.getLastModified());
+
+    }
+
+    /**
+     * Check a recipe deleted while all recipes are being read from the database is not put back into the cache
+     * by the out of date recipes that were read.
+     */
+    @Test
+    public void checkRetrieveAllRecipesDoesNotRestoreRecipeDeletedWhileLoading() throws Exception {
+
+        //Setup and mocking
+        final List<RecipeModel> expectedRecipeModelList = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final List<RecipeEntity> expectedRecipeEntityList = RecipeMockFactory.createMockRecipeEntity(expectedRecipeModelList);
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, expectedRecipeEntityList);
+
+        //The recipes are read from the database before the delete, and returned once it has been made.
+        final CountDownLatch recipesRead = new CountDownLatch(1);
+        final CountDownLatch releaseRecipes = new CountDownLatch(1);
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipes()).thenAnswer(invocation -> {
+            recipesRead.countDown();
+            releaseRecipes.await(10, TimeUnit.SECONDS);
+            return expectedRecipeEntityList;
+        });
+        final String deletedRecipeKey = expectedRecipeModelList.get(0).getKey();
+
+        //Test
+        final ExecutorService loadExecutor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<List<RecipeModel>> allRecipes = loadExecutor.submit(() -> recipeFactoryHandler.retrieveAllRecipes());
+            Assertions.assertTrue(recipesRead.await(10, TimeUnit.SECONDS));
+            recipeFactoryHandler.deleteRecipe(deletedRecipeKey);
+            releaseRecipes.countDown();
+            allRecipes.get(10, TimeUnit.SECONDS);
+        } finally {
+            loadExecutor.shutdownNow();
+        }
+
+        //Assertions
+        Assertions.assertNull(recipeFactoryHandler.retrieveRecipe(deletedRecipeKey));
+        for (final RecipeModel remainingRecipeModel : expectedRecipeModelList.subList(1, expectedRecipeModelList.size())) {
+            Assertions.assertNotNull(recipeFactoryHandler.retrieveRecipe(remainingRecipeModel.getKey()));
+        }
+
+    }
+
+    /**
+     * Check that with the direct read projection enabled, all recipes are projected straight from the persisted
+     * entities to recipe models without building domain recipes.
+     */
+    @Test
+    public void checkRetrieveAllRecipesWithDirectReadProjection() {
+
+        //Setup
+        //Class under test with the direct read projection enabled.
+        final RecipeFactoryHandler directReadRecipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler,
+                eatsyRepositoryHandler, new IdempotencyStore<>(10, 1, TimeUnit.DAYS), true, Collections.emptyList());
+        //Mock the persisted entities and the models they are projected to.
+        final List<RecipeEntity> persistedRecipeEntities = RecipeEntityDataFactory.generateRecipeEntityList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipes()).thenReturn(persistedRecipeEntities);
+        final List<RecipeModel> expectedRecipeModelList = new ArrayList<>();
+        for (final RecipeEntity currentRecipeEntity : persistedRecipeEntities) {
+            final RecipeModel projectedRecipeModel = RecipeMockFactory.createMockRecipeModelFromDomain(
+                    RecipeMockFactory.createMockRecipe(currentRecipeEntity));
+            Mockito.when(recipeMapperHandler.mapEntityToModel(currentRecipeEntity)).thenReturn(projectedRecipeModel);
+            expectedRecipeModelList.add(projectedRecipeModel);
+        }
+
+        //Test
+        final List<RecipeModel> actualRecipeModelsList = directReadRecipeFactoryHandler.retrieveAllRecipes();
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeModelList, actualRecipeModelsList);
+        Mockito.verify(recipeMapperHandler, Mockito.never()).mapEntityToDomain(ArgumentMatchers.any());
+
+    }
+
+    /**
+     * Check that with the direct read projection enabled, only the selected fields are projected from the persisted
+     * entities, and the list is versioned by those fields alone.
+     */
+    @Test
+    public void checkRetrieveSelectedFieldsWithDirectReadProjection() {
+
+        //Setup
+        //Class under test with the direct read projection enabled.
+        final RecipeFactoryHandler directReadRecipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler,
+                eatsyRepositoryHandler, new IdempotencyStore<>(10, 1, TimeUnit.DAYS), true, Collections.emptyList());
+        //Mock the persisted entities and the key and name only models they are projected to.
+        final Set<RecipeField> selectedFields = EnumSet.of(RecipeField.KEY, RecipeField.NAME);
+        final List<RecipeEntity> persistedRecipeEntities = RecipeEntityDataFactory.generateRecipeEntityList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipes()).thenReturn(persistedRecipeEntities);
+        final List<RecipeModel> expectedRecipeModelList = new ArrayList<>();
+        for (final RecipeEntity currentRecipeEntity : persistedRecipeEntities) {
+            final RecipeModel projectedRecipeModel = new RecipeModel();
+            projectedRecipeModel.setKey(currentRecipeEntity.getKey());
+            projectedRecipeModel.setName(currentRecipeEntity.getName());
+            Mockito.when(recipeMapperHandler.mapEntityToModel(currentRecipeEntity, selectedFields)).thenReturn(projectedRecipeModel);
+            expectedRecipeModelList.add(projectedRecipeModel);
+        }
+
+        //Test
+        final Versioned<List<RecipeModel>> actualRecipeModels = directReadRecipeFactoryHandler.retrieveAllRecipesVersioned(selectedFields);
+        final Versioned<List<RecipeModel>> actualRecipeModelsAgain = directReadRecipeFactoryHandler.retrieveAllRecipesVersioned(selectedFields);
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeModelList, actualRecipeModels.getValue());
+        Assertions.assertEquals(actualRecipeModels.getVersion(), actualRecipeModelsAgain.getVersion());
+        Mockito.verify(recipeMapperHandler, Mockito.never()).mapEntityToDomain(ArgumentMatchers.any());
+        Mockito.verify(recipeMapperHandler, Mockito.never()).mapEntityToModel(ArgumentMatchers.any());
+
+    }
 
 }
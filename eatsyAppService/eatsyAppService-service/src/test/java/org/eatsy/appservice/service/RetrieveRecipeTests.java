@@ -0,0 +1,120 @@
+package org.eatsy.appservice.service;
+
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.versioning.Versioned;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Recipe Factory unit tests for the Retrieve Recipe and Retrieve All Recipes Versioned Methods
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RetrieveRecipeTests {
+
+    //Create a mock implementation of the RecipeMapper. These unit tests are only concerned with the service module not the mapper module.
+    @Mock
+    private RecipeMapper recipeMapperHandler;
+
+    //Create a mock implementation of the EatsyRepositoryService. These unit tests are only concerned with the service module not the persistence module.
+    @Mock
+    private EatsyRepositoryService eatsyRepositoryHandler;
+
+    /**
+     * Class under test.
+     */
+    //Injects the dependent mocks (marked with @Mock) for a recipe factory instance.
+    @InjectMocks
+    private RecipeFactoryHandler recipeFactoryHandler;
+
+    @BeforeEach
+    public void setup() {
+        //Initialise the mock objects upon initialisation of Junit tests.
+        MockitoAnnotations.openMocks(this);
+        //Initialise the class under test and inject the mocks.
+        recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
+    }
+
+    /**
+     * Check a cached recipe is returned with the version of its content, without going to the database.
+     */
+    @Test
+    public void checkRetrieveCachedRecipe() {
+
+        //Setup
+        final List<RecipeModel> recipeModelsInCache = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final RecipeModel expectedRecipeModel = recipeModelsInCache.get(0);
+
+        //Test
+        final Versioned<RecipeModel> actualRecipe = recipeFactoryHandler.retrieveRecipe(expectedRecipeModel.getKey());
+
+        //Assertions
+        Assertions.assertEquals(expectedRecipeModel, actualRecipe.getValue());
+        Assertions.assertEquals(16, actualRecipe.getVersion().length());
+        Mockito.verify(eatsyRepositoryHandler, Mockito.never()).retrieveRecipesInKeyRange(Mockito.anyString(), Mockito.anyString());
+
+    }
+
+    /**
+     * Check there is no result for a recipe that does not exist.
+     */
+    @Test
+    public void checkRetrieveUnknownRecipe() {
+
+        //Setup
+        final String unknownRecipeKey = UUID.randomUUID().toString();
+        Mockito.when(eatsyRepositoryHandler.retrieveRecipesInKeyRange(unknownRecipeKey, unknownRecipeKey))
+                .thenReturn(Collections.<RecipeEntity>emptyList());
+
+        //Test
+        final Versioned<RecipeModel> actualRecipe = recipeFactoryHandler.retrieveRecipe(unknownRecipeKey);
+
+        //Assertion
+        Assertions.assertNull(actualRecipe);
+
+    }
+
+    /**
+     * Check the version of the list of all recipes is the same for the same recipes, and changes when a recipe changes.
+     */
+    @Test
+    public void checkRetrieveAllRecipesVersioned() {
+
+        //Setup
+        final List<RecipeModel> recipeModels = RecipeMockFactory.createRecipesInCache(
+                recipeFactoryHandler, recipeMapperHandler, eatsyRepositoryHandler);
+        final List<RecipeEntity> recipeEntities = RecipeMockFactory.createMockRecipeEntity(recipeModels);
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipes()).thenReturn(recipeEntities);
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, recipeEntities);
+
+        //Test
+        final Versioned<List<RecipeModel>> allRecipes = recipeFactoryHandler.retrieveAllRecipesVersioned();
+        final Versioned<List<RecipeModel>> allRecipesAgain = recipeFactoryHandler.retrieveAllRecipesVersioned();
+        recipeEntities.get(0).setName("Updated name");
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, recipeEntities);
+        final Versioned<List<RecipeModel>> allRecipesAfterUpdate = recipeFactoryHandler.retrieveAllRecipesVersioned();
+
+        //Assertions
+        Assertions.assertEquals(recipeModels, allRecipes.getValue());
+        Assertions.assertEquals(allRecipes.getVersion(), allRecipesAgain.getVersion());
+        Assertions.assertNotEquals(allRecipes.getVersion(), allRecipesAfterUpdate.getVersion());
+
+    }
+
+}
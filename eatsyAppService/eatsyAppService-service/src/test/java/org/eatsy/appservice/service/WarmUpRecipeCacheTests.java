@@ -0,0 +1,120 @@
+package org.eatsy.appservice.service;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.RecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapper;
+import org.eatsy.appservice.persistence.model.RecipeEntity;
+import org.eatsy.appservice.persistence.service.EatsyRepositoryService;
+import org.eatsy.appservice.service.cache.RecipeCacheWarmUpListener;
+import org.eatsy.appservice.testdatageneration.RecipeEntityDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Recipe Factory unit tests for the Warm Up Recipe Cache Method
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class WarmUpRecipeCacheTests {
+
+    //Create a mock implementation of the RecipeMapper. These unit tests are only concerned with the service module not the mapper module.
+    @Mock
+    private RecipeMapper recipeMapperHandler;
+
+    //Create a mock implementation of the EatsyRepositoryService. These unit tests are only concerned with the service module not the persistence module.
+    @Mock
+    private EatsyRepositoryService eatsyRepositoryHandler;
+
+    /**
+     * Class under test.
+     */
+    //Injects the dependent mocks (marked with @Mock) for a recipe factory instance.
+    @InjectMocks
+    private RecipeFactoryHandler recipeFactoryHandler;
+
+    @BeforeEach
+    public void setup() {
+        //Initialise the mock objects upon initialisation of Junit tests.
+        MockitoAnnotations.openMocks(this);
+        //Initialise the class under test and inject the mocks.
+        recipeFactoryHandler = new RecipeFactoryHandler(recipeMapperHandler, eatsyRepositoryHandler);
+        //The bulk mapping methods delegate to the individually mocked mapping methods.
+        RecipeMockFactory.mockBulkMappingMethods(recipeMapperHandler);
+    }
+
+    /**
+     * Check the recipe factory loads every persisted recipe into the cache in key-range chunks
+     * and reports progress for every recipe loaded.
+     */
+    @Test
+    public void checkWarmUpRecipeCache() {
+
+        //Setup
+        //1) Create the persisted recipe entities, each with a unique key, in key order.
+        final List<RecipeEntity> persistedRecipeEntities = RecipeEntityDataFactory.generateRecipeEntityList(
+                EatsyRecipeTestParameters.MAX_NUMBER_OF_RECIPES, EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE);
+        persistedRecipeEntities.forEach(recipeEntity -> recipeEntity.setKey(UUID.randomUUID().toString()));
+        persistedRecipeEntities.sort(Comparator.comparing(RecipeEntity::getKey));
+        final List<String> persistedRecipeKeys = persistedRecipeEntities.stream().map(RecipeEntity::getKey).collect(Collectors.toList());
+
+        //2) Mock the repository to return the keys, and the entities within each requested key range.
+        Mockito.when(eatsyRepositoryHandler.retrieveAllRecipeKeys()).thenReturn(persistedRecipeKeys);
+        Mockito.when(eatsyRepositoryHandler.retrieveRecipesInKeyRange(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenAnswer(invocation -> persistedRecipeEntities.stream()
+                        .filter(recipeEntity -> recipeEntity.getKey().compareTo(invocation.getArgument(0)) >= 0
+                                && recipeEntity.getKey().compareTo(invocation.getArgument(1)) <= 0)
+                        .collect(Collectors.toList()));
+
+        //3) Mock the mapper for the entities and the domain recipes they map to.
+        RecipeMockFactory.createMockDomainRecipesFromEntityRecipes(recipeMapperHandler, persistedRecipeEntities);
+        final List<RecipeModel> expectedRecipeModels = new ArrayList<>();
+        for (final RecipeEntity currentRecipeEntity : persistedRecipeEntities) {
+            final Recipe mockedDomainRecipe = RecipeMockFactory.createMockRecipe(currentRecipeEntity);
+            final RecipeModel mockedRecipeModel = RecipeMockFactory.createMockRecipeModelFromDomain(mockedDomainRecipe);
+            Mockito.when(recipeMapperHandler.mapDomainToModel(mockedDomainRecipe)).thenReturn(mockedRecipeModel);
+            expectedRecipeModels.add(mockedRecipeModel);
+        }
+
+        //4) Listener that records the progress notifications.
+        final AtomicInteger reportedTotalRecipes = new AtomicInteger();
+        final AtomicInteger reportedLoadedRecipes = new AtomicInteger();
+        final RecipeCacheWarmUpListener warmUpListener = new RecipeCacheWarmUpListener() {
+            @Override
+            public void warmUpStarted(final int totalRecipes) {
+                reportedTotalRecipes.set(totalRecipes);
+            }
+
+            @Override
+            public void chunkLoaded(final int recipesInChunk) {
+                reportedLoadedRecipes.addAndGet(recipesInChunk);
+            }
+        };
+
+        //Test - use small chunks so the recipes are split over several parallel key-range loads.
+        final int cachedRecipeCount = recipeFactoryHandler.warmUpRecipeCache(2, 3, warmUpListener);
+
+        //Assertions
+        Assertions.assertEquals(persistedRecipeEntities.size(), cachedRecipeCount);
+        Assertions.assertEquals(persistedRecipeEntities.size(), reportedTotalRecipes.get());
+        Assertions.assertEquals(persistedRecipeEntities.size(), reportedLoadedRecipes.get());
+        //Deleting a recipe that does not exist returns the unchanged contents of the cache.
+        Assertions.assertEquals(expectedRecipeModels, recipeFactoryHandler.deleteRecipe(UUID.randomUUID().toString()));
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.eatsy.appservice.service.autocomplete;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.AutocompleteSuggestionModel;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the RecipeAutocompleteHandler.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RecipeAutocompleteHandlerTests {
+
+    /**
+     * Class under test.
+     */
+    private RecipeAutocompleteHandler recipeAutocompleteHandler;
+
+    //Recipes indexed in each test.
+    private Recipe chickenCurry;
+    private Recipe thaiGreenCurry;
+    private Recipe chickpeaStew;
+
+    @BeforeEach
+    public void setup() {
+        recipeAutocompleteHandler = new RecipeAutocompleteHandler();
+
+        chickenCurry = createRecipe("Chicken curry", "Chicken", "Onion", "Curry paste");
+        thaiGreenCurry = createRecipe("Thai green curry", "Chicken", "Green curry paste", "Coconut milk");
+        chickpeaStew = createRecipe("Chickpea stew", "Chickpeas", "Onion", "Tomato");
+        for (final Recipe recipe : Arrays.asList(chickenCurry, thaiGreenCurry, chickpeaStew)) {
+            recipeAutocompleteHandler.recipeChanged(null, recipe);
+        }
+    }
+
+    /**
+     * Check recipe names are suggested by the start of any of their words, ignoring case.
+     */
+    @Test
+    public void checkSuggestRecipeNames() {
+
+        //Test
+        final List<AutocompleteSuggestionModel> suggestions = recipeAutocompleteHandler.suggest("CURR", SuggestionType.RECIPE, 10);
+
+        //Assertion
+        Assertions.assertEquals(Arrays.asList("Chicken curry", "Thai green curry"), textsOf(suggestions));
+    }
+
+    /**
+     * Check ingredients are suggested with the number of recipes using them, most used first.
+     */
+    @Test
+    public void checkSuggestIngredientsMostUsedFirst() {
+
+        //Test
+        final List<AutocompleteSuggestionModel> suggestions = recipeAutocompleteHandler.suggest("chick", SuggestionType.INGREDIENT, 10);
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList("Chicken", "Chickpeas"), textsOf(suggestions));
+        Assertions.assertEquals(2, suggestions.get(0).getRecipeCount());
+        Assertions.assertEquals(1, suggestions.get(1).getRecipeCount());
+        Assertions.assertEquals(SuggestionType.INGREDIENT.name(), suggestions.get(0).getType());
+    }
+
+    /**
+     * Check recipe names and ingredients are merged, most used first, up to the limit.
+     */
+    @Test
+    public void checkSuggestBothTypesWithinLimit() {
+
+        //Test
+        final List<AutocompleteSuggestionModel> suggestions = recipeAutocompleteHandler.suggest("chick", null, 3);
+
+        //Assertions - chicken is used by two recipes, and the rest by one each, alphabetically.
+        Assertions.assertEquals(Arrays.asList("Chicken", "Chicken curry", "Chickpea stew"), textsOf(suggestions));
+        Assertions.assertEquals(Arrays.asList("INGREDIENT", "RECIPE", "RECIPE"),
+                suggestions.stream().map(AutocompleteSuggestionModel::getType).collect(Collectors.toList()));
+    }
+
+    /**
+     * Check the suggestions follow recipes being updated and deleted.
+     */
+    @Test
+    public void checkSuggestionsFollowUpdatesAndDeletes() {
+
+        //Setup - the chicken curry becomes a prawn curry, and the thai green curry is deleted.
+        final Recipe prawnCurry = new Recipe.RecipeBuilder("Prawn curry")
+                .withIngredientSet(new LinkedHashSet<>(Arrays.asList("Prawns", "Onion", "Curry paste")))
+                .withSpecifiedKey(chickenCurry.getKey())
+                .build();
+        recipeAutocompleteHandler.recipeChanged(chickenCurry, prawnCurry);
+        recipeAutocompleteHandler.recipeChanged(thaiGreenCurry, null);
+
+        //Test and Assertions
+        Assertions.assertEquals(Arrays.asList("Chickpeas"), textsOf(recipeAutocompleteHandler.suggest("chick", SuggestionType.INGREDIENT, 10)));
+        Assertions.assertEquals(Arrays.asList("Prawn curry"), textsOf(recipeAutocompleteHandler.suggest("curry", SuggestionType.RECIPE, 10)));
+        Assertions.assertTrue(recipeAutocompleteHandler.suggest("thai", null, 10).isEmpty());
+    }
+
+    /**
+     * Check a prefix that matches nothing gives no suggestions, and an out of range limit is rejected.
+     */
+    @Test
+    public void checkNoMatchesAndInvalidLimit() {
+
+        //Test and Assertions
+        Assertions.assertTrue(recipeAutocompleteHandler.suggest("chicken x", null, 10).isEmpty());
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> recipeAutocompleteHandler.suggest("chick", null, 0));
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> recipeAutocompleteHandler.suggest("chick", null, RecipeAutocompleteHandler.MAX_SUGGESTIONS + 1));
+    }
+
+    private static Recipe createRecipe(final String name, final String... ingredients) {
+        return new Recipe.RecipeBuilder(name).withIngredientSet(new LinkedHashSet<>(Arrays.asList(ingredients))).build();
+    }
+
+    private static List<String> textsOf(final List<AutocompleteSuggestionModel> suggestions) {
+        return suggestions.stream().map(AutocompleteSuggestionModel::getText).collect(Collectors.toList());
+    }
+
+}
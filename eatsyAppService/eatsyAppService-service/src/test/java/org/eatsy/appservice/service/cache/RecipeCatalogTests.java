@@ -0,0 +1,248 @@
+package org.eatsy.appservice.service.cache;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.testdatageneration.RecipeDataFactory;
+import org.eatsy.appservice.testdatageneration.constants.EatsyRecipeTestParameters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Unit tests for the immutable RecipeCatalog snapshot.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RecipeCatalogTests {
+
+    //Recipes used to populate the catalog in each test.
+    private List<Recipe> recipes;
+
+    @BeforeEach
+    public void setup() {
+        recipes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            recipes.add(RecipeDataFactory.generateRandomRecipe(
+                    EatsyRecipeTestParameters.MAX_INGREDIENT_SET_SIZE, EatsyRecipeTestParameters.MAX_METHOD_MAP_SIZE));
+        }
+    }
+
+    /**
+     * Check adding recipes creates a new snapshot and leaves the original snapshot unchanged.
+     */
+    @Test
+    public void checkWithRecipeLeavesOriginalSnapshotUnchanged() {
+
+        //Setup
+        final RecipeCatalog originalCatalog = RecipeCatalog.empty().withRecipe(recipes.get(0));
+
+        //Test
+        final RecipeCatalog updatedCatalog = originalCatalog.withRecipe(recipes.get(1));
+
+        //Assertions
+        Assertions.assertEquals(1, originalCatalog.size());
+        Assertions.assertFalse(originalCatalog.contains(recipes.get(1).getKey()));
+        Assertions.assertEquals(Arrays.asList(recipes.get(0), recipes.get(1)), updatedCatalog.getRecipes());
+        Assertions.assertEquals(recipes.get(1), updatedCatalog.get(recipes.get(1).getKey()));
+    }
+
+    /**
+     * Check a recipe that already exists in the catalog is updated in its existing position.
+     */
+    @Test
+    public void checkWithRecipesUpdatesExistingRecipeInPlace() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(recipes);
+        final Recipe updatedRecipe = new Recipe.RecipeBuilder("Updated name")
+                .withSpecifiedKey(recipes.get(0).getKey())
+                .build();
+
+        //Test
+        final RecipeCatalog updatedCatalog = catalog.withRecipes(Arrays.asList(updatedRecipe));
+
+        //Assertions
+        Assertions.assertEquals(recipes.size(), updatedCatalog.size());
+        Assertions.assertEquals(updatedRecipe, updatedCatalog.getRecipes().get(0));
+        Assertions.assertEquals(recipes.get(0), catalog.getRecipes().get(0));
+    }
+
+    /**
+     * Check re-adding recipes that are already cached and unchanged does not create a new snapshot.
+     */
+    @Test
+    public void checkWithUnchangedRecipesReturnsSameSnapshot() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(recipes);
+
+        //Test
+        final RecipeCatalog sameCatalog = catalog.withRecipes(recipes);
+
+        //Assertion
+        Assertions.assertSame(catalog, sameCatalog);
+    }
+
+    /**
+     * Check a recipe can be removed from the catalog.
+     */
+    @Test
+    public void checkWithoutRecipe() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(recipes);
+
+        //Test
+        final RecipeCatalog updatedCatalog = catalog.withoutRecipe(recipes.get(1).getKey());
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList(recipes.get(0), recipes.get(2)), updatedCatalog.getRecipes());
+        Assertions.assertNull(updatedCatalog.get(recipes.get(1).getKey()));
+        Assertions.assertSame(updatedCatalog, updatedCatalog.withoutRecipe(recipes.get(1).getKey()));
+    }
+
+    /**
+     * Check replacing a recipe with a differently keyed recipe keeps its position and removes the old key.
+     */
+    @Test
+    public void checkWithReplacedRecipeRekeysInPlace() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(recipes);
+        final Recipe replacementRecipe = new Recipe.RecipeBuilder("Replacement").build();
+
+        //Test
+        final RecipeCatalog updatedCatalog = catalog.withReplacedRecipe(recipes.get(1).getKey(), replacementRecipe);
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList(recipes.get(0), replacementRecipe, recipes.get(2)), updatedCatalog.getRecipes());
+        Assertions.assertFalse(updatedCatalog.contains(recipes.get(1).getKey()));
+        Assertions.assertEquals(replacementRecipe, updatedCatalog.get(replacementRecipe.getKey()));
+    }
+
+    /**
+     * Check replacing a recipe that is not in the catalog adds the replacement to the end of the catalog.
+     */
+    @Test
+    public void checkWithReplacedRecipeForUnknownKeyAddsRecipe() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipe(recipes.get(0));
+
+        //Test
+        final RecipeCatalog updatedCatalog = catalog.withReplacedRecipe("unknown key", recipes.get(1));
+
+        //Assertion
+        Assertions.assertEquals(Arrays.asList(recipes.get(0), recipes.get(1)), updatedCatalog.getRecipes());
+    }
+
+    /**
+     * Check snapshots with the same recipes in the same order have the same version, and any other change does not.
+     */
+    @Test
+    public void checkVersionDependsOnRecipesAndOrder() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(recipes);
+
+        //Test
+        final RecipeCatalog sameRecipesCatalog = RecipeCatalog.empty().withRecipes(recipes);
+        final RecipeCatalog reorderedCatalog = RecipeCatalog.empty()
+                .withRecipes(Arrays.asList(recipes.get(1), recipes.get(0), recipes.get(2)));
+        final RecipeCatalog removedRecipeCatalog = catalog.withoutRecipe(recipes.get(2).getKey());
+
+        //Assertions
+        Assertions.assertEquals(catalog.getVersion(), sameRecipesCatalog.getVersion());
+        Assertions.assertNotEquals(catalog.getVersion(), reorderedCatalog.getVersion());
+        Assertions.assertNotEquals(catalog.getVersion(), removedRecipeCatalog.getVersion());
+        Assertions.assertNotEquals(catalog.getVersion(), RecipeCatalog.empty().getVersion());
+    }
+
+    /**
+     * Check the recipes view of a snapshot cannot be modified.
+     */
+    @Test
+    public void checkRecipesViewIsReadOnly() {
+
+        //Setup
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(recipes);
+
+        //Test and Assertion
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> catalog.getRecipes().remove(0));
+    }
+
+    /**
+     * Check recipes whose keys have the same hash code are held and removed independently.
+     */
+    @Test
+    public void checkRecipesWithCollidingKeyHashes() {
+
+        //Setup - "Aa" and "BB" have the same hash code, and so do any strings made from them.
+        final List<Recipe> collidingRecipes = new ArrayList<>();
+        for (final String recipeKey : Arrays.asList("AaAa", "BBBB", "AaBB", "BBAa")) {
+            collidingRecipes.add(new Recipe.RecipeBuilder("Recipe " + recipeKey).withSpecifiedKey(recipeKey).build());
+        }
+        final RecipeCatalog catalog = RecipeCatalog.empty().withRecipes(collidingRecipes);
+
+        //Test
+        final RecipeCatalog removedRecipeCatalog = catalog.withoutRecipe("BBBB");
+
+        //Assertions
+        Assertions.assertEquals(collidingRecipes, catalog.getRecipes());
+        for (final Recipe recipe : collidingRecipes) {
+            Assertions.assertEquals(recipe, catalog.get(recipe.getKey()));
+        }
+        Assertions.assertEquals(3, removedRecipeCatalog.size());
+        Assertions.assertNull(removedRecipeCatalog.get("BBBB"));
+        Assertions.assertEquals(collidingRecipes.get(2), removedRecipeCatalog.get("AaBB"));
+        Assertions.assertFalse(catalog.contains(null));
+    }
+
+    /**
+     * Check a long run of writes, large enough to deepen the catalog's tries and compact removed recipes away,
+     * leaves each snapshot holding the same recipes in the same order as an ordered map given the same writes.
+     */
+    @Test
+    public void checkManyWritesMatchOrderedMap() {
+
+        //Setup
+        final Random random = new Random(42);
+        final List<String> recipeKeys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            recipeKeys.add(UUID.randomUUID().toString());
+        }
+        final Map<String, Recipe> expectedRecipes = new LinkedHashMap<>();
+        RecipeCatalog catalog = RecipeCatalog.empty();
+        final RecipeCatalog firstCatalog = catalog.withRecipe(recipes.get(0));
+
+        //Test
+        for (int write = 0; write < 20000; write++) {
+            final String recipeKey = recipeKeys.get(random.nextInt(recipeKeys.size()));
+            if (random.nextInt(3) == 0) {
+                expectedRecipes.remove(recipeKey);
+                catalog = catalog.withoutRecipe(recipeKey);
+            } else {
+                final Recipe recipe = new Recipe.RecipeBuilder("Recipe " + random.nextInt(3)).withSpecifiedKey(recipeKey).build();
+                expectedRecipes.put(recipeKey, recipe);
+                catalog = catalog.withRecipe(recipe);
+            }
+        }
+
+        //Assertions
+        Assertions.assertEquals(new ArrayList<>(expectedRecipes.values()), catalog.getRecipes());
+        for (final String recipeKey : recipeKeys) {
+            Assertions.assertEquals(expectedRecipes.get(recipeKey), catalog.get(recipeKey));
+        }
+        Assertions.assertEquals(Collections.singletonList(recipes.get(0)), firstCatalog.getRecipes());
+    }
+
+}
@@ -0,0 +1,219 @@
+package org.eatsy.appservice.service.changefeed;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.domain.RecipeContentHash;
+import org.eatsy.appservice.model.RecipeChangeEventModel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the recipe change feed.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RecipeChangeFeedHandlerTests {
+
+    //Number of events held by the feed under test.
+    private static final int CAPACITY = 3;
+
+    /**
+     * Class under test.
+     */
+    private RecipeChangeFeedHandler recipeChangeFeedHandler;
+
+    //Subscriber that records what it is sent.
+    private RecordingSubscriber subscriber;
+
+    @BeforeEach
+    public void setup() {
+        recipeChangeFeedHandler = new RecipeChangeFeedHandler(CAPACITY);
+        subscriber = new RecordingSubscriber();
+    }
+
+    /**
+     * Check recipe writes are published as created, updated and deleted events, and recipes loaded into the cache
+     * are not published.
+     */
+    @Test
+    public void checkWritesArePublished() {
+
+        //Setup
+        final Recipe createdRecipe = new Recipe.RecipeBuilder("Created").build();
+        final Recipe updatedRecipe = new Recipe.RecipeBuilder("Updated").withSpecifiedKey(createdRecipe.getKey()).build();
+        recipeChangeFeedHandler.subscribe(null, subscriber);
+
+        //Test
+        recipeChangeFeedHandler.recipeChanged(null, new Recipe.RecipeBuilder("Loaded").build());
+        recipeChangeFeedHandler.recipeMutated(null, createdRecipe);
+        recipeChangeFeedHandler.recipeMutated(createdRecipe, updatedRecipe);
+        recipeChangeFeedHandler.recipeMutated(updatedRecipe, null);
+
+        //Assertions
+        Assertions.assertEquals(3, subscriber.events.size());
+        Assertions.assertEquals(RecipeChangeEventModel.CREATED, subscriber.events.get(0).getType());
+        Assertions.assertEquals(RecipeChangeEventModel.UPDATED, subscriber.events.get(1).getType());
+        Assertions.assertEquals(RecipeContentHash.toHex(updatedRecipe.getContentHash()), subscriber.events.get(1).getVersion());
+        Assertions.assertEquals(RecipeChangeEventModel.DELETED, subscriber.events.get(2).getType());
+        Assertions.assertNull(subscriber.events.get(2).getVersion());
+        subscriber.events.forEach(event -> Assertions.assertEquals(createdRecipe.getKey(), event.getRecipeKey()));
+        Assertions.assertEquals(0, subscriber.missedCount);
+    }
+
+    /**
+     * Check a subscriber resuming from an event is sent the events after it, then the new events.
+     */
+    @Test
+    public void checkSubscriberResumesAfterLastEvent() {
+
+        //Setup
+        final List<RecipeChangeEventModel> earlierEvents = publishRecipes(3);
+
+        //Test
+        recipeChangeFeedHandler.subscribe(earlierEvents.get(0).getId(), subscriber);
+        final List<RecipeChangeEventModel> laterEvents = publishRecipes(1);
+
+        //Assertions
+        Assertions.assertEquals(3, subscriber.events.size());
+        Assertions.assertEquals(earlierEvents.get(1), subscriber.events.get(0));
+        Assertions.assertEquals(earlierEvents.get(2), subscriber.events.get(1));
+        Assertions.assertEquals(laterEvents.get(0), subscriber.events.get(2));
+        Assertions.assertEquals(0, subscriber.missedCount);
+    }
+
+    /**
+     * Check a subscriber resuming from an event that is no longer held is told it has missed changes.
+     */
+    @Test
+    public void checkSubscriberResumingFromEvictedEventMissesChanges() {
+
+        //Setup - one more event than the feed holds after the first.
+        final List<RecipeChangeEventModel> earlierEvents = publishRecipes(CAPACITY + 2);
+
+        //Test
+        recipeChangeFeedHandler.subscribe(earlierEvents.get(0).getId(), subscriber);
+
+        //Assertions
+        Assertions.assertEquals(1, subscriber.missedCount);
+        Assertions.assertEquals(earlierEvents.get(earlierEvents.size() - 1).getId(), subscriber.latestEventId);
+        Assertions.assertTrue(subscriber.events.isEmpty());
+    }
+
+    /**
+     * Check a subscriber that has missed more held events than it can be sent at once is told it has missed changes,
+     * rather than being replayed events that would overflow it, and one that has missed as many as it can take is replayed them.
+     */
+    @Test
+    public void checkSubscriberWithLargeBacklogMissesChanges() {
+
+        //Setup - a feed holding every event of a bulk import of more than the subscriber's 1000 event bound.
+        recipeChangeFeedHandler = new RecipeChangeFeedHandler(10000);
+        final List<RecipeChangeEventModel> earlierEvents = publishRecipes(1500);
+        final RecordingSubscriber boundedSubscriber = new RecordingSubscriber(1000);
+        final RecordingSubscriber caughtUpSubscriber = new RecordingSubscriber(1000);
+
+        //Test
+        recipeChangeFeedHandler.subscribe(earlierEvents.get(0).getId(), boundedSubscriber);
+        recipeChangeFeedHandler.subscribe(earlierEvents.get(499).getId(), caughtUpSubscriber);
+
+        //Assertions
+        Assertions.assertEquals(1, boundedSubscriber.missedCount);
+        Assertions.assertEquals(earlierEvents.get(earlierEvents.size() - 1).getId(), boundedSubscriber.latestEventId);
+        Assertions.assertTrue(boundedSubscriber.events.isEmpty());
+        Assertions.assertEquals(0, caughtUpSubscriber.missedCount);
+        Assertions.assertEquals(earlierEvents.subList(500, 1500), caughtUpSubscriber.events);
+    }
+
+    /**
+     * Check a subscriber resuming from an event of another instance of the feed, e.g. from before a restart,
+     * is told it has missed changes.
+     */
+    @Test
+    public void checkSubscriberResumingFromUnknownEventMissesChanges() {
+
+        //Setup
+        final String otherFeedEventId = new RecipeChangeFeedHandler(CAPACITY).latestEventId();
+        publishRecipes(1);
+
+        //Test
+        recipeChangeFeedHandler.subscribe(otherFeedEventId, subscriber);
+        recipeChangeFeedHandler.subscribe("not an event id", new RecordingSubscriber());
+
+        //Assertions
+        Assertions.assertEquals(1, subscriber.missedCount);
+        Assertions.assertTrue(subscriber.events.isEmpty());
+    }
+
+    /**
+     * Check an unsubscribed subscriber is sent no more events.
+     */
+    @Test
+    public void checkUnsubscribedSubscriberIsNotSentEvents() {
+
+        //Setup
+        recipeChangeFeedHandler.subscribe(null, subscriber);
+
+        //Test
+        recipeChangeFeedHandler.unsubscribe(subscriber);
+        publishRecipes(1);
+
+        //Assertion
+        Assertions.assertTrue(subscriber.events.isEmpty());
+    }
+
+    /**
+     * Creates recipes and returns the events published for them.
+     */
+    private List<RecipeChangeEventModel> publishRecipes(final int numberOfRecipes) {
+
+        final RecordingSubscriber publishedEvents = new RecordingSubscriber();
+        recipeChangeFeedHandler.subscribe(null, publishedEvents);
+        for (int i = 0; i < numberOfRecipes; i++) {
+            recipeChangeFeedHandler.recipeMutated(null, new Recipe.RecipeBuilder("Recipe " + i).build());
+        }
+        recipeChangeFeedHandler.unsubscribe(publishedEvents);
+        return publishedEvents.events;
+    }
+
+    /**
+     * Records the events and missed changes it is sent.
+     */
+    private static class RecordingSubscriber implements RecipeChangeSubscriber {
+
+        private final List<RecipeChangeEventModel> events = new ArrayList<>();
+        private int missedCount;
+        private String latestEventId;
+
+        //The most changes the subscriber can be replayed.
+        private final int maxReplayedChanges;
+
+        private RecordingSubscriber() {
+            this(Integer.MAX_VALUE);
+        }
+
+        private RecordingSubscriber(final int maxReplayedChanges) {
+            this.maxReplayedChanges = maxReplayedChanges;
+        }
+
+        @Override
+        public void changePublished(final RecipeChangeEventModel recipeChangeEvent) {
+            events.add(recipeChangeEvent);
+        }
+
+        @Override
+        public void changesMissed(final String latestEventId) {
+            missedCount++;
+            this.latestEventId = latestEventId;
+        }
+
+        @Override
+        public int maxReplayedChanges() {
+            return maxReplayedChanges;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.eatsy.appservice.service.idempotency;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for the bounded, time-limited IdempotencyStore.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class IdempotencyStoreTests {
+
+    //Controllable clock, in nanoseconds.
+    private AtomicLong clock;
+
+    //Number of times the operation under the store has run.
+    private AtomicInteger operationCount;
+
+    /**
+     * Class under test.
+     */
+    private IdempotencyStore<String> idempotencyStore;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong();
+        operationCount = new AtomicInteger();
+        idempotencyStore = new IdempotencyStore<>(2, 10, TimeUnit.SECONDS, clock::get);
+    }
+
+    /**
+     * Check a repeated request returns the stored result without running the operation again.
+     */
+    @Test
+    public void checkRepeatedRequestReturnsStoredResult() {
+
+        //Test
+        final String originalResult = idempotencyStore.execute("key", "request", this::operation);
+        final String repeatedResult = idempotencyStore.execute("key", "request", this::operation);
+
+        //Assertions
+        Assertions.assertEquals("result 1", originalResult);
+        Assertions.assertEquals(originalResult, repeatedResult);
+        Assertions.assertEquals(1, operationCount.get());
+    }
+
+    /**
+     * Check a key used for a different request is rejected.
+     */
+    @Test
+    public void checkReusedKeyRejected() {
+
+        //Setup
+        idempotencyStore.execute("key", "request", this::operation);
+
+        //Test and Assertion
+        Assertions.assertThrows(IdempotencyKeyReuseException.class,
+                () -> idempotencyStore.execute("key", "different request", this::operation));
+    }
+
+    /**
+     * Check a result is no longer returned once it has expired.
+     */
+    @Test
+    public void checkExpiredResultNotReturned() {
+
+        //Setup
+        idempotencyStore.execute("key", "request", this::operation);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        //Test
+        final String result = idempotencyStore.execute("key", "request", this::operation);
+
+        //Assertions
+        Assertions.assertEquals("result 2", result);
+        Assertions.assertEquals(1, idempotencyStore.size());
+    }
+
+    /**
+     * Check the oldest result is evicted once the store is full.
+     */
+    @Test
+    public void checkOldestResultEvictedWhenFull() {
+
+        //Setup
+        idempotencyStore.execute("first", "request", this::operation);
+        idempotencyStore.execute("second", "request", this::operation);
+
+        //Test
+        idempotencyStore.execute("third", "request", this::operation);
+
+        //Assertions
+        Assertions.assertEquals(2, idempotencyStore.size());
+        Assertions.assertEquals("result 4", idempotencyStore.execute("first", "request", this::operation));
+        Assertions.assertEquals("result 3", idempotencyStore.execute("third", "request", this::operation));
+    }
+
+    /**
+     * Check a failed operation is not stored, so the request can be retried.
+     */
+    @Test
+    public void checkFailedOperationNotStored() {
+
+        //Setup
+        Assertions.assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("key", "request", () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        //Test
+        final String result = idempotencyStore.execute("key", "request", this::operation);
+
+        //Assertion
+        Assertions.assertEquals("result 1", result);
+    }
+
+    private String operation() {
+        return "result " + operationCount.incrementAndGet();
+    }
+
+}
@@ -0,0 +1,196 @@
+package org.eatsy.appservice.service.pantry;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.PantryMatchModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the PantryMatcherHandler.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class PantryMatcherHandlerTests {
+
+    /**
+     * Class under test.
+     */
+    private PantryMatcherHandler pantryMatcherHandler;
+
+    //Recipes indexed by the matcher in each test.
+    private Recipe omelette;
+    private Recipe pancakes;
+    private Recipe toast;
+
+    @BeforeEach
+    public void setup() {
+        //The real mapper is used, as the matcher only maps the recipes it returns.
+        pantryMatcherHandler = new PantryMatcherHandler(new RecipeMapperHandler());
+
+        omelette = createRecipe("Omelette", "pantry egg", "pantry butter", "pantry salt");
+        pancakes = createRecipe("Pancakes", "pantry egg", "pantry flour", "pantry milk", "pantry butter");
+        toast = createRecipe("Toast", "pantry bread", "pantry butter");
+        for (final Recipe recipe : Arrays.asList(omelette, pancakes, toast)) {
+            pantryMatcherHandler.recipeChanged(null, recipe);
+        }
+    }
+
+    /**
+     * Check only the recipes whose ingredients are all in the pantry are found.
+     */
+    @Test
+    public void checkFindRecipesCoveredBy() {
+
+        //Setup
+        final Set<String> pantry = pantry("pantry egg", "pantry butter", "pantry salt", "pantry bread", "not an ingredient");
+
+        //Test
+        final List<PantryMatchModel> matches = pantryMatcherHandler.findRecipesCoveredBy(pantry, 10);
+
+        //Assertions
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(omelette.getKey(), toast.getKey())), keysOf(matches));
+        matches.forEach(match -> Assertions.assertTrue(match.getMissingIngredients().isEmpty()));
+    }
+
+    /**
+     * Check recipes missing a few ingredients are found after those missing none, along with what they are missing.
+     */
+    @Test
+    public void checkFindRecipesMissingAtMost() {
+
+        //Setup
+        final Set<String> pantry = pantry("pantry egg", "pantry butter", "pantry milk");
+
+        //Test
+        final List<PantryMatchModel> matches = pantryMatcherHandler.findRecipesMissingAtMost(pantry, 1, 10);
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList(omelette.getKey(), pancakes.getKey(), toast.getKey()),
+                matches.stream().map(match -> match.getRecipe().getKey()).collect(Collectors.toList()));
+        Assertions.assertEquals(Collections.singleton("pantry salt"), matches.get(0).getMissingIngredients());
+        Assertions.assertEquals(Collections.singleton("pantry flour"), matches.get(1).getMissingIngredients());
+        Assertions.assertEquals(Collections.singleton("pantry bread"), matches.get(2).getMissingIngredients());
+        Assertions.assertEquals(omelette.getName(), matches.get(0).getRecipe().getName());
+    }
+
+    /**
+     * Check no more than the limit of recipes are returned, those missing the fewest ingredients first.
+     */
+    @Test
+    public void checkLimitKeepsBestMatches() {
+
+        //Setup
+        final Set<String> pantry = pantry("pantry bread", "pantry butter", "pantry egg");
+
+        //Test
+        final List<PantryMatchModel> matches = pantryMatcherHandler.findRecipesMissingAtMost(pantry, 2, 1);
+
+        //Assertion
+        Assertions.assertEquals(Collections.singleton(toast.getKey()), keysOf(matches));
+    }
+
+    /**
+     * Check the index follows recipes being updated and deleted.
+     */
+    @Test
+    public void checkIndexFollowsUpdatesAndDeletes() {
+
+        //Setup - toast no longer needs butter, and the omelette is deleted.
+        final Recipe updatedToast = new Recipe.RecipeBuilder("Dry toast")
+                .withIngredientSet(pantry("pantry bread"))
+                .withSpecifiedKey(toast.getKey())
+                .build();
+        pantryMatcherHandler.recipeChanged(toast, updatedToast);
+        pantryMatcherHandler.recipeChanged(omelette, null);
+
+        //Test
+        final List<PantryMatchModel> matches = pantryMatcherHandler.findRecipesMissingAtMost(
+                pantry("pantry bread", "pantry egg", "pantry salt"), 0, 10);
+
+        //Assertions
+        Assertions.assertEquals(1, matches.size());
+        Assertions.assertEquals("Dry toast", matches.get(0).getRecipe().getName());
+    }
+
+    /**
+     * Check matching gives the same answer once the posting lists of common ingredients have become bitmaps.
+     */
+    @Test
+    public void checkMatchingWithManyRecipes() {
+
+        //Setup - enough recipes sharing butter for its posting list to become dense, of which every third is covered.
+        for (int i = 0; i < 1000; i++) {
+            final Recipe recipe = i % 3 == 0
+                    ? createRecipe("Buttered bread " + i, "pantry bread", "pantry butter")
+                    : createRecipe("Buttered sprouts " + i, "pantry sprouts", "pantry butter");
+            pantryMatcherHandler.recipeChanged(null, recipe);
+        }
+
+        //Test
+        final List<PantryMatchModel> matches = pantryMatcherHandler.findRecipesCoveredBy(
+                pantry("pantry bread", "pantry butter"), PantryMatcherHandler.MAX_MATCHES);
+        final List<PantryMatchModel> fewerMatches = pantryMatcherHandler.findRecipesCoveredBy(
+                pantry("pantry bread", "pantry butter"), 10);
+
+        //Assertions - 200 of the 334 buttered bread recipes and the original toast, all covered by the pantry.
+        Assertions.assertEquals(PantryMatcherHandler.MAX_MATCHES, matches.size());
+        matches.forEach(match -> Assertions.assertTrue(match.getMissingIngredients().isEmpty()));
+        Assertions.assertEquals(keysOf(matches.subList(0, 10)), keysOf(fewerMatches));
+    }
+
+    /**
+     * Check allowing more missing ingredients than any recipe has matches every recipe, without counting every
+     * number of missing ingredients up to the one allowed.
+     */
+    @Test
+    public void checkHugeMaxMissingMatchesEveryRecipe() {
+
+        //Test
+        final List<PantryMatchModel> matches = pantryMatcherHandler.findRecipesMissingAtMost(
+                pantry("not an ingredient"), Integer.MAX_VALUE, 10);
+
+        //Assertion - the recipes missing the fewest ingredients come first.
+        Assertions.assertEquals(Arrays.asList(toast.getKey(), omelette.getKey(), pancakes.getKey()),
+                matches.stream().map(match -> match.getRecipe().getKey()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Check queries with a negative number of missing ingredients, no limit or too high a limit are rejected.
+     */
+    @Test
+    public void checkInvalidQueriesRejected() {
+
+        //Test and Assertions
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> pantryMatcherHandler.findRecipesMissingAtMost(pantry("pantry egg"), -1, 10));
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> pantryMatcherHandler.findRecipesMissingAtMost(pantry("pantry egg"), 0, 0));
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> pantryMatcherHandler.findRecipesMissingAtMost(pantry("pantry egg"), 0, PantryMatcherHandler.MAX_MATCHES + 1));
+    }
+
+    private static Recipe createRecipe(final String name, final String... ingredients) {
+        return new Recipe.RecipeBuilder(name).withIngredientSet(pantry(ingredients)).build();
+    }
+
+    private static Set<String> pantry(final String... ingredients) {
+        return new LinkedHashSet<>(Arrays.asList(ingredients));
+    }
+
+    private static Set<String> keysOf(final List<PantryMatchModel> matches) {
+        return matches.stream().map(match -> match.getRecipe().getKey()).collect(Collectors.toSet());
+    }
+
+}
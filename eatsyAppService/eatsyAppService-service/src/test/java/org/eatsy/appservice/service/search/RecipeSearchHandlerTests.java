@@ -0,0 +1,161 @@
+package org.eatsy.appservice.service.search;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.RecipeSearchPageModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the RecipeSearchHandler.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class RecipeSearchHandlerTests {
+
+    /**
+     * Class under test.
+     */
+    private RecipeSearchHandler recipeSearchHandler;
+
+    //Recipes indexed by the search in each test.
+    private Recipe chickenStirFry;
+    private Recipe chickenSoup;
+    private Recipe vegetableCurry;
+
+    @BeforeEach
+    public void setup() {
+        //The real mapper is used, as the search only maps the recipes it returns.
+        recipeSearchHandler = new RecipeSearchHandler(new RecipeMapperHandler());
+
+        chickenStirFry = createRecipe("Chicken stir fry", Arrays.asList("Chicken breast", "Soy sauce", "Peppers"),
+                "Slice the chicken and the peppers.", "Stir fry the chicken in a hot wok.", "Add the soy sauce.");
+        chickenSoup = createRecipe("Chicken soup", Arrays.asList("Chicken stock", "Carrots", "Noodles"),
+                "Bring the stock to the boil.", "Stir in the noodles and the carrots, then fry some bread for croutons.");
+        vegetableCurry = createRecipe("Vegetable curry", Arrays.asList("Peppers", "Chickpeas", "Curry paste"),
+                "Fry the curry paste.", "Add the peppers and chickpeas and simmer.");
+        for (final Recipe recipe : Arrays.asList(chickenStirFry, chickenSoup, vegetableCurry)) {
+            recipeSearchHandler.recipeChanged(null, recipe);
+        }
+    }
+
+    /**
+     * Check recipes matching any of the words are found, with more relevant recipes first.
+     */
+    @Test
+    public void checkSearchRanksByRelevance() {
+
+        //Test
+        final RecipeSearchPageModel searchPage = recipeSearchHandler.search("Chicken", 0, 10);
+
+        //Assertions - the stir fry mentions chicken more often, in a method of similar length.
+        Assertions.assertEquals(Arrays.asList(chickenStirFry.getKey(), chickenSoup.getKey()), resultKeys(searchPage));
+        Assertions.assertEquals(2, searchPage.getTotalResults());
+        Assertions.assertTrue(searchPage.getResults().get(0).getScore() > searchPage.getResults().get(1).getScore());
+    }
+
+    /**
+     * Check a misspelt word still finds the recipes containing the word it was meant to be.
+     */
+    @Test
+    public void checkSearchToleratesTypos() {
+
+        //Test
+        final RecipeSearchPageModel searchPage = recipeSearchHandler.search("chikpeas", 0, 10);
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList(vegetableCurry.getKey()), resultKeys(searchPage));
+    }
+
+    /**
+     * Check a quoted phrase only matches recipes with the words together in a single method step.
+     */
+    @Test
+    public void checkSearchMatchesPhrasesWithinMethodSteps() {
+
+        //Test - the soup has "stir" and "fry" in the same step, but not next to each other.
+        final RecipeSearchPageModel searchPage = recipeSearchHandler.search("\"stir fry\"", 0, 10);
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList(chickenStirFry.getKey()), resultKeys(searchPage));
+        //Consecutive words split across two steps do not match.
+        Assertions.assertEquals(0, recipeSearchHandler.search("\"peppers stir\"", 0, 10).getTotalResults());
+    }
+
+    /**
+     * Check the results are split into pages, with every matching recipe on exactly one page.
+     */
+    @Test
+    public void checkSearchPages() {
+
+        //Setup
+        for (int i = 0; i < 25; i++) {
+            recipeSearchHandler.recipeChanged(null, createRecipe("Peppers number " + i, Arrays.asList("Peppers"), "Roast the peppers."));
+        }
+
+        //Test
+        final List<String> pagedKeys = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            final RecipeSearchPageModel searchPage = recipeSearchHandler.search("peppers", page, 10);
+            Assertions.assertEquals(27, searchPage.getTotalResults());
+            pagedKeys.addAll(resultKeys(searchPage));
+        }
+
+        //Assertions
+        Assertions.assertEquals(27, pagedKeys.size());
+        Assertions.assertEquals(27, new LinkedHashSet<>(pagedKeys).size());
+        Assertions.assertThrows(InvalidRequestParameterException.class, () -> recipeSearchHandler.search("peppers", 0, 0));
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> recipeSearchHandler.search("peppers", 0, RecipeSearchHandler.MAX_PAGE_SIZE + 1));
+    }
+
+    /**
+     * Check the index follows recipes being updated and deleted.
+     */
+    @Test
+    public void checkIndexFollowsUpdatesAndDeletes() {
+
+        //Setup - the curry becomes a chicken curry, and the soup is deleted.
+        final Map<Integer, String> method = new HashMap<>();
+        method.put(1, "Fry the chicken with the curry paste.");
+        final Recipe chickenCurry = new Recipe.RecipeBuilder("Chicken curry")
+                .withMethod(method)
+                .withSpecifiedKey(vegetableCurry.getKey())
+                .build();
+        recipeSearchHandler.recipeChanged(vegetableCurry, chickenCurry);
+        recipeSearchHandler.recipeChanged(chickenSoup, null);
+
+        //Test and Assertions
+        Assertions.assertEquals(Arrays.asList(chickenStirFry.getKey(), chickenCurry.getKey()),
+                resultKeys(recipeSearchHandler.search("chicken", 0, 10)));
+        Assertions.assertEquals(0, recipeSearchHandler.search("noodles", 0, 10).getTotalResults());
+        Assertions.assertEquals(0, recipeSearchHandler.search("vegetable", 0, 10).getTotalResults());
+    }
+
+    private static List<String> resultKeys(final RecipeSearchPageModel searchPage) {
+        return searchPage.getResults().stream().map(result -> result.getRecipe().getKey()).collect(Collectors.toList());
+    }
+
+    private static Recipe createRecipe(final String name, final List<String> ingredients, final String... methodSteps) {
+        final Map<Integer, String> method = new HashMap<>();
+        for (int i = 0; i < methodSteps.length; i++) {
+            method.put(i + 1, methodSteps[i]);
+        }
+        return new Recipe.RecipeBuilder(name)
+                .withIngredientSet(new LinkedHashSet<>(ingredients))
+                .withMethod(method)
+                .build();
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.eatsy.appservice.service.shopping;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.ShoppingListItemModel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Unit tests for the ShoppingListAggregator.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class ShoppingListAggregatorTests {
+
+    /**
+     * Class under test.
+     */
+    private ShoppingListAggregator shoppingListAggregator;
+
+    @BeforeEach
+    public void setup() {
+        shoppingListAggregator = new ShoppingListAggregator();
+    }
+
+    /**
+     * Check ingredients shared by recipes are listed once, with the number of recipes needing them.
+     */
+    @Test
+    public void checkSharedIngredientsListedOnce() {
+
+        //Setup
+        final Recipe pancakes = createRecipe("Pancakes", Arrays.asList("shopping flour", "shopping egg", "shopping milk"));
+        final Recipe omelette = createRecipe("Omelette", Arrays.asList("shopping egg", "shopping cheese"));
+        final Recipe recipeWithoutIngredients = new Recipe.RecipeBuilder("Toast").build();
+
+        //Test
+        shoppingListAggregator.addRecipe(pancakes);
+        shoppingListAggregator.addRecipe(omelette);
+        shoppingListAggregator.addRecipe(recipeWithoutIngredients);
+
+        //Assertions
+        final Map<String, Integer> expectedRecipeCounts = new LinkedHashMap<>();
+        expectedRecipeCounts.put("shopping flour", 1);
+        expectedRecipeCounts.put("shopping egg", 2);
+        expectedRecipeCounts.put("shopping milk", 1);
+        expectedRecipeCounts.put("shopping cheese", 1);
+        Assertions.assertEquals(expectedRecipeCounts, recipeCountsOf(shoppingListAggregator.toItems()));
+    }
+
+    /**
+     * Check many distinct ingredients are merged correctly, keeping the order they first appear in.
+     */
+    @Test
+    public void checkManyIngredientsKeepFirstAppearanceOrder() {
+
+        //Setup - every recipe shares half of its ingredients with the previous recipe.
+        final Map<String, Integer> expectedRecipeCounts = new LinkedHashMap<>();
+        final List<String> previousIngredients = new ArrayList<>();
+        for (int recipeNumber = 0; recipeNumber < 20; recipeNumber++) {
+            final List<String> ingredients = new ArrayList<>(previousIngredients.subList(previousIngredients.size() / 2, previousIngredients.size()));
+            while (ingredients.size() < 20) {
+                ingredients.add(UUID.randomUUID().toString());
+            }
+            final Recipe recipe = createRecipe("Recipe " + recipeNumber, ingredients);
+            for (final String ingredient : recipe.getIngredientSet()) {
+                expectedRecipeCounts.merge(ingredient, 1, Integer::sum);
+            }
+
+            //Test
+            shoppingListAggregator.addRecipe(recipe);
+            previousIngredients.clear();
+            previousIngredients.addAll(ingredients);
+        }
+
+        //Assertions
+        final Map<String, Integer> actualRecipeCounts = recipeCountsOf(shoppingListAggregator.toItems());
+        Assertions.assertEquals(new ArrayList<>(expectedRecipeCounts.entrySet()), new ArrayList<>(actualRecipeCounts.entrySet()));
+    }
+
+    private static Map<String, Integer> recipeCountsOf(final List<ShoppingListItemModel> items) {
+        final Map<String, Integer> recipeCounts = new LinkedHashMap<>();
+        for (final ShoppingListItemModel item : items) {
+            Assertions.assertNull(recipeCounts.put(item.getIngredient(), item.getRecipeCount()));
+        }
+        return recipeCounts;
+    }
+
+    private static Recipe createRecipe(final String name, final List<String> ingredients) {
+        final Set<String> ingredientSet = new LinkedHashSet<>(ingredients);
+        return new Recipe.RecipeBuilder(name).withIngredientSet(ingredientSet).build();
+    }
+
+}
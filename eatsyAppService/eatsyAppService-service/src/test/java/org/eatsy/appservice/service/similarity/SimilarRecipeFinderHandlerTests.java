@@ -0,0 +1,155 @@
+package org.eatsy.appservice.service.similarity;
+
+import org.eatsy.appservice.domain.Recipe;
+import org.eatsy.appservice.model.InvalidRequestParameterException;
+import org.eatsy.appservice.model.SimilarRecipeModel;
+import org.eatsy.appservice.model.mappers.RecipeMapperHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the SimilarRecipeFinderHandler.
+ */
+//Define lifecycle of tests to be per method rather than per class. Allows use of @BeforeEach
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+public class SimilarRecipeFinderHandlerTests {
+
+    /**
+     * Class under test.
+     */
+    private SimilarRecipeFinderHandler similarRecipeFinderHandler;
+
+    //Recipes indexed by the finder in each test.
+    private Recipe victoriaSponge;
+    private Recipe lemonSponge;
+    private Recipe beefStew;
+
+    @BeforeEach
+    public void setup() {
+        //The real mapper is used, as the finder only maps the recipes it returns.
+        similarRecipeFinderHandler = new SimilarRecipeFinderHandler(new RecipeMapperHandler());
+
+        victoriaSponge = createRecipe("Victoria sponge",
+                "similar flour", "similar sugar", "similar butter", "similar egg", "similar jam", "similar cream");
+        lemonSponge = createRecipe("Lemon sponge",
+                "similar flour", "similar sugar", "similar butter", "similar egg", "similar lemon", "similar cream");
+        beefStew = createRecipe("Beef stew",
+                "similar beef", "similar carrot", "similar onion", "similar stock", "similar potato", "similar thyme");
+        for (final Recipe recipe : Arrays.asList(victoriaSponge, lemonSponge, beefStew)) {
+            similarRecipeFinderHandler.recipeChanged(null, recipe);
+        }
+    }
+
+    /**
+     * Check a recipe sharing most ingredients is found, with about the right similarity, and a recipe sharing none is not.
+     */
+    @Test
+    public void checkFindSimilarRecipes() {
+
+        //Test
+        final List<SimilarRecipeModel> similarRecipes = similarRecipeFinderHandler.findSimilarRecipes(victoriaSponge.getKey(), 10);
+
+        //Assertions - the sponges share 5 of 7 ingredients, a Jaccard similarity of 0.71.
+        Assertions.assertEquals(1, similarRecipes.size());
+        Assertions.assertEquals(lemonSponge.getKey(), similarRecipes.get(0).getRecipe().getKey());
+        Assertions.assertEquals(5.0 / 7.0, similarRecipes.get(0).getSimilarity(), 0.25);
+    }
+
+    /**
+     * Check the most similar recipes are returned first, and no more than the limit.
+     */
+    @Test
+    public void checkMostSimilarFirstWithinLimit() {
+
+        //Setup - a recipe identical to the victoria sponge in all but name.
+        final Recipe victoriaSpongeCopy = new Recipe.RecipeBuilder("Victoria sponge copy")
+                .withIngredientSet(victoriaSponge.getIngredientSet())
+                .build();
+        similarRecipeFinderHandler.recipeChanged(null, victoriaSpongeCopy);
+
+        //Test
+        final List<SimilarRecipeModel> similarRecipes = similarRecipeFinderHandler.findSimilarRecipes(victoriaSponge.getKey(), 1);
+
+        //Assertions
+        Assertions.assertEquals(1, similarRecipes.size());
+        Assertions.assertEquals(victoriaSpongeCopy.getKey(), similarRecipes.get(0).getRecipe().getKey());
+        Assertions.assertEquals(1.0, similarRecipes.get(0).getSimilarity());
+    }
+
+    /**
+     * Check the index follows recipes being updated and deleted.
+     */
+    @Test
+    public void checkIndexFollowsUpdatesAndDeletes() {
+
+        //Setup - the stew becomes a sponge, and the lemon sponge is deleted.
+        final Recipe updatedStew = new Recipe.RecipeBuilder("Sponge, formerly stew")
+                .withIngredientSet(victoriaSponge.getIngredientSet())
+                .withSpecifiedKey(beefStew.getKey())
+                .build();
+        similarRecipeFinderHandler.recipeChanged(beefStew, updatedStew);
+        similarRecipeFinderHandler.recipeChanged(lemonSponge, null);
+
+        //Test
+        final List<SimilarRecipeModel> similarRecipes = similarRecipeFinderHandler.findSimilarRecipes(victoriaSponge.getKey(), 10);
+
+        //Assertions
+        Assertions.assertEquals(Arrays.asList(beefStew.getKey()),
+                similarRecipes.stream().map(similarRecipe -> similarRecipe.getRecipe().getKey()).collect(Collectors.toList()));
+        Assertions.assertNull(similarRecipeFinderHandler.findSimilarRecipes(lemonSponge.getKey(), 10));
+    }
+
+    /**
+     * Check similar recipes are still found once the index has grown well past its initial size.
+     */
+    @Test
+    public void checkFindSimilarRecipesInLargerIndex() {
+
+        //Setup - many unrelated recipes, each with its own ingredients.
+        for (int i = 0; i < 1000; i++) {
+            similarRecipeFinderHandler.recipeChanged(null, createRecipe("Unrelated " + i,
+                    UUID.randomUUID().toString(), UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+        }
+
+        //Test
+        final List<SimilarRecipeModel> similarRecipes = similarRecipeFinderHandler.findSimilarRecipes(lemonSponge.getKey(), 10);
+
+        //Assertions
+        Assertions.assertEquals(1, similarRecipes.size());
+        Assertions.assertEquals(victoriaSponge.getKey(), similarRecipes.get(0).getRecipe().getKey());
+    }
+
+    /**
+     * Check an unknown recipe gives null, a recipe without ingredients gives no similar recipes, and no limit is rejected.
+     */
+    @Test
+    public void checkUnknownAndEmptyRecipes() {
+
+        //Setup
+        final Recipe emptyRecipe = new Recipe.RecipeBuilder("Nothing").build();
+        similarRecipeFinderHandler.recipeChanged(null, emptyRecipe);
+
+        //Test and Assertions
+        Assertions.assertNull(similarRecipeFinderHandler.findSimilarRecipes(UUID.randomUUID().toString(), 10));
+        Assertions.assertTrue(similarRecipeFinderHandler.findSimilarRecipes(emptyRecipe.getKey(), 10).isEmpty());
+        Assertions.assertThrows(InvalidRequestParameterException.class,
+                () -> similarRecipeFinderHandler.findSimilarRecipes(victoriaSponge.getKey(), 0));
+        Assertions.assertThrows(InvalidRequestParameterException.class, () -> similarRecipeFinderHandler.findSimilarRecipes(
+                victoriaSponge.getKey(), SimilarRecipeFinderHandler.MAX_SIMILAR_RECIPES + 1));
+    }
+
+    private static Recipe createRecipe(final String name, final String... ingredients) {
+        final Set<String> ingredientSet = new LinkedHashSet<>(Arrays.asList(ingredients));
+        return new Recipe.RecipeBuilder(name).withIngredientSet(ingredientSet).build();
+    }
+
+}
@@ -10,8 +10,16 @@ public class EatsyRecipeTestParameters {
 
     public static final String ADD_RECIPE = API + "/add";
     public static final String RETRIEVE_ALL_RECIPES = API + "/retrieveAllRecipes";
+    public static final String RETRIEVE_RECIPE = API + "/recipe/";
     public static final String DELETE_RECIPE = API + "/deleteRecipe?recipeKey={key}";
     public static final String EDIT_RECIPE = API + "/edit/";
+    public static final String PANTRY_MATCH = API + "/pantry/match";
+    public static final String SIMILAR_RECIPES = API + "/recipe/{key}/similar";
+    public static final String AUTOCOMPLETE = API + "/autocomplete";
+    public static final String SEARCH = API + "/search";
+    public static final String SHOPPING_LIST = API + "/shoppingList";
+    public static final String IMPORT_RECIPES = API + "/import";
+    public static final String RECIPE_CHANGES = API + "/changes";
 
     //Max value for the generated number of ingredients in the recipe
     public final static int MAX_INGREDIENT_SET_SIZE = 20;